@@ -0,0 +1,157 @@
+package com.example.demo.test.benchmark;
+
+import com.example.demo.test.ParagraphScore;
+import com.example.demo.test.dto.SquadAnswer;
+import com.example.demo.test.dto.SquadData;
+import com.example.demo.test.dto.SquadEvaluation;
+import com.example.demo.test.dto.SquadParagraph;
+import com.example.demo.test.dto.SquadQa;
+import com.example.demo.test.evaluation.GridCell;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeded generators for benchmark inputs. The same seed and sizes always give the same data, so runs
+ * before and after a change measure the same work.
+ */
+public final class BenchmarkData {
+
+    private static final String[] WORDS = {
+            "the", "a", "an", "and", "of", "in", "river", "city", "tower", "king", "century", "empire",
+            "university", "war", "treaty", "Paris", "Normandy", "Denmark", "France", "Rollo", "Viking",
+            "population", "language", "church", "army", "coast", "north", "south", "1066", "911", "duke"
+    };
+
+    private BenchmarkData() {
+    }
+
+    public static SquadEvaluation squad(long seed, int articles, int paragraphsPerArticle, int qasPerParagraph) {
+        final var random = new Random(seed);
+        final var data = new ArrayList<SquadData>();
+        for (var article = 0; article < articles; article++) {
+            final var paragraphs = new ArrayList<SquadParagraph>();
+            for (var paragraph = 0; paragraph < paragraphsPerArticle; paragraph++) {
+                paragraphs.add(paragraph(random, qasPerParagraph));
+            }
+            final var squadData = new SquadData();
+            squadData.setTitle(words(random, 2));
+            squadData.setParagraphs(paragraphs);
+            data.add(squadData);
+        }
+        final var evaluation = new SquadEvaluation();
+        evaluation.setVersion("v2.0");
+        evaluation.setData(data);
+        return evaluation;
+    }
+
+    public static byte[] json(ObjectMapper objectMapper, Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Model answers in the shape completions come back in: a sentence that sometimes contains the gold
+     * answer, sometimes the abstention.
+     */
+    public static List<String> modelAnswers(long seed, List<String> goldAnswers) {
+        final var random = new Random(seed);
+        final var answers = new ArrayList<String>();
+        for (final var goldAnswer : goldAnswers) {
+            final var roll = random.nextInt(10);
+            if (roll == 0) {
+                answers.add("I don't know the answer.");
+            } else if (roll < 6) {
+                answers.add("It was " + goldAnswer + ", according to the " + words(random, 3) + ".");
+            } else {
+                answers.add(words(random, 4 + random.nextInt(12)) + ".");
+            }
+        }
+        return answers;
+    }
+
+    /**
+     * One score per grid cell and paragraph, in the order the engine reports them.
+     */
+    public static List<ParagraphScore> scores(long seed, List<GridCell> cells, int paragraphs) {
+        final var random = new Random(seed);
+        final var scores = new ArrayList<ParagraphScore>(cells.size() * paragraphs);
+        for (var paragraph = 1; paragraph <= paragraphs; paragraph++) {
+            for (final var cell : cells) {
+                final var wins = random.nextInt(6);
+                scores.add(ParagraphScore.builder()
+                        .wins(wins)
+                        .misses(5 - wins)
+                        .paragraphId(paragraph)
+                        .embeddingModel(cell.getEmbeddingModel())
+                        .completionModel(cell.getCompletionModel())
+                        .knnAlgorithm(cell.getKnnAlgorithm())
+                        .chunkModel(cell.getChunkModel())
+                        .chunkSize(cell.getChunkSize())
+                        .chunkOverlap(cell.getChunkOverlap())
+                        .k(cell.getK())
+                        .build());
+            }
+        }
+        return scores;
+    }
+
+    public static List<float[]> vectors(long seed, int count, int dimension) {
+        final var random = new Random(seed);
+        final var vectors = new ArrayList<float[]>(count);
+        for (var i = 0; i < count; i++) {
+            final var vector = new float[dimension];
+            for (var j = 0; j < dimension; j++) {
+                vector[j] = (float) random.nextGaussian();
+            }
+            vectors.add(vector);
+        }
+        return vectors;
+    }
+
+    private static SquadParagraph paragraph(Random random, int qaCount) {
+        final var context = new StringBuilder();
+        for (var sentence = 0; sentence < 6 + random.nextInt(6); sentence++) {
+            context.append(words(random, 8 + random.nextInt(16))).append(". ");
+        }
+        final var qas = new ArrayList<SquadQa>();
+        for (var i = 0; i < qaCount; i++) {
+            final var qa = new SquadQa();
+            qa.setId(Long.toHexString(random.nextLong()));
+            qa.setQuestion("What " + words(random, 5 + random.nextInt(6)) + "?");
+            qa.setIs_impossible(random.nextInt(3) == 0);
+            final var answers = new ArrayList<SquadAnswer>();
+            if (!qa.getIs_impossible()) {
+                for (var j = 0; j < 1 + random.nextInt(3); j++) {
+                    final var answer = new SquadAnswer();
+                    answer.setText(words(random, 1 + random.nextInt(4)));
+                    answer.setAnswer_start(String.valueOf(random.nextInt(context.length())));
+                    answers.add(answer);
+                }
+            }
+            qa.setAnswers(answers);
+            qas.add(qa);
+        }
+        final var paragraph = new SquadParagraph();
+        paragraph.setContext(context.toString().strip());
+        paragraph.setQas(qas);
+        return paragraph;
+    }
+
+    private static String words(Random random, int count) {
+        final var words = new StringBuilder();
+        for (var i = 0; i < count; i++) {
+            if (i > 0) {
+                words.append(i % 7 == 0 ? ", " : " ");
+            }
+            words.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return words.toString();
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.demo.test.evaluation;
+
+import com.example.demo.test.benchmark.BenchmarkData;
+import com.example.demo.test.dto.SquadQa;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Grading one model answer per question of a generated dataset: the legacy {@code formatAnswer} chain,
+ * the single-pass contains form and the full score with exact match and F1.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AnswerScoringBenchmark {
+
+    private final AnswerScorer answerScorer = new AnswerScorer();
+
+    private List<SquadQa> qas;
+    private List<GoldAnswers> goldAnswers;
+    private List<String> modelAnswers;
+
+    @Setup
+    public void setUp() {
+        qas = BenchmarkData.squad(42, 10, 10, 5).getData().stream()
+                .flatMap(data -> data.getParagraphs().stream())
+                .flatMap(paragraph -> paragraph.getQas().stream())
+                .collect(Collectors.toList());
+        goldAnswers = qas.stream().map(answerScorer::gold).collect(Collectors.toList());
+        modelAnswers = BenchmarkData.modelAnswers(43, qas.stream()
+                .map(qa -> qa.getAnswers().isEmpty() ? "nothing" : qa.getAnswers().get(0).getText())
+                .collect(Collectors.toList()));
+    }
+
+    @Benchmark
+    public void legacyFormatAnswerMatching(Blackhole blackhole) {
+        for (var i = 0; i < qas.size(); i++) {
+            final var qa = qas.get(i);
+            final var answer = modelAnswers.get(i);
+            if (qa.getIs_impossible()) {
+                blackhole.consume(answer.equalsIgnoreCase(AnswerScorer.ABSTENTION));
+                continue;
+            }
+            final var formattedAnswer = formatAnswer(answer);
+            blackhole.consume(qa.getAnswers().stream().anyMatch(givenAnswer -> {
+                final var formattedGivenAnswer = formatAnswer(givenAnswer.getText());
+                return formattedAnswer.contains(formattedGivenAnswer) || formattedGivenAnswer.contains(formattedAnswer);
+            }));
+        }
+    }
+
+    @Benchmark
+    public void containsForm(Blackhole blackhole) {
+        for (final var answer : modelAnswers) {
+            blackhole.consume(AnswerNormalizer.containsForm(answer));
+        }
+    }
+
+    @Benchmark
+    public void score(Blackhole blackhole) {
+        for (var i = 0; i < goldAnswers.size(); i++) {
+            blackhole.consume(answerScorer.score(goldAnswers.get(i), modelAnswers.get(i)));
+        }
+    }
+
+    @Benchmark
+    public List<GoldAnswers> normalizeGoldAnswers() {
+        final var gold = new ArrayList<GoldAnswers>(qas.size());
+        for (final var qa : qas) {
+            gold.add(answerScorer.gold(qa));
+        }
+        return gold;
+    }
+
+    private static String formatAnswer(String s) {
+        return s.replace(",", "")
+                .replace(".", "")
+                .replace(" and ", "")
+                .replace(" the ", "")
+                .replace(" ", "")
+                .toLowerCase();
+    }
+}
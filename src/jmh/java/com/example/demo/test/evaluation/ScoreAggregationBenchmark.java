@@ -0,0 +1,86 @@
+package com.example.demo.test.evaluation;
+
+import com.example.demo.test.ParagraphScore;
+import com.example.demo.test.benchmark.BenchmarkData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Summing the per paragraph scores of a run into one total per grid cell: the original linear scan
+ * with {@link ParagraphScore#hasEqualValues} against the keyed {@link Scoreboard}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScoreAggregationBenchmark {
+
+    @Param({"100", "1000"})
+    private int paragraphs;
+
+    private EvaluationGrid evaluationGrid;
+    private List<ParagraphScore> scores;
+
+    @Setup
+    public void setUp() {
+        evaluationGrid = new EvaluationGrid();
+        scores = BenchmarkData.scores(42, evaluationGrid.getGridCells(), paragraphs);
+    }
+
+    @Benchmark
+    public List<ParagraphScore> hasEqualValuesScan() {
+        final var totals = new ArrayList<ParagraphScore>();
+        for (final var score : scores) {
+            final var total = totals.stream()
+                    .filter(candidate -> candidate.hasEqualValues(
+                            score.getEmbeddingModel(),
+                            score.getCompletionModel(),
+                            score.getKnnAlgorithm(),
+                            score.getChunkModel(),
+                            score.getChunkSize(),
+                            score.getChunkOverlap(),
+                            score.getK()
+                    ))
+                    .findFirst();
+            if (total.isPresent()) {
+                total.get().setWins(total.get().getWins() + score.getWins());
+                total.get().setMisses(total.get().getMisses() + score.getMisses());
+            } else {
+                totals.add(ParagraphScore.builder()
+                        .wins(score.getWins())
+                        .misses(score.getMisses())
+                        .embeddingModel(score.getEmbeddingModel())
+                        .completionModel(score.getCompletionModel())
+                        .knnAlgorithm(score.getKnnAlgorithm())
+                        .chunkModel(score.getChunkModel())
+                        .chunkSize(score.getChunkSize())
+                        .chunkOverlap(score.getChunkOverlap())
+                        .k(score.getK())
+                        .build());
+            }
+        }
+        return totals;
+    }
+
+    @Benchmark
+    public List<ParagraphScore> scoreboard() {
+        final var scoreboard = new Scoreboard(evaluationGrid);
+        scores.forEach(scoreboard::add);
+        return scoreboard.getCellTotals();
+    }
+}
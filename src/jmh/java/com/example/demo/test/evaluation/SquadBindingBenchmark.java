@@ -0,0 +1,57 @@
+package com.example.demo.test.evaluation;
+
+import com.example.demo.test.benchmark.BenchmarkData;
+import com.example.demo.test.dto.SquadEvaluation;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binding a generated SQuAD file to the {@code dto} classes, all at once as the request body binding
+ * does and paragraph by paragraph with {@link SquadStreamReader}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SquadBindingBenchmark {
+
+    @Param({"10", "100"})
+    private int articles;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SquadStreamReader squadStreamReader = new SquadStreamReader(objectMapper);
+
+    private byte[] dataset;
+
+    @Setup
+    public void setUp() {
+        dataset = BenchmarkData.json(objectMapper, BenchmarkData.squad(42, articles, 40, 5));
+    }
+
+    @Benchmark
+    public SquadEvaluation bindWholeDocument() throws IOException {
+        return objectMapper.readValue(dataset, SquadEvaluation.class);
+    }
+
+    @Benchmark
+    public void streamParagraphs(Blackhole blackhole) {
+        squadStreamReader.read(new ByteArrayInputStream(dataset), blackhole::consume);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.demo.test.vector;
+
+import com.example.demo.test.benchmark.BenchmarkData;
+import com.thesis.qnabot.api.embedding.domain.enums.KnnAlgorithm;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Exact top-k search in the {@link LocalVectorStore} over generated vectors of the OpenAI embedding size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TopKBenchmark {
+
+    private static final int DIMENSION = 1536;
+
+    @Param({"50", "5000"})
+    private int chunks;
+
+    @Param({"1", "5"})
+    private int k;
+
+    @Param({"COSINE", "DOT_PRODUCT", "EUCLIDEAN"})
+    private KnnAlgorithm knnAlgorithm;
+
+    private LocalVectorStore store;
+    private float[] query;
+
+    @Setup
+    public void setUp() {
+        store = new LocalVectorStore();
+        store.createIndex("benchmark", DIMENSION, knnAlgorithm);
+        store.upsert(
+                "benchmark",
+                "paragraph",
+                IntStream.range(0, chunks).mapToObj(String::valueOf).collect(Collectors.toList()),
+                BenchmarkData.vectors(42, chunks, DIMENSION)
+        );
+        query = BenchmarkData.vectors(43, 1, DIMENSION).get(0);
+    }
+
+    @Benchmark
+    public List<String> query() {
+        return store.query("benchmark", "paragraph", query, k);
+    }
+}
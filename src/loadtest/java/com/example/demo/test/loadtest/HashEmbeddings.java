@@ -0,0 +1,48 @@
+package com.example.demo.test.loadtest;
+
+import java.util.Locale;
+
+/**
+ * Deterministic embeddings by feature hashing: every word adds a signed one to two hashed dimensions and
+ * the sum is normalized. The same text always gets the same vector, in any process, and texts sharing
+ * words are close, so nearest neighbour results are stable and meaningful.
+ */
+final class HashEmbeddings {
+
+    private HashEmbeddings() {
+    }
+
+    static float[] embed(String text, int dimension) {
+        final var vector = new float[dimension];
+        for (final var word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            final var hash = mix(word.hashCode());
+            vector[Math.floorMod(hash, dimension)] += hash < 0 ? -1 : 1;
+            final var second = mix(hash);
+            vector[Math.floorMod(second, dimension)] += second < 0 ? -.5f : .5f;
+        }
+        var norm = 0.;
+        for (final var value : vector) {
+            norm += value * value;
+        }
+        if (norm == 0) {
+            vector[Math.floorMod(mix(text.hashCode()), dimension)] = 1;
+            return vector;
+        }
+        final var scale = (float) (1 / Math.sqrt(norm));
+        for (var i = 0; i < dimension; i++) {
+            vector[i] *= scale;
+        }
+        return vector;
+    }
+
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85ebca6b;
+        hash ^= hash >>> 13;
+        hash *= 0xc2b2ae35;
+        return hash ^ (hash >>> 16);
+    }
+}
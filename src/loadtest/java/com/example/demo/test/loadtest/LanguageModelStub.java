@@ -0,0 +1,91 @@
+package com.example.demo.test.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.thesis.qnabot.api.embedding.domain.enums.EmbeddingModel;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The OpenAI and NLP Cloud embedding and completion APIs, under {@code /open-ai} and {@code /nlp-cloud}.
+ * Embeddings are {@link HashEmbeddings} of the provider's dimension. A completion answers with the first
+ * words of the context line sharing the most words with the question, or abstains without context, so
+ * the same prompt always gets the same answer.
+ */
+class LanguageModelStub extends StubServer {
+
+    static final String ABSTENTION = "I don't know the answer.";
+    private static final int ANSWER_WORDS = 6;
+
+    private final int openAiDimension = EmbeddingModel.OPEN_AI.getEmbeddingSize();
+    private final int nlpCloudDimension = Arrays.stream(EmbeddingModel.values())
+            .filter(embeddingModel -> !embeddingModel.equals(EmbeddingModel.OPEN_AI))
+            .findFirst()
+            .map(EmbeddingModel::getEmbeddingSize)
+            .orElse(openAiDimension);
+
+    LanguageModelStub(final StubBehaviour embedding, final StubBehaviour completion) throws IOException {
+        super("language-model");
+        route("embedding", "/open-ai/embeddings", embedding, (method, path, body) -> {
+            final var data = new ArrayList<Map<String, Object>>();
+            final var input = body.get("input");
+            for (var i = 0; i < input.size(); i++) {
+                data.add(Map.of(
+                        "object", "embedding",
+                        "index", i,
+                        "embedding", HashEmbeddings.embed(input.get(i).asText(), openAiDimension)
+                ));
+            }
+            return Response.ok(Map.of("object", "list", "data", data));
+        });
+        route("embedding", "/nlp-cloud/paraphrase-multilingual-mpnet-base-v2/embeddings", embedding, (method, path, body) -> {
+            final var embeddings = new ArrayList<float[]>();
+            body.get("sentences").forEach(sentence -> embeddings.add(HashEmbeddings.embed(sentence.asText(), nlpCloudDimension)));
+            return Response.ok(Map.of("embeddings", embeddings));
+        });
+        route("completion", "/open-ai/completions", completion, (method, path, body) ->
+                Response.ok(Map.of("choices", List.of(Map.of("index", 0, "text", " " + answer(body.get("prompt")))))));
+        route("completion", "/nlp-cloud/finetuned-gpt-neox-20b/generation", completion, (method, path, body) ->
+                Response.ok(Map.of("generated_text", " " + answer(body.get("text")))));
+    }
+
+    static String answer(JsonNode promptNode) {
+        final var prompt = promptNode.asText();
+        final var contextStart = prompt.indexOf("Context:\n");
+        final var questionStart = prompt.lastIndexOf("\n\nQ: ");
+        if (contextStart < 0 || questionStart < contextStart) {
+            return ABSTENTION;
+        }
+        final var question = words(prompt.substring(questionStart + 5));
+        String best = null;
+        var bestOverlap = 0;
+        for (final var line : prompt.substring(contextStart + 9, questionStart).split("\n")) {
+            var overlap = 0;
+            for (final var word : words(line)) {
+                if (question.contains(word)) {
+                    overlap++;
+                }
+            }
+            if (overlap > bestOverlap) {
+                best = line;
+                bestOverlap = overlap;
+            }
+        }
+        if (best == null) {
+            return ABSTENTION;
+        }
+        final var words = best.strip().split("\\s+");
+        return String.join(" ", Arrays.copyOf(words, Math.min(words.length, ANSWER_WORDS)));
+    }
+
+    private static HashSet<String> words(String text) {
+        final var words = new HashSet<>(Arrays.asList(text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")));
+        words.remove("");
+        return words;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.demo.test.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Response times in nanoseconds, appended by one thread and merged afterwards. Percentiles use the
+ * nearest rank of the sorted samples, so p999 is only meaningful from a thousand samples up.
+ */
+class Latencies {
+
+    private long[] samples = new long[1024];
+    private int size;
+    private boolean sorted;
+
+    void add(long nanos) {
+        if (size == samples.length) {
+            samples = Arrays.copyOf(samples, size * 2);
+        }
+        samples[size++] = nanos;
+        sorted = false;
+    }
+
+    void addAll(Latencies other) {
+        for (var i = 0; i < other.size; i++) {
+            add(other.samples[i]);
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    double percentileMillis(double percentile) {
+        if (size == 0) {
+            return Double.NaN;
+        }
+        if (!sorted) {
+            Arrays.sort(samples, 0, size);
+            sorted = true;
+        }
+        final var rank = (int) Math.ceil(percentile / 100 * size);
+        return samples[Math.max(0, Math.min(size, rank) - 1)] / 1e6;
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.demo.test.loadtest;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Response time of a stubbed provider, parsed from {@code none}, {@code fixed:MS}, {@code uniform:MIN:MAX},
+ * {@code exponential:MEAN} or {@code lognormal:MEDIAN:SIGMA}, all in milliseconds.
+ */
+public abstract class LatencyDistribution {
+
+    public static final LatencyDistribution NONE = fixed(0);
+
+    private final String spec;
+
+    private LatencyDistribution(final String spec) {
+        this.spec = spec;
+    }
+
+    public abstract double sampleMillis(ThreadLocalRandom random);
+
+    public static LatencyDistribution parse(String spec) {
+        final var parts = spec.strip().split(":");
+        try {
+            switch (parts[0]) {
+                case "none":
+                    return NONE;
+                case "fixed":
+                    return fixed(Double.parseDouble(parts[1]));
+                case "uniform": {
+                    final var min = Double.parseDouble(parts[1]);
+                    final var max = Double.parseDouble(parts[2]);
+                    return new LatencyDistribution(spec) {
+                        @Override
+                        public double sampleMillis(ThreadLocalRandom random) {
+                            return min + random.nextDouble() * (max - min);
+                        }
+                    };
+                }
+                case "exponential": {
+                    final var mean = Double.parseDouble(parts[1]);
+                    return new LatencyDistribution(spec) {
+                        @Override
+                        public double sampleMillis(ThreadLocalRandom random) {
+                            return -mean * Math.log(1 - random.nextDouble());
+                        }
+                    };
+                }
+                case "lognormal": {
+                    final var mu = Math.log(Double.parseDouble(parts[1]));
+                    final var sigma = Double.parseDouble(parts[2]);
+                    return new LatencyDistribution(spec) {
+                        @Override
+                        public double sampleMillis(ThreadLocalRandom random) {
+                            return Math.exp(mu + sigma * random.nextGaussian());
+                        }
+                    };
+                }
+                default:
+                    throw new IllegalArgumentException("Unknown latency distribution " + spec);
+            }
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid latency distribution " + spec, e);
+        }
+    }
+
+    private static LatencyDistribution fixed(double millis) {
+        return new LatencyDistribution("fixed:" + millis) {
+            @Override
+            public double sampleMillis(ThreadLocalRandom random) {
+                return millis;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+}
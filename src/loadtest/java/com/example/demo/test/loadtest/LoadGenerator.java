@@ -0,0 +1,105 @@
+package com.example.demo.test.loadtest;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+
+/**
+ * A closed-loop load generator: {@code concurrency} virtual users each send a request, wait for the
+ * response and send the next one, until the duration is over or the request budget is spent. Only
+ * non-2xx responses and transport failures count as errors; their latency is recorded all the same.
+ */
+@Slf4j
+class LoadGenerator {
+
+    private final HttpClient httpClient;
+
+    LoadGenerator(final Duration requestTimeout) {
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(requestTimeout)
+                .build();
+    }
+
+    /**
+     * @param requests builds the n-th request of the scenario, n counting from 0 across all users
+     */
+    ScenarioResult run(
+            String name,
+            int concurrency,
+            Duration duration,
+            long maxRequests,
+            LongFunction<HttpRequest> requests
+    ) throws InterruptedException {
+        final var sequence = new AtomicLong();
+        final var errors = new AtomicLong();
+        final var executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            final var thread = new Thread(runnable, name + "-user");
+            thread.setDaemon(true);
+            return thread;
+        });
+        final var start = System.nanoTime();
+        final var deadline = start + duration.toNanos();
+        final var users = new ArrayList<Future<Latencies>>();
+        for (var user = 0; user < concurrency; user++) {
+            users.add(executor.submit(() -> {
+                final var latencies = new Latencies();
+                while (System.nanoTime() < deadline) {
+                    final var n = sequence.getAndIncrement();
+                    if (n >= maxRequests) {
+                        break;
+                    }
+                    final var request = requests.apply(n);
+                    final var sent = System.nanoTime();
+                    try {
+                        final var response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() / 100 != 2) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        if (e instanceof InterruptedException) {
+                            Thread.currentThread().interrupt();
+                            break;
+                        }
+                        errors.incrementAndGet();
+                        log.debug(name + " request failed", e);
+                    }
+                    latencies.add(System.nanoTime() - sent);
+                }
+                return latencies;
+            }));
+        }
+
+        final var all = new Latencies();
+        try {
+            for (final var user : users) {
+                all.addAll(user.get());
+            }
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        final var elapsed = System.nanoTime() - start;
+        return new ScenarioResult(
+                name,
+                concurrency,
+                all.size(),
+                errors.get(),
+                elapsed,
+                all.percentileMillis(50),
+                all.percentileMillis(99),
+                all.percentileMillis(99.9),
+                all.percentileMillis(100)
+        );
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.demo.test.loadtest;
+
+import com.example.demo.DemoApplication;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.springframework.boot.SpringApplication;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Starts the provider stubs and the application pointed at them, then drives the serving endpoints and
+ * {@code /evaluate-squad} and prints throughput and latency percentiles per scenario. Everything runs in
+ * this process on loopback, so no provider quota is spent and no network is needed.
+ * <p>
+ * Options are {@code --name=value}; see {@link #DEFAULTS}. Every other option is passed on to the
+ * application, for example {@code --serving-cache.enabled=false} or {@code --evaluation.parallelism=32}.
+ * The qna-bot library endpoints ({@code /open-ai/...}) are not driven: the library calls the providers
+ * itself and cannot be pointed at the stubs. The scenarios serve ingested indexes through
+ * {@code /indexes/{indexName}/nearest} and {@code /indexes/{indexName}/query} instead. Scenarios run in
+ * the given order; keep {@code evaluate} before {@code ingest}, as an evaluation deletes the indexes it
+ * finds that it did not create.
+ */
+public class LoadTest {
+
+    private static final String INDEX_NAME = "loadtest";
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("scenarios", "evaluate,ingest,nearest,query");
+        DEFAULTS.put("concurrency", "16");
+        DEFAULTS.put("duration-seconds", "30");
+        DEFAULTS.put("request-timeout-seconds", "60");
+        DEFAULTS.put("seed", "42");
+        DEFAULTS.put("documents", "200");
+        DEFAULTS.put("sentences-per-document", "20");
+        DEFAULTS.put("distinct-questions", "500");
+        DEFAULTS.put("k", "5");
+        DEFAULTS.put("evaluate-requests", "3");
+        DEFAULTS.put("evaluate-concurrency", "1");
+        DEFAULTS.put("evaluate-articles", "1");
+        DEFAULTS.put("evaluate-paragraphs", "2");
+        DEFAULTS.put("evaluate-questions", "3");
+        DEFAULTS.put("embedding-latency", "lognormal:40:0.4");
+        DEFAULTS.put("completion-latency", "lognormal:300:0.5");
+        DEFAULTS.put("vector-latency", "lognormal:8:0.3");
+        DEFAULTS.put("vector-control-latency", "fixed:20");
+        DEFAULTS.put("embedding-error-rate", "0");
+        DEFAULTS.put("completion-error-rate", "0");
+        DEFAULTS.put("vector-error-rate", "0");
+        DEFAULTS.put("error-status", "503");
+    }
+
+    public static void main(String[] args) throws Exception {
+        final var options = new LinkedHashMap<>(DEFAULTS);
+        final var applicationArgs = new ArrayList<String>();
+        for (final var arg : args) {
+            final var separator = arg.indexOf('=');
+            final var name = arg.startsWith("--") && separator > 2 ? arg.substring(2, separator) : null;
+            if (name != null && DEFAULTS.containsKey(name)) {
+                options.put(name, arg.substring(separator + 1));
+            } else {
+                applicationArgs.add(arg);
+            }
+        }
+        final var errorStatus = Integer.parseInt(options.get("error-status"));
+
+        try (final var languageModels = new LanguageModelStub(
+                behaviour(options, "embedding-latency", "embedding-error-rate", errorStatus),
+                behaviour(options, "completion-latency", "completion-error-rate", errorStatus)
+        ); final var vectors = new VectorStub(
+                behaviour(options, "vector-control-latency", "vector-error-rate", errorStatus),
+                behaviour(options, "vector-latency", "vector-error-rate", errorStatus)
+        )) {
+            languageModels.start();
+            vectors.start();
+
+            final var workDirectory = Files.createTempDirectory("loadtest");
+            final var properties = new ArrayList<String>(List.of(
+                    "--server.port=0",
+                    "--provider-urls.open-ai=" + languageModels.getUrl() + "/open-ai",
+                    "--provider-urls.nlp-cloud=" + languageModels.getUrl() + "/nlp-cloud",
+                    "--provider-urls.pinecone-controller=" + vectors.getUrl(),
+                    "--provider-urls.pinecone-data-plane=" + vectors.getUrl() + "/indexes/{index}",
+                    "--evaluation.pipeline=DIRECT",
+                    "--evaluation.vector-store=PINECONE",
+                    "--embedding-cache.enabled=false",
+                    "--completion-cache.enabled=false",
+                    "--rate-limits.enabled=false",
+                    "--index-lifecycle.initial-delay-millis=10",
+                    "--index-lifecycle.max-delay-millis=200",
+                    "--checkpoint.directory=" + workDirectory.resolve("checkpoints"),
+                    "--jobs.upload-directory=" + workDirectory.resolve("jobs"),
+                    "--embedding-cache.directory=" + workDirectory.resolve("embeddings"),
+                    "--completion-cache.directory=" + workDirectory.resolve("completions")
+            ));
+            properties.addAll(applicationArgs);
+
+            try (final var context = SpringApplication.run(DemoApplication.class, properties.toArray(String[]::new))) {
+                final var baseUrl = "http://127.0.0.1:" + context.getEnvironment().getProperty("local.server.port");
+                final var results = run(options, baseUrl);
+
+                System.out.println();
+                System.out.println("Stubs: " + languageModels.snapshot() + " " + vectors.snapshot());
+                System.out.println(ScenarioResult.header());
+                results.forEach(result -> System.out.println(result.row()));
+            }
+        }
+    }
+
+    private static List<ScenarioResult> run(Map<String, String> options, String baseUrl) throws Exception {
+        final var seed = Long.parseLong(options.get("seed"));
+        final var concurrency = Integer.parseInt(options.get("concurrency"));
+        final var duration = Duration.ofSeconds(Long.parseLong(options.get("duration-seconds")));
+        final var timeout = Duration.ofSeconds(Long.parseLong(options.get("request-timeout-seconds")));
+        final var k = Integer.parseInt(options.get("k"));
+        final var loadGenerator = new LoadGenerator(timeout);
+
+        final var sentences = LoadTestData.sentences(
+                seed,
+                Integer.parseInt(options.get("documents")) * Integer.parseInt(options.get("sentences-per-document"))
+        );
+        final var questions = LoadTestData.questions(seed + 1, sentences, Integer.parseInt(options.get("distinct-questions")));
+
+        final var results = new ArrayList<ScenarioResult>();
+        for (final var scenario : options.get("scenarios").split(",")) {
+            switch (scenario.strip()) {
+                case "evaluate": {
+                    final var dataset = json(LoadTestData.squad(
+                            seed + 2,
+                            Integer.parseInt(options.get("evaluate-articles")),
+                            Integer.parseInt(options.get("evaluate-paragraphs")),
+                            Integer.parseInt(options.get("evaluate-questions"))
+                    ));
+                    results.add(loadGenerator.run(
+                            "evaluate-squad",
+                            Integer.parseInt(options.get("evaluate-concurrency")),
+                            Duration.ofDays(1),
+                            Long.parseLong(options.get("evaluate-requests")),
+                            n -> HttpRequest.newBuilder(URI.create(baseUrl + "/evaluate-squad"))
+                                    .timeout(Duration.ofDays(1))
+                                    .header("Content-Type", "application/json")
+                                    .POST(HttpRequest.BodyPublishers.ofByteArray(dataset))
+                                    .build()
+                    ));
+                    break;
+                }
+                case "ingest": {
+                    final var documents = new StringBuilder();
+                    final var perDocument = Integer.parseInt(options.get("sentences-per-document"));
+                    for (var start = 0; start < sentences.size(); start += perDocument) {
+                        documents.append(new String(json(Map.of(
+                                "id", "doc-" + start / perDocument,
+                                "text", String.join(" ", sentences.subList(start, Math.min(start + perDocument, sentences.size())))
+                        )), StandardCharsets.UTF_8)).append('\n');
+                    }
+                    results.add(loadGenerator.run(
+                            "ingest",
+                            1,
+                            Duration.ofDays(1),
+                            1,
+                            n -> HttpRequest.newBuilder(URI.create(baseUrl + "/indexes/" + INDEX_NAME + "/documents?create=true"))
+                                    .timeout(Duration.ofDays(1))
+                                    .header("Content-Type", "application/x-ndjson")
+                                    .POST(HttpRequest.BodyPublishers.ofString(documents.toString()))
+                                    .build()
+                    ));
+                    break;
+                }
+                case "nearest":
+                    results.add(loadGenerator.run("nearest", concurrency, duration, Long.MAX_VALUE, n ->
+                            HttpRequest.newBuilder(URI.create(baseUrl + "/indexes/" + INDEX_NAME + "/nearest?k=" + k +
+                                            "&query=" + encode(questions.get((int) (n % questions.size())))))
+                                    .timeout(timeout)
+                                    .GET()
+                                    .build()
+                    ));
+                    break;
+                case "query":
+                    results.add(loadGenerator.run("query", concurrency, duration, Long.MAX_VALUE, n ->
+                            HttpRequest.newBuilder(URI.create(baseUrl + "/indexes/" + INDEX_NAME + "/query?question=" +
+                                            encode(questions.get((int) (n % questions.size())))))
+                                    .timeout(timeout)
+                                    .POST(HttpRequest.BodyPublishers.noBody())
+                                    .build()
+                    ));
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown scenario " + scenario);
+            }
+        }
+        return results;
+    }
+
+    private static StubBehaviour behaviour(Map<String, String> options, String latency, String errorRate, int errorStatus) {
+        return new StubBehaviour(
+                LatencyDistribution.parse(options.get(latency)),
+                Double.parseDouble(options.get(errorRate)),
+                errorStatus
+        );
+    }
+
+    private static byte[] json(Object value) {
+        try {
+            return StubServer.OBJECT_MAPPER.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.demo.test.loadtest;
+
+import com.example.demo.test.dto.SquadAnswer;
+import com.example.demo.test.dto.SquadData;
+import com.example.demo.test.dto.SquadEvaluation;
+import com.example.demo.test.dto.SquadParagraph;
+import com.example.demo.test.dto.SquadQa;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeded generators for the load test: documents to ingest, questions worded like their sentences and a
+ * SQuAD dataset whose answers appear in the paragraphs. The same seed always gives the same data.
+ */
+final class LoadTestData {
+
+    private static final String[] WORDS = {
+            "river", "city", "tower", "king", "century", "empire", "university", "war", "treaty", "Paris",
+            "Normandy", "Denmark", "France", "Rollo", "Viking", "population", "language", "church", "army",
+            "coast", "north", "south", "1066", "911", "duke", "harbour", "bridge", "market", "abbey", "castle"
+    };
+
+    private LoadTestData() {
+    }
+
+    static List<String> sentences(long seed, int count) {
+        final var random = new Random(seed);
+        final var sentences = new ArrayList<String>(count);
+        for (var i = 0; i < count; i++) {
+            sentences.add(sentence(random));
+        }
+        return sentences;
+    }
+
+    /**
+     * Questions reusing half the words of a random sentence, so every question has near neighbours.
+     */
+    static List<String> questions(long seed, List<String> sentences, int count) {
+        final var random = new Random(seed);
+        final var questions = new ArrayList<String>(count);
+        for (var i = 0; i < count; i++) {
+            final var words = sentences.get(random.nextInt(sentences.size())).replace(".", "").split(" ");
+            final var question = new StringBuilder("What about");
+            for (var j = 0; j < words.length; j += 2) {
+                question.append(' ').append(words[j]);
+            }
+            questions.add(question.append('?').toString());
+        }
+        return questions;
+    }
+
+    static SquadEvaluation squad(long seed, int articles, int paragraphsPerArticle, int qasPerParagraph) {
+        final var random = new Random(seed);
+        final var data = new ArrayList<SquadData>();
+        for (var article = 0; article < articles; article++) {
+            final var paragraphs = new ArrayList<SquadParagraph>();
+            for (var paragraph = 0; paragraph < paragraphsPerArticle; paragraph++) {
+                paragraphs.add(paragraph(random, qasPerParagraph));
+            }
+            final var squadData = new SquadData();
+            squadData.setTitle(words(random, 2));
+            squadData.setParagraphs(paragraphs);
+            data.add(squadData);
+        }
+        final var evaluation = new SquadEvaluation();
+        evaluation.setVersion("v2.0");
+        evaluation.setData(data);
+        return evaluation;
+    }
+
+    private static SquadParagraph paragraph(Random random, int qaCount) {
+        final var sentences = new ArrayList<String>();
+        for (var i = 0; i < 6 + random.nextInt(6); i++) {
+            sentences.add(sentence(random));
+        }
+        final var qas = new ArrayList<SquadQa>();
+        for (var i = 0; i < qaCount; i++) {
+            final var source = sentences.get(random.nextInt(sentences.size())).replace(".", "").split(" ");
+            final var qa = new SquadQa();
+            qa.setId(Long.toHexString(random.nextLong()));
+            qa.setQuestion("What " + String.join(" ", List.of(source).subList(0, source.length / 2)) + "?");
+            qa.setIs_impossible(random.nextInt(4) == 0);
+            final var answers = new ArrayList<SquadAnswer>();
+            if (!qa.getIs_impossible()) {
+                final var answer = new SquadAnswer();
+                answer.setText(String.join(" ", List.of(source).subList(source.length / 2, source.length)));
+                answer.setAnswer_start("0");
+                answers.add(answer);
+            }
+            qa.setAnswers(answers);
+            qas.add(qa);
+        }
+        final var paragraph = new SquadParagraph();
+        paragraph.setContext(String.join(" ", sentences));
+        paragraph.setQas(qas);
+        return paragraph;
+    }
+
+    private static String sentence(Random random) {
+        final var sentence = words(random, 8 + random.nextInt(12));
+        return Character.toUpperCase(sentence.charAt(0)) + sentence.substring(1) + ".";
+    }
+
+    private static String words(Random random, int count) {
+        final var words = new StringBuilder();
+        for (var i = 0; i < count; i++) {
+            if (i > 0) {
+                words.append(' ');
+            }
+            words.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return words.toString();
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.demo.test.loadtest;
+
+import lombok.Value;
+
+@Value
+public class ScenarioResult {
+
+    String name;
+
+    int concurrency;
+
+    long requests;
+
+    long errors;
+
+    long elapsedNanos;
+
+    double p50Millis;
+
+    double p99Millis;
+
+    double p999Millis;
+
+    double maxMillis;
+
+    public double getThroughput() {
+        return elapsedNanos == 0 ? 0 : requests * 1e9 / elapsedNanos;
+    }
+
+    static String header() {
+        return String.format("%-20s %6s %9s %8s %10s %10s %10s %10s %10s",
+                "scenario", "users", "requests", "errors", "req/s", "p50 ms", "p99 ms", "p999 ms", "max ms");
+    }
+
+    String row() {
+        return String.format("%-20s %6d %9d %8d %10.1f %10.2f %10.2f %10.2f %10.2f",
+                name, concurrency, requests, errors, getThroughput(), p50Millis, p99Millis, p999Millis, maxMillis);
+    }
+}
@@ -0,0 +1,17 @@
+package com.example.demo.test.loadtest;
+
+import lombok.Value;
+
+/**
+ * How a stubbed API misbehaves: every request waits for a sampled latency, then fails with
+ * {@code errorStatus} with probability {@code errorRate}.
+ */
+@Value
+public class StubBehaviour {
+
+    LatencyDistribution latency;
+
+    double errorRate;
+
+    int errorStatus;
+}
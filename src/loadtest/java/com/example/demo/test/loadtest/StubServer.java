@@ -0,0 +1,163 @@
+package com.example.demo.test.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * An in-process HTTP server on a loopback port that answers JSON requests. Every route belongs to an API,
+ * which requests and injected errors are counted for, and has a {@link StubBehaviour}: the exchange first
+ * waits for a sampled latency, then either fails with the injected error status or is answered by the
+ * route's handler. Each exchange runs on its own thread, so latency does not queue requests behind each
+ * other.
+ */
+@Slf4j
+abstract class StubServer implements AutoCloseable {
+
+    static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    static {
+        // Without TCP_NODELAY the response body waits for the client's delayed ACK of the headers, which
+        // adds about 40 ms to every exchange. The server reads the property once, when first used.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    private final String name;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final Map<String, AtomicLong> requests = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> injectedErrors = new ConcurrentHashMap<>();
+
+    StubServer(final String name) throws IOException {
+        this.name = name;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        this.executor = Executors.newCachedThreadPool(runnable -> {
+            final var thread = new Thread(runnable, name + "-stub");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.server.setExecutor(executor);
+    }
+
+    /**
+     * Answers every request whose path starts with {@code prefix}.
+     */
+    void route(String api, String prefix, StubBehaviour behaviour, Handler handler) {
+        requests.putIfAbsent(api, new AtomicLong());
+        injectedErrors.putIfAbsent(api, new AtomicLong());
+        server.createContext(prefix, exchange -> {
+            try {
+                handle(exchange, api, behaviour, handler);
+            } catch (Exception e) {
+                log.warn(name + " stub failed on " + exchange.getRequestURI(), e);
+            } finally {
+                exchange.close();
+            }
+        });
+    }
+
+    void start() {
+        server.start();
+    }
+
+    String getUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Requests and injected errors per API.
+     */
+    Map<String, Map<String, Long>> snapshot() {
+        final var snapshot = new TreeMap<String, Map<String, Long>>();
+        requests.forEach((api, count) -> snapshot.put(api, Map.of(
+                "requests", count.get(),
+                "injectedErrors", injectedErrors.get(api).get()
+        )));
+        return snapshot;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange, String api, StubBehaviour behaviour, Handler handler) throws IOException {
+        requests.get(api).incrementAndGet();
+        final var body = exchange.getRequestBody().readAllBytes();
+        final var random = ThreadLocalRandom.current();
+        final var latencyNanos = (long) (behaviour.getLatency().sampleMillis(random) * 1_000_000);
+        if (latencyNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(latencyNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        if (behaviour.getErrorRate() > 0 && random.nextDouble() < behaviour.getErrorRate()) {
+            injectedErrors.get(api).incrementAndGet();
+            respond(exchange, behaviour.getErrorStatus(), Map.of("error", "injected by the " + name + " stub"));
+            return;
+        }
+
+        final Response response;
+        try {
+            response = handler.handle(
+                    exchange.getRequestMethod(),
+                    exchange.getRequestURI().getPath(),
+                    body.length == 0 ? OBJECT_MAPPER.nullNode() : OBJECT_MAPPER.readTree(body)
+            );
+        } catch (RuntimeException e) {
+            respond(exchange, 400, Map.of("error", String.valueOf(e.getMessage())));
+            return;
+        }
+        respond(exchange, response.status, response.body);
+    }
+
+    private static void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        final var bytes = OBJECT_MAPPER.writeValueAsBytes(body);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    interface Handler {
+        Response handle(String method, String path, JsonNode body);
+    }
+
+    static class Response {
+
+        private final int status;
+        private final Object body;
+
+        private Response(final int status, final Object body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        static Response ok(Object body) {
+            return new Response(200, body);
+        }
+
+        static Response of(int status, Object body) {
+            return new Response(status, body);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.demo.test.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The Pinecone control plane under {@code /databases} and the data plane of every index under
+ * {@code /indexes/{index}}. Indexes are ready as soon as they are created and upserts are visible at
+ * once; queries score every vector of the namespace with the index metric.
+ */
+class VectorStub extends StubServer {
+
+    private final Map<String, Index> indexes = new ConcurrentHashMap<>();
+
+    VectorStub(final StubBehaviour controlPlane, final StubBehaviour dataPlane) throws IOException {
+        super("vector");
+        route("vector-control", "/databases", controlPlane, (method, path, body) -> {
+            final var name = path.substring("/databases".length()).replaceFirst("^/", "");
+            if (method.equals("GET") && name.isEmpty()) {
+                return Response.ok(new ArrayList<>(indexes.keySet()));
+            }
+            if (method.equals("POST") && name.isEmpty()) {
+                final var index = new Index(body.get("dimension").asInt(), body.get("metric").asText("cosine"));
+                if (indexes.putIfAbsent(body.get("name").asText(), index) != null) {
+                    return Response.of(409, Map.of("error", "index exists"));
+                }
+                return Response.of(201, Map.of());
+            }
+            if (method.equals("DELETE") && !name.isEmpty()) {
+                return indexes.remove(name) == null
+                        ? Response.of(404, Map.of("error", "no index " + name))
+                        : Response.of(202, Map.of());
+            }
+            return Response.of(405, Map.of("error", method + " " + path));
+        });
+        route("vector-data", "/indexes/", dataPlane, (method, path, body) -> {
+            final var rest = path.substring("/indexes/".length());
+            final var slash = rest.indexOf('/');
+            final var index = slash < 0 ? null : indexes.get(rest.substring(0, slash));
+            if (index == null) {
+                return Response.of(404, Map.of("error", "no index at " + path));
+            }
+            final var namespace = body.path("namespace").asText("");
+            switch (rest.substring(slash)) {
+                case "/vectors/upsert":
+                    body.get("vectors").forEach(vector -> index.upsert(namespace, vector));
+                    return Response.ok(Map.of("upsertedCount", body.get("vectors").size()));
+                case "/query":
+                    return Response.ok(Map.of("matches", index.query(namespace, body.get("vector"), body.get("topK").asInt())));
+                case "/vectors/delete":
+                    index.clear(namespace);
+                    return Response.ok(Map.of());
+                case "/describe_index_stats":
+                    return Response.ok(Map.of("dimension", index.dimension, "totalVectorCount", index.size()));
+                default:
+                    return Response.of(404, Map.of("error", "no route " + path));
+            }
+        });
+    }
+
+    private static class Index {
+
+        private final int dimension;
+        private final String metric;
+        private final Map<String, Map<String, StoredVector>> namespaces = new ConcurrentHashMap<>();
+
+        Index(final int dimension, final String metric) {
+            this.dimension = dimension;
+            this.metric = metric;
+        }
+
+        void upsert(String namespace, JsonNode vector) {
+            final var values = vector.get("values");
+            final var floats = new float[values.size()];
+            for (var i = 0; i < floats.length; i++) {
+                floats[i] = values.get(i).floatValue();
+            }
+            namespaces.computeIfAbsent(namespace, ignored -> new ConcurrentHashMap<>())
+                    .put(vector.get("id").asText(), new StoredVector(floats, vector.path("metadata").path("text").asText()));
+        }
+
+        List<Map<String, Object>> query(String namespace, JsonNode vectorNode, int topK) {
+            final var vector = new float[vectorNode.size()];
+            for (var i = 0; i < vector.length; i++) {
+                vector[i] = vectorNode.get(i).floatValue();
+            }
+            final var scored = new ArrayList<Map.Entry<String, Double>>();
+            final var records = namespaces.getOrDefault(namespace, Map.of());
+            records.forEach((id, record) -> scored.add(Map.entry(id, score(vector, record.vector))));
+            scored.sort(metric.equals("euclidean")
+                    ? Map.Entry.comparingByValue()
+                    : Map.Entry.<String, Double>comparingByValue(Comparator.reverseOrder()));
+
+            final var matches = new ArrayList<Map<String, Object>>();
+            for (final var entry : scored.subList(0, Math.min(topK, scored.size()))) {
+                final var match = new LinkedHashMap<String, Object>();
+                match.put("id", entry.getKey());
+                match.put("score", entry.getValue());
+                match.put("metadata", Map.of("text", records.get(entry.getKey()).text));
+                matches.add(match);
+            }
+            return matches;
+        }
+
+        void clear(String namespace) {
+            namespaces.remove(namespace);
+        }
+
+        long size() {
+            return namespaces.values().stream().mapToLong(Map::size).sum();
+        }
+
+        private double score(float[] query, float[] vector) {
+            var dot = 0.;
+            var queryNorm = 0.;
+            var vectorNorm = 0.;
+            var distance = 0.;
+            for (var i = 0; i < Math.min(query.length, vector.length); i++) {
+                dot += query[i] * vector[i];
+                queryNorm += query[i] * query[i];
+                vectorNorm += vector[i] * vector[i];
+                distance += (query[i] - vector[i]) * (query[i] - vector[i]);
+            }
+            if (metric.equals("euclidean")) {
+                return distance;
+            }
+            if (metric.equals("dotproduct") || queryNorm == 0 || vectorNorm == 0) {
+                return dot;
+            }
+            return dot / Math.sqrt(queryNorm * vectorNorm);
+        }
+    }
+
+    private static class StoredVector {
+
+        private final float[] vector;
+        private final String text;
+
+        StoredVector(final float[] vector, final String text) {
+            this.vector = vector;
+            this.text = text;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.demo.test.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class HashEmbeddingsTests {
+
+	@Test
+	void embedsTheSameTextTheSameWay() {
+		assertThat(HashEmbeddings.embed("The Eiffel Tower is in Paris", 64))
+				.containsExactly(HashEmbeddings.embed("the eiffel tower, is in PARIS!", 64));
+	}
+
+	@Test
+	void normalizesTheVector() {
+		assertThat(norm(HashEmbeddings.embed("Where is the Eiffel Tower?", 64))).isCloseTo(1, within(1e-5));
+		assertThat(norm(HashEmbeddings.embed("?!", 64))).isCloseTo(1, within(1e-5));
+	}
+
+	@Test
+	void placesTextsSharingWordsCloser() {
+		final var question = HashEmbeddings.embed("Where is the Eiffel Tower?", 256);
+		final var answer = HashEmbeddings.embed("The Eiffel Tower is in Paris.", 256);
+		final var unrelated = HashEmbeddings.embed("Photosynthesis converts light into chemical energy.", 256);
+
+		assertThat(dot(question, answer)).isGreaterThan(dot(question, unrelated));
+	}
+
+	private static double norm(float[] vector) {
+		return Math.sqrt(dot(vector, vector));
+	}
+
+	private static double dot(float[] a, float[] b) {
+		var dot = 0.;
+		for (var i = 0; i < a.length; i++) {
+			dot += a[i] * b[i];
+		}
+		return dot;
+	}
+}
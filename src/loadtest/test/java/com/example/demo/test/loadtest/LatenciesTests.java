@@ -0,0 +1,45 @@
+package com.example.demo.test.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatenciesTests {
+
+	@Test
+	void readsNearestRankPercentiles() {
+		final var latencies = new Latencies();
+		for (var millis = 100; millis >= 1; millis--) {
+			latencies.add(TimeUnit.MILLISECONDS.toNanos(millis));
+		}
+
+		assertThat(latencies.percentileMillis(50)).isEqualTo(50);
+		assertThat(latencies.percentileMillis(99)).isEqualTo(99);
+		assertThat(latencies.percentileMillis(100)).isEqualTo(100);
+		assertThat(latencies.percentileMillis(0)).isEqualTo(1);
+	}
+
+	@Test
+	void growsAndMerges() {
+		final var first = new Latencies();
+		final var second = new Latencies();
+		for (var i = 0; i < 2_000; i++) {
+			first.add(TimeUnit.MILLISECONDS.toNanos(1));
+			second.add(TimeUnit.MILLISECONDS.toNanos(3));
+		}
+		assertThat(first.percentileMillis(50)).isEqualTo(1);
+
+		first.addAll(second);
+
+		assertThat(first.size()).isEqualTo(4_000);
+		assertThat(first.percentileMillis(50)).isEqualTo(1);
+		assertThat(first.percentileMillis(51)).isEqualTo(3);
+	}
+
+	@Test
+	void hasNoPercentilesWithoutSamples() {
+		assertThat(new Latencies().percentileMillis(50)).isNaN();
+	}
+}
@@ -0,0 +1,60 @@
+package com.example.demo.test.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class LatencyDistributionTests {
+
+	private static final int SAMPLES = 20_000;
+
+	@Test
+	void parsesFixedLatencies() {
+		assertThat(LatencyDistribution.parse("none").sampleMillis(ThreadLocalRandom.current())).isZero();
+		assertThat(LatencyDistribution.parse(" fixed:25 ").sampleMillis(ThreadLocalRandom.current())).isEqualTo(25);
+	}
+
+	@Test
+	void samplesWithinTheUniformRange() {
+		final var distribution = LatencyDistribution.parse("uniform:10:20");
+		for (var i = 0; i < SAMPLES; i++) {
+			assertThat(distribution.sampleMillis(ThreadLocalRandom.current())).isBetween(10., 20.);
+		}
+	}
+
+	@Test
+	void samplesAroundTheExponentialMean() {
+		assertThat(mean(LatencyDistribution.parse("exponential:40"))).isCloseTo(40, within(2.));
+	}
+
+	@Test
+	void samplesAroundTheLognormalMedian() {
+		final var distribution = LatencyDistribution.parse("lognormal:30:0.5");
+		var below = 0;
+		for (var i = 0; i < SAMPLES; i++) {
+			if (distribution.sampleMillis(ThreadLocalRandom.current()) < 30) {
+				below++;
+			}
+		}
+		assertThat(below / (double) SAMPLES).isCloseTo(.5, within(.03));
+	}
+
+	@Test
+	void rejectsInvalidSpecs() {
+		assertThatThrownBy(() -> LatencyDistribution.parse("gaussian:10")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> LatencyDistribution.parse("uniform:10")).isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> LatencyDistribution.parse("fixed:fast")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private static double mean(LatencyDistribution distribution) {
+		var sum = 0.;
+		for (var i = 0; i < SAMPLES; i++) {
+			sum += distribution.sampleMillis(ThreadLocalRandom.current());
+		}
+		return sum / SAMPLES;
+	}
+}
@@ -1,5 +1,7 @@
 package com.example.demo.test;
 
+import com.thesis.qnabot.api.embedding.domain.enums.CompletionModel;
+import com.thesis.qnabot.api.embedding.domain.enums.EmbeddingModel;
 import lombok.Data;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
@@ -16,4 +18,18 @@ public class ApiKeysConfig {
     @Value("${pinecone-key}")
     private String pineconeKey;
 
+    public String getEmbeddingApiKey(EmbeddingModel embeddingModel) {
+        if (embeddingModel.equals(EmbeddingModel.OPEN_AI)) {
+            return openAiKey;
+        }
+        return nplCloudKey;
+    }
+
+    public String getCompletionApiKey(CompletionModel completionModel) {
+        if (completionModel.equals(CompletionModel.OPEN_AI)) {
+            return openAiKey;
+        }
+        return nplCloudKey;
+    }
+
 }
@@ -1,20 +1,99 @@
 package com.example.demo.test;
 
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import com.example.demo.test.http.EndpointClass;
+import com.example.demo.test.http.OutboundHttp;
+import com.example.demo.test.job.JobConfig;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
-import java.time.Duration;
-import java.time.temporal.ChronoUnit;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Configuration
-public class AppConfig {
+public class AppConfig implements WebMvcConfigurer {
     @Bean
-    public RestTemplate restTemplate(RestTemplateBuilder restTemplateBuilder) {
-        return restTemplateBuilder
-                .setConnectTimeout(Duration.of(2, ChronoUnit.SECONDS))
-                .setReadTimeout(Duration.of(2, ChronoUnit.SECONDS))
-                .build();
+    public RestTemplate restTemplate(OutboundHttp outboundHttp) {
+        return outboundHttp.restTemplate(EndpointClass.QUERY);
+    }
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService evaluationExecutor(EvaluationConfig evaluationConfig) {
+        final var threadCount = new AtomicInteger();
+        return Executors.newFixedThreadPool(evaluationConfig.getParallelism(), runnable -> {
+            final var thread = new Thread(runnable, "evaluation-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService evaluationScheduler() {
+        return Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final var thread = new Thread(runnable, "evaluation-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Renews the shard leases of {@link com.example.demo.test.cluster.ShardWorker}. The renewals block on
+     * the coordinator, so they stay off {@code evaluationScheduler}, which runs the Pinecone backoff polls.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService leaseScheduler() {
+        return Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final var thread = new Thread(runnable, "lease-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Runs whole evaluation jobs, which only submit work to {@code evaluationExecutor} and wait for it.
+     * Submissions beyond the queue are rejected rather than queued without bound.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService jobExecutor(JobConfig jobConfig) {
+        final var threadCount = new AtomicInteger();
+        return new ThreadPoolExecutor(
+                jobConfig.getMaxConcurrent(),
+                jobConfig.getMaxConcurrent(),
+                0,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, jobConfig.getMaxQueued())),
+                runnable -> {
+                    final var thread = new Thread(runnable, "evaluation-job-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+        );
+    }
+
+    /**
+     * Runs the embedding and upsert stages of bulk ingestions. The stages block on their queues, so they
+     * get threads of their own instead of sharing {@code evaluationExecutor}.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService ingestionExecutor() {
+        final var threadCount = new AtomicInteger();
+        return Executors.newCachedThreadPool(runnable -> {
+            final var thread = new Thread(runnable, "ingestion-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(new SimpleAsyncTaskExecutor("evaluation-stream-"));
     }
 }
@@ -0,0 +1,45 @@
+package com.example.demo.test;
+
+import com.example.demo.test.completion.CompletionCache;
+import com.example.demo.test.embedding.EmbeddingCache;
+import com.example.demo.test.serving.ServingCache;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+public class CacheController {
+
+    private final EmbeddingCache embeddingCache;
+    private final CompletionCache completionCache;
+    private final ServingCache servingCache;
+
+    public CacheController(
+            final EmbeddingCache embeddingCache,
+            final CompletionCache completionCache,
+            final ServingCache servingCache
+    ) {
+        this.embeddingCache = embeddingCache;
+        this.completionCache = completionCache;
+        this.servingCache = servingCache;
+    }
+
+    @GetMapping("/cache/stats")
+    public Map<String, Object> stats() {
+        return Map.of(
+                "embeddings", Map.of(
+                        "memoryHits", embeddingCache.getMemoryHits(),
+                        "diskHits", embeddingCache.getDiskHits(),
+                        "misses", embeddingCache.getMisses()
+                ),
+                "completions", Map.of(
+                        "hits", completionCache.getHits(),
+                        "misses", completionCache.getMisses(),
+                        "evictions", completionCache.getEvictions(),
+                        "size", (long) completionCache.getSize()
+                ),
+                "serving", servingCache.snapshot()
+        );
+    }
+}
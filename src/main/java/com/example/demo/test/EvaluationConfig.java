@@ -0,0 +1,51 @@
+package com.example.demo.test;
+
+import com.example.demo.test.pipeline.PipelineType;
+import com.example.demo.test.vector.VectorStoreType;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@Data
+public class EvaluationConfig {
+    @Value("${evaluation.parallelism}")
+    private int parallelism;
+
+    @Value("${evaluation.max-active-indexes}")
+    private int maxActiveIndexes;
+
+    @Value("${evaluation.dataset-directory}")
+    private String datasetDirectory;
+
+    @Value("${evaluation.progress-interval-seconds}")
+    private int progressIntervalSeconds;
+
+    @Value("${evaluation.pipeline}")
+    private PipelineType pipeline;
+
+    @Value("${evaluation.vector-store}")
+    private VectorStoreType vectorStore;
+
+    @Value("${evaluation.embedding-window}")
+    private int embeddingWindow;
+
+    @Value("${evaluation.instance-id}")
+    private String instanceId;
+
+    @Value("${evaluation.adaptive.initial-paragraphs}")
+    private int adaptiveInitialParagraphs;
+
+    @Value("${evaluation.adaptive.growth-factor}")
+    private int adaptiveGrowthFactor;
+
+    @Value("${evaluation.adaptive.confidence-z}")
+    private double adaptiveConfidenceZ;
+
+    @Value("${evaluation.adaptive.seed}")
+    private long adaptiveSeed;
+
+    @Value("${evaluation.adaptive.max-questions}")
+    private long adaptiveMaxQuestions;
+
+}
@@ -11,11 +11,15 @@ import lombok.Data;
 @Builder
 public class ParagraphScore {
 
-    private Integer wins;
+    private int wins;
 
-    private Integer misses;
+    private int misses;
 
-    private String paragraphContext;
+    private int exactMatches;
+
+    private double f1;
+
+    private long paragraphId;
 
     private EmbeddingModel embeddingModel;
 
@@ -39,6 +43,24 @@ public class ParagraphScore {
         this.misses++;
     }
 
+    public void countExactMatch() {
+        this.exactMatches++;
+    }
+
+    public void addF1(double f1) {
+        this.f1 += f1;
+    }
+
+    public double exactMatchRate() {
+        final var questions = wins + misses;
+        return questions == 0 ? 0 : (double) exactMatches / questions;
+    }
+
+    public double meanF1() {
+        final var questions = wins + misses;
+        return questions == 0 ? 0 : f1 / questions;
+    }
+
     public boolean hasEqualValues(
             EmbeddingModel embeddingModel,
             CompletionModel completionModel,
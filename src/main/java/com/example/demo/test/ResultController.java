@@ -0,0 +1,61 @@
+package com.example.demo.test;
+
+import com.example.demo.test.checkpoint.CheckpointStore;
+import com.example.demo.test.evaluation.GridDimension;
+import com.example.demo.test.evaluation.ResultGroup;
+import com.example.demo.test.evaluation.ResultStore;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+
+/**
+ * Queries the results of a run, finished or still going, from its checkpoint log.
+ */
+@RestController
+public class ResultController {
+
+    private final CheckpointStore checkpointStore;
+
+    public ResultController(final CheckpointStore checkpointStore) {
+        this.checkpointStore = checkpointStore;
+    }
+
+    /**
+     * Totals per combination of the {@code groupBy} dimensions, e.g.
+     * {@code ?groupBy=EMBEDDING_MODEL&groupBy=K}; without any the totals of the whole run.
+     */
+    @GetMapping("/results/{runId}")
+    public List<ResultGroup> query(
+            @PathVariable String runId,
+            @RequestParam(required = false) List<GridDimension> groupBy
+    ) {
+        return results(runId).groupBy(groupBy == null ? List.of() : groupBy);
+    }
+
+    /**
+     * The results as columns, readable with {@link ResultStore#readFrom}.
+     */
+    @GetMapping("/results/{runId}/export")
+    public ResponseEntity<StreamingResponseBody> export(@PathVariable String runId) {
+        final var results = results(runId);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .body(results::writeTo);
+    }
+
+    private ResultStore results(String runId) {
+        if (!CheckpointStore.isValidRunId(runId)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid run id " + runId);
+        }
+        return checkpointStore.read(runId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No results for run " + runId));
+    }
+}
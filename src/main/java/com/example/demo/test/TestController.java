@@ -1,475 +1,358 @@
 package com.example.demo.test;
 
+import com.example.demo.test.checkpoint.CheckpointLog;
+import com.example.demo.test.checkpoint.CheckpointStore;
+import com.example.demo.test.completion.CompletionService;
 import com.example.demo.test.dto.SquadEvaluation;
-import com.example.demo.test.dto.SquadAnswer;
-import com.example.demo.test.dto.SquadParagraph;
-import com.example.demo.test.dto.SquadQa;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.thesis.qnabot.api.embedding.adapter.out.dto.pinecone.PineconeFindKNearestRequestDto;
-import com.thesis.qnabot.api.embedding.application.ChatBotService;
+import com.example.demo.test.evaluation.AdaptiveEvaluator;
+import com.example.demo.test.evaluation.Datasets;
+import com.example.demo.test.evaluation.EvaluationEngine;
+import com.example.demo.test.evaluation.EvaluationGrid;
+import com.example.demo.test.evaluation.EvaluationResultWriter;
+import com.example.demo.test.evaluation.RetrievalScoreboard;
+import com.example.demo.test.evaluation.Scoreboard;
+import com.example.demo.test.evaluation.SquadStreamReader;
+import com.example.demo.test.index.PineconeIndexManager;
+import com.example.demo.test.metrics.RagMetrics;
+import com.example.demo.test.metrics.Stage;
+import com.example.demo.test.pipeline.QaPipelineFactory;
+import com.example.demo.test.profile.PipelineProfiles;
+import com.example.demo.test.profile.ProfileBundle;
+import com.example.demo.test.ratelimit.ProviderLimiter;
+import com.example.demo.test.serving.ServingCache;
+import com.example.demo.test.vector.VectorStoreType;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.thesis.qnabot.api.embedding.domain.Embedding;
-import com.thesis.qnabot.api.embedding.domain.enums.*;
 import com.thesis.qnabot.api.embedding.domain.request.QueryCompletionModelRequest;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpMethod;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.client.RestTemplate;
-
-import java.util.*;
-import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 @RestController
 @Slf4j
 public class TestController {
 
-    private final ChatBotService chatBotService;
-    private final ApiKeysConfig apiKeysConfig;
-
-    private final Map<Integer, Integer> CHUNK_SIZE_OVERLAP_PAIRS = Map.of(
-            10, 5,
-            15, 3,
-            20, 2
-    );
-
-    private final List<Integer> K_VALUES = List.of(1, 3, 5);
+    private static final String RUN_ID_HEADER = "X-Run-Id";
+
+    private final EvaluationEngine evaluationEngine;
+    private final EvaluationGrid evaluationGrid;
+    private final PineconeIndexManager indexManager;
+    private final QaPipelineFactory qaPipelineFactory;
+    private final SquadStreamReader squadStreamReader;
+    private final EvaluationConfig evaluationConfig;
+    private final ObjectMapper objectMapper;
+    private final ScheduledExecutorService evaluationScheduler;
+    private final RagMetrics ragMetrics;
+    private final CheckpointStore checkpointStore;
+    private final Datasets datasets;
+    private final ServingCache servingCache;
+    private final AdaptiveEvaluator adaptiveEvaluator;
+    private final PipelineProfiles pipelineProfiles;
 
     public TestController(
-            final ChatBotService chatBotService,
-            final ApiKeysConfig apiKeysConfig
+            final EvaluationEngine evaluationEngine,
+            final EvaluationGrid evaluationGrid,
+            final PineconeIndexManager indexManager,
+            final QaPipelineFactory qaPipelineFactory,
+            final SquadStreamReader squadStreamReader,
+            final EvaluationConfig evaluationConfig,
+            final ObjectMapper objectMapper,
+            @Qualifier("evaluationScheduler") final ScheduledExecutorService evaluationScheduler,
+            final RagMetrics ragMetrics,
+            final CheckpointStore checkpointStore,
+            final Datasets datasets,
+            final ServingCache servingCache,
+            final AdaptiveEvaluator adaptiveEvaluator,
+            final PipelineProfiles pipelineProfiles
     ) {
-        this.apiKeysConfig = apiKeysConfig;
-        this.chatBotService = chatBotService;
-        this.chatBotService.setEmbeddingModel(EmbeddingModel.OPEN_AI);
-        this.chatBotService.setEmbeddingApiKey(apiKeysConfig.getOpenAiKey());
-
-        this.chatBotService.setCompletionModel(CompletionModel.OPEN_AI);
-        this.chatBotService.setCompletionApiKey(apiKeysConfig.getOpenAiKey());
-
-        this.chatBotService.setVectorDatabaseModel(VectorDatabaseModel.PINECONE);
-        this.chatBotService.setVectorDatabaseApiKey(apiKeysConfig.getPineconeKey());
-
-        this.chatBotService.setChunkModel(ChunkModel.SENTENCES);
-        this.chatBotService.setChunkSize(15);
-        this.chatBotService.setChunkOverlap(2);
-
-        this.chatBotService.setKnnAlgorithm(KnnAlgorithm.COSINE);
+        this.evaluationEngine = evaluationEngine;
+        this.evaluationGrid = evaluationGrid;
+        this.indexManager = indexManager;
+        this.qaPipelineFactory = qaPipelineFactory;
+        this.squadStreamReader = squadStreamReader;
+        this.evaluationConfig = evaluationConfig;
+        this.objectMapper = objectMapper;
+        this.evaluationScheduler = evaluationScheduler;
+        this.ragMetrics = ragMetrics;
+        this.checkpointStore = checkpointStore;
+        this.datasets = datasets;
+        this.servingCache = servingCache;
+        this.adaptiveEvaluator = adaptiveEvaluator;
+        this.pipelineProfiles = pipelineProfiles;
     }
 
+    /**
+     * The serving endpoints take an optional profile, see {@code GET /profiles}; without one they serve
+     * {@code pipeline-profiles.default-profile}.
+     */
     @PostMapping("/embedding")
-    public void saveEmbedding(@RequestParam String input) {
-        chatBotService.createEmbeddings("thesis", input);
+    public void saveEmbedding(@RequestParam String input, @RequestParam(required = false) String profile) {
+        final var bundle = profile(profile);
+        ragMetrics.time(Stage.INDEX_UPSERT, bundle.getTags(), () -> bundle.getEmbeddingLimiter().run(
+                ProviderLimiter.estimateTokens(input),
+                () -> bundle.getChatBotService().createEmbeddings("thesis", input)
+        ));
+        servingCache.invalidate();
     }
 
     @GetMapping("/open-ai/embedding")
     public List<Embedding> findKNearest(
             @RequestParam String indexName,
             @RequestParam String query,
-            @RequestParam int k
+            @RequestParam int k,
+            @RequestParam(required = false) String profile
     ) {
-        return chatBotService.findKNearest(indexName, query, k);
+        final var bundle = profile(profile);
+        return servingCache.findKNearest(bundle.getName(), indexName, query, k, () -> ragMetrics.time(
+                Stage.VECTOR_QUERY,
+                bundle.getTags(),
+                () -> bundle.getEmbeddingLimiter().call(
+                        ProviderLimiter.estimateTokens(query),
+                        () -> bundle.getChatBotService().findKNearest(indexName, query, k)
+                )
+        ));
     }
 
 
     @PostMapping("/open-ai/query-completion-model")
-    public String response(@RequestBody QueryCompletionModelRequest request) {
-        return chatBotService.query(request);
+    public String response(
+            @RequestBody QueryCompletionModelRequest request,
+            @RequestParam(required = false) String profile
+    ) {
+        final var bundle = profile(profile);
+        return servingCache.query(bundle.getName(), request, () -> ragMetrics.time(
+                Stage.RAG_QUERY,
+                bundle.getTags(),
+                () -> bundle.getCompletionLimiter().call(
+                        CompletionService.estimateTokens(List.of(), request.getQuery()),
+                        () -> bundle.getChatBotService().query(request)
+                )
+        ));
     }
 
+    /**
+     * Passing the run id of an interrupted run resumes it: the cells in its checkpoint are not evaluated
+     * again and count towards the returned table. The run id is returned in the {@code X-Run-Id} header.
+     */
     @PostMapping("/evaluate-squad")
-    public String evaluate(
-            @RequestBody SquadEvaluation squadEvaluation
-    ) {
-        final var activeIndexes = getStillActiveIndexes();
-        if (!activeIndexes.isEmpty()) {
-            try {
-                activeIndexes.forEach(indexName -> {
-                    log.info("Deleting Vectorized Database " + indexName);
-                    chatBotService.deleteAllEmbeddings(indexName);
-                });
-            } catch (Exception e) {
-                log.error("Did not delete the existing DB", e);
-            }
-            while (!getStillActiveIndexes().isEmpty()) {
-                sleep(200);
-            }
-            log.info("Deleted Vectorized Database");
+    public ResponseEntity<String> evaluate(
+            @RequestBody SquadEvaluation squadEvaluation,
+            @RequestParam(required = false) String runId
+    ) throws IOException {
+        try (final var checkpoint = openCheckpoint(runId)) {
+            deleteStillActiveIndexes();
+
+            final var scoreboard = new Scoreboard(evaluationGrid);
+            scoreboard.add(checkpoint.getRestored());
+            final var results = evaluationEngine.evaluate(
+                    squadEvaluation.getData().stream()
+                            .flatMap(data -> data.getParagraphs().stream())
+                            .collect(Collectors.toList()),
+                    checkpoint,
+                    scoreboard
+            );
+
+            log.info("Run " + checkpoint.getRunId() + " finished " + results.size() + " cells");
+            return ResponseEntity.ok()
+                    .header(RUN_ID_HEADER, checkpoint.getRunId())
+                    .body(scoreboard.toCsv());
         }
-
-        List<ParagraphScore> paragraphScores = new ArrayList<>();
-
-        squadEvaluation.getData().forEach(data ->
-                data.getParagraphs().forEach(paragraph ->
-                        paragraphScores.addAll(evaluateParagraph(paragraph))
-                ));
-
-
-        final var result = new StringBuilder();
-
-        result.append("Embedding Model,")
-                .append("Completion Model,")
-                .append("KNN Algorithm,")
-                .append("Chunking Model,")
-                .append("K, ")
-                .append("Arbitrary Chunk Values, ")
-                .append("Wins,")
-                .append("Misses")
-                .append("\n");
-        for (final var embeddingModel : EmbeddingModel.values()) {
-            for (final var completionModel : CompletionModel.values()) {
-                for (final var knnAlgorithm : KnnAlgorithm.values()) {
-                    for (final var chunkModel : ChunkModel.values()) {
-                        CHUNK_SIZE_OVERLAP_PAIRS.forEach((chunkSize, chunkOverlap) ->
-                                K_VALUES.forEach(k -> {
-                                    final var wins = paragraphScores.stream()
-                                            .filter(s ->
-                                                    s.hasEqualValues(
-                                                            embeddingModel,
-                                                            completionModel,
-                                                            knnAlgorithm,
-                                                            chunkModel,
-                                                            chunkSize,
-                                                            chunkOverlap,
-                                                            k
-                                                    )
-                                            ).mapToDouble(ParagraphScore::getWins)
-                                            .sum();
-                                    final var misses = paragraphScores.stream()
-                                            .filter(s ->
-                                                    s.hasEqualValues(
-                                                            embeddingModel,
-                                                            completionModel,
-                                                            knnAlgorithm,
-                                                            chunkModel,
-                                                            chunkSize,
-                                                            chunkOverlap,
-                                                            k
-                                                    )
-                                            ).mapToDouble(ParagraphScore::getMisses)
-                                            .sum();
-
-                                    if (wins != 0 || misses != 0) {
-                                        result.append(embeddingModel).append(",")
-                                                .append(completionModel).append(",")
-                                                .append(knnAlgorithm).append(",")
-                                                .append(chunkModel).append(",")
-                                                .append(k).append(",")
-                                                .append(chunkSize).append(" & ").append(chunkOverlap).append(",")
-                                                .append(wins).append(",")
-                                                .append(misses).append("\n");
-                                    }
-
-                                }));
-                    }
-                }
-            }
-        }
-        log.info(paragraphScores.toString());
-        return result.toString();
     }
 
-    private List<ParagraphScore> evaluateParagraph(SquadParagraph paragraph) {
-        final var scores = new ArrayList<ParagraphScore>();
-
-        for (final var embeddingModel : EmbeddingModel.values()) {
-            for (final var knnAlgorithm : KnnAlgorithm.values()) {
-                for (final var chunkModel : ChunkModel.values()) {
-                    AtomicBoolean shouldCreateNewIndexes = new AtomicBoolean(true);
-                    CHUNK_SIZE_OVERLAP_PAIRS.forEach((chunkSize, chunkOverlap) -> {
-                        chatBotService.setEmbeddingModel(embeddingModel);
-                        chatBotService.setKnnAlgorithm(knnAlgorithm);
-                        chatBotService.setChunkModel(chunkModel);
-                        if (embeddingModel.equals(EmbeddingModel.OPEN_AI)) {
-                            chatBotService.setEmbeddingApiKey(apiKeysConfig.getOpenAiKey());
-                        } else {
-                            chatBotService.setEmbeddingApiKey(apiKeysConfig.getNplCloudKey());
-                        }
-
-
-                        final var indexName = "thesis-" +
-                                embeddingModel.getStringValue() + "-" +
-                                knnAlgorithm.getStringValue() + "-" +
-                                chunkModel.getStringValue();
-
-                        if (shouldCreateNewIndexes.get()) {
-                            createIndex(indexName, paragraph.getContext());
-                        }
-
-
-                        for (final var completionModel : CompletionModel.values()) {
-                            chatBotService.setCompletionModel(completionModel);
-                            if (completionModel.equals(CompletionModel.OPEN_AI)) {
-                                chatBotService.setCompletionApiKey(apiKeysConfig.getOpenAiKey());
-                            } else {
-                                chatBotService.setCompletionApiKey(apiKeysConfig.getNplCloudKey());
-                            }
-
-                            K_VALUES.forEach(k -> {
-                                if (chunkModel.equals(ChunkModel.ARBITRARY)) {
-                                    chatBotService.setChunkSize(chunkSize);
-                                    chatBotService.setChunkOverlap(chunkOverlap);
-                                    chatBotService.setDefaultK(k);
-
-                                    log.info("Evaluating with " + embeddingModel + " " + knnAlgorithm + " " + chunkModel + " " + completionModel + " " + chunkSize + " " + chunkOverlap + " " + k);
-                                    evaluate(
-                                            paragraph,
-                                            scores,
-                                            embeddingModel,
-                                            knnAlgorithm,
-                                            chunkModel,
-                                            indexName,
-                                            completionModel,
-                                            k,
-                                            chunkSize,
-                                            chunkOverlap
-                                    );
-                                } else {
-
-                                    if (scores.stream().noneMatch(
-                                            s -> s.hasEqualValues(
-                                                    embeddingModel,
-                                                    completionModel,
-                                                    knnAlgorithm,
-                                                    chunkModel,
-                                                    0,
-                                                    0,
-                                                    k
-                                            )
-                                    )) {
-                                        log.info("Evaluating with " + embeddingModel + " " + knnAlgorithm + " " + chunkModel + " " + completionModel + " " + 0 + " " + 0 + " " + k);
-                                        evaluate(
-                                                paragraph,
-                                                scores,
-                                                embeddingModel,
-                                                knnAlgorithm,
-                                                chunkModel,
-                                                indexName,
-                                                completionModel,
-                                                k,
-                                                0,
-                                                0
-                                        );
-                                    }
-                                }
-
-                            });
-                        }
-
-                        if (chunkModel.equals(ChunkModel.SENTENCES)) {
-                            shouldCreateNewIndexes.set(false);
-                        }
-                        if (shouldCreateNewIndexes.get()){
-                            deleteIndex(indexName);
-                        }
-                    });
-                }
-            }
+    /**
+     * Ranks the grid by successive halving instead of evaluating every cell on every paragraph. The
+     * response lists every cell with its confidence bounds and the round it was dropped in.
+     */
+    @PostMapping("/evaluate-squad/adaptive")
+    public ResponseEntity<String> evaluateAdaptive(
+            @RequestBody SquadEvaluation squadEvaluation,
+            @RequestParam(required = false) String runId
+    ) throws IOException {
+        try (final var checkpoint = openCheckpoint(runId)) {
+            deleteStillActiveIndexes();
+
+            final var scoreboard = new Scoreboard(evaluationGrid);
+            scoreboard.add(checkpoint.getRestored());
+            final var result = adaptiveEvaluator.evaluate(
+                    squadEvaluation.getData().stream()
+                            .flatMap(data -> data.getParagraphs().stream())
+                            .collect(Collectors.toList()),
+                    checkpoint,
+                    scoreboard,
+                    () -> false
+            );
+
+            log.info("Adaptive run " + checkpoint.getRunId() + " evaluated " + result.getQuestionsEvaluated() +
+                    " of " + result.getQuestionsFullGrid() + " questions in " + result.getRounds() + " rounds" +
+                    (result.isBudgetReached() ? ", stopped by the question budget" : ""));
+            return ResponseEntity.ok()
+                    .header(RUN_ID_HEADER, checkpoint.getRunId())
+                    .body(result.toCsv());
         }
-        return scores;
     }
 
-    private void evaluate(SquadParagraph paragraph, ArrayList<ParagraphScore> scores, EmbeddingModel embeddingModel, KnnAlgorithm knnAlgorithm, ChunkModel chunkModel, String indexName, CompletionModel completionModel, Integer k, Integer chunkSize, Integer chunkOverlap) {
-        final var score = ParagraphScore.builder()
-                .wins(0)
-                .misses(0)
-                .paragraphContext(paragraph.getContext())
-                .embeddingModel(embeddingModel)
-                .completionModel(completionModel)
-                .knnAlgorithm(knnAlgorithm)
-                .chunkModel(chunkModel)
-                .chunkSize(chunkSize)
-                .chunkOverlap(chunkOverlap)
-                .k(k)
-                .build();
-        paragraph.getQas().forEach(qa ->
-                evaluateQa(indexName, qa, score)
+    /**
+     * Scores retrieval alone: hit@k, recall@k and MRR per index cell, without calling a completion model.
+     */
+    @PostMapping("/evaluate-squad/retrieval")
+    public String evaluateRetrieval(@RequestBody SquadEvaluation squadEvaluation) {
+        deleteStillActiveIndexes();
+
+        final var scoreboard = new RetrievalScoreboard(evaluationGrid);
+        evaluationEngine.evaluateRetrieval(
+                squadEvaluation.getData().stream()
+                        .flatMap(data -> data.getParagraphs().stream())
+                        .collect(Collectors.toList()),
+                scoreboard
         );
-
-        scores.add(score);
+        return scoreboard.toCsv();
     }
 
-    private void evaluateQa(String indexName, SquadQa qa, ParagraphScore score) {
-        final var answer = chatBotService.query(
-                QueryCompletionModelRequest.builder()
-                        .indexName(indexName)
-                        .query(qa.getQuestion())
-                        .build()
-        );
-        if (qa.getIs_impossible()) {
-            if (answer.equalsIgnoreCase("I don't know the answer.")) {
-                score.countWin();
-            } else {
-//                logMiss(indexName, qa, answer);
-                score.countMiss();
-            }
-
-        } else {
-            if (
-                    qa.getAnswers().stream().anyMatch(givenAnswer -> {
-                        final var a1 = formatAnswer(answer);
-                        final var a2 = formatAnswer(givenAnswer.getText());
-                        return a1.contains(a2) || a2.contains(a1);
-                    })
-            ) {
-                score.countWin();
-            } else {
-//                logMiss(indexName, qa, answer);
-                score.countMiss();
-            }
-        }
-
-//        log.info("Current wins: " + score.getWins());
-//        log.info("Current misses: " + score.getMisses());
-//        log.info("");
+    @PostMapping("/evaluate-squad/stream")
+    public ResponseEntity<StreamingResponseBody> evaluateStream(
+            @RequestParam(required = false) MultipartFile file,
+            @RequestParam(required = false) String path,
+            @RequestParam(defaultValue = "CSV") EvaluationResultWriter.Format format,
+            @RequestParam(required = false) String runId
+    ) {
+        // validated up front for a 400, but only opened by the body, so nothing is left open if it never runs
+        final var dataset = datasetSource(file, path);
+        final var streamRunId = runId(runId);
+        final var contentType = format.equals(EvaluationResultWriter.Format.CSV)
+                ? MediaType.parseMediaType("text/csv")
+                : MediaType.parseMediaType("application/x-ndjson");
+
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(RUN_ID_HEADER, streamRunId)
+                .body(outputStream -> {
+                    final var writer = new EvaluationResultWriter(outputStream, format, objectMapper);
+                    final var progress = evaluationScheduler.scheduleAtFixedRate(
+                            writer::progressDue,
+                            evaluationConfig.getProgressIntervalSeconds(),
+                            evaluationConfig.getProgressIntervalSeconds(),
+                            TimeUnit.SECONDS
+                    );
+                    try (final var inputStream = dataset.open(); final var checkpoint = checkpointStore.open(streamRunId)) {
+                        final var scoreboard = new Scoreboard(evaluationGrid);
+                        scoreboard.add(checkpoint.getRestored());
+                        deleteStillActiveIndexes();
+                        evaluationEngine.evaluate(
+                                paragraphConsumer -> squadStreamReader.read(inputStream, paragraphConsumer),
+                                checkpoint,
+                                scoreboard.andThen(writer)
+                        );
+                        writer.writeSummary(scoreboard.getCellTotals(), scoreboard.toCsv());
+                    } catch (RuntimeException | IOException e) {
+                        log.error("Streamed evaluation failed", e);
+                        writer.writeError(e);
+                    } finally {
+                        progress.cancel(false);
+                    }
+                });
     }
 
-    private void logMiss(String indexName, SquadQa qa, String answer) {
-        log.info("Missed Question: " + qa.getQuestion());
-        log.info("Answer: " + answer);
-        log.info("Given Answers: " +
-                String.join(" || ", qa.getAnswers().stream()
-                        .map(SquadAnswer::getText)
-                        .collect(Collectors.toSet()))
-        );
-        log.info("Context");
-        final var embeddings = chatBotService.findKNearest(
-                indexName, qa.getQuestion(), 5
-        );
-        embeddings.stream().map(Embedding::getIndex).forEach(log::info);
-        log.info("");
+    private CheckpointLog openCheckpoint(String runId) {
+        return checkpointStore.open(runId(runId));
     }
 
-    private void createIndex(String indexName, String context) {
-        log.info("Creating Vectorized Database " + indexName);
-        chatBotService.createDatabase(indexName);
-        while (!getStillActiveIndexes().contains(indexName)) {
-            sleep(500);
+    private static String runId(String runId) {
+        if (runId == null || runId.isBlank()) {
+            return CheckpointStore.newRunId();
+        }
+        if (!CheckpointStore.isValidRunId(runId)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid run id " + runId);
         }
-        log.info("Created Vectorized Database");
+        return runId;
+    }
 
-        while (!indexIsReadyForRequest(indexName)) {
-            sleep(500);
+    private ProfileBundle profile(String name) {
+        try {
+            return pipelineProfiles.get(name);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         }
-        log.info("Index ready for requests");
-        sleep(500);
+    }
 
-        boolean embeddingsStored = false;
-        int retryAttempts = 0;
-        while (!embeddingsStored || retryAttempts > 10) {
-            try {
-                chatBotService.createEmbeddings(indexName, context);
-                embeddingsStored = true;
-            } catch (Exception e) {
-                log.warn("Could not save embeddings. Retry attempt: " + retryAttempts++);
-                sleep(200);
-            }
+    private DatasetSource datasetSource(MultipartFile file, String path) {
+        if (file != null && !file.isEmpty()) {
+            return file::getInputStream;
         }
-        if (!embeddingsStored) {
-            throw new RuntimeException("Could not save embeddings");
+        if (path == null || path.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Either a file or a path is required");
         }
-
-        while (!indexHasParsedTheEmbeddings(indexName)) {
-            sleep(500);
+        try {
+            final var dataset = datasets.resolve(path);
+            return () -> new BufferedInputStream(Files.newInputStream(dataset));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         }
-        log.info("Index parsed the embeddings");
     }
 
-    private void deleteIndex(String indexName) {
-        log.info("Deleting Vectorized Database " + indexName);
-        chatBotService.deleteAllEmbeddings(indexName);
-        while (getStillActiveIndexes().contains(indexName)) {
-            sleep(500);
+    /**
+     * Deletes the per-paragraph indexes a stopped instance left behind, for example a shard worker that
+     * crashed; evaluations only ever clean up their own instance's indexes. The instance id is the one in
+     * its index names. Returns the names of the stale indexes; a delete that fails is logged.
+     */
+    @DeleteMapping(value = "/evaluation-indexes/{instanceId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public List<String> deleteStaleIndexes(@PathVariable String instanceId) {
+        try {
+            return deleteStillActiveIndexes(instanceId);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
         }
-        log.info("Deleted Vectorized Database " + indexName);
     }
 
-    private boolean indexHasParsedTheEmbeddings(String indexName) {
-        HttpHeaders headers = new HttpHeaders();
-        headers.add("Api-Key", chatBotService.getVectorDatabaseApiKey());
-        headers.add("accept", "application/json");
-        headers.add("Content-Type", "application/json");
-        final var url = "https://" + indexName + "-63159e9.svc.eu-west4-gcp.pinecone.io/query";
-
-        final var body = PineconeFindKNearestRequestDto.builder()
-                .vector(new ArrayList<>(
-                        Collections.nCopies(chatBotService.getEmbeddingModel().getEmbeddingSize(), 0.)
-                ))
-                .topK(1)
-                .build();
-
-        final var restTemplate = new RestTemplate();
-
-        final var response = restTemplate.exchange(
-                url,
-                HttpMethod.POST,
-                new HttpEntity<>(body, headers),
-                JsonNode.class
-        ).getBody();
-        return !response.get("matches").isEmpty();
-
+    private void deleteStillActiveIndexes() {
+        deleteStillActiveIndexes(evaluationEngine.getInstanceId());
     }
 
-    private boolean indexIsReadyForRequest(String indexName) {
-        try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.add("Api-Key", chatBotService.getVectorDatabaseApiKey());
-            headers.add("accept", "application/json");
-            headers.add("Content-Type", "application/json");
-            final var url = "https://" + indexName + "-63159e9.svc.eu-west4-gcp.pinecone.io/describe_index_stats";
-
-            final var restTemplate = new RestTemplate();
-
-            final var response = restTemplate.exchange(
-                    url,
-                    HttpMethod.POST,
-                    new HttpEntity<>(headers),
-                    JsonNode.class
-            ).getBody();
-            return true;
-        } catch (Exception e) {
-            return false;
+    /**
+     * Deletes the per-paragraph indexes the instance left behind. Pooled indexes, the indexes of running
+     * evaluations and corpora loaded through {@code /indexes/{indexName}/documents} are kept.
+     */
+    private List<String> deleteStillActiveIndexes(String instanceId) {
+        if (evaluationConfig.getVectorStore().equals(VectorStoreType.LOCAL)) {
+            return List.of();
         }
-    }
-
-    private List<String> getStillActiveIndexes() {
-        HttpHeaders headers = new HttpHeaders();
-        headers.add("Api-Key", chatBotService.getVectorDatabaseApiKey());
-        headers.add("accept", "application/json");
-        headers.add("Content-Type", "application/json");
-        final var url = "https://controller.eu-west4-gcp.pinecone.io/databases";
-
-        final var restTemplate = new RestTemplate();
-
-        final var response = restTemplate.exchange(
-                url,
-                HttpMethod.GET,
-                new HttpEntity<>(headers),
-                String[].class
-        ).getBody();
-
-        if (response == null) {
-            return Collections.emptyList();
+        final var pooledIndexes = qaPipelineFactory.getIndexPool().getIndexNames();
+        final var activeIndexes = evaluationEngine.staleIndexNames(indexManager.getStillActiveIndexes(), instanceId).stream()
+                .filter(indexName -> !pooledIndexes.contains(indexName))
+                .collect(Collectors.toList());
+        if (!activeIndexes.isEmpty()) {
+            final var deleted = new ArrayList<CompletableFuture<Void>>();
+            for (final var indexName : activeIndexes) {
+                try {
+                    deleted.add(qaPipelineFactory.getVectorStore().deleteIndex(indexName));
+                } catch (Exception e) {
+                    log.error("Did not delete the existing DB " + indexName, e);
+                }
+            }
+            CompletableFuture.allOf(deleted.toArray(CompletableFuture[]::new)).join();
+            log.info("Deleted Vectorized Database");
         }
-        return List.of(response);
+        return activeIndexes;
     }
 
-    private void sleep(int millis) {
-        try {
-            Thread.sleep(millis);
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
-        }
-    }
+    private interface DatasetSource {
 
-    private String formatAnswer(String s) {
-        return s.replace(",", "")
-                .replace(".", "")
-                .replace(" and ", "")
-                .replace(" the ", "")
-                .replace(" ", "")
-                .toLowerCase();
+        InputStream open() throws IOException;
     }
-
 }
@@ -0,0 +1,16 @@
+package com.example.demo.test.checkpoint;
+
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@Data
+public class CheckpointConfig {
+    @Value("${checkpoint.directory}")
+    private String directory;
+
+    @Value("${checkpoint.sync}")
+    private boolean sync;
+
+}
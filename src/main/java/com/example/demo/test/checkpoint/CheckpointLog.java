@@ -0,0 +1,138 @@
+package com.example.demo.test.checkpoint;
+
+import com.example.demo.test.ParagraphScore;
+import com.example.demo.test.evaluation.CellKey;
+import com.example.demo.test.evaluation.EvaluationListener;
+import com.example.demo.test.evaluation.GridCell;
+import com.example.demo.test.evaluation.ResultStore;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Append-only log of the cells a run has finished. Each record is a fixed 36 bytes: paragraph id, cell
+ * key, wins, misses, exact matches and the F1 sum. Reopening the log of a run restores what it already
+ * did; a record cut short by a crash is dropped.
+ */
+public class CheckpointLog implements EvaluationListener, AutoCloseable {
+
+    static final int RECORD_SIZE = Long.BYTES * 2 + Integer.BYTES * 3 + Double.BYTES;
+
+    private final String runId;
+    private final FileChannel channel;
+    private final boolean sync;
+    private final Map<Long, Set<Long>> finishedCells = new ConcurrentHashMap<>();
+    private final ResultStore restored = new ResultStore();
+
+    CheckpointLog(String runId, Path path, boolean sync) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        this.runId = runId;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.sync = sync;
+        load();
+    }
+
+    public String getRunId() {
+        return runId;
+    }
+
+    /**
+     * The cells finished before this log was opened, for rebuilding the aggregate table.
+     */
+    public ResultStore getRestored() {
+        return restored;
+    }
+
+    /**
+     * Reads the complete records of a log without opening it for writing, so the log of a run still in
+     * progress can be queried.
+     */
+    static ResultStore read(Path path) throws IOException {
+        final var results = new ResultStore();
+        try (final var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            read(channel, channel.size() - channel.size() % RECORD_SIZE, results);
+        }
+        return results;
+    }
+
+    public boolean isFinished(long paragraphId, GridCell cell) {
+        final var cells = finishedCells.get(paragraphId);
+        return cells != null && cells.contains(CellKey.of(cell));
+    }
+
+    @Override
+    public void cellFinished(ParagraphScore score) {
+        final var record = ByteBuffer.allocate(RECORD_SIZE)
+                .putLong(score.getParagraphId())
+                .putLong(CellKey.of(score))
+                .putInt(score.getWins())
+                .putInt(score.getMisses())
+                .putInt(score.getExactMatches())
+                .putDouble(score.getF1())
+                .flip();
+        synchronized (channel) {
+            try {
+                while (record.hasRemaining()) {
+                    channel.write(record, channel.size());
+                }
+                if (sync) {
+                    channel.force(false);
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Could not write the checkpoint of run " + runId, e);
+            }
+        }
+        markFinished(score.getParagraphId(), CellKey.of(score));
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private void load() throws IOException {
+        final var length = channel.size() - channel.size() % RECORD_SIZE;
+        if (length != channel.size()) {
+            channel.truncate(length);
+        }
+        read(channel, length, restored);
+        restored.forEach((paragraphId, key, wins, misses, exactMatches, f1) -> markFinished(paragraphId, key));
+    }
+
+    private static void read(FileChannel channel, long length, ResultStore results) throws IOException {
+        final var records = ByteBuffer.allocate((int) Math.min(length, RECORD_SIZE * 4096L));
+        var position = 0L;
+        while (position < length) {
+            records.clear();
+            records.limit((int) Math.min(records.capacity(), length - position));
+            while (records.hasRemaining()) {
+                if (channel.read(records, position + records.position()) < 0) {
+                    throw new IOException("Checkpoint shrank while loading");
+                }
+            }
+            records.flip();
+            while (records.remaining() >= RECORD_SIZE) {
+                results.add(
+                        records.getLong(),
+                        records.getLong(),
+                        records.getInt(),
+                        records.getInt(),
+                        records.getInt(),
+                        records.getDouble()
+                );
+            }
+            position += records.limit();
+        }
+    }
+
+    private void markFinished(long paragraphId, long key) {
+        finishedCells.computeIfAbsent(paragraphId, ignored -> ConcurrentHashMap.newKeySet()).add(key);
+    }
+}
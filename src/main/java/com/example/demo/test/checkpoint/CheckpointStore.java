@@ -0,0 +1,72 @@
+package com.example.demo.test.checkpoint;
+
+import com.example.demo.test.evaluation.ResultStore;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+/**
+ * Opens the checkpoint log of a run under {@code checkpoint.directory}, one file per run id.
+ */
+@Component
+public class CheckpointStore {
+
+    private static final Pattern RUN_ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final CheckpointConfig checkpointConfig;
+
+    public CheckpointStore(final CheckpointConfig checkpointConfig) {
+        this.checkpointConfig = checkpointConfig;
+    }
+
+    public static String newRunId() {
+        return UUID.randomUUID().toString();
+    }
+
+    public static boolean isValidRunId(String runId) {
+        return runId != null && RUN_ID.matcher(runId).matches();
+    }
+
+    public CheckpointLog open(String runId) {
+        try {
+            return new CheckpointLog(runId, path(runId), checkpointConfig.isSync());
+        } catch (IOException e) {
+            throw new RuntimeException("Could not open the checkpoint of run " + runId, e);
+        }
+    }
+
+    /**
+     * The cells the run has finished so far, empty if there is no checkpoint for it.
+     */
+    public Optional<ResultStore> read(String runId) {
+        final var path = path(runId);
+        if (!Files.exists(path)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(CheckpointLog.read(path));
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read the checkpoint of run " + runId, e);
+        }
+    }
+
+    public void delete(String runId) {
+        try {
+            Files.deleteIfExists(path(runId));
+        } catch (IOException e) {
+            throw new RuntimeException("Could not delete the checkpoint of run " + runId, e);
+        }
+    }
+
+    private Path path(String runId) {
+        if (!isValidRunId(runId)) {
+            throw new IllegalArgumentException("Invalid run id " + runId);
+        }
+        return Path.of(checkpointConfig.getDirectory(), runId + ".checkpoint");
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.demo.test.cluster;
+
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@Data
+public class ClusterConfig {
+    @Value("${cluster.shard-paragraphs}")
+    private int shardParagraphs;
+
+    @Value("${cluster.lease-seconds}")
+    private long leaseSeconds;
+
+    @Value("${cluster.retained-finished-runs}")
+    private int retainedFinishedRuns;
+
+    @Value("${cluster.worker.enabled}")
+    private boolean workerEnabled;
+
+    @Value("${cluster.worker.coordinator-url}")
+    private String coordinatorUrl;
+
+    @Value("${cluster.worker.id}")
+    private String workerId;
+
+    @Value("${cluster.worker.poll-interval-millis}")
+    private long pollIntervalMillis;
+
+}
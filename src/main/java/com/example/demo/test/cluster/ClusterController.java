@@ -0,0 +1,127 @@
+package com.example.demo.test.cluster;
+
+import com.example.demo.test.checkpoint.CheckpointStore;
+import com.example.demo.test.dto.SquadEvaluation;
+import com.example.demo.test.evaluation.ResultStore;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The coordinator protocol. Runs are submitted and followed under {@code /cluster/runs}; workers lease
+ * shards from {@code /cluster/lease}, renew their lease while they work and post the scores of the
+ * shard as an exported {@link ResultStore}.
+ */
+@RestController
+public class ClusterController {
+
+    private final ShardCoordinator shardCoordinator;
+
+    public ClusterController(final ShardCoordinator shardCoordinator) {
+        this.shardCoordinator = shardCoordinator;
+    }
+
+    @PostMapping("/cluster/runs")
+    public ResponseEntity<ClusterRunStatus> submit(
+            @RequestBody SquadEvaluation squadEvaluation,
+            @RequestParam(required = false) String runId
+    ) {
+        final var id = runId == null || runId.isBlank() ? CheckpointStore.newRunId() : runId;
+        if (!CheckpointStore.isValidRunId(id)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid run id " + runId);
+        }
+        try {
+            return ResponseEntity.accepted()
+                    .location(URI.create("/cluster/runs/" + id))
+                    .body(shardCoordinator.submit(id, squadEvaluation));
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        }
+    }
+
+    @GetMapping("/cluster/runs")
+    public List<ClusterRunStatus> runs() {
+        return shardCoordinator.getRuns();
+    }
+
+    @GetMapping("/cluster/runs/{runId}")
+    public ClusterRunStatus status(@PathVariable String runId) {
+        return run(runId).getStatus();
+    }
+
+    /**
+     * The table merged from the shards finished so far; final once the run is finished.
+     */
+    @GetMapping(value = "/cluster/runs/{runId}/results", produces = "text/csv")
+    public String results(@PathVariable String runId) {
+        return run(runId).getScoreboard().toCsv();
+    }
+
+    @GetMapping("/cluster/workers")
+    public Map<String, ?> workers() {
+        return shardCoordinator.getWorkers();
+    }
+
+    @PostMapping("/cluster/lease")
+    public ResponseEntity<Shard> lease(@RequestParam String workerId) {
+        return shardCoordinator.lease(workerId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
+
+    @PutMapping("/cluster/runs/{runId}/shards/{shardId}/lease")
+    public ResponseEntity<Void> renew(
+            @PathVariable String runId,
+            @PathVariable int shardId,
+            @RequestParam String workerId
+    ) {
+        try {
+            if (!shardCoordinator.renew(runId, shardId, workerId)) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Lease of shard " + shardId + " was lost");
+            }
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping(value = "/cluster/runs/{runId}/shards/{shardId}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Void> complete(
+            @PathVariable String runId,
+            @PathVariable int shardId,
+            @RequestParam String workerId,
+            HttpServletRequest request
+    ) {
+        final ResultStore partial;
+        try (final var body = request.getInputStream()) {
+            partial = ResultStore.readFrom(body, shardCoordinator.getMaxShardRows());
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+        try {
+            shardCoordinator.complete(runId, shardId, workerId, partial);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    private ShardedRun run(String runId) {
+        return shardCoordinator.get(runId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown run " + runId));
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.demo.test.cluster;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+
+@Value
+@Builder
+public class ClusterRunStatus {
+
+    String runId;
+
+    Instant submittedAt;
+
+    Instant finishedAt;
+
+    int shardsTotal;
+
+    int shardsPending;
+
+    int shardsLeased;
+
+    int shardsDone;
+
+    /**
+     * Leases that expired, their shards went back to the queue.
+     */
+    int shardsReassigned;
+
+    long cellsDone;
+}
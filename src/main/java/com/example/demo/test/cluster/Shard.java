@@ -0,0 +1,18 @@
+package com.example.demo.test.cluster;
+
+import com.example.demo.test.dto.SquadParagraph;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Consecutive paragraphs of one article, as handed to a worker. The paragraphs keep the ids they have
+ * in the whole dataset, starting at {@code firstParagraphId}.
+ */
+@Data
+public class Shard {
+    private String runId;
+    private int shardId;
+    private long firstParagraphId;
+    private List<SquadParagraph> paragraphs;
+}
@@ -0,0 +1,168 @@
+package com.example.demo.test.cluster;
+
+import com.example.demo.test.dto.SquadEvaluation;
+import com.example.demo.test.evaluation.EvaluationGrid;
+import com.example.demo.test.evaluation.ResultStore;
+import com.example.demo.test.evaluation.Scoreboard;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Splits datasets into shards and hands them out to the workers polling it, oldest run first. Any
+ * instance of the application can coordinate; workers are instances with {@code cluster.worker.enabled}
+ * pointing their {@code cluster.worker.coordinator-url} at it. Only the last
+ * {@code cluster.retained-finished-runs} finished runs are kept.
+ */
+@Component
+@Slf4j
+public class ShardCoordinator {
+
+    private final EvaluationGrid evaluationGrid;
+    private final int shardParagraphs;
+    private final long leaseNanos;
+    private final int retainedFinishedRuns;
+
+    private final Map<String, ShardedRun> runs = new LinkedHashMap<>();
+    private final Map<String, Instant> workers = new LinkedHashMap<>();
+
+    public ShardCoordinator(final EvaluationGrid evaluationGrid, final ClusterConfig clusterConfig) {
+        this.evaluationGrid = evaluationGrid;
+        this.shardParagraphs = Math.max(1, clusterConfig.getShardParagraphs());
+        this.leaseNanos = TimeUnit.SECONDS.toNanos(clusterConfig.getLeaseSeconds());
+        this.retainedFinishedRuns = Math.max(0, clusterConfig.getRetainedFinishedRuns());
+    }
+
+    /**
+     * Shards never span articles: each article is cut into runs of {@code cluster.shard-paragraphs}
+     * paragraphs. Paragraph ids are the 1-based positions in the whole dataset, as in a local run.
+     */
+    static List<Shard> split(String runId, SquadEvaluation squadEvaluation, int shardParagraphs) {
+        final var shards = new ArrayList<Shard>();
+        var nextParagraphId = 1L;
+        for (final var data : squadEvaluation.getData()) {
+            final var paragraphs = data.getParagraphs();
+            for (var start = 0; start < paragraphs.size(); start += shardParagraphs) {
+                final var shard = new Shard();
+                shard.setRunId(runId);
+                shard.setShardId(shards.size());
+                shard.setFirstParagraphId(nextParagraphId + start);
+                shard.setParagraphs(List.copyOf(paragraphs.subList(start, Math.min(start + shardParagraphs, paragraphs.size()))));
+                shards.add(shard);
+            }
+            nextParagraphId += paragraphs.size();
+        }
+        return shards;
+    }
+
+    public synchronized ClusterRunStatus submit(String runId, SquadEvaluation squadEvaluation) {
+        final var existing = runs.get(runId);
+        if (existing != null && !existing.isFinished()) {
+            throw new IllegalStateException("Run " + runId + " is still in progress");
+        }
+        final var run = new ShardedRun(
+                runId,
+                split(runId, squadEvaluation, shardParagraphs),
+                new Scoreboard(evaluationGrid)
+        );
+        runs.remove(runId);
+        runs.put(runId, run);
+        evictFinishedRuns();
+        log.info("Distributed run " + runId + " split into " + run.getStatus().getShardsTotal() + " shards");
+        return run.getStatus();
+    }
+
+    public synchronized Optional<Shard> lease(String workerId) {
+        workers.put(workerId, Instant.now());
+        final var now = System.nanoTime();
+        for (final var run : runs.values()) {
+            final var shard = run.lease(workerId, now, leaseNanos);
+            if (shard.isPresent()) {
+                log.info("Shard " + shard.get().getShardId() + " of run " + run.getRunId() + " leased to worker " + workerId);
+                return shard;
+            }
+        }
+        return Optional.empty();
+    }
+
+    public synchronized boolean renew(String runId, int shardId, String workerId) {
+        workers.put(workerId, Instant.now());
+        return run(runId).renew(shardId, workerId, System.nanoTime(), leaseNanos);
+    }
+
+    public boolean complete(String runId, int shardId, String workerId, ResultStore partial) {
+        final ShardedRun run;
+        synchronized (this) {
+            workers.put(workerId, Instant.now());
+            run = run(runId);
+        }
+        final var merged = run.complete(shardId, partial);
+        if (merged) {
+            log.info("Shard " + shardId + " of run " + runId + " finished by worker " + workerId);
+            if (run.isFinished()) {
+                log.info("Distributed run " + runId + " finished");
+                synchronized (this) {
+                    evictFinishedRuns();
+                }
+            }
+        } else {
+            log.info("Dropped duplicate result of shard " + shardId + " of run " + runId + " from worker " + workerId);
+        }
+        return merged;
+    }
+
+    /**
+     * The most rows a shard's results can have: every grid cell for every paragraph of the shard.
+     */
+    public int getMaxShardRows() {
+        return shardParagraphs * evaluationGrid.getGridCells().size();
+    }
+
+    synchronized Optional<ShardedRun> get(String runId) {
+        return Optional.ofNullable(runs.get(runId));
+    }
+
+    public synchronized List<ClusterRunStatus> getRuns() {
+        final var statuses = new ArrayList<ClusterRunStatus>();
+        runs.values().forEach(run -> statuses.add(run.getStatus()));
+        return statuses;
+    }
+
+    /**
+     * When each worker last leased, renewed or delivered a shard.
+     */
+    public synchronized Map<String, Instant> getWorkers() {
+        return Map.copyOf(workers);
+    }
+
+    /**
+     * Drops the finished runs submitted first until at most {@code cluster.retained-finished-runs} are left.
+     */
+    private void evictFinishedRuns() {
+        var finished = runs.values().stream().filter(ShardedRun::isFinished).count();
+        final var iterator = runs.values().iterator();
+        while (finished > retainedFinishedRuns && iterator.hasNext()) {
+            final var run = iterator.next();
+            if (run.isFinished()) {
+                iterator.remove();
+                finished--;
+                log.info("Evicted finished run " + run.getRunId());
+            }
+        }
+    }
+
+    private ShardedRun run(String runId) {
+        final var run = runs.get(runId);
+        if (run == null) {
+            throw new IllegalArgumentException("Unknown run " + runId);
+        }
+        return run;
+    }
+}
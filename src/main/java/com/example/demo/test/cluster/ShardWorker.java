@@ -0,0 +1,245 @@
+package com.example.demo.test.cluster;
+
+import com.example.demo.test.checkpoint.CheckpointStore;
+import com.example.demo.test.evaluation.EvaluationEngine;
+import com.example.demo.test.evaluation.ResultStore;
+import com.example.demo.test.http.EndpointClass;
+import com.example.demo.test.http.OutboundHttp;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Worker side of a distributed run: leases shards from the coordinator, evaluates them with the local
+ * engine and posts the scores back. The lease is renewed at a third of its length while the shard runs;
+ * once the coordinator refuses a renewal the shard has been handed to another worker and is dropped,
+ * along with its checkpoint. Each shard has a local checkpoint, so a worker that restarts and leases the
+ * same shard again resumes it.
+ */
+@Component
+@Slf4j
+public class ShardWorker {
+
+    private final EvaluationEngine evaluationEngine;
+    private final CheckpointStore checkpointStore;
+    private final ScheduledExecutorService leaseScheduler;
+    private final RestTemplate restTemplate;
+    private final ClusterConfig clusterConfig;
+    private final String workerId;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public ShardWorker(
+            final EvaluationEngine evaluationEngine,
+            final CheckpointStore checkpointStore,
+            @Qualifier("leaseScheduler") final ScheduledExecutorService leaseScheduler,
+            final OutboundHttp outboundHttp,
+            final ClusterConfig clusterConfig
+    ) {
+        this.evaluationEngine = evaluationEngine;
+        this.checkpointStore = checkpointStore;
+        this.leaseScheduler = leaseScheduler;
+        this.restTemplate = outboundHttp.restTemplate(EndpointClass.CONTROL_PLANE);
+        this.clusterConfig = clusterConfig;
+        this.workerId = clusterConfig.getWorkerId() == null || clusterConfig.getWorkerId().isBlank()
+                ? UUID.randomUUID().toString()
+                : clusterConfig.getWorkerId();
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!clusterConfig.isWorkerEnabled()) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::work, "cluster-worker");
+        thread.setDaemon(true);
+        thread.start();
+        log.info("Worker " + workerId + " polling " + clusterConfig.getCoordinatorUrl());
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    private void work() {
+        while (running) {
+            try {
+                final var response = restTemplate.postForEntity(
+                        clusterConfig.getCoordinatorUrl() + "/cluster/lease?workerId={workerId}",
+                        null,
+                        Shard.class,
+                        workerId
+                );
+                if (response.getBody() == null) {
+                    Thread.sleep(clusterConfig.getPollIntervalMillis());
+                } else {
+                    evaluate(response.getBody());
+                }
+            } catch (RestClientException e) {
+                log.warn("Coordinator " + clusterConfig.getCoordinatorUrl() + " unreachable: " + e.getMessage());
+                sleep();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Worker " + workerId + " failed a shard", e);
+                sleep();
+            }
+        }
+    }
+
+    private void evaluate(Shard shard) {
+        log.info("Evaluating shard " + shard.getShardId() + " of run " + shard.getRunId());
+        final var lost = new AtomicBoolean();
+        final var renewalMillis = Math.max(1, TimeUnit.SECONDS.toMillis(clusterConfig.getLeaseSeconds()) / 3);
+        final var renewal = leaseScheduler.scheduleAtFixedRate(
+                () -> {
+                    if (!renew(shard)) {
+                        lost.set(true);
+                    }
+                },
+                renewalMillis,
+                renewalMillis,
+                TimeUnit.MILLISECONDS
+        );
+        final var partial = new ResultStore();
+        try (final var checkpoint = checkpointStore.open(checkpointId(shard))) {
+            checkpoint.getRestored().forEach(partial::add);
+            evaluationEngine.evaluate(
+                    shard.getParagraphs(),
+                    shard.getFirstParagraphId(),
+                    cell -> true,
+                    checkpoint,
+                    score -> {
+                    },
+                    () -> lost.get() || !running
+            ).forEach(partial::add);
+        } catch (RuntimeException e) {
+            if (lost.get()) {
+                log.info("Dropped shard " + shard.getShardId() + " of run " + shard.getRunId() + ", its lease was lost");
+                checkpointStore.delete(checkpointId(shard));
+                return;
+            }
+            if (!running) {
+                log.info("Stopped shard " + shard.getShardId() + " of run " + shard.getRunId() + ", keeping its checkpoint");
+                return;
+            }
+            throw e;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            renewal.cancel(false);
+        }
+        upload(shard, partial);
+    }
+
+    /**
+     * False only when the coordinator says the lease is gone; a coordinator that cannot be reached is
+     * given the benefit of the doubt.
+     */
+    private boolean renew(Shard shard) {
+        try {
+            restTemplate.put(
+                    clusterConfig.getCoordinatorUrl() + "/cluster/runs/{runId}/shards/{shardId}/lease?workerId={workerId}",
+                    null,
+                    shard.getRunId(),
+                    shard.getShardId(),
+                    workerId
+            );
+            return true;
+        } catch (HttpClientErrorException e) {
+            return !e.getStatusCode().equals(HttpStatus.CONFLICT) && !e.getStatusCode().equals(HttpStatus.NOT_FOUND);
+        } catch (RestClientException e) {
+            log.warn("Could not renew the lease of shard " + shard.getShardId() + ": " + e.getMessage());
+            return true;
+        }
+    }
+
+    /**
+     * Retries until the coordinator takes the scores, so a coordinator that is briefly down does not lose
+     * finished work. A coordinator that refuses them, say with a 404 after a restart forgot the run, does:
+     * the shard's checkpoint is kept, so resubmitting the run under the same id restores the shard from
+     * it instead of evaluating it again.
+     */
+    private void upload(Shard shard, ResultStore partial) {
+        final var body = new ByteArrayOutputStream();
+        try {
+            partial.writeTo(body);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        final var headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        final var request = new HttpEntity<>(body.toByteArray(), headers);
+        while (running) {
+            try {
+                restTemplate.postForEntity(
+                        clusterConfig.getCoordinatorUrl() + "/cluster/runs/{runId}/shards/{shardId}?workerId={workerId}",
+                        request,
+                        Void.class,
+                        shard.getRunId(),
+                        shard.getShardId(),
+                        workerId
+                );
+                log.info("Delivered shard " + shard.getShardId() + " of run " + shard.getRunId() + ", " + partial.size() + " cells");
+                checkpointStore.delete(checkpointId(shard));
+                return;
+            } catch (HttpClientErrorException e) {
+                log.warn("Coordinator refused shard " + shard.getShardId() + " of run " + shard.getRunId() + ": " + e.getStatusCode() +
+                        ", keeping its checkpoint " + checkpointId(shard));
+                return;
+            } catch (RestClientException e) {
+                log.warn("Could not deliver shard " + shard.getShardId() + ": " + e.getMessage());
+                sleep();
+            }
+        }
+    }
+
+    /**
+     * Stays within the run id limits whatever the length of the coordinator's run id; the SHA-256 of the
+     * run id keeps the checkpoints of different runs apart.
+     */
+    static String checkpointId(Shard shard) {
+        try {
+            final var runHash = MessageDigest.getInstance("SHA-256").digest(shard.getRunId().getBytes(StandardCharsets.UTF_8));
+            return "shard-" + Base64.getUrlEncoder().withoutPadding().encodeToString(runHash) + "-" + shard.getShardId();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(clusterConfig.getPollIntervalMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.demo.test.cluster;
+
+import com.example.demo.test.evaluation.ResultStore;
+import com.example.demo.test.evaluation.Scoreboard;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Coordinator side of one distributed run: the shards still to hand out, the leases of the shards
+ * workers are on and the merged partials of the finished ones. A lease not renewed in time is taken
+ * to mean its worker died, and its shard is handed out again. The first partial of a shard wins; a late
+ * one from a worker presumed dead is dropped.
+ */
+@Slf4j
+class ShardedRun {
+
+    private final String runId;
+    private final List<Shard> shards;
+    private final Instant submittedAt = Instant.now();
+    private final Deque<Integer> pending = new ArrayDeque<>();
+    private final Map<Integer, Lease> leases = new HashMap<>();
+    private final Set<Integer> done = new HashSet<>();
+    private final ResultStore results = new ResultStore();
+    private final Scoreboard scoreboard;
+
+    private Instant finishedAt;
+    private int reassigned;
+
+    ShardedRun(String runId, List<Shard> shards, Scoreboard scoreboard) {
+        this.runId = runId;
+        this.shards = shards;
+        this.scoreboard = scoreboard;
+        for (var shardId = 0; shardId < shards.size(); shardId++) {
+            pending.add(shardId);
+        }
+        if (shards.isEmpty()) {
+            finishedAt = submittedAt;
+        }
+    }
+
+    String getRunId() {
+        return runId;
+    }
+
+    Scoreboard getScoreboard() {
+        return scoreboard;
+    }
+
+    ResultStore getResults() {
+        return results;
+    }
+
+    synchronized boolean isFinished() {
+        return finishedAt != null;
+    }
+
+    synchronized Optional<Shard> lease(String workerId, long now, long leaseNanos) {
+        expire(now);
+        final var shardId = pending.poll();
+        if (shardId == null) {
+            return Optional.empty();
+        }
+        leases.put(shardId, new Lease(workerId, now + leaseNanos));
+        return Optional.of(shards.get(shardId));
+    }
+
+    /**
+     * False if the worker no longer holds the lease, in which case it should drop the shard.
+     */
+    synchronized boolean renew(int shardId, String workerId, long now, long leaseNanos) {
+        expire(now);
+        final var lease = leases.get(shardId);
+        if (lease == null || !lease.workerId.equals(workerId)) {
+            return false;
+        }
+        leases.put(shardId, new Lease(workerId, now + leaseNanos));
+        return true;
+    }
+
+    /**
+     * Merges the partial of a shard unless the shard is already done. Accepted from any worker: a
+     * worker whose lease expired may still have finished first.
+     */
+    synchronized boolean complete(int shardId, ResultStore partial) {
+        if (shardId < 0 || shardId >= shards.size()) {
+            throw new IllegalArgumentException("Run " + runId + " has no shard " + shardId);
+        }
+        if (!done.add(shardId)) {
+            return false;
+        }
+        leases.remove(shardId);
+        pending.remove(shardId);
+        partial.forEach(results::add);
+        scoreboard.add(partial);
+        if (done.size() == shards.size()) {
+            finishedAt = Instant.now();
+        }
+        return true;
+    }
+
+    synchronized ClusterRunStatus getStatus() {
+        return ClusterRunStatus.builder()
+                .runId(runId)
+                .submittedAt(submittedAt)
+                .finishedAt(finishedAt)
+                .shardsTotal(shards.size())
+                .shardsPending(pending.size())
+                .shardsLeased(leases.size())
+                .shardsDone(done.size())
+                .shardsReassigned(reassigned)
+                .cellsDone(results.size())
+                .build();
+    }
+
+    private void expire(long now) {
+        final var expired = leases.entrySet().iterator();
+        while (expired.hasNext()) {
+            final var lease = expired.next();
+            if (lease.getValue().expiresAt - now < 0) {
+                log.info("Lease of shard " + lease.getKey() + " of run " + runId + " by worker " +
+                        lease.getValue().workerId + " expired, reassigning it");
+                pending.addFirst(lease.getKey());
+                reassigned++;
+                expired.remove();
+            }
+        }
+    }
+
+    @Value
+    private static class Lease {
+
+        String workerId;
+
+        long expiresAt;
+    }
+}
@@ -0,0 +1,161 @@
+package com.example.demo.test.completion;
+
+import com.thesis.qnabot.api.embedding.domain.enums.CompletionModel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Memoizes completions by (CompletionModel, retrieved context, question); a pipeline that cannot see the
+ * retrieved chunks passes whatever determines them instead. Answers live in a size-bounded LRU and,
+ * when {@code completion-cache.directory} is set, in an append-only file that is reloaded on startup.
+ */
+@Component
+@Slf4j
+public class CompletionCache {
+
+    private final CompletionCacheConfig completionCacheConfig;
+    private final Map<String, String> memory;
+    private final CompletionStore store;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public CompletionCache(final CompletionCacheConfig completionCacheConfig) throws IOException {
+        this.completionCacheConfig = completionCacheConfig;
+        this.memory = new LinkedHashMap<String, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                if (size() > completionCacheConfig.getMaxEntries()) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+        if (completionCacheConfig.isEnabled() && !completionCacheConfig.getDirectory().isBlank()) {
+            this.store = new CompletionStore(Path.of(completionCacheConfig.getDirectory(), "completions.log"));
+            log.info("Loaded " + store.size() + " cached completions");
+        } else {
+            this.store = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return completionCacheConfig.isEnabled();
+    }
+
+    public String get(CompletionModel completionModel, List<String> context, String question) {
+        if (!isEnabled()) {
+            return null;
+        }
+        final var key = hex(hash(completionModel, context, question));
+        synchronized (memory) {
+            final var answer = memory.get(key);
+            if (answer != null) {
+                hits.incrementAndGet();
+                return answer;
+            }
+        }
+        final var answer = readStore(key);
+        if (answer == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        synchronized (memory) {
+            memory.put(key, answer);
+        }
+        return answer;
+    }
+
+    public void put(CompletionModel completionModel, List<String> context, String question, String answer) {
+        if (!isEnabled()) {
+            return;
+        }
+        final var hash = hash(completionModel, context, question);
+        final var key = hex(hash);
+        synchronized (memory) {
+            memory.put(key, answer);
+        }
+        if (store != null) {
+            try {
+                store.put(key, hash, answer);
+            } catch (IOException e) {
+                log.warn("Could not persist completion", e);
+            }
+        }
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public int getSize() {
+        synchronized (memory) {
+            return memory.size();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    static String hex(byte[] hash) {
+        final var hex = new StringBuilder(hash.length * 2);
+        for (final var b : hash) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    private String readStore(String key) {
+        if (store == null) {
+            return null;
+        }
+        try {
+            return store.get(key);
+        } catch (IOException e) {
+            log.warn("Could not read cached completion", e);
+            return null;
+        }
+    }
+
+    private byte[] hash(CompletionModel completionModel, List<String> context, String question) {
+        try {
+            final var digest = MessageDigest.getInstance("SHA-256");
+            digest.update(completionModel.name().getBytes(StandardCharsets.UTF_8));
+            for (final var chunk : context) {
+                digest.update((byte) 0);
+                digest.update(chunk.getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) 1);
+            digest.update(question.getBytes(StandardCharsets.UTF_8));
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.demo.test.completion;
+
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@Data
+public class CompletionCacheConfig {
+    @Value("${completion-cache.enabled}")
+    private boolean enabled;
+
+    @Value("${completion-cache.max-entries}")
+    private int maxEntries;
+
+    @Value("${completion-cache.directory}")
+    private String directory;
+
+}
@@ -0,0 +1,97 @@
+package com.example.demo.test.completion;
+
+import com.example.demo.test.ApiKeysConfig;
+import com.example.demo.test.http.EndpointClass;
+import com.example.demo.test.http.OutboundHttp;
+import com.example.demo.test.http.ProviderUrlsConfig;
+import com.example.demo.test.ratelimit.ProviderLimiter;
+import com.example.demo.test.ratelimit.RateLimiters;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.thesis.qnabot.api.embedding.domain.enums.CompletionModel;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Map;
+
+/**
+ * Calls the completion providers directly with an already built prompt, through the provider's rate
+ * limiter. The token budget is charged for the prompt and the longest possible completion.
+ */
+@Component
+public class CompletionProviderClient {
+
+    private static final String OPEN_AI_MODEL = "text-davinci-003";
+    static final int MAX_TOKENS = 100;
+
+    private final ApiKeysConfig apiKeysConfig;
+    private final ProviderUrlsConfig providerUrlsConfig;
+    private final RestTemplate restTemplate;
+    private final RateLimiters rateLimiters;
+
+    public CompletionProviderClient(
+            final ApiKeysConfig apiKeysConfig,
+            final ProviderUrlsConfig providerUrlsConfig,
+            final OutboundHttp outboundHttp,
+            final RateLimiters rateLimiters
+    ) {
+        this.apiKeysConfig = apiKeysConfig;
+        this.providerUrlsConfig = providerUrlsConfig;
+        this.restTemplate = outboundHttp.restTemplate(EndpointClass.COMPLETION);
+        this.rateLimiters = rateLimiters;
+    }
+
+    public String complete(CompletionModel completionModel, String prompt) {
+        return rateLimiters.forCompletion(completionModel).call(
+                ProviderLimiter.estimateTokens(prompt) + MAX_TOKENS,
+                () -> request(completionModel, prompt)
+        );
+    }
+
+    private String request(CompletionModel completionModel, String prompt) {
+        if (completionModel.equals(CompletionModel.OPEN_AI)) {
+            final var response = post(
+                    providerUrlsConfig.getOpenAi() + "/completions",
+                    "Bearer " + apiKeysConfig.getCompletionApiKey(completionModel),
+                    Map.of(
+                            "model", OPEN_AI_MODEL,
+                            "prompt", prompt,
+                            "max_tokens", MAX_TOKENS,
+                            "temperature", 0
+                    )
+            );
+            return response.get("choices").get(0).get("text").asText().strip();
+        }
+        final var response = post(
+                providerUrlsConfig.getNlpCloud() + "/finetuned-gpt-neox-20b/generation",
+                "Token " + apiKeysConfig.getCompletionApiKey(completionModel),
+                Map.of(
+                        "text", prompt,
+                        "max_length", MAX_TOKENS,
+                        "remove_input", true,
+                        "end_sequence", "\n"
+                )
+        );
+        return response.get("generated_text").asText().strip();
+    }
+
+    private JsonNode post(String url, String authorization, Object body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Authorization", authorization);
+        headers.add("accept", "application/json");
+        headers.add("Content-Type", "application/json");
+
+        final var response = restTemplate.exchange(
+                url,
+                HttpMethod.POST,
+                new HttpEntity<>(body, headers),
+                JsonNode.class
+        ).getBody();
+        if (response == null) {
+            throw new RuntimeException("Empty response from " + url);
+        }
+        return response;
+    }
+}
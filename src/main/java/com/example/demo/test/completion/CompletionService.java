@@ -0,0 +1,66 @@
+package com.example.demo.test.completion;
+
+import com.example.demo.test.ratelimit.ProviderLimiter;
+import com.thesis.qnabot.api.embedding.domain.enums.CompletionModel;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+@Component
+public class CompletionService {
+
+    private final CompletionCache completionCache;
+    private final CompletionProviderClient completionProviderClient;
+
+    public CompletionService(
+            final CompletionCache completionCache,
+            final CompletionProviderClient completionProviderClient
+    ) {
+        this.completionCache = completionCache;
+        this.completionProviderClient = completionProviderClient;
+    }
+
+    public boolean isCaching() {
+        return completionCache.isEnabled();
+    }
+
+    public String complete(CompletionModel completionModel, List<String> context, String question) {
+        return memoize(
+                completionModel,
+                context,
+                question,
+                () -> completionProviderClient.complete(completionModel, prompt(context, question))
+        );
+    }
+
+    public String memoize(
+            CompletionModel completionModel,
+            List<String> context,
+            String question,
+            Supplier<String> completion
+    ) {
+        final var cached = completionCache.get(completionModel, context, question);
+        if (cached != null) {
+            return cached;
+        }
+        final var answer = completion.get();
+        completionCache.put(completionModel, context, question, answer);
+        return answer;
+    }
+
+    /**
+     * The tokens a completion costs: the prompt around the context and question plus the longest answer.
+     */
+    public static int estimateTokens(List<String> context, String question) {
+        return ProviderLimiter.estimateTokens(prompt(context, question)) + CompletionProviderClient.MAX_TOKENS;
+    }
+
+    static String prompt(List<String> context, String question) {
+        return "Answer the question as truthfully as possible using the provided context, " +
+                "and if the answer is not contained within the context, say \"I don't know the answer.\"\n\n" +
+                "Context:\n" + String.join("\n", context) + "\n\n" +
+                "Q: " + question + "\n" +
+                "A:";
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.demo.test.completion;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Append-only file of completion records: a 32 byte key hash, the answer length and the UTF-8 answer.
+ * Only the offsets are kept in memory; answers are read back from disk on demand.
+ */
+class CompletionStore implements AutoCloseable {
+
+    private static final int HASH_SIZE = 32;
+
+    private final RandomAccessFile file;
+    private final Map<String, Long> offsets = new HashMap<>();
+
+    CompletionStore(Path path) throws IOException {
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        this.file = new RandomAccessFile(path.toFile(), "rw");
+        load();
+    }
+
+    synchronized String get(String key) throws IOException {
+        final var offset = offsets.get(key);
+        if (offset == null) {
+            return null;
+        }
+        file.seek(offset + HASH_SIZE);
+        final var answer = new byte[file.readInt()];
+        file.readFully(answer);
+        return new String(answer, StandardCharsets.UTF_8);
+    }
+
+    synchronized void put(String key, byte[] hash, String answer) throws IOException {
+        if (offsets.containsKey(key)) {
+            return;
+        }
+        final var bytes = answer.getBytes(StandardCharsets.UTF_8);
+        final var offset = file.length();
+        file.seek(offset);
+        file.write(hash);
+        file.writeInt(bytes.length);
+        file.write(bytes);
+        offsets.put(key, offset);
+    }
+
+    synchronized int size() {
+        return offsets.size();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        file.close();
+    }
+
+    private void load() throws IOException {
+        file.seek(0);
+        final var input = new DataInputStream(new BufferedInputStream(Channels.newInputStream(file.getChannel())));
+        final var hash = new byte[HASH_SIZE];
+        var offset = 0L;
+        try {
+            while (offset < file.length()) {
+                input.readFully(hash);
+                final var length = input.readInt();
+                if (input.skipBytes(length) != length) {
+                    throw new EOFException();
+                }
+                offsets.put(CompletionCache.hex(hash), offset);
+                offset += HASH_SIZE + Integer.BYTES + length;
+            }
+        } catch (EOFException e) {
+            file.setLength(offset);
+        }
+    }
+}
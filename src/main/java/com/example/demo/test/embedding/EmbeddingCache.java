@@ -0,0 +1,138 @@
+package com.example.demo.test.embedding;
+
+import com.thesis.qnabot.api.embedding.domain.enums.EmbeddingModel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Content-addressed embedding cache keyed by (EmbeddingModel, SHA-256 of the text). Recently used
+ * vectors stay in an in-memory LRU; every vector is also written to a memory-mapped file per model
+ * under {@code embedding-cache.directory}, so the cache survives restarts.
+ */
+@Component
+@Slf4j
+public class EmbeddingCache {
+
+    private final EmbeddingCacheConfig embeddingCacheConfig;
+    private final Map<EmbeddingModel, MappedEmbeddingStore> stores = new EnumMap<>(EmbeddingModel.class);
+    private final Map<String, float[]> memory;
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public EmbeddingCache(final EmbeddingCacheConfig embeddingCacheConfig) {
+        this.embeddingCacheConfig = embeddingCacheConfig;
+        this.memory = new LinkedHashMap<String, float[]>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, float[]> eldest) {
+                return size() > embeddingCacheConfig.getMemoryEntries();
+            }
+        };
+    }
+
+    public float[] get(EmbeddingModel embeddingModel, String text) {
+        if (!embeddingCacheConfig.isEnabled()) {
+            return null;
+        }
+        final var hash = hash(text);
+        final var memoryKey = memoryKey(embeddingModel, hash);
+        synchronized (memory) {
+            final var vector = memory.get(memoryKey);
+            if (vector != null) {
+                memoryHits.incrementAndGet();
+                return vector;
+            }
+        }
+        final var vector = store(embeddingModel).get(hash);
+        if (vector == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        diskHits.incrementAndGet();
+        synchronized (memory) {
+            memory.put(memoryKey, vector);
+        }
+        return vector;
+    }
+
+    public void put(EmbeddingModel embeddingModel, String text, float[] vector) {
+        if (!embeddingCacheConfig.isEnabled()) {
+            return;
+        }
+        final var hash = hash(text);
+        synchronized (memory) {
+            memory.put(memoryKey(embeddingModel, hash), vector);
+        }
+        try {
+            store(embeddingModel).put(hash, vector);
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Could not persist embedding for " + embeddingModel, e);
+        }
+    }
+
+    public long getMemoryHits() {
+        return memoryHits.get();
+    }
+
+    public long getDiskHits() {
+        return diskHits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    @PreDestroy
+    public void close() {
+        synchronized (stores) {
+            stores.values().forEach(store -> {
+                try {
+                    store.close();
+                } catch (IOException e) {
+                    log.warn("Could not close embedding cache", e);
+                }
+            });
+            stores.clear();
+        }
+    }
+
+    private MappedEmbeddingStore store(EmbeddingModel embeddingModel) {
+        synchronized (stores) {
+            return stores.computeIfAbsent(embeddingModel, model -> {
+                final var file = Path.of(embeddingCacheConfig.getDirectory(), model.name().toLowerCase() + ".emb");
+                try {
+                    final var store = new MappedEmbeddingStore(file, model.getEmbeddingSize());
+                    log.info("Loaded " + store.size() + " cached " + model + " embeddings from " + file);
+                    return store;
+                } catch (IOException e) {
+                    throw new RuntimeException("Could not open embedding cache " + file, e);
+                }
+            });
+        }
+    }
+
+    private String memoryKey(EmbeddingModel embeddingModel, byte[] hash) {
+        return embeddingModel.name() + ":" + Base64.getEncoder().encodeToString(hash);
+    }
+
+    private byte[] hash(String text) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.demo.test.embedding;
+
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@Data
+public class EmbeddingCacheConfig {
+    @Value("${embedding-cache.enabled}")
+    private boolean enabled;
+
+    @Value("${embedding-cache.directory}")
+    private String directory;
+
+    @Value("${embedding-cache.memory-entries}")
+    private int memoryEntries;
+
+}
@@ -0,0 +1,109 @@
+package com.example.demo.test.embedding;
+
+import com.example.demo.test.ApiKeysConfig;
+import com.example.demo.test.http.EndpointClass;
+import com.example.demo.test.http.OutboundHttp;
+import com.example.demo.test.http.ProviderUrlsConfig;
+import com.example.demo.test.ratelimit.ProviderLimiter;
+import com.example.demo.test.ratelimit.RateLimiters;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.thesis.qnabot.api.embedding.domain.enums.EmbeddingModel;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Calls the embedding providers directly, with as many texts per request as the provider accepts. Every
+ * request goes through the provider's rate limiter.
+ */
+@Component
+public class EmbeddingProviderClient {
+
+    private static final String OPEN_AI_MODEL = "text-embedding-ada-002";
+    private static final int OPEN_AI_MAX_INPUTS = 2048;
+    private static final int NLP_CLOUD_MAX_INPUTS = 50;
+
+    private final ApiKeysConfig apiKeysConfig;
+    private final ProviderUrlsConfig providerUrlsConfig;
+    private final RestTemplate restTemplate;
+    private final RateLimiters rateLimiters;
+
+    public EmbeddingProviderClient(
+            final ApiKeysConfig apiKeysConfig,
+            final ProviderUrlsConfig providerUrlsConfig,
+            final OutboundHttp outboundHttp,
+            final RateLimiters rateLimiters
+    ) {
+        this.apiKeysConfig = apiKeysConfig;
+        this.providerUrlsConfig = providerUrlsConfig;
+        this.restTemplate = outboundHttp.restTemplate(EndpointClass.EMBEDDING);
+        this.rateLimiters = rateLimiters;
+    }
+
+    public List<float[]> embed(EmbeddingModel embeddingModel, List<String> texts) {
+        final var maxInputs = embeddingModel.equals(EmbeddingModel.OPEN_AI) ? OPEN_AI_MAX_INPUTS : NLP_CLOUD_MAX_INPUTS;
+        final var embeddings = new ArrayList<float[]>(texts.size());
+        for (var start = 0; start < texts.size(); start += maxInputs) {
+            embeddings.addAll(embedBatch(embeddingModel, texts.subList(start, Math.min(start + maxInputs, texts.size()))));
+        }
+        return embeddings;
+    }
+
+    private List<float[]> embedBatch(EmbeddingModel embeddingModel, List<String> texts) {
+        final var tokens = texts.stream().mapToInt(ProviderLimiter::estimateTokens).sum();
+        return rateLimiters.forEmbedding(embeddingModel).call(tokens, () -> requestBatch(embeddingModel, texts));
+    }
+
+    private List<float[]> requestBatch(EmbeddingModel embeddingModel, List<String> texts) {
+        if (embeddingModel.equals(EmbeddingModel.OPEN_AI)) {
+            final var response = post(
+                    providerUrlsConfig.getOpenAi() + "/embeddings",
+                    "Bearer " + apiKeysConfig.getEmbeddingApiKey(embeddingModel),
+                    Map.of("model", OPEN_AI_MODEL, "input", texts)
+            );
+            final var embeddings = new ArrayList<float[]>();
+            response.get("data").forEach(data -> embeddings.add(toVector(data.get("embedding"))));
+            return embeddings;
+        }
+        final var response = post(
+                providerUrlsConfig.getNlpCloud() + "/paraphrase-multilingual-mpnet-base-v2/embeddings",
+                "Token " + apiKeysConfig.getEmbeddingApiKey(embeddingModel),
+                Map.of("sentences", texts)
+        );
+        final var embeddings = new ArrayList<float[]>();
+        response.get("embeddings").forEach(embedding -> embeddings.add(toVector(embedding)));
+        return embeddings;
+    }
+
+    private JsonNode post(String url, String authorization, Object body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Authorization", authorization);
+        headers.add("accept", "application/json");
+        headers.add("Content-Type", "application/json");
+
+        final var response = restTemplate.exchange(
+                url,
+                HttpMethod.POST,
+                new HttpEntity<>(body, headers),
+                JsonNode.class
+        ).getBody();
+        if (response == null) {
+            throw new RuntimeException("Empty response from " + url);
+        }
+        return response;
+    }
+
+    private float[] toVector(JsonNode values) {
+        final var vector = new float[values.size()];
+        for (var i = 0; i < vector.length; i++) {
+            vector[i] = values.get(i).floatValue();
+        }
+        return vector;
+    }
+}
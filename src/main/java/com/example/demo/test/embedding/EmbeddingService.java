@@ -0,0 +1,54 @@
+package com.example.demo.test.embedding;
+
+import com.thesis.qnabot.api.embedding.domain.enums.EmbeddingModel;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+@Component
+public class EmbeddingService {
+
+    private final EmbeddingCache embeddingCache;
+    private final EmbeddingProviderClient embeddingProviderClient;
+
+    public EmbeddingService(
+            final EmbeddingCache embeddingCache,
+            final EmbeddingProviderClient embeddingProviderClient
+    ) {
+        this.embeddingCache = embeddingCache;
+        this.embeddingProviderClient = embeddingProviderClient;
+    }
+
+    public float[] embed(EmbeddingModel embeddingModel, String text) {
+        return embed(embeddingModel, List.of(text)).get(0);
+    }
+
+    /**
+     * Looks every text up in the cache and sends the distinct misses to the provider in as few requests as
+     * it allows.
+     */
+    public List<float[]> embed(EmbeddingModel embeddingModel, List<String> texts) {
+        final var vectors = new float[texts.size()][];
+        final var missingPositions = new LinkedHashMap<String, List<Integer>>();
+        for (var i = 0; i < texts.size(); i++) {
+            vectors[i] = embeddingCache.get(embeddingModel, texts.get(i));
+            if (vectors[i] == null) {
+                missingPositions.computeIfAbsent(texts.get(i), ignored -> new ArrayList<>()).add(i);
+            }
+        }
+
+        if (!missingPositions.isEmpty()) {
+            final var missingTexts = new ArrayList<>(missingPositions.keySet());
+            final var embedded = embeddingProviderClient.embed(embeddingModel, missingTexts);
+            for (var i = 0; i < embedded.size(); i++) {
+                final var vector = embedded.get(i);
+                missingPositions.get(missingTexts.get(i)).forEach(position -> vectors[position] = vector);
+                embeddingCache.put(embeddingModel, missingTexts.get(i), vector);
+            }
+        }
+        return Arrays.asList(vectors);
+    }
+}
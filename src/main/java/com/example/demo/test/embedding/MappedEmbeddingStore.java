@@ -0,0 +1,129 @@
+package com.example.demo.test.embedding;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Append-only, memory-mapped store of fixed-size embedding records: a 32 byte content hash followed by
+ * the vector. The file grows in mapped segments and the hash is written last, so a record whose hash is
+ * still all zeroes was never completed and marks the end of the store when it is reopened.
+ */
+class MappedEmbeddingStore implements AutoCloseable {
+
+    private static final int HASH_SIZE = 32;
+    private static final int RECORDS_PER_SEGMENT = 4096;
+
+    private final FileChannel channel;
+    private final int dimension;
+    private final int recordSize;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private final Map<String, Integer> records = new HashMap<>();
+    private int recordCount;
+
+    MappedEmbeddingStore(Path file, int dimension) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        this.channel = FileChannel.open(
+                file,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE
+        );
+        this.dimension = dimension;
+        this.recordSize = HASH_SIZE + Float.BYTES * dimension;
+        load();
+    }
+
+    synchronized float[] get(byte[] hash) {
+        final var record = records.get(key(hash));
+        if (record == null) {
+            return null;
+        }
+        final var buffer = segment(record).duplicate();
+        buffer.position(offset(record) + HASH_SIZE);
+        final var vector = new float[dimension];
+        buffer.asFloatBuffer().get(vector);
+        return vector;
+    }
+
+    synchronized void put(byte[] hash, float[] vector) throws IOException {
+        if (vector.length != dimension) {
+            throw new IllegalArgumentException("Expected a vector of " + dimension + " values but got " + vector.length);
+        }
+        final var key = key(hash);
+        if (records.containsKey(key)) {
+            return;
+        }
+        final var record = recordCount;
+        while (record / RECORDS_PER_SEGMENT >= segments.size()) {
+            mapSegment(segments.size());
+        }
+        final var buffer = segment(record).duplicate();
+        buffer.position(offset(record) + HASH_SIZE);
+        buffer.asFloatBuffer().put(vector);
+        buffer.position(offset(record));
+        buffer.put(hash);
+        records.put(key, record);
+        recordCount++;
+    }
+
+    synchronized int size() {
+        return recordCount;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        segments.forEach(MappedByteBuffer::force);
+        channel.close();
+    }
+
+    private void load() throws IOException {
+        final var segmentCount = (channel.size() + segmentSize() - 1) / segmentSize();
+        for (var segment = 0; segment < segmentCount; segment++) {
+            mapSegment(segment);
+        }
+        final var hash = new byte[HASH_SIZE];
+        final var empty = new byte[HASH_SIZE];
+        while (recordCount < segments.size() * RECORDS_PER_SEGMENT) {
+            final var buffer = segment(recordCount).duplicate();
+            buffer.position(offset(recordCount));
+            buffer.get(hash);
+            if (Arrays.equals(hash, empty)) {
+                break;
+            }
+            records.put(key(hash), recordCount++);
+        }
+    }
+
+    private void mapSegment(int segment) throws IOException {
+        segments.add(channel.map(FileChannel.MapMode.READ_WRITE, (long) segment * segmentSize(), segmentSize()));
+    }
+
+    private long segmentSize() {
+        return (long) recordSize * RECORDS_PER_SEGMENT;
+    }
+
+    private MappedByteBuffer segment(int record) {
+        return segments.get(record / RECORDS_PER_SEGMENT);
+    }
+
+    private int offset(int record) {
+        return (record % RECORDS_PER_SEGMENT) * recordSize;
+    }
+
+    private String key(byte[] hash) {
+        final var key = new StringBuilder(hash.length * 2);
+        for (final var b : hash) {
+            key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return key.toString();
+    }
+}
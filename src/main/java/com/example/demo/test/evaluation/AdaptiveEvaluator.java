@@ -0,0 +1,221 @@
+package com.example.demo.test.evaluation;
+
+import com.example.demo.test.EvaluationConfig;
+import com.example.demo.test.checkpoint.CheckpointLog;
+import com.example.demo.test.dto.SquadParagraph;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Successive halving over the grid. Every cell is evaluated on a first sample of paragraphs; after each
+ * round the cells whose win rate is confidently worse than the best cell's are dropped, and the next
+ * round evaluates the survivors on {@code evaluation.adaptive.growth-factor} times as many fresh
+ * paragraphs. A cell is dropped when the upper Wilson bound of its win rate falls below the highest lower
+ * bound. The run ends when one cell is left, the dataset is used up or the next round would take the
+ * questions evaluated, summed over the cells, past {@code evaluation.adaptive.max-questions} (0 for no
+ * limit); the survivors are then the leaders. A last round is cut short to fit the budget rather than
+ * skipped.
+ */
+@Component
+@Slf4j
+public class AdaptiveEvaluator {
+
+    private final EvaluationEngine evaluationEngine;
+    private final EvaluationGrid evaluationGrid;
+    private final int initialParagraphs;
+    private final int growthFactor;
+    private final double z;
+    private final long seed;
+    private final long maxQuestions;
+
+    public AdaptiveEvaluator(
+            final EvaluationEngine evaluationEngine,
+            final EvaluationGrid evaluationGrid,
+            final EvaluationConfig evaluationConfig
+    ) {
+        this.evaluationEngine = evaluationEngine;
+        this.evaluationGrid = evaluationGrid;
+        this.initialParagraphs = Math.max(1, evaluationConfig.getAdaptiveInitialParagraphs());
+        this.growthFactor = Math.max(1, evaluationConfig.getAdaptiveGrowthFactor());
+        this.z = evaluationConfig.getAdaptiveConfidenceZ();
+        this.seed = evaluationConfig.getAdaptiveSeed();
+        this.maxQuestions = evaluationConfig.getAdaptiveMaxQuestions();
+    }
+
+    /**
+     * Paragraphs are shuffled with {@code evaluation.adaptive.seed} and sliced into rounds, so a run resumed
+     * from its checkpoint sees the paragraphs in the same order under the same ids.
+     */
+    public AdaptiveResult evaluate(
+            List<SquadParagraph> paragraphs,
+            CheckpointLog checkpoint,
+            Scoreboard scoreboard,
+            BooleanSupplier cancelled
+    ) {
+        final var shuffled = new ArrayList<>(paragraphs);
+        Collections.shuffle(shuffled, new Random(seed));
+
+        final var survivors = ConcurrentHashMap.<Long>newKeySet();
+        evaluationGrid.getGridCells().forEach(cell -> survivors.add(CellKey.of(cell)));
+        final var eliminatedInRound = new HashMap<Long, Integer>();
+
+        var offset = 0;
+        var batch = initialParagraphs;
+        var round = 0;
+        var budgetReached = false;
+        var questionsScheduled = 0L;
+        while (offset < shuffled.size() && survivors.size() > 1) {
+            final var end = roundEnd(shuffled, offset, batch, survivors.size(), questionsScheduled);
+            if (end == offset) {
+                budgetReached = true;
+                log.info("Adaptive run stopped after " + round + " rounds with " + survivors.size() +
+                        " cells left, the question budget is spent");
+                break;
+            }
+            round++;
+            log.info("Adaptive round " + round + ": " + survivors.size() + " cells on paragraphs " + (offset + 1) + " to " + end);
+            questionsScheduled += questions(shuffled, offset, end) * survivors.size();
+            evaluationEngine.evaluate(
+                    shuffled.subList(offset, end),
+                    offset + 1,
+                    cell -> survivors.contains(CellKey.of(cell)),
+                    checkpoint,
+                    scoreboard,
+                    cancelled
+            );
+            for (final var key : eliminated(scoreboard, survivors, z)) {
+                survivors.remove(key);
+                eliminatedInRound.put(key, round);
+            }
+            offset = end;
+            batch = (int) Math.min(Integer.MAX_VALUE, (long) batch * growthFactor);
+        }
+
+        final var questions = paragraphs.stream().mapToLong(paragraph -> paragraph.getQas().size()).sum();
+        return result(scoreboard, eliminatedInRound, round, offset, questions, budgetReached);
+    }
+
+    /**
+     * The end of the round starting at the offset: the whole batch, or as many of its paragraphs as the
+     * survivors can still be evaluated on within {@code evaluation.adaptive.max-questions}. The budget is
+     * charged from the rounds scheduled so far rather than the scoreboard, which on resume already holds
+     * the checkpointed rounds, so a resumed run stops exactly where an uninterrupted one would.
+     */
+    private int roundEnd(List<SquadParagraph> paragraphs, int offset, int batch, int survivorCount, long questionsScheduled) {
+        final var end = (int) Math.min(paragraphs.size(), (long) offset + batch);
+        if (maxQuestions <= 0) {
+            return end;
+        }
+        var budget = maxQuestions - questionsScheduled;
+        var roundEnd = offset;
+        while (roundEnd < end) {
+            budget -= (long) paragraphs.get(roundEnd).getQas().size() * survivorCount;
+            if (budget < 0) {
+                break;
+            }
+            roundEnd++;
+        }
+        return roundEnd;
+    }
+
+    private static long questions(List<SquadParagraph> paragraphs, int from, int to) {
+        var questions = 0L;
+        for (final var paragraph : paragraphs.subList(from, to)) {
+            questions += paragraph.getQas().size();
+        }
+        return questions;
+    }
+
+    private long questionsEvaluated(Scoreboard scoreboard) {
+        var questions = 0L;
+        for (final var cell : evaluationGrid.getGridCells()) {
+            questions += scoreboard.getWins(cell) + scoreboard.getMisses(cell);
+        }
+        return questions;
+    }
+
+    /**
+     * The surviving cells whose upper bound is below the best lower bound among the survivors.
+     */
+    static List<Long> eliminated(Scoreboard scoreboard, Set<Long> survivors, double z) {
+        var bestLowerBound = 0.;
+        for (final var key : survivors) {
+            final var cell = CellKey.toGridCell(key);
+            bestLowerBound = Math.max(bestLowerBound, lowerBound(scoreboard.getWins(cell), scoreboard.getMisses(cell), z));
+        }
+        final var eliminated = new ArrayList<Long>();
+        for (final var key : survivors) {
+            final var cell = CellKey.toGridCell(key);
+            if (upperBound(scoreboard.getWins(cell), scoreboard.getMisses(cell), z) < bestLowerBound) {
+                eliminated.add(key);
+            }
+        }
+        return eliminated;
+    }
+
+    static double lowerBound(long wins, long misses, double z) {
+        final var questions = wins + misses;
+        return questions == 0 ? 0 : Math.max(0, wilsonCenter(wins, questions, z) - wilsonMargin(wins, questions, z));
+    }
+
+    static double upperBound(long wins, long misses, double z) {
+        final var questions = wins + misses;
+        return questions == 0 ? 1 : Math.min(1, wilsonCenter(wins, questions, z) + wilsonMargin(wins, questions, z));
+    }
+
+    private static double wilsonCenter(long wins, long questions, double z) {
+        final var p = (double) wins / questions;
+        return (p + z * z / (2. * questions)) / (1 + z * z / questions);
+    }
+
+    private static double wilsonMargin(long wins, long questions, double z) {
+        final var p = (double) wins / questions;
+        return z * Math.sqrt(p * (1 - p) / questions + z * z / (4. * questions * questions)) / (1 + z * z / questions);
+    }
+
+    private AdaptiveResult result(
+            Scoreboard scoreboard,
+            Map<Long, Integer> eliminatedInRound,
+            int rounds,
+            int paragraphsUsed,
+            long datasetQuestions,
+            boolean budgetReached
+    ) {
+        final var outcomes = new ArrayList<CellOutcome>();
+        for (final var cell : evaluationGrid.getGridCells()) {
+            final var wins = scoreboard.getWins(cell);
+            final var misses = scoreboard.getMisses(cell);
+            outcomes.add(new CellOutcome(
+                    cell,
+                    wins,
+                    misses,
+                    lowerBound(wins, misses, z),
+                    upperBound(wins, misses, z),
+                    eliminatedInRound.getOrDefault(CellKey.of(cell), 0)
+            ));
+        }
+        outcomes.sort(Comparator
+                .comparingInt((CellOutcome outcome) -> outcome.getEliminatedInRound() == 0 ? Integer.MAX_VALUE : outcome.getEliminatedInRound())
+                .thenComparingDouble(CellOutcome::winRate)
+                .reversed());
+        return new AdaptiveResult(
+                outcomes,
+                rounds,
+                paragraphsUsed,
+                questionsEvaluated(scoreboard),
+                datasetQuestions * evaluationGrid.getGridCells().size(),
+                budgetReached
+        );
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.demo.test.evaluation;
+
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+public class AdaptiveResult {
+
+    /**
+     * Survivors first, then by the round they were dropped in, latest first; by win rate within each.
+     */
+    List<CellOutcome> outcomes;
+
+    int rounds;
+
+    int paragraphsUsed;
+
+    long questionsEvaluated;
+
+    /**
+     * What evaluating every cell on every question of the dataset would have cost.
+     */
+    long questionsFullGrid;
+
+    /**
+     * Whether the run stopped on {@code evaluation.adaptive.max-questions} with more than one cell left.
+     */
+    boolean budgetReached;
+
+    public String toCsv() {
+        final var result = new StringBuilder();
+
+        result.append("Embedding Model,")
+                .append("Completion Model,")
+                .append("KNN Algorithm,")
+                .append("Chunking Model,")
+                .append("K, ")
+                .append("Arbitrary Chunk Values, ")
+                .append("Wins,")
+                .append("Misses,")
+                .append("Win Rate,")
+                .append("Lower Bound,")
+                .append("Upper Bound,")
+                .append("Eliminated In Round")
+                .append("\n");
+        outcomes.forEach(outcome -> {
+            final var cell = outcome.getCell();
+            result.append(cell.getEmbeddingModel()).append(",")
+                    .append(cell.getCompletionModel()).append(",")
+                    .append(cell.getKnnAlgorithm()).append(",")
+                    .append(cell.getChunkModel()).append(",")
+                    .append(cell.getK()).append(",")
+                    .append(cell.getChunkSize()).append(" & ").append(cell.getChunkOverlap()).append(",")
+                    .append(outcome.getWins()).append(",")
+                    .append(outcome.getMisses()).append(",")
+                    .append(outcome.winRate()).append(",")
+                    .append(outcome.getLowerBound()).append(",")
+                    .append(outcome.getUpperBound()).append(",")
+                    .append(outcome.getEliminatedInRound()).append("\n");
+        });
+        return result.toString();
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.demo.test.evaluation;
+
+/**
+ * Single-pass answer normalization. Both forms read the answer once, char by char, into per-thread
+ * scratch buffers and allocate only the resulting string.
+ */
+final class AnswerNormalizer {
+
+    private static final char[] AND = " and ".toCharArray();
+    private static final char[] THE = " the ".toCharArray();
+    private static final String PUNCTUATION = "!\"#$%&'()*+,-./:;<=>?@[\\]^_`{|}~";
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private AnswerNormalizer() {
+    }
+
+    /**
+     * The form the win/miss check has always compared: the answer with commas, periods, " and ", " the "
+     * and spaces removed, in that order, then lower-cased. The removals run as a cascade of stages that
+     * each hold back the last four chars they have seen, which is as far back as a later char can still
+     * complete a match.
+     */
+    static String containsForm(String answer) {
+        final var scratch = SCRATCH.get().ensure(answer.length());
+        final var and = scratch.first;
+        final var the = scratch.second;
+        final var out = scratch.third;
+        var andLength = 0;
+        var andFloor = 0;
+        var andCommitted = 0;
+        var theLength = 0;
+        var theFloor = 0;
+        var theCommitted = 0;
+        var outLength = 0;
+
+        for (var i = 0; i <= answer.length(); i++) {
+            final var end = i == answer.length();
+            if (!end) {
+                final var c = answer.charAt(i);
+                if (c == ',' || c == '.') {
+                    continue;
+                }
+                and[andLength++] = c;
+                if (andLength - andFloor >= AND.length && endsWith(and, andLength, AND)) {
+                    andLength -= AND.length;
+                    andFloor = andLength;
+                }
+            }
+            final var andLimit = end ? andLength : Math.max(andFloor, andLength - AND.length + 1);
+            while (andCommitted < andLimit) {
+                the[theLength++] = and[andCommitted++];
+                if (theLength - theFloor >= THE.length && endsWith(the, theLength, THE)) {
+                    theLength -= THE.length;
+                    theFloor = theLength;
+                }
+                final var theLimit = Math.max(theFloor, theLength - THE.length + 1);
+                while (theCommitted < theLimit) {
+                    outLength = emit(out, outLength, the[theCommitted++]);
+                }
+            }
+        }
+        while (theCommitted < theLength) {
+            outLength = emit(out, outLength, the[theCommitted++]);
+        }
+        return new String(out, 0, outLength);
+    }
+
+    /**
+     * The official SQuAD normalization: lower case, ASCII punctuation removed, the articles a, an and the
+     * dropped and the remaining whitespace separated tokens joined by single spaces.
+     */
+    static NormalizedAnswer squad(String answer) {
+        final var scratch = SCRATCH.get().ensure(answer.length());
+        final var out = scratch.first;
+        final var tokenStarts = scratch.tokenStarts;
+        var outLength = 0;
+        var tokenCount = 0;
+        var tokenStart = -1;
+
+        for (var i = 0; i <= answer.length(); i++) {
+            final var c = i < answer.length() ? Character.toLowerCase(answer.charAt(i)) : ' ';
+            if (PUNCTUATION.indexOf(c) >= 0) {
+                continue;
+            }
+            if (Character.isWhitespace(c)) {
+                if (tokenStart >= 0) {
+                    if (isArticle(out, tokenStart, outLength)) {
+                        outLength = tokenStart == 0 ? 0 : tokenStart - 1;
+                    } else {
+                        tokenStarts[tokenCount++] = tokenStart;
+                    }
+                    tokenStart = -1;
+                }
+                continue;
+            }
+            if (tokenStart < 0) {
+                if (outLength > 0) {
+                    out[outLength++] = ' ';
+                }
+                tokenStart = outLength;
+            }
+            out[outLength++] = c;
+        }
+        if (tokenCount == 0) {
+            return NormalizedAnswer.EMPTY;
+        }
+        final var starts = new int[tokenCount];
+        System.arraycopy(tokenStarts, 0, starts, 0, tokenCount);
+        return new NormalizedAnswer(new String(out, 0, outLength), starts);
+    }
+
+    private static int emit(char[] out, int outLength, char c) {
+        if (c != ' ') {
+            out[outLength++] = Character.toLowerCase(c);
+        }
+        return outLength;
+    }
+
+    private static boolean endsWith(char[] buffer, int length, char[] suffix) {
+        final var offset = length - suffix.length;
+        for (var i = 0; i < suffix.length; i++) {
+            if (buffer[offset + i] != suffix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isArticle(char[] buffer, int start, int end) {
+        final var length = end - start;
+        if (length == 1) {
+            return buffer[start] == 'a';
+        }
+        if (length == 2) {
+            return buffer[start] == 'a' && buffer[start + 1] == 'n';
+        }
+        return length == 3 && buffer[start] == 't' && buffer[start + 1] == 'h' && buffer[start + 2] == 'e';
+    }
+
+    private static class Scratch {
+
+        private char[] first = new char[0];
+        private char[] second = new char[0];
+        private char[] third = new char[0];
+        private int[] tokenStarts = new int[0];
+
+        Scratch ensure(int length) {
+            if (first.length < length) {
+                final var capacity = Math.max(length, first.length * 2);
+                first = new char[capacity];
+                second = new char[capacity];
+                third = new char[capacity];
+                tokenStarts = new int[capacity];
+            }
+            return this;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.demo.test.evaluation;
+
+import lombok.Value;
+
+/**
+ * How one model answer did against the gold answers of its question: the legacy contains-based win and
+ * the SQuAD exact match and token F1, each taken over the best matching gold answer.
+ */
+@Value
+public class AnswerScore {
+
+    boolean win;
+
+    boolean exactMatch;
+
+    double f1;
+
+}
@@ -0,0 +1,106 @@
+package com.example.demo.test.evaluation;
+
+import com.example.demo.test.dto.SquadAnswer;
+import com.example.demo.test.dto.SquadQa;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Grades model answers. Gold answers are normalized once per question by {@link #gold(SquadQa)}; each
+ * model answer is normalized once per grading, whatever the number of gold answers.
+ */
+@Component
+public class AnswerScorer {
+
+    static final String ABSTENTION = "I don't know the answer.";
+
+    public GoldAnswers gold(SquadQa qa) {
+        final var answers = qa.getAnswers() == null ? List.<SquadAnswer>of() : qa.getAnswers();
+        return new GoldAnswers(
+                qa.getQuestion(),
+                Boolean.TRUE.equals(qa.getIs_impossible()),
+                answers.stream()
+                        .map(answer -> AnswerNormalizer.containsForm(answer.getText()))
+                        .collect(Collectors.toList()),
+                answers.stream()
+                        .map(answer -> AnswerNormalizer.squad(answer.getText()))
+                        .collect(Collectors.toList())
+        );
+    }
+
+    /**
+     * An abstention counts as the empty answer for exact match and F1, which is what SQuAD expects for
+     * impossible questions.
+     */
+    public AnswerScore score(GoldAnswers gold, String answer) {
+        final var abstained = answer.equalsIgnoreCase(ABSTENTION);
+        final var prediction = abstained ? NormalizedAnswer.EMPTY : AnswerNormalizer.squad(answer);
+        if (gold.isImpossible()) {
+            final var empty = prediction.getTokenCount() == 0;
+            return new AnswerScore(abstained, empty, empty ? 1 : 0);
+        }
+
+        final var containsForm = AnswerNormalizer.containsForm(answer);
+        var win = false;
+        for (final var goldForm : gold.getContainsForms()) {
+            if (containsForm.contains(goldForm) || goldForm.contains(containsForm)) {
+                win = true;
+                break;
+            }
+        }
+        var exactMatch = false;
+        var f1 = 0.;
+        for (final var goldAnswer : gold.getNormalized()) {
+            exactMatch |= prediction.getText().equals(goldAnswer.getText());
+            f1 = Math.max(f1, f1(prediction, goldAnswer));
+        }
+        return new AnswerScore(win, exactMatch, f1);
+    }
+
+    /**
+     * For every gold answer, the 1-based rank of the first retrieved chunk containing it, or 0 if none
+     * does. Chunks and answers are compared in the contains form, so chunk boundaries that drop
+     * punctuation or spacing do not hide an answer.
+     */
+    public int[] retrievalRanks(GoldAnswers gold, List<String> chunks) {
+        final var answers = gold.getContainsForms().stream()
+                .filter(answer -> !answer.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+        final var ranks = new int[answers.size()];
+        for (var rank = 1; rank <= chunks.size(); rank++) {
+            final var chunk = AnswerNormalizer.containsForm(chunks.get(rank - 1));
+            for (var i = 0; i < ranks.length; i++) {
+                if (ranks[i] == 0 && chunk.contains(answers.get(i))) {
+                    ranks[i] = rank;
+                }
+            }
+        }
+        return ranks;
+    }
+
+    static double f1(NormalizedAnswer prediction, NormalizedAnswer gold) {
+        if (prediction.getTokenCount() == 0 || gold.getTokenCount() == 0) {
+            return prediction.getTokenCount() == gold.getTokenCount() ? 1 : 0;
+        }
+        final var used = new boolean[gold.getTokenCount()];
+        var common = 0;
+        for (var i = 0; i < prediction.getTokenCount(); i++) {
+            for (var j = 0; j < used.length; j++) {
+                if (!used[j] && prediction.tokenEquals(i, gold, j)) {
+                    used[j] = true;
+                    common++;
+                    break;
+                }
+            }
+        }
+        if (common == 0) {
+            return 0;
+        }
+        final var precision = (double) common / prediction.getTokenCount();
+        final var recall = (double) common / gold.getTokenCount();
+        return 2 * precision * recall / (precision + recall);
+    }
+}
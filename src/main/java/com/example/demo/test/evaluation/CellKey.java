@@ -0,0 +1,89 @@
+package com.example.demo.test.evaluation;
+
+import com.example.demo.test.ParagraphScore;
+import com.thesis.qnabot.api.embedding.domain.enums.ChunkModel;
+import com.thesis.qnabot.api.embedding.domain.enums.CompletionModel;
+import com.thesis.qnabot.api.embedding.domain.enums.EmbeddingModel;
+import com.thesis.qnabot.api.embedding.domain.enums.KnnAlgorithm;
+
+/**
+ * Packs a grid cell into a single long: one byte per enum ordinal, 12 bits each for chunk size and
+ * overlap and one byte for k.
+ */
+public final class CellKey {
+
+    static final int EMBEDDING_MODEL_SHIFT = 56;
+    static final int COMPLETION_MODEL_SHIFT = 48;
+    static final int KNN_ALGORITHM_SHIFT = 40;
+    static final int CHUNK_MODEL_SHIFT = 32;
+    static final int CHUNK_SIZE_SHIFT = 20;
+    static final int CHUNK_OVERLAP_SHIFT = 8;
+
+    static final int MAX_ORDINAL = 0xFF;
+    static final int MAX_CHUNK_VALUE = 0xFFF;
+    static final int MAX_K = 0xFF;
+
+    private CellKey() {
+    }
+
+    public static long of(GridCell cell) {
+        return of(
+                cell.getEmbeddingModel(),
+                cell.getCompletionModel(),
+                cell.getKnnAlgorithm(),
+                cell.getChunkModel(),
+                cell.getChunkSize(),
+                cell.getChunkOverlap(),
+                cell.getK()
+        );
+    }
+
+    public static long of(ParagraphScore score) {
+        return of(
+                score.getEmbeddingModel(),
+                score.getCompletionModel(),
+                score.getKnnAlgorithm(),
+                score.getChunkModel(),
+                score.getChunkSize(),
+                score.getChunkOverlap(),
+                score.getK()
+        );
+    }
+
+    public static long of(
+            EmbeddingModel embeddingModel,
+            CompletionModel completionModel,
+            KnnAlgorithm knnAlgorithm,
+            ChunkModel chunkModel,
+            int chunkSize,
+            int chunkOverlap,
+            int k
+    ) {
+        if (chunkSize < 0 || chunkSize > MAX_CHUNK_VALUE ||
+                chunkOverlap < 0 || chunkOverlap > MAX_CHUNK_VALUE ||
+                k < 0 || k > MAX_K) {
+            throw new IllegalArgumentException(
+                    "Grid cell out of range: chunk size " + chunkSize + ", overlap " + chunkOverlap + ", k " + k
+            );
+        }
+        return (long) embeddingModel.ordinal() << EMBEDDING_MODEL_SHIFT |
+                (long) completionModel.ordinal() << COMPLETION_MODEL_SHIFT |
+                (long) knnAlgorithm.ordinal() << KNN_ALGORITHM_SHIFT |
+                (long) chunkModel.ordinal() << CHUNK_MODEL_SHIFT |
+                (long) chunkSize << CHUNK_SIZE_SHIFT |
+                (long) chunkOverlap << CHUNK_OVERLAP_SHIFT |
+                k;
+    }
+
+    public static GridCell toGridCell(long key) {
+        return GridCell.builder()
+                .embeddingModel(EmbeddingModel.values()[(int) (key >>> EMBEDDING_MODEL_SHIFT) & MAX_ORDINAL])
+                .completionModel(CompletionModel.values()[(int) (key >>> COMPLETION_MODEL_SHIFT) & MAX_ORDINAL])
+                .knnAlgorithm(KnnAlgorithm.values()[(int) (key >>> KNN_ALGORITHM_SHIFT) & MAX_ORDINAL])
+                .chunkModel(ChunkModel.values()[(int) (key >>> CHUNK_MODEL_SHIFT) & MAX_ORDINAL])
+                .chunkSize((int) (key >>> CHUNK_SIZE_SHIFT) & MAX_CHUNK_VALUE)
+                .chunkOverlap((int) (key >>> CHUNK_OVERLAP_SHIFT) & MAX_CHUNK_VALUE)
+                .k((int) key & MAX_K)
+                .build();
+    }
+}
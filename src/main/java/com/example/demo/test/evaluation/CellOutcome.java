@@ -0,0 +1,28 @@
+package com.example.demo.test.evaluation;
+
+import lombok.Value;
+
+/**
+ * Where a cell ended up in an adaptive run: its counts, the confidence bounds on its win rate and the
+ * round it was dropped in, 0 if it survived.
+ */
+@Value
+public class CellOutcome {
+
+    GridCell cell;
+
+    long wins;
+
+    long misses;
+
+    double lowerBound;
+
+    double upperBound;
+
+    int eliminatedInRound;
+
+    public double winRate() {
+        final var questions = wins + misses;
+        return questions == 0 ? 0 : (double) wins / questions;
+    }
+}
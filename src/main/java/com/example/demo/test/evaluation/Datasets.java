@@ -0,0 +1,28 @@
+package com.example.demo.test.evaluation;
+
+import com.example.demo.test.EvaluationConfig;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Resolves dataset names against {@code evaluation.dataset-directory}, refusing anything outside it.
+ */
+@Component
+public class Datasets {
+
+    private final Path datasetDirectory;
+
+    public Datasets(final EvaluationConfig evaluationConfig) {
+        this.datasetDirectory = Path.of(evaluationConfig.getDatasetDirectory()).toAbsolutePath().normalize();
+    }
+
+    public Path resolve(String path) {
+        final var dataset = datasetDirectory.resolve(path).normalize();
+        if (!dataset.startsWith(datasetDirectory) || !Files.isRegularFile(dataset)) {
+            throw new IllegalArgumentException("Unknown dataset " + path);
+        }
+        return dataset;
+    }
+}
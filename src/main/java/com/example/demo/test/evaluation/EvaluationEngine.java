@@ -0,0 +1,552 @@
+package com.example.demo.test.evaluation;
+
+import com.example.demo.test.EvaluationConfig;
+import com.example.demo.test.ParagraphScore;
+import com.example.demo.test.checkpoint.CheckpointLog;
+import com.example.demo.test.dto.SquadParagraph;
+import com.example.demo.test.pipeline.EmbeddingBatcher;
+import com.example.demo.test.pipeline.QaPipeline;
+import com.example.demo.test.pipeline.QaPipelineFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BiFunction;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+@Component
+@Slf4j
+public class EvaluationEngine {
+
+    private final QaPipelineFactory qaPipelineFactory;
+    private final EmbeddingBatcher embeddingBatcher;
+    private final AnswerScorer answerScorer;
+    private final EvaluationGrid evaluationGrid;
+    private final ExecutorService executor;
+    private final int embeddingWindow;
+
+    private final Semaphore activeIndexes;
+    private static final Pattern INDEX_SEQUENCE = Pattern.compile("[0-9a-z]+");
+    private static final Pattern INSTANCE_ID = Pattern.compile("[0-9a-z]{1,6}");
+
+    private final String instanceId;
+    private final AtomicLong indexSequence = new AtomicLong();
+    private final Set<String> activeIndexNames = ConcurrentHashMap.newKeySet();
+
+    public EvaluationEngine(
+            final QaPipelineFactory qaPipelineFactory,
+            final EmbeddingBatcher embeddingBatcher,
+            final AnswerScorer answerScorer,
+            final EvaluationGrid evaluationGrid,
+            final EvaluationConfig evaluationConfig,
+            @Qualifier("evaluationExecutor") final ExecutorService executor
+    ) {
+        this.qaPipelineFactory = qaPipelineFactory;
+        this.embeddingBatcher = embeddingBatcher;
+        this.answerScorer = answerScorer;
+        this.evaluationGrid = evaluationGrid;
+        this.executor = executor;
+        this.embeddingWindow = Math.max(1, evaluationConfig.getEmbeddingWindow());
+        this.activeIndexes = new Semaphore(evaluationConfig.getMaxActiveIndexes());
+        final var configuredId = evaluationConfig.getInstanceId();
+        this.instanceId = configuredId == null || configuredId.isBlank()
+                ? UUID.randomUUID().toString().substring(0, 6)
+                : checkedInstanceId(configuredId);
+    }
+
+    /**
+     * Paragraph ids are the 1-based positions of the paragraphs in the run, so a run resumed from its
+     * checkpoint with the same dataset skips exactly the cells the checkpoint holds. Finished cells are
+     * appended to the checkpoint before the listener sees them. The scores of the run come back as a
+     * {@link ResultStore}, one compact row per finished cell.
+     */
+    public ResultStore evaluate(
+            List<SquadParagraph> paragraphs,
+            CheckpointLog checkpoint,
+            EvaluationListener listener
+    ) {
+        return evaluate(paragraphs, checkpoint, listener, () -> false);
+    }
+
+    /**
+     * Once {@code cancelled} returns true no further paragraph, index or question is started; the call
+     * returns with a {@link CancellationException} after the work in flight has settled and its indexes
+     * are deleted.
+     */
+    public ResultStore evaluate(
+            List<SquadParagraph> paragraphs,
+            CheckpointLog checkpoint,
+            EvaluationListener listener,
+            BooleanSupplier cancelled
+    ) {
+        return evaluate(paragraphs, 1, cell -> true, checkpoint, listener, cancelled);
+    }
+
+    /**
+     * Evaluates only the grid cells {@code cells} accepts. The paragraphs get the ids
+     * {@code firstParagraphId}, {@code firstParagraphId + 1} and so on, so consecutive slices of one
+     * dataset keep the ids they would have in a single run.
+     */
+    public ResultStore evaluate(
+            List<SquadParagraph> paragraphs,
+            long firstParagraphId,
+            Predicate<GridCell> cells,
+            CheckpointLog checkpoint,
+            EvaluationListener listener,
+            BooleanSupplier cancelled
+    ) {
+        final var checkpointed = checkpoint.andThen(listener);
+        final var indexPool = qaPipelineFactory.getIndexPool();
+        final var results = new ResultStore();
+        final var futures = new ArrayList<CompletableFuture<Void>>();
+        indexPool.open();
+        try {
+            for (var start = 0; start < paragraphs.size(); start += embeddingWindow) {
+                checkCancelled(cancelled);
+                final var window = paragraphs.subList(start, Math.min(start + embeddingWindow, paragraphs.size()));
+                embeddingBatcher.prefetch(window);
+                for (var i = 0; i < window.size(); i++) {
+                    futures.add(evaluateParagraph(
+                            window.get(i),
+                            firstParagraphId + start + i,
+                            cells,
+                            checkpoint,
+                            checkpointed,
+                            cancelled
+                    ).thenAccept(results::addAll));
+                }
+            }
+            allOf(futures).join();
+            return results;
+        } finally {
+            awaitSettled(futures);
+            indexPool.close().join();
+        }
+    }
+
+    /**
+     * Evaluates paragraphs while they are being produced. Finished cells are reported to the listener
+     * (from executor threads) and then dropped, so the engine keeps no reference to completed paragraphs.
+     * Paragraphs are submitted in windows of {@code evaluation.embedding-window}, so the embeddings of a
+     * window can be requested together.
+     */
+    public void evaluate(
+            Consumer<Consumer<SquadParagraph>> paragraphs,
+            CheckpointLog checkpoint,
+            EvaluationListener listener
+    ) {
+        evaluate(paragraphs, checkpoint, listener, () -> false);
+    }
+
+    public void evaluate(
+            Consumer<Consumer<SquadParagraph>> paragraphs,
+            CheckpointLog checkpoint,
+            EvaluationListener listener,
+            BooleanSupplier cancelled
+    ) {
+        final var indexPool = qaPipelineFactory.getIndexPool();
+        indexPool.open();
+        try {
+            evaluateStream(paragraphs, checkpoint, checkpoint.andThen(listener), cancelled);
+        } finally {
+            indexPool.close().join();
+        }
+    }
+
+    /**
+     * Retrieval-only evaluation: every index cell answers each question with one nearest-neighbour query
+     * for the largest K of the grid, and hit@k, recall@k and MRR for every K are read off that one ranked
+     * list. No completion model is called.
+     */
+    public void evaluateRetrieval(List<SquadParagraph> paragraphs, RetrievalScoreboard scoreboard) {
+        final var maxK = evaluationGrid.getKValues().stream().mapToInt(Integer::intValue).max().orElse(1);
+        final var indexPool = qaPipelineFactory.getIndexPool();
+        final var futures = new ArrayList<CompletableFuture<Void>>();
+        indexPool.open();
+        try {
+            for (var start = 0; start < paragraphs.size(); start += embeddingWindow) {
+                final var window = paragraphs.subList(start, Math.min(start + embeddingWindow, paragraphs.size()));
+                embeddingBatcher.prefetch(window);
+                for (final var paragraph : window) {
+                    evaluateRetrieval(paragraph, maxK, scoreboard, futures);
+                }
+            }
+            allOf(futures).join();
+        } finally {
+            awaitSettled(futures);
+            indexPool.close().join();
+        }
+    }
+
+    /**
+     * Identifies this engine in the names of the indexes it creates, so engines sharing a Pinecone project
+     * never touch each other's indexes. It is {@code evaluation.instance-id} when set, so a restarted
+     * instance finds the indexes it left behind, and random otherwise.
+     */
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    /**
+     * The per-paragraph indexes this engine created and no running evaluation uses any more, left behind by
+     * an interrupted evaluation or a failed delete. Indexes of other instances, pooled indexes and corpora
+     * loaded through ingestion are not among them.
+     */
+    public List<String> staleIndexNames(Collection<String> indexNames) {
+        return staleIndexNames(indexNames, instanceId);
+    }
+
+    /**
+     * The per-paragraph indexes the instance created, minus the ones this engine's running evaluations use.
+     * Only meant for an instance that is gone: a live one may still be evaluating on the rest.
+     */
+    public List<String> staleIndexNames(Collection<String> indexNames, String instanceId) {
+        checkedInstanceId(instanceId);
+        return indexNames.stream()
+                .filter(indexName -> isEvaluationIndex(indexName, instanceId))
+                .filter(indexName -> !activeIndexNames.contains(indexName))
+                .collect(Collectors.toList());
+    }
+
+    private boolean isEvaluationIndex(String indexName, String instanceId) {
+        for (final var indexCell : evaluationGrid.getIndexCells()) {
+            final var prefix = indexCell.indexName(instanceId) + "-";
+            if (indexName.startsWith(prefix) && INDEX_SEQUENCE.matcher(indexName.substring(prefix.length())).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String checkedInstanceId(String instanceId) {
+        if (!INSTANCE_ID.matcher(instanceId).matches()) {
+            throw new IllegalArgumentException("Instance id " + instanceId + " is not 1 to 6 lowercase letters or digits");
+        }
+        return instanceId;
+    }
+
+    private void evaluateStream(
+            Consumer<Consumer<SquadParagraph>> paragraphs,
+            CheckpointLog checkpoint,
+            EvaluationListener listener,
+            BooleanSupplier cancelled
+    ) {
+        final var pending = new Phaser(1);
+        final var failure = new AtomicReference<Throwable>();
+        final var window = new ArrayList<SquadParagraph>(embeddingWindow);
+        final var paragraphCount = new AtomicLong();
+        try {
+            paragraphs.accept(paragraph -> {
+                if (failure.get() != null) {
+                    throw new CompletionException(failure.get());
+                }
+                checkCancelled(cancelled);
+                window.add(paragraph);
+                if (window.size() >= embeddingWindow) {
+                    submitWindow(window, paragraphCount, checkpoint, listener, cancelled, pending, failure);
+                }
+            });
+            submitWindow(window, paragraphCount, checkpoint, listener, cancelled, pending, failure);
+        } finally {
+            pending.arriveAndAwaitAdvance();
+        }
+        if (failure.get() != null) {
+            throw new CompletionException(failure.get());
+        }
+    }
+
+    private void submitWindow(
+            List<SquadParagraph> window,
+            AtomicLong paragraphCount,
+            CheckpointLog checkpoint,
+            EvaluationListener listener,
+            BooleanSupplier cancelled,
+            Phaser pending,
+            AtomicReference<Throwable> failure
+    ) {
+        embeddingBatcher.prefetch(window);
+        for (final var paragraph : window) {
+            final var scores = evaluateParagraph(paragraph, paragraphCount.incrementAndGet(), cell -> true, checkpoint, listener, cancelled);
+            // registered only once the future exists, so a synchronous failure cannot leave a party behind
+            pending.register();
+            scores.whenComplete((ignored, e) -> {
+                if (e != null) {
+                    failure.compareAndSet(null, e);
+                }
+                pending.arriveAndDeregister();
+            });
+        }
+        window.clear();
+    }
+
+    /**
+     * Submits every index cell of the paragraph to the evaluation executor. Blocks the caller while
+     * {@code evaluation.max-active-indexes} indexes (or, on the DIRECT pipeline, namespaces of the pooled
+     * indexes) are already provisioned, so a large dataset does not create more remote indexes than the
+     * vector database allows. Cells filtered out or already in the checkpoint are skipped, and so is the
+     * index of an index cell none of whose grid cells is left. If submitting fails partway, the index
+     * cells already submitted are cancelled; they still delete their indexes and free their slots.
+     */
+    private CompletableFuture<List<ParagraphScore>> evaluateParagraph(
+            SquadParagraph paragraph,
+            long paragraphId,
+            Predicate<GridCell> cells,
+            CheckpointLog checkpoint,
+            EvaluationListener listener,
+            BooleanSupplier cancelled
+    ) {
+        final var indexCells = evaluationGrid.getIndexCells();
+        final var pendingCells = new ArrayList<List<GridCell>>(indexCells.size());
+        for (final var indexCell : indexCells) {
+            pendingCells.add(evaluationGrid.getGridCells(indexCell).stream()
+                    .filter(cell -> cells.test(cell) && !checkpoint.isFinished(paragraphId, cell))
+                    .collect(Collectors.toList()));
+        }
+        if (pendingCells.stream().allMatch(List::isEmpty)) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+
+        listener.paragraphStarted(paragraphId);
+        final var goldAnswers = paragraph.getQas().stream()
+                .map(answerScorer::gold)
+                .collect(Collectors.toList());
+        final var abandoned = new AtomicBoolean();
+        final BooleanSupplier indexCancelled = () -> abandoned.get() || cancelled.getAsBoolean();
+        final var indexFutures = new ArrayList<CompletableFuture<List<ParagraphScore>>>();
+        try {
+            for (var i = 0; i < indexCells.size(); i++) {
+                if (pendingCells.get(i).isEmpty()) {
+                    continue;
+                }
+                final var indexCell = indexCells.get(i);
+                final var gridCells = pendingCells.get(i);
+                indexFutures.add(withIndexSlot(() -> evaluateIndexCell(
+                        paragraph, paragraphId, indexCell, gridCells, goldAnswers, listener, indexCancelled
+                )));
+            }
+        } catch (RuntimeException | Error e) {
+            abandoned.set(true);
+            indexFutures.forEach(future -> future.cancel(true));
+            throw e;
+        }
+        return allOf(indexFutures).thenApply(scores -> {
+            final var paragraphScores = scores.stream()
+                    .flatMap(List::stream)
+                    .collect(Collectors.toList());
+            listener.paragraphFinished(paragraphId, paragraphScores);
+            return paragraphScores;
+        });
+    }
+
+    private CompletableFuture<List<ParagraphScore>> evaluateIndexCell(
+            SquadParagraph paragraph,
+            long paragraphId,
+            IndexCell indexCell,
+            List<GridCell> gridCells,
+            List<GoldAnswers> goldAnswers,
+            EvaluationListener listener,
+            BooleanSupplier cancelled
+    ) {
+        return withIndex(paragraph, indexCell, gridCells.get(0), cancelled, (indexName, indexer) -> allOf(
+                gridCells.stream()
+                        .map(cell -> evaluateCell(paragraphId, cell, indexName, goldAnswers, listener, cancelled)
+                                .thenApply(score -> {
+                                    listener.cellFinished(score);
+                                    return score;
+                                }))
+                        .collect(Collectors.toList())
+        ));
+    }
+
+    /**
+     * Indexes the paragraph for the index cell, runs the body against the index and the pipeline that
+     * created it and deletes the index again, whether the body succeeded or not.
+     */
+    private <T> CompletableFuture<T> withIndex(
+            SquadParagraph paragraph,
+            IndexCell indexCell,
+            GridCell pipelineCell,
+            BooleanSupplier cancelled,
+            BiFunction<String, QaPipeline, CompletableFuture<T>> body
+    ) {
+        // instances sharing a Pinecone project, such as shard workers, must not reuse each other's names
+        final var indexName = indexCell.indexName(instanceId + "-" + Long.toString(indexSequence.incrementAndGet(), 36));
+        final var indexer = qaPipelineFactory.create(pipelineCell);
+        activeIndexNames.add(indexName);
+        return CompletableFuture
+                .supplyAsync(() -> {
+                    checkCancelled(cancelled);
+                    return indexer.createIndex(indexName, paragraph.getContext());
+                }, executor)
+                .thenCompose(Function.identity())
+                .thenCompose(ignored -> body.apply(indexName, indexer))
+                .handleAsync((result, e) -> deleteIndex(indexer, indexName).thenApply(ignored -> {
+                    activeIndexNames.remove(indexName);
+                    if (e != null) {
+                        throw e instanceof CompletionException ? (CompletionException) e : new CompletionException(e);
+                    }
+                    return result;
+                }), executor)
+                .thenCompose(Function.identity());
+    }
+
+    /**
+     * Adds each index cell's future as soon as it is submitted, so the caller settles them all even if
+     * submitting a later one fails.
+     */
+    private void evaluateRetrieval(
+            SquadParagraph paragraph,
+            int maxK,
+            RetrievalScoreboard scoreboard,
+            List<CompletableFuture<Void>> futures
+    ) {
+        final var goldAnswers = paragraph.getQas().stream()
+                .map(answerScorer::gold)
+                .filter(gold -> !gold.isImpossible())
+                .collect(Collectors.toList());
+        if (goldAnswers.isEmpty()) {
+            return;
+        }
+        for (final var indexCell : evaluationGrid.getIndexCells()) {
+            final var cell = evaluationGrid.getGridCells(indexCell).get(0);
+            futures.add(withIndexSlot(() -> withIndex(
+                    paragraph,
+                    indexCell,
+                    cell,
+                    () -> false,
+                    (indexName, pipeline) -> CompletableFuture.allOf(
+                            goldAnswers.stream()
+                                    .map(gold -> CompletableFuture.runAsync(() -> scoreboard.record(
+                                            indexCell,
+                                            answerScorer.retrievalRanks(gold, pipeline.findKNearest(indexName, gold.getQuestion(), maxK))
+                                    ), executor))
+                                    .toArray(CompletableFuture[]::new)
+                    )
+            )));
+        }
+    }
+
+    private CompletableFuture<ParagraphScore> evaluateCell(
+            long paragraphId,
+            GridCell cell,
+            String indexName,
+            List<GoldAnswers> goldAnswers,
+            EvaluationListener listener,
+            BooleanSupplier cancelled
+    ) {
+        final var pipeline = qaPipelineFactory.create(cell);
+        log.info("Evaluating with " + cell.getEmbeddingModel() + " " + cell.getKnnAlgorithm() + " " + cell.getChunkModel() + " " + cell.getCompletionModel() + " " + cell.getChunkSize() + " " + cell.getChunkOverlap() + " " + cell.getK());
+
+        return allOf(
+                goldAnswers.stream()
+                        .map(gold -> CompletableFuture.supplyAsync(() -> {
+                            checkCancelled(cancelled);
+                            final var answerScore = answerScorer.score(gold, pipeline.query(indexName, gold.getQuestion()));
+                            listener.qaFinished(cell, answerScore);
+                            return answerScore;
+                        }, executor))
+                        .collect(Collectors.toList())
+        ).thenApply(outcomes -> {
+            final var score = ParagraphScore.builder()
+                    .wins(0)
+                    .misses(0)
+                    .paragraphId(paragraphId)
+                    .embeddingModel(cell.getEmbeddingModel())
+                    .completionModel(cell.getCompletionModel())
+                    .knnAlgorithm(cell.getKnnAlgorithm())
+                    .chunkModel(cell.getChunkModel())
+                    .chunkSize(cell.getChunkSize())
+                    .chunkOverlap(cell.getChunkOverlap())
+                    .k(cell.getK())
+                    .build();
+            outcomes.forEach(outcome -> {
+                if (outcome.isWin()) {
+                    score.countWin();
+                } else {
+                    score.countMiss();
+                }
+                if (outcome.isExactMatch()) {
+                    score.countExactMatch();
+                }
+                score.addF1(outcome.getF1());
+            });
+            return score;
+        });
+    }
+
+    private CompletableFuture<Void> deleteIndex(QaPipeline pipeline, String indexName) {
+        try {
+            return pipeline.deleteIndex(indexName).exceptionally(e -> {
+                log.error("Did not delete the Vectorized Database " + indexName, e);
+                return null;
+            });
+        } catch (Exception e) {
+            log.error("Did not delete the Vectorized Database " + indexName, e);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private static void checkCancelled(BooleanSupplier cancelled) {
+        if (cancelled.getAsBoolean()) {
+            throw new CancellationException("The evaluation was cancelled");
+        }
+    }
+
+    private static void awaitSettled(List<? extends CompletableFuture<?>> futures) {
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .handle((ignored, e) -> null)
+                .join();
+    }
+
+    /**
+     * Starts the body once an index slot is free and frees the slot when the body completes, or at once
+     * if starting it throws.
+     */
+    private <T> CompletableFuture<T> withIndexSlot(Supplier<CompletableFuture<T>> body) {
+        acquireIndexSlot();
+        try {
+            return body.get().whenComplete((result, e) -> activeIndexes.release());
+        } catch (RuntimeException | Error e) {
+            activeIndexes.release();
+            throw e;
+        }
+    }
+
+    private void acquireIndexSlot() {
+        try {
+            activeIndexes.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static <T> CompletableFuture<List<T>> allOf(List<CompletableFuture<T>> futures) {
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .thenApply(ignored -> futures.stream()
+                        .map(CompletableFuture::join)
+                        .collect(Collectors.toList())
+                );
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.demo.test.evaluation;
+
+import com.thesis.qnabot.api.embedding.domain.enums.ChunkModel;
+import com.thesis.qnabot.api.embedding.domain.enums.CompletionModel;
+import com.thesis.qnabot.api.embedding.domain.enums.EmbeddingModel;
+import com.thesis.qnabot.api.embedding.domain.enums.KnnAlgorithm;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class EvaluationGrid {
+
+    private final Map<Integer, Integer> CHUNK_SIZE_OVERLAP_PAIRS = Map.of(
+            10, 5,
+            15, 3,
+            20, 2
+    );
+
+    private final List<Integer> K_VALUES = List.of(1, 3, 5);
+
+    private final List<IndexCell> indexCells = new ArrayList<>();
+
+    private final List<GridCell> gridCells = new ArrayList<>();
+
+    public EvaluationGrid() {
+        for (final var embeddingModel : EmbeddingModel.values()) {
+            for (final var knnAlgorithm : KnnAlgorithm.values()) {
+                for (final var chunkModel : ChunkModel.values()) {
+                    if (chunkModel.equals(ChunkModel.ARBITRARY)) {
+                        CHUNK_SIZE_OVERLAP_PAIRS.forEach((chunkSize, chunkOverlap) ->
+                                indexCells.add(indexCell(embeddingModel, knnAlgorithm, chunkModel, chunkSize, chunkOverlap))
+                        );
+                    } else {
+                        indexCells.add(indexCell(embeddingModel, knnAlgorithm, chunkModel, 0, 0));
+                    }
+                }
+            }
+        }
+
+        for (final var embeddingModel : EmbeddingModel.values()) {
+            for (final var completionModel : CompletionModel.values()) {
+                for (final var knnAlgorithm : KnnAlgorithm.values()) {
+                    for (final var indexCell : indexCells) {
+                        if (indexCell.getEmbeddingModel().equals(embeddingModel) &&
+                                indexCell.getKnnAlgorithm().equals(knnAlgorithm)) {
+                            K_VALUES.forEach(k -> gridCells.add(indexCell.toGridCell(completionModel, k)));
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    public List<IndexCell> getIndexCells() {
+        return indexCells;
+    }
+
+    public List<GridCell> getGridCells() {
+        return gridCells;
+    }
+
+    public List<GridCell> getGridCells(IndexCell indexCell) {
+        final var cells = new ArrayList<GridCell>();
+        for (final var completionModel : CompletionModel.values()) {
+            K_VALUES.forEach(k -> cells.add(indexCell.toGridCell(completionModel, k)));
+        }
+        return cells;
+    }
+
+    public List<Integer> getKValues() {
+        return K_VALUES;
+    }
+
+    private IndexCell indexCell(
+            EmbeddingModel embeddingModel,
+            KnnAlgorithm knnAlgorithm,
+            ChunkModel chunkModel,
+            int chunkSize,
+            int chunkOverlap
+    ) {
+        return IndexCell.builder()
+                .embeddingModel(embeddingModel)
+                .knnAlgorithm(knnAlgorithm)
+                .chunkModel(chunkModel)
+                .chunkSize(chunkSize)
+                .chunkOverlap(chunkOverlap)
+                .build();
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.demo.test.evaluation;
+
+import com.example.demo.test.ParagraphScore;
+
+import java.util.List;
+
+@FunctionalInterface
+public interface EvaluationListener {
+
+    default void paragraphStarted(long paragraphId) {
+    }
+
+    default void qaFinished(GridCell cell, AnswerScore score) {
+    }
+
+    void cellFinished(ParagraphScore score);
+
+    default void paragraphFinished(long paragraphId, List<ParagraphScore> scores) {
+    }
+
+    default EvaluationListener andThen(EvaluationListener other) {
+        final var first = this;
+        return new EvaluationListener() {
+            @Override
+            public void paragraphStarted(long paragraphId) {
+                first.paragraphStarted(paragraphId);
+                other.paragraphStarted(paragraphId);
+            }
+
+            @Override
+            public void qaFinished(GridCell cell, AnswerScore score) {
+                first.qaFinished(cell, score);
+                other.qaFinished(cell, score);
+            }
+
+            @Override
+            public void cellFinished(ParagraphScore score) {
+                first.cellFinished(score);
+                other.cellFinished(score);
+            }
+
+            @Override
+            public void paragraphFinished(long paragraphId, List<ParagraphScore> scores) {
+                first.paragraphFinished(paragraphId, scores);
+                other.paragraphFinished(paragraphId, scores);
+            }
+        };
+    }
+}
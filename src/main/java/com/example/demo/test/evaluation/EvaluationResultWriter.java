@@ -0,0 +1,161 @@
+package com.example.demo.test.evaluation;
+
+import com.example.demo.test.ParagraphScore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Writes evaluation results to a response while the run is in progress: one record per finished cell,
+ * progress records on demand and the aggregate table once the run is over. Safe to call from the
+ * evaluation executor threads. Progress asked for through {@link #progressDue()} is written by the next
+ * evaluation thread to report, so a slow client never blocks the thread asking.
+ */
+public class EvaluationResultWriter implements EvaluationListener {
+
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private final Writer writer;
+    private final Format format;
+    private final ObjectMapper objectMapper;
+
+    private final long startedAt = System.nanoTime();
+    private final AtomicLong paragraphsStarted = new AtomicLong();
+    private final AtomicLong paragraphsFinished = new AtomicLong();
+    private final AtomicLong cellsFinished = new AtomicLong();
+    private final AtomicBoolean progressDue = new AtomicBoolean();
+
+    public EvaluationResultWriter(OutputStream outputStream, Format format, ObjectMapper objectMapper) {
+        this.writer = new OutputStreamWriter(outputStream, StandardCharsets.UTF_8);
+        this.format = format;
+        this.objectMapper = objectMapper;
+        if (format.equals(Format.CSV)) {
+            write("Paragraph,Embedding Model,Completion Model,KNN Algorithm,Chunking Model,K,Arbitrary Chunk Values,Wins,Misses,Exact Match,F1\n");
+        }
+    }
+
+    @Override
+    public void paragraphStarted(long paragraphId) {
+        paragraphsStarted.incrementAndGet();
+    }
+
+    @Override
+    public void cellFinished(ParagraphScore score) {
+        cellsFinished.incrementAndGet();
+        if (format.equals(Format.CSV)) {
+            write(score.getParagraphId() + "," + toCsvRow(score));
+        } else {
+            write(toNode(score).put("type", "score").toString() + "\n");
+        }
+        writeProgressIfDue();
+    }
+
+    @Override
+    public void paragraphFinished(long paragraphId, List<ParagraphScore> scores) {
+        paragraphsFinished.incrementAndGet();
+        writeProgressIfDue();
+    }
+
+    public void progressDue() {
+        progressDue.set(true);
+    }
+
+    private void writeProgressIfDue() {
+        if (progressDue.compareAndSet(true, false)) {
+            writeProgress();
+        }
+    }
+
+    private void writeProgress() {
+        final var elapsedSeconds = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startedAt);
+        if (format.equals(Format.CSV)) {
+            write("# progress: paragraphs started " + paragraphsStarted.get() +
+                    ", paragraphs finished " + paragraphsFinished.get() +
+                    ", cells finished " + cellsFinished.get() +
+                    ", elapsed " + elapsedSeconds + "s\n");
+        } else {
+            final var record = objectMapper.createObjectNode()
+                    .put("type", "progress")
+                    .put("paragraphsStarted", paragraphsStarted.get())
+                    .put("paragraphsFinished", paragraphsFinished.get())
+                    .put("cellsFinished", cellsFinished.get())
+                    .put("elapsedSeconds", elapsedSeconds);
+            write(record.toString() + "\n");
+        }
+    }
+
+    public void writeSummary(List<ParagraphScore> cellTotals, String csvTable) {
+        writeProgress();
+        if (format.equals(Format.CSV)) {
+            write("\n" + csvTable);
+        } else {
+            final var record = objectMapper.createObjectNode().put("type", "summary");
+            final var rows = record.putArray("rows");
+            cellTotals.forEach(total -> rows.add(toNode(total)));
+            write(record.toString() + "\n");
+        }
+    }
+
+    public void writeError(Throwable e) {
+        if (format.equals(Format.CSV)) {
+            write("# error: " + e.getMessage() + "\n");
+        } else {
+            write(objectMapper.createObjectNode()
+                    .put("type", "error")
+                    .put("message", String.valueOf(e.getMessage()))
+                    .toString() + "\n");
+        }
+    }
+
+    private String toCsvRow(ParagraphScore score) {
+        return score.getEmbeddingModel() + "," +
+                score.getCompletionModel() + "," +
+                score.getKnnAlgorithm() + "," +
+                score.getChunkModel() + "," +
+                score.getK() + "," +
+                score.getChunkSize() + " & " + score.getChunkOverlap() + "," +
+                score.getWins() + "," +
+                score.getMisses() + "," +
+                score.exactMatchRate() + "," +
+                score.meanF1() + "\n";
+    }
+
+    private ObjectNode toNode(ParagraphScore score) {
+        final var node = objectMapper.createObjectNode();
+        if (score.getParagraphId() != 0) {
+            node.put("paragraphId", score.getParagraphId());
+        }
+        return node.put("embeddingModel", score.getEmbeddingModel().name())
+                .put("completionModel", score.getCompletionModel().name())
+                .put("knnAlgorithm", score.getKnnAlgorithm().name())
+                .put("chunkModel", score.getChunkModel().name())
+                .put("chunkSize", score.getChunkSize())
+                .put("chunkOverlap", score.getChunkOverlap())
+                .put("k", score.getK())
+                .put("wins", score.getWins())
+                .put("misses", score.getMisses())
+                .put("exactMatch", score.exactMatchRate())
+                .put("f1", score.meanF1());
+    }
+
+    private synchronized void write(String record) {
+        try {
+            writer.write(record);
+            writer.flush();
+        } catch (IOException e) {
+            throw new RuntimeException("Could not write evaluation results", e);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.demo.test.evaluation;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * A question with its gold answers normalized once, in both the legacy contains form and as SQuAD
+ * tokens, so that grading a model answer does not normalize them again for every grid cell.
+ */
+@Value
+public class GoldAnswers {
+
+    String question;
+
+    boolean impossible;
+
+    List<String> containsForms;
+
+    List<NormalizedAnswer> normalized;
+
+}
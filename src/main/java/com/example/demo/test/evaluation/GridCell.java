@@ -0,0 +1,37 @@
+package com.example.demo.test.evaluation;
+
+import com.thesis.qnabot.api.embedding.domain.enums.ChunkModel;
+import com.thesis.qnabot.api.embedding.domain.enums.CompletionModel;
+import com.thesis.qnabot.api.embedding.domain.enums.EmbeddingModel;
+import com.thesis.qnabot.api.embedding.domain.enums.KnnAlgorithm;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class GridCell {
+
+    EmbeddingModel embeddingModel;
+
+    KnnAlgorithm knnAlgorithm;
+
+    ChunkModel chunkModel;
+
+    int chunkSize;
+
+    int chunkOverlap;
+
+    CompletionModel completionModel;
+
+    int k;
+
+    public IndexCell getIndexCell() {
+        return IndexCell.builder()
+                .embeddingModel(embeddingModel)
+                .knnAlgorithm(knnAlgorithm)
+                .chunkModel(chunkModel)
+                .chunkSize(chunkSize)
+                .chunkOverlap(chunkOverlap)
+                .build();
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.demo.test.evaluation;
+
+import com.thesis.qnabot.api.embedding.domain.enums.ChunkModel;
+import com.thesis.qnabot.api.embedding.domain.enums.CompletionModel;
+import com.thesis.qnabot.api.embedding.domain.enums.EmbeddingModel;
+import com.thesis.qnabot.api.embedding.domain.enums.KnnAlgorithm;
+
+/**
+ * What stored results can be grouped by: the paragraph, or one field of the {@link CellKey} of the grid
+ * cell.
+ */
+public enum GridDimension {
+    PARAGRAPH(0, 0),
+    EMBEDDING_MODEL(CellKey.EMBEDDING_MODEL_SHIFT, CellKey.MAX_ORDINAL),
+    COMPLETION_MODEL(CellKey.COMPLETION_MODEL_SHIFT, CellKey.MAX_ORDINAL),
+    KNN_ALGORITHM(CellKey.KNN_ALGORITHM_SHIFT, CellKey.MAX_ORDINAL),
+    CHUNK_MODEL(CellKey.CHUNK_MODEL_SHIFT, CellKey.MAX_ORDINAL),
+    CHUNK_SIZE(CellKey.CHUNK_SIZE_SHIFT, CellKey.MAX_CHUNK_VALUE),
+    CHUNK_OVERLAP(CellKey.CHUNK_OVERLAP_SHIFT, CellKey.MAX_CHUNK_VALUE),
+    K(0, CellKey.MAX_K);
+
+    private final int shift;
+    private final long mask;
+
+    GridDimension(int shift, long mask) {
+        this.shift = shift;
+        this.mask = mask;
+    }
+
+    /**
+     * The bits of a cell key this dimension is read from, none for {@link #PARAGRAPH}.
+     */
+    long cellKeyMask() {
+        return mask << shift;
+    }
+
+    String label(long paragraphId, long cellKey) {
+        final var value = (int) ((cellKey >>> shift) & mask);
+        switch (this) {
+            case PARAGRAPH:
+                return String.valueOf(paragraphId);
+            case EMBEDDING_MODEL:
+                return EmbeddingModel.values()[value].name();
+            case COMPLETION_MODEL:
+                return CompletionModel.values()[value].name();
+            case KNN_ALGORITHM:
+                return KnnAlgorithm.values()[value].name();
+            case CHUNK_MODEL:
+                return ChunkModel.values()[value].name();
+            default:
+                return String.valueOf(value);
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.demo.test.evaluation;
+
+import com.thesis.qnabot.api.embedding.domain.enums.ChunkModel;
+import com.thesis.qnabot.api.embedding.domain.enums.CompletionModel;
+import com.thesis.qnabot.api.embedding.domain.enums.EmbeddingModel;
+import com.thesis.qnabot.api.embedding.domain.enums.KnnAlgorithm;
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class IndexCell {
+
+    EmbeddingModel embeddingModel;
+
+    KnnAlgorithm knnAlgorithm;
+
+    ChunkModel chunkModel;
+
+    int chunkSize;
+
+    int chunkOverlap;
+
+    public GridCell toGridCell(CompletionModel completionModel, int k) {
+        return GridCell.builder()
+                .embeddingModel(embeddingModel)
+                .knnAlgorithm(knnAlgorithm)
+                .chunkModel(chunkModel)
+                .chunkSize(chunkSize)
+                .chunkOverlap(chunkOverlap)
+                .completionModel(completionModel)
+                .k(k)
+                .build();
+    }
+
+    /**
+     * The id only has to be unique among the indexes alive in the Pinecone project.
+     */
+    public String indexName(String indexId) {
+        return indexNamePrefix() + "-" + indexId;
+    }
+
+    String indexNamePrefix() {
+        final var indexName = new StringBuilder("thesis-")
+                .append(embeddingModel.getStringValue()).append("-")
+                .append(knnAlgorithm.getStringValue()).append("-")
+                .append(chunkModel.getStringValue());
+        if (chunkModel.equals(ChunkModel.ARBITRARY)) {
+            indexName.append("-").append(chunkSize)
+                    .append("-").append(chunkOverlap);
+        }
+        return indexName.toString();
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.demo.test.evaluation;
+
+/**
+ * An answer after SQuAD normalization: lower case, without punctuation and articles, tokens joined by
+ * single spaces. Token boundaries are kept as offsets into the joined text, so comparing tokens needs no
+ * substrings.
+ */
+public class NormalizedAnswer {
+
+    static final NormalizedAnswer EMPTY = new NormalizedAnswer("", new int[0]);
+
+    private final String text;
+    private final int[] tokenStarts;
+
+    NormalizedAnswer(String text, int[] tokenStarts) {
+        this.text = text;
+        this.tokenStarts = tokenStarts;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public int getTokenCount() {
+        return tokenStarts.length;
+    }
+
+    boolean tokenEquals(int token, NormalizedAnswer other, int otherToken) {
+        final var length = tokenEnd(token) - tokenStarts[token];
+        return length == other.tokenEnd(otherToken) - other.tokenStarts[otherToken] &&
+                text.regionMatches(tokenStarts[token], other.text, other.tokenStarts[otherToken], length);
+    }
+
+    private int tokenEnd(int token) {
+        return token + 1 < tokenStarts.length ? tokenStarts[token + 1] - 1 : text.length();
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.demo.test.evaluation;
+
+import lombok.Value;
+
+import java.util.Map;
+
+/**
+ * Totals of the stored rows sharing the values in {@code key}. Exact match and F1 are per question.
+ */
+@Value
+public class ResultGroup {
+
+    Map<GridDimension, String> key;
+
+    long cells;
+
+    long wins;
+
+    long misses;
+
+    double exactMatch;
+
+    double f1;
+}
@@ -0,0 +1,232 @@
+package com.example.demo.test.evaluation;
+
+import com.example.demo.test.ParagraphScore;
+import lombok.Value;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+/**
+ * Scores of a run as primitive columns, one row per finished cell: the paragraph id, the
+ * {@link CellKey} of the grid cell and the counters. Rows are only ever appended. The store is exported
+ * column by column and can be grouped by any {@link GridDimension}, so its size depends on the number of
+ * cells evaluated and not on the paragraphs behind them.
+ */
+public class ResultStore {
+
+    private static final int MAGIC = 0x52534331;
+
+    @FunctionalInterface
+    public interface RowConsumer {
+
+        void accept(long paragraphId, long cellKey, int wins, int misses, int exactMatches, double f1);
+    }
+
+    private long[] paragraphIds;
+    private long[] cellKeys;
+    private int[] wins;
+    private int[] misses;
+    private int[] exactMatches;
+    private double[] f1;
+    private int size;
+
+    public ResultStore() {
+        this(64);
+    }
+
+    private ResultStore(int capacity) {
+        this.paragraphIds = new long[capacity];
+        this.cellKeys = new long[capacity];
+        this.wins = new int[capacity];
+        this.misses = new int[capacity];
+        this.exactMatches = new int[capacity];
+        this.f1 = new double[capacity];
+    }
+
+    public void add(ParagraphScore score) {
+        add(
+                score.getParagraphId(),
+                CellKey.of(score),
+                score.getWins(),
+                score.getMisses(),
+                score.getExactMatches(),
+                score.getF1()
+        );
+    }
+
+    public void addAll(List<ParagraphScore> scores) {
+        scores.forEach(this::add);
+    }
+
+    public synchronized void add(long paragraphId, long cellKey, int wins, int misses, int exactMatches, double f1) {
+        if (size == paragraphIds.length) {
+            grow();
+        }
+        this.paragraphIds[size] = paragraphId;
+        this.cellKeys[size] = cellKey;
+        this.wins[size] = wins;
+        this.misses[size] = misses;
+        this.exactMatches[size] = exactMatches;
+        this.f1[size] = f1;
+        size++;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public synchronized void forEach(RowConsumer consumer) {
+        for (var row = 0; row < size; row++) {
+            consumer.accept(paragraphIds[row], cellKeys[row], wins[row], misses[row], exactMatches[row], f1[row]);
+        }
+    }
+
+    /**
+     * One group per distinct combination of the dimensions' values, ordered by paragraph and then by
+     * cell key. No dimensions give a single group with the totals of the run.
+     */
+    public synchronized List<ResultGroup> groupBy(List<GridDimension> dimensions) {
+        var cellKeyMask = 0L;
+        var byParagraph = false;
+        for (final var dimension : dimensions) {
+            if (dimension.equals(GridDimension.PARAGRAPH)) {
+                byParagraph = true;
+            } else {
+                cellKeyMask |= dimension.cellKeyMask();
+            }
+        }
+
+        final var groups = new HashMap<GroupKey, Totals>();
+        for (var row = 0; row < size; row++) {
+            final var key = new GroupKey(byParagraph ? paragraphIds[row] : 0, cellKeys[row] & cellKeyMask);
+            final var totals = groups.computeIfAbsent(key, ignored -> new Totals());
+            totals.cells++;
+            totals.wins += wins[row];
+            totals.misses += misses[row];
+            totals.exactMatches += exactMatches[row];
+            totals.f1 += f1[row];
+        }
+
+        final var keys = new ArrayList<>(groups.keySet());
+        keys.sort((first, second) -> first.paragraphId != second.paragraphId
+                ? Long.compare(first.paragraphId, second.paragraphId)
+                : Long.compareUnsigned(first.cellKey, second.cellKey));
+        final var result = new ArrayList<ResultGroup>(keys.size());
+        for (final var key : keys) {
+            final var labels = new LinkedHashMap<GridDimension, String>();
+            dimensions.forEach(dimension -> labels.put(dimension, dimension.label(key.paragraphId, key.cellKey)));
+            final var totals = groups.get(key);
+            final var questions = totals.wins + totals.misses;
+            result.add(new ResultGroup(
+                    labels,
+                    totals.cells,
+                    totals.wins,
+                    totals.misses,
+                    questions == 0 ? 0 : (double) totals.exactMatches / questions,
+                    questions == 0 ? 0 : totals.f1 / questions
+            ));
+        }
+        return result;
+    }
+
+    /**
+     * Writes the row count and then every column in one piece, all big-endian.
+     */
+    public synchronized void writeTo(OutputStream outputStream) throws IOException {
+        final var out = new DataOutputStream(new BufferedOutputStream(outputStream));
+        out.writeInt(MAGIC);
+        out.writeInt(size);
+        for (var row = 0; row < size; row++) {
+            out.writeLong(paragraphIds[row]);
+        }
+        for (var row = 0; row < size; row++) {
+            out.writeLong(cellKeys[row]);
+        }
+        for (var row = 0; row < size; row++) {
+            out.writeInt(wins[row]);
+        }
+        for (var row = 0; row < size; row++) {
+            out.writeInt(misses[row]);
+        }
+        for (var row = 0; row < size; row++) {
+            out.writeInt(exactMatches[row]);
+        }
+        for (var row = 0; row < size; row++) {
+            out.writeDouble(f1[row]);
+        }
+        out.flush();
+    }
+
+    /**
+     * Rejects exports of more than {@code maxRows} rows before allocating anything for them, as the row
+     * count comes from the stream.
+     */
+    public static ResultStore readFrom(InputStream inputStream, int maxRows) throws IOException {
+        final var in = new DataInputStream(new BufferedInputStream(inputStream));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not an exported result store");
+        }
+        final var size = in.readInt();
+        if (size < 0 || size > maxRows) {
+            throw new IOException("Invalid row count " + size + ", expected at most " + maxRows);
+        }
+        final var store = new ResultStore(Math.max(size, 1));
+        for (var row = 0; row < size; row++) {
+            store.paragraphIds[row] = in.readLong();
+        }
+        for (var row = 0; row < size; row++) {
+            store.cellKeys[row] = in.readLong();
+        }
+        for (var row = 0; row < size; row++) {
+            store.wins[row] = in.readInt();
+        }
+        for (var row = 0; row < size; row++) {
+            store.misses[row] = in.readInt();
+        }
+        for (var row = 0; row < size; row++) {
+            store.exactMatches[row] = in.readInt();
+        }
+        for (var row = 0; row < size; row++) {
+            store.f1[row] = in.readDouble();
+        }
+        store.size = size;
+        return store;
+    }
+
+    private void grow() {
+        final var capacity = paragraphIds.length * 2;
+        paragraphIds = Arrays.copyOf(paragraphIds, capacity);
+        cellKeys = Arrays.copyOf(cellKeys, capacity);
+        wins = Arrays.copyOf(wins, capacity);
+        misses = Arrays.copyOf(misses, capacity);
+        exactMatches = Arrays.copyOf(exactMatches, capacity);
+        f1 = Arrays.copyOf(f1, capacity);
+    }
+
+    @Value
+    private static class GroupKey {
+
+        long paragraphId;
+
+        long cellKey;
+    }
+
+    private static class Totals {
+
+        private long cells;
+        private long wins;
+        private long misses;
+        private long exactMatches;
+        private double f1;
+    }
+}
@@ -0,0 +1,144 @@
+package com.example.demo.test.evaluation;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.DoubleAdder;
+
+/**
+ * Running retrieval totals per index cell: for every K of the grid the questions with a gold answer in
+ * the top K (hit@k) and the summed share of gold answers there (recall@k), and the summed reciprocal
+ * rank of the first chunk holding a gold answer (MRR). Questions without gold answers are not counted.
+ */
+public class RetrievalScoreboard {
+
+    private final List<IndexCell> cells;
+    private final List<Integer> kValues;
+    private final Map<IndexCell, Integer> slots = new HashMap<>();
+    private final AtomicLongArray questions;
+    private final AtomicLongArray hits;
+    private final DoubleAdder[] recall;
+    private final DoubleAdder[] reciprocalRank;
+
+    public RetrievalScoreboard(EvaluationGrid evaluationGrid) {
+        this.cells = evaluationGrid.getIndexCells();
+        this.kValues = evaluationGrid.getKValues();
+        for (var slot = 0; slot < cells.size(); slot++) {
+            slots.put(cells.get(slot), slot);
+        }
+        this.questions = new AtomicLongArray(cells.size());
+        this.hits = new AtomicLongArray(cells.size() * kValues.size());
+        this.recall = new DoubleAdder[cells.size() * kValues.size()];
+        for (var i = 0; i < recall.length; i++) {
+            recall[i] = new DoubleAdder();
+        }
+        this.reciprocalRank = new DoubleAdder[cells.size()];
+        for (var slot = 0; slot < cells.size(); slot++) {
+            reciprocalRank[slot] = new DoubleAdder();
+        }
+    }
+
+    /**
+     * @param ranks per gold answer, the 1-based rank of the first chunk containing it, 0 if not retrieved
+     */
+    public void record(IndexCell cell, int[] ranks) {
+        if (ranks.length == 0) {
+            return;
+        }
+        final var slot = slot(cell);
+        var firstRank = 0;
+        for (final var rank : ranks) {
+            if (rank > 0 && (firstRank == 0 || rank < firstRank)) {
+                firstRank = rank;
+            }
+        }
+        questions.incrementAndGet(slot);
+        if (firstRank > 0) {
+            reciprocalRank[slot].add(1. / firstRank);
+        }
+        for (var i = 0; i < kValues.size(); i++) {
+            final var k = kValues.get(i);
+            var retrieved = 0;
+            for (final var rank : ranks) {
+                if (rank > 0 && rank <= k) {
+                    retrieved++;
+                }
+            }
+            if (retrieved > 0) {
+                hits.incrementAndGet(slot * kValues.size() + i);
+                recall[slot * kValues.size() + i].add((double) retrieved / ranks.length);
+            }
+        }
+    }
+
+    public long getQuestions(IndexCell cell) {
+        return questions.get(slot(cell));
+    }
+
+    public double hitRate(IndexCell cell, int k) {
+        final var slot = slot(cell);
+        final var count = questions.get(slot);
+        return count == 0 ? 0 : (double) hits.get(slot * kValues.size() + kSlot(k)) / count;
+    }
+
+    public double recall(IndexCell cell, int k) {
+        final var slot = slot(cell);
+        final var count = questions.get(slot);
+        return count == 0 ? 0 : recall[slot * kValues.size() + kSlot(k)].sum() / count;
+    }
+
+    public double meanReciprocalRank(IndexCell cell) {
+        final var slot = slot(cell);
+        final var count = questions.get(slot);
+        return count == 0 ? 0 : reciprocalRank[slot].sum() / count;
+    }
+
+    public String toCsv() {
+        final var result = new StringBuilder();
+
+        result.append("Embedding Model,")
+                .append("KNN Algorithm,")
+                .append("Chunking Model,")
+                .append("Arbitrary Chunk Values, ")
+                .append("K,")
+                .append("Questions,")
+                .append("Hit Rate,")
+                .append("Recall,")
+                .append("MRR")
+                .append("\n");
+        for (final var cell : cells) {
+            if (getQuestions(cell) == 0) {
+                continue;
+            }
+            for (final var k : kValues) {
+                result.append(cell.getEmbeddingModel()).append(",")
+                        .append(cell.getKnnAlgorithm()).append(",")
+                        .append(cell.getChunkModel()).append(",")
+                        .append(cell.getChunkSize()).append(" & ").append(cell.getChunkOverlap()).append(",")
+                        .append(k).append(",")
+                        .append(getQuestions(cell)).append(",")
+                        .append(hitRate(cell, k)).append(",")
+                        .append(recall(cell, k)).append(",")
+                        .append(meanReciprocalRank(cell)).append("\n");
+            }
+        }
+        return result.toString();
+    }
+
+    private int slot(IndexCell cell) {
+        final var slot = slots.get(cell);
+        if (slot == null) {
+            throw new IllegalArgumentException("Cell " + cell + " is not part of the evaluation grid");
+        }
+        return slot;
+    }
+
+    private int kSlot(int k) {
+        final var kSlot = kValues.indexOf(k);
+        if (kSlot < 0) {
+            throw new IllegalArgumentException("K " + k + " is not part of the evaluation grid");
+        }
+        return kSlot;
+    }
+}
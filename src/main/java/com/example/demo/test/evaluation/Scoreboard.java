@@ -0,0 +1,163 @@
+package com.example.demo.test.evaluation;
+
+import com.example.demo.test.ParagraphScore;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.stream.IntStream;
+
+/**
+ * Running win/miss, exact match and F1 totals for every cell of the grid. Counters are updated as each QA
+ * finishes and can be read from any thread while the run is still going. A cell's counters are found by
+ * binary search over the sorted cell keys: with a grid of a few hundred cells that is at most nine
+ * comparisons, allocates nothing and needs no dense index over the chunk sizes, overlaps and k values a
+ * directly indexed table would.
+ */
+public class Scoreboard implements EvaluationListener {
+
+    private final List<GridCell> cells;
+    private final long[] keys;
+    private final int[] slots;
+    private final AtomicLongArray wins;
+    private final AtomicLongArray misses;
+    private final AtomicLongArray exactMatches;
+    private final DoubleAdder[] f1;
+
+    public Scoreboard(EvaluationGrid evaluationGrid) {
+        this.cells = evaluationGrid.getGridCells();
+        this.slots = IntStream.range(0, cells.size())
+                .boxed()
+                .sorted(Comparator.comparingLong(slot -> CellKey.of(cells.get(slot))))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        this.keys = new long[slots.length];
+        for (var index = 0; index < slots.length; index++) {
+            keys[index] = CellKey.of(cells.get(slots[index]));
+        }
+        this.wins = new AtomicLongArray(cells.size());
+        this.misses = new AtomicLongArray(cells.size());
+        this.exactMatches = new AtomicLongArray(cells.size());
+        this.f1 = new DoubleAdder[cells.size()];
+        for (var slot = 0; slot < cells.size(); slot++) {
+            f1[slot] = new DoubleAdder();
+        }
+    }
+
+    @Override
+    public void qaFinished(GridCell cell, AnswerScore score) {
+        final var slot = slot(CellKey.of(cell));
+        if (score.isWin()) {
+            wins.incrementAndGet(slot);
+        } else {
+            misses.incrementAndGet(slot);
+        }
+        if (score.isExactMatch()) {
+            exactMatches.incrementAndGet(slot);
+        }
+        f1[slot].add(score.getF1());
+    }
+
+    @Override
+    public void cellFinished(ParagraphScore score) {
+    }
+
+    public void add(ParagraphScore score) {
+        final var slot = slot(CellKey.of(score));
+        wins.addAndGet(slot, score.getWins());
+        misses.addAndGet(slot, score.getMisses());
+        exactMatches.addAndGet(slot, score.getExactMatches());
+        f1[slot].add(score.getF1());
+    }
+
+    public void add(ResultStore results) {
+        results.forEach((paragraphId, cellKey, cellWins, cellMisses, cellExactMatches, cellF1) -> {
+            final var slot = slot(cellKey);
+            wins.addAndGet(slot, cellWins);
+            misses.addAndGet(slot, cellMisses);
+            exactMatches.addAndGet(slot, cellExactMatches);
+            f1[slot].add(cellF1);
+        });
+    }
+
+    public long getWins(GridCell cell) {
+        return wins.get(slot(CellKey.of(cell)));
+    }
+
+    public long getMisses(GridCell cell) {
+        return misses.get(slot(CellKey.of(cell)));
+    }
+
+    public long getExactMatches(GridCell cell) {
+        return exactMatches.get(slot(CellKey.of(cell)));
+    }
+
+    public double getF1(GridCell cell) {
+        return f1[slot(CellKey.of(cell))].sum();
+    }
+
+    public List<ParagraphScore> getCellTotals() {
+        final var totals = new ArrayList<ParagraphScore>();
+        for (var slot = 0; slot < cells.size(); slot++) {
+            final var cellWins = wins.get(slot);
+            final var cellMisses = misses.get(slot);
+            if (cellWins != 0 || cellMisses != 0) {
+                final var cell = cells.get(slot);
+                totals.add(ParagraphScore.builder()
+                        .wins((int) cellWins)
+                        .misses((int) cellMisses)
+                        .exactMatches((int) exactMatches.get(slot))
+                        .f1(f1[slot].sum())
+                        .embeddingModel(cell.getEmbeddingModel())
+                        .completionModel(cell.getCompletionModel())
+                        .knnAlgorithm(cell.getKnnAlgorithm())
+                        .chunkModel(cell.getChunkModel())
+                        .chunkSize(cell.getChunkSize())
+                        .chunkOverlap(cell.getChunkOverlap())
+                        .k(cell.getK())
+                        .build());
+            }
+        }
+        return totals;
+    }
+
+    public String toCsv() {
+        final var result = new StringBuilder();
+
+        result.append("Embedding Model,")
+                .append("Completion Model,")
+                .append("KNN Algorithm,")
+                .append("Chunking Model,")
+                .append("K, ")
+                .append("Arbitrary Chunk Values, ")
+                .append("Wins,")
+                .append("Misses,")
+                .append("Exact Match,")
+                .append("F1")
+                .append("\n");
+        getCellTotals().forEach(total ->
+                result.append(total.getEmbeddingModel()).append(",")
+                        .append(total.getCompletionModel()).append(",")
+                        .append(total.getKnnAlgorithm()).append(",")
+                        .append(total.getChunkModel()).append(",")
+                        .append(total.getK()).append(",")
+                        .append(total.getChunkSize()).append(" & ").append(total.getChunkOverlap()).append(",")
+                        .append((double) total.getWins()).append(",")
+                        .append((double) total.getMisses()).append(",")
+                        .append(total.exactMatchRate()).append(",")
+                        .append(total.meanF1()).append("\n")
+        );
+        return result.toString();
+    }
+
+    private int slot(long key) {
+        final var index = Arrays.binarySearch(keys, key);
+        if (index < 0) {
+            throw new IllegalArgumentException("Cell " + CellKey.toGridCell(key) + " is not part of the evaluation grid");
+        }
+        return slots[index];
+    }
+}
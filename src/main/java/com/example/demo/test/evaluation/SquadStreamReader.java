@@ -0,0 +1,69 @@
+package com.example.demo.test.evaluation;
+
+import com.example.demo.test.dto.SquadParagraph;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * Walks a SQuAD file token by token and hands every paragraph to the consumer as soon as it is bound,
+ * so only one {@link SquadParagraph} is materialized by the parser at a time.
+ */
+@Component
+public class SquadStreamReader {
+
+    private final ObjectMapper objectMapper;
+
+    public SquadStreamReader(final ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public void read(InputStream inputStream, Consumer<SquadParagraph> paragraphConsumer) {
+        try (final var parser = objectMapper.getFactory().createParser(inputStream)) {
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final var fieldName = parser.getCurrentName();
+                parser.nextToken();
+                if ("data".equals(fieldName)) {
+                    readData(parser, paragraphConsumer);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Could not parse the SQuAD dataset", e);
+        }
+    }
+
+    private void readData(JsonParser parser, Consumer<SquadParagraph> paragraphConsumer) throws IOException {
+        expect(parser, parser.currentToken(), JsonToken.START_ARRAY);
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                final var fieldName = parser.getCurrentName();
+                parser.nextToken();
+                if ("paragraphs".equals(fieldName)) {
+                    expect(parser, parser.currentToken(), JsonToken.START_ARRAY);
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        paragraphConsumer.accept(objectMapper.readValue(parser, SquadParagraph.class));
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    private void expect(JsonParser parser, JsonToken actual, JsonToken expected) {
+        if (actual != expected) {
+            throw new RuntimeException(
+                    "Malformed SQuAD dataset: expected " + expected + " but found " + actual +
+                            " at " + parser.getCurrentLocation()
+            );
+        }
+    }
+}
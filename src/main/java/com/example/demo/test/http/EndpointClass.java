@@ -0,0 +1,13 @@
+package com.example.demo.test.http;
+
+/**
+ * Groups outbound calls by how long they may legitimately take, so each group gets its own timeouts.
+ */
+public enum EndpointClass {
+    /** Pinecone index management and stats. */
+    CONTROL_PLANE,
+    /** Pinecone data plane: query, upsert and delete. */
+    QUERY,
+    EMBEDDING,
+    COMPLETION
+}
@@ -0,0 +1,90 @@
+package com.example.demo.test.http;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Times every outbound exchange, from sending the request until the response headers arrived, and
+ * accumulates the latencies per host. Responses with an error status and failed exchanges count as
+ * errors. Each exchange is also recorded as {@code rag.http.client}, tagged with host and outcome.
+ */
+public class HostLatencies implements ClientHttpRequestInterceptor {
+
+    private final Map<String, HostLatency> hosts = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+
+    public HostLatencies(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(
+            HttpRequest request,
+            byte[] body,
+            ClientHttpRequestExecution execution
+    ) throws IOException {
+        final var host = request.getURI().getHost();
+        final var latency = hosts.computeIfAbsent(host, ignored -> new HostLatency());
+        final var start = System.nanoTime();
+        var failed = true;
+        try {
+            final var response = execution.execute(request, body);
+            failed = response.getRawStatusCode() >= 400;
+            return response;
+        } finally {
+            final var nanos = System.nanoTime() - start;
+            latency.record(nanos, failed);
+            Timer.builder("rag.http.client")
+                    .tag("host", host)
+                    .tag("outcome", failed ? "error" : "success")
+                    .publishPercentiles(0.5, 0.99)
+                    .register(meterRegistry)
+                    .record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public Map<String, Map<String, Long>> snapshot() {
+        final var snapshot = new TreeMap<String, Map<String, Long>>();
+        hosts.forEach((host, latency) -> snapshot.put(host, latency.snapshot()));
+        return snapshot;
+    }
+
+    static class HostLatency {
+
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long nanos, boolean failed) {
+            requests.increment();
+            if (failed) {
+                errors.increment();
+            }
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        Map<String, Long> snapshot() {
+            final var count = requests.sum();
+            return Map.of(
+                    "requests", count,
+                    "errors", errors.sum(),
+                    "meanMillis", count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalNanos.sum() / count),
+                    "maxMillis", TimeUnit.NANOSECONDS.toMillis(maxNanos.get())
+            );
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.demo.test.http;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The outbound HTTP stack of the application's own clients: the Pinecone index manager and vector store,
+ * the embedding and completion provider clients and the {@code restTemplate} bean. They share one pool of
+ * keep-alive connections, bounded per host, and get a {@link RestTemplate} whose read timeout depends on
+ * the {@link EndpointClass}. Every exchange is timed per host.
+ * <p>
+ * The qna-bot {@code ChatBotService} makes its own provider calls, so the default
+ * {@code CHAT_BOT_SERVICE} pipeline and the {@code /open-ai/*} endpoints bypass this pool and are missing
+ * from its statistics.
+ */
+@Component
+public class OutboundHttp {
+
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    private final HostLatencies hostLatencies;
+    private final Map<EndpointClass, RestTemplate> restTemplates = new EnumMap<>(EndpointClass.class);
+
+    public OutboundHttp(final OutboundHttpConfig outboundHttpConfig, final MeterRegistry meterRegistry) {
+        this.hostLatencies = new HostLatencies(meterRegistry);
+        this.connectionManager = new PoolingHttpClientConnectionManager(
+                outboundHttpConfig.getKeepAliveSeconds(),
+                TimeUnit.SECONDS
+        );
+        this.connectionManager.setDefaultMaxPerRoute(outboundHttpConfig.getMaxConnectionsPerHost());
+        this.connectionManager.setMaxTotal(outboundHttpConfig.getMaxConnections());
+        this.connectionManager.setValidateAfterInactivity(2000);
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setKeepAliveStrategy((response, context) ->
+                        TimeUnit.SECONDS.toMillis(outboundHttpConfig.getKeepAliveSeconds()))
+                .evictIdleConnections(outboundHttpConfig.getKeepAliveSeconds(), TimeUnit.SECONDS)
+                .build();
+
+        Gauge.builder("rag.http.pool.connections", connectionManager, pool -> pool.getTotalStats().getLeased())
+                .tag("state", "leased")
+                .register(meterRegistry);
+        Gauge.builder("rag.http.pool.connections", connectionManager, pool -> pool.getTotalStats().getAvailable())
+                .tag("state", "available")
+                .register(meterRegistry);
+        Gauge.builder("rag.http.pool.connections", connectionManager, pool -> pool.getTotalStats().getPending())
+                .tag("state", "pending")
+                .register(meterRegistry);
+
+        for (final var endpointClass : EndpointClass.values()) {
+            final var requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+            requestFactory.setConnectionRequestTimeout(outboundHttpConfig.getConnectionRequestTimeoutMillis());
+            requestFactory.setConnectTimeout(outboundHttpConfig.getConnectTimeoutMillis());
+            requestFactory.setReadTimeout(outboundHttpConfig.getReadTimeoutMillis(endpointClass));
+
+            final var restTemplate = new RestTemplate(requestFactory);
+            restTemplate.setInterceptors(List.of(hostLatencies));
+            restTemplates.put(endpointClass, restTemplate);
+        }
+    }
+
+    public RestTemplate restTemplate(EndpointClass endpointClass) {
+        return restTemplates.get(endpointClass);
+    }
+
+    public HostLatencies getHostLatencies() {
+        return hostLatencies;
+    }
+
+    /**
+     * Connections leased, idle and awaited, for the whole pool and per host.
+     */
+    public Map<String, Map<String, Integer>> getPoolStats() {
+        final var stats = new LinkedHashMap<String, Map<String, Integer>>();
+        final var total = connectionManager.getTotalStats();
+        stats.put("total", Map.of(
+                "leased", total.getLeased(),
+                "available", total.getAvailable(),
+                "pending", total.getPending(),
+                "max", total.getMax()
+        ));
+        connectionManager.getRoutes().forEach(route -> {
+            final var routeStats = connectionManager.getStats(route);
+            stats.put(route.getTargetHost().getHostName(), Map.of(
+                    "leased", routeStats.getLeased(),
+                    "available", routeStats.getAvailable(),
+                    "pending", routeStats.getPending(),
+                    "max", routeStats.getMax()
+            ));
+        });
+        return stats;
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        httpClient.close();
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.demo.test.http;
+
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@Data
+public class OutboundHttpConfig {
+    @Value("${outbound-http.max-connections-per-host}")
+    private int maxConnectionsPerHost;
+
+    @Value("${outbound-http.max-connections}")
+    private int maxConnections;
+
+    @Value("${outbound-http.keep-alive-seconds}")
+    private long keepAliveSeconds;
+
+    @Value("${outbound-http.connection-request-timeout-millis}")
+    private int connectionRequestTimeoutMillis;
+
+    @Value("${outbound-http.connect-timeout-millis}")
+    private int connectTimeoutMillis;
+
+    @Value("${outbound-http.control-plane-timeout-millis}")
+    private int controlPlaneTimeoutMillis;
+
+    @Value("${outbound-http.query-timeout-millis}")
+    private int queryTimeoutMillis;
+
+    @Value("${outbound-http.embedding-timeout-millis}")
+    private int embeddingTimeoutMillis;
+
+    @Value("${outbound-http.completion-timeout-millis}")
+    private int completionTimeoutMillis;
+
+    public int getReadTimeoutMillis(EndpointClass endpointClass) {
+        switch (endpointClass) {
+            case CONTROL_PLANE:
+                return controlPlaneTimeoutMillis;
+            case QUERY:
+                return queryTimeoutMillis;
+            case EMBEDDING:
+                return embeddingTimeoutMillis;
+            default:
+                return completionTimeoutMillis;
+        }
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.example.demo.test.http;
+
+import com.example.demo.test.ratelimit.RateLimiters;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+public class OutboundHttpController {
+
+    private final OutboundHttp outboundHttp;
+    private final RateLimiters rateLimiters;
+
+    public OutboundHttpController(
+            final OutboundHttp outboundHttp,
+            final RateLimiters rateLimiters
+    ) {
+        this.outboundHttp = outboundHttp;
+        this.rateLimiters = rateLimiters;
+    }
+
+    /**
+     * Covers the calls made through {@link OutboundHttp} only; the qna-bot {@code ChatBotService} calls of
+     * the {@code CHAT_BOT_SERVICE} pipeline and the {@code /open-ai/*} endpoints are not counted.
+     */
+    @GetMapping("/http/stats")
+    public Map<String, Object> stats() {
+        return Map.of(
+                "pool", outboundHttp.getPoolStats(),
+                "latency", outboundHttp.getHostLatencies().snapshot(),
+                "rateLimits", rateLimiters.snapshot()
+        );
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.demo.test.http;
+
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Base URLs of the providers, so the application can be pointed at stubs. Only the calls this
+ * application makes itself use them; the qna-bot library keeps its own URLs.
+ */
+@Configuration
+@Data
+public class ProviderUrlsConfig {
+    @Value("${provider-urls.open-ai}")
+    private String openAi;
+
+    @Value("${provider-urls.nlp-cloud}")
+    private String nlpCloud;
+
+    @Value("${provider-urls.pinecone-controller}")
+    private String pineconeController;
+
+    /**
+     * The data plane URL of an index, with {@code {index}} standing for the index name.
+     */
+    @Value("${provider-urls.pinecone-data-plane}")
+    private String pineconeDataPlane;
+
+    public String getPineconeDataPlane(String indexName) {
+        return pineconeDataPlane.replace("{index}", indexName);
+    }
+
+}
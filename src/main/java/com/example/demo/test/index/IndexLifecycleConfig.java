@@ -0,0 +1,22 @@
+package com.example.demo.test.index;
+
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@Data
+public class IndexLifecycleConfig {
+    @Value("${index-lifecycle.initial-delay-millis}")
+    private long initialDelayMillis;
+
+    @Value("${index-lifecycle.max-delay-millis}")
+    private long maxDelayMillis;
+
+    @Value("${index-lifecycle.max-polls}")
+    private int maxPolls;
+
+    @Value("${index-lifecycle.max-retries}")
+    private int maxRetries;
+
+}
@@ -0,0 +1,230 @@
+package com.example.demo.test.index;
+
+import com.example.demo.test.ApiKeysConfig;
+import com.example.demo.test.http.EndpointClass;
+import com.example.demo.test.http.OutboundHttp;
+import com.example.demo.test.http.ProviderUrlsConfig;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Drives the Pinecone index lifecycle without blocking: every wait is a sequence of checks on the
+ * evaluation executor, spaced by exponential backoff with jitter on the shared scheduler and bounded by
+ * {@code index-lifecycle.max-polls} / {@code index-lifecycle.max-retries}.
+ */
+@Component
+@Slf4j
+public class PineconeIndexManager {
+
+    private final ApiKeysConfig apiKeysConfig;
+    private final ProviderUrlsConfig providerUrlsConfig;
+    private final IndexLifecycleConfig indexLifecycleConfig;
+    private final ScheduledExecutorService scheduler;
+    private final ExecutorService executor;
+    private final RestTemplate controlPlane;
+    private final RestTemplate dataPlane;
+    private final MeterRegistry meterRegistry;
+
+    public PineconeIndexManager(
+            final ApiKeysConfig apiKeysConfig,
+            final ProviderUrlsConfig providerUrlsConfig,
+            final IndexLifecycleConfig indexLifecycleConfig,
+            final OutboundHttp outboundHttp,
+            final MeterRegistry meterRegistry,
+            @Qualifier("evaluationScheduler") final ScheduledExecutorService scheduler,
+            @Qualifier("evaluationExecutor") final ExecutorService executor
+    ) {
+        this.apiKeysConfig = apiKeysConfig;
+        this.providerUrlsConfig = providerUrlsConfig;
+        this.indexLifecycleConfig = indexLifecycleConfig;
+        this.scheduler = scheduler;
+        this.executor = executor;
+        this.controlPlane = outboundHttp.restTemplate(EndpointClass.CONTROL_PLANE);
+        this.dataPlane = outboundHttp.restTemplate(EndpointClass.QUERY);
+        this.meterRegistry = meterRegistry;
+    }
+
+    public CompletableFuture<Void> created(String indexName) {
+        return poll("created", "creation of " + indexName, () -> getStillActiveIndexes().contains(indexName))
+                .thenRun(() -> log.info("Created Vectorized Database " + indexName));
+    }
+
+    public CompletableFuture<Void> ready(String indexName) {
+        return poll("ready", "readiness of " + indexName, () -> indexIsReadyForRequest(indexName))
+                .thenRun(() -> log.info("Index ready for requests " + indexName));
+    }
+
+    public CompletableFuture<Void> ingested(String indexName, int dimension) {
+        return ingested(indexName, "", dimension);
+    }
+
+    public CompletableFuture<Void> ingested(String indexName, String namespace, int dimension) {
+        final var description = namespace.isEmpty() ? indexName : indexName + "/" + namespace;
+        return poll("ingested", "ingestion into " + description, () -> indexHasParsedTheEmbeddings(indexName, namespace, dimension))
+                .thenRun(() -> log.info("Index parsed the embeddings " + description));
+    }
+
+    public CompletableFuture<Void> deleted(String indexName) {
+        return poll("deleted", "deletion of " + indexName, () -> !getStillActiveIndexes().contains(indexName))
+                .thenRun(() -> log.info("Deleted Vectorized Database " + indexName));
+    }
+
+    public CompletableFuture<Void> retry(String description, Runnable action) {
+        final var result = timed("retry", new CompletableFuture<>());
+        attempt("retry", description, () -> {
+            action.run();
+            return true;
+        }, result, 0, indexLifecycleConfig.getMaxRetries());
+        return result;
+    }
+
+    private CompletableFuture<Void> poll(String operation, String description, BooleanSupplier condition) {
+        final var result = timed(operation, new CompletableFuture<>());
+        attempt(operation, description, condition::getAsBoolean, result, 0, indexLifecycleConfig.getMaxPolls());
+        return result;
+    }
+
+    /**
+     * Records the whole wait, all attempts and backoff included, as {@code rag.index.lifecycle}.
+     */
+    private CompletableFuture<Void> timed(String operation, CompletableFuture<Void> result) {
+        final var start = System.nanoTime();
+        result.whenComplete((ignored, e) -> Timer.builder("rag.index.lifecycle")
+                .tag("operation", operation)
+                .tag("outcome", e == null ? "success" : "error")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS));
+        return result;
+    }
+
+    private void attempt(
+            String operation,
+            String description,
+            Callable<Boolean> action,
+            CompletableFuture<Void> result,
+            int attempt,
+            int maxAttempts
+    ) {
+        executor.execute(() -> {
+            Exception failure = null;
+            try {
+                if (action.call()) {
+                    countAttempt(operation, "done");
+                    result.complete(null);
+                    return;
+                }
+                countAttempt(operation, "pending");
+            } catch (Exception e) {
+                countAttempt(operation, "error");
+                failure = e;
+                log.warn("Attempt " + (attempt + 1) + " of " + description + " failed: " + e.getMessage());
+            }
+            if (attempt + 1 >= maxAttempts) {
+                result.completeExceptionally(
+                        new RuntimeException("Gave up on " + description + " after " + maxAttempts + " attempts", failure)
+                );
+                return;
+            }
+            scheduler.schedule(
+                    () -> attempt(operation, description, action, result, attempt + 1, maxAttempts),
+                    backoff(attempt),
+                    TimeUnit.MILLISECONDS
+            );
+        });
+    }
+
+    private void countAttempt(String operation, String outcome) {
+        meterRegistry.counter("rag.index.attempts", "operation", operation, "outcome", outcome).increment();
+    }
+
+    private long backoff(int attempt) {
+        final var delay = Math.min(
+                indexLifecycleConfig.getMaxDelayMillis(),
+                indexLifecycleConfig.getInitialDelayMillis() << Math.min(attempt, 20)
+        );
+        return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+    }
+
+    public List<String> getStillActiveIndexes() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Api-Key", apiKeysConfig.getPineconeKey());
+        headers.add("accept", "application/json");
+        headers.add("Content-Type", "application/json");
+        final var url = providerUrlsConfig.getPineconeController() + "/databases";
+
+        final var response = controlPlane.exchange(
+                url,
+                HttpMethod.GET,
+                new HttpEntity<>(headers),
+                String[].class
+        ).getBody();
+
+        if (response == null) {
+            return Collections.emptyList();
+        }
+        return List.of(response);
+    }
+
+    private boolean indexHasParsedTheEmbeddings(String indexName, String namespace, int dimension) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Api-Key", apiKeysConfig.getPineconeKey());
+        headers.add("accept", "application/json");
+        headers.add("Content-Type", "application/json");
+        final var url = providerUrlsConfig.getPineconeDataPlane(indexName) + "/query";
+
+        final var body = Map.of(
+                "vector", Collections.nCopies(dimension, 0.),
+                "topK", 1,
+                "namespace", namespace
+        );
+
+        final var response = dataPlane.exchange(
+                url,
+                HttpMethod.POST,
+                new HttpEntity<>(body, headers),
+                JsonNode.class
+        ).getBody();
+        return !response.get("matches").isEmpty();
+
+    }
+
+    private boolean indexIsReadyForRequest(String indexName) {
+        try {
+            HttpHeaders headers = new HttpHeaders();
+            headers.add("Api-Key", apiKeysConfig.getPineconeKey());
+            headers.add("accept", "application/json");
+            headers.add("Content-Type", "application/json");
+            final var url = providerUrlsConfig.getPineconeDataPlane(indexName) + "/describe_index_stats";
+
+            controlPlane.exchange(
+                    url,
+                    HttpMethod.POST,
+                    new HttpEntity<>(headers),
+                    JsonNode.class
+            );
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
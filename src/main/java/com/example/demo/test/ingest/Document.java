@@ -0,0 +1,15 @@
+package com.example.demo.test.ingest;
+
+import lombok.Value;
+
+/**
+ * A document to ingest. Its chunks are stored under the ids {@code <id>-0}, {@code <id>-1} and so on, so
+ * ingesting a document again overwrites its chunks.
+ */
+@Value
+public class Document {
+
+    String id;
+
+    String text;
+}
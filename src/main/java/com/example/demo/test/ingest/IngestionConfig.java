@@ -0,0 +1,36 @@
+package com.example.demo.test.ingest;
+
+import com.thesis.qnabot.api.embedding.domain.enums.EmbeddingModel;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Queue capacities are in batches, not chunks.
+ */
+@Configuration
+@Data
+public class IngestionConfig {
+    @Value("${ingestion.queue-capacity}")
+    private int queueCapacity;
+
+    @Value("${ingestion.embedding-workers}")
+    private int embeddingWorkers;
+
+    @Value("${ingestion.upsert-workers}")
+    private int upsertWorkers;
+
+    @Value("${ingestion.open-ai.embedding-batch}")
+    private int openAiEmbeddingBatch;
+
+    @Value("${ingestion.nlp-cloud.embedding-batch}")
+    private int nlpCloudEmbeddingBatch;
+
+    @Value("${ingestion.pinecone.upsert-batch}")
+    private int upsertBatch;
+
+    public int getEmbeddingBatch(EmbeddingModel embeddingModel) {
+        return embeddingModel.equals(EmbeddingModel.OPEN_AI) ? openAiEmbeddingBatch : nlpCloudEmbeddingBatch;
+    }
+
+}
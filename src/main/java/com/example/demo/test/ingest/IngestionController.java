@@ -0,0 +1,159 @@
+package com.example.demo.test.ingest;
+
+import com.example.demo.test.evaluation.IndexCell;
+import com.example.demo.test.serving.ServingCache;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thesis.qnabot.api.embedding.domain.enums.ChunkModel;
+import com.thesis.qnabot.api.embedding.domain.enums.EmbeddingModel;
+import com.thesis.qnabot.api.embedding.domain.enums.KnnAlgorithm;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Bulk loads documents into a named index, either as uploaded files (one document each, named by the
+ * file name) or as an NDJSON stream of {@code {"id": ..., "text": ...}} lines. The chunking and
+ * embedding settings default to the ones the serving endpoints use.
+ */
+@RestController
+public class IngestionController {
+
+    private static final Pattern INDEX_NAME = Pattern.compile("[a-z0-9-]{1,45}");
+    private static final String NDJSON = "application/x-ndjson";
+
+    private final IngestionService ingestionService;
+    private final ServingCache servingCache;
+    private final ObjectMapper objectMapper;
+
+    public IngestionController(
+            final IngestionService ingestionService,
+            final ServingCache servingCache,
+            final ObjectMapper objectMapper
+    ) {
+        this.ingestionService = ingestionService;
+        this.servingCache = servingCache;
+        this.objectMapper = objectMapper;
+    }
+
+    @PostMapping(value = "/indexes/{indexName}/documents", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public IngestionReport ingestFiles(
+            @PathVariable String indexName,
+            @RequestParam List<MultipartFile> files,
+            @RequestParam(defaultValue = "OPEN_AI") EmbeddingModel embeddingModel,
+            @RequestParam(defaultValue = "COSINE") KnnAlgorithm knnAlgorithm,
+            @RequestParam(defaultValue = "SENTENCES") ChunkModel chunkModel,
+            @RequestParam(defaultValue = "15") int chunkSize,
+            @RequestParam(defaultValue = "2") int chunkOverlap,
+            @RequestParam(defaultValue = "false") boolean create
+    ) {
+        return ingest(indexName, settings(embeddingModel, knnAlgorithm, chunkModel, chunkSize, chunkOverlap), create, documents -> {
+            for (final var file : files) {
+                try {
+                    documents.accept(new Document(
+                            String.valueOf(file.getOriginalFilename()),
+                            new String(file.getBytes(), StandardCharsets.UTF_8)
+                    ));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Lines without an id get their line number.
+     */
+    @PostMapping(value = "/indexes/{indexName}/documents", consumes = NDJSON)
+    public IngestionReport ingestStream(
+            @PathVariable String indexName,
+            @RequestParam(defaultValue = "OPEN_AI") EmbeddingModel embeddingModel,
+            @RequestParam(defaultValue = "COSINE") KnnAlgorithm knnAlgorithm,
+            @RequestParam(defaultValue = "SENTENCES") ChunkModel chunkModel,
+            @RequestParam(defaultValue = "15") int chunkSize,
+            @RequestParam(defaultValue = "2") int chunkOverlap,
+            @RequestParam(defaultValue = "false") boolean create,
+            HttpServletRequest request
+    ) {
+        return ingest(indexName, settings(embeddingModel, knnAlgorithm, chunkModel, chunkSize, chunkOverlap), create, documents -> {
+            try (final var reader = new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8))) {
+                var lineNumber = 0L;
+                for (var line = reader.readLine(); line != null; line = reader.readLine()) {
+                    lineNumber++;
+                    if (line.isBlank()) {
+                        continue;
+                    }
+                    final JsonNode node;
+                    try {
+                        node = objectMapper.readTree(line);
+                    } catch (JsonProcessingException e) {
+                        throw new IllegalArgumentException("Line " + lineNumber + " is not valid JSON", e);
+                    }
+                    final var text = node.path("text");
+                    if (!text.isTextual()) {
+                        throw new IllegalArgumentException("Line " + lineNumber + " has no text");
+                    }
+                    documents.accept(new Document(
+                            node.hasNonNull("id") ? node.get("id").asText() : String.valueOf(lineNumber),
+                            text.asText()
+                    ));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private IngestionReport ingest(
+            String indexName,
+            IndexCell settings,
+            boolean create,
+            Consumer<Consumer<Document>> documents
+    ) {
+        if (!INDEX_NAME.matcher(indexName).matches()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid index name " + indexName);
+        }
+        try {
+            return ingestionService.ingest(indexName, settings, create, documents);
+        } catch (RuntimeException e) {
+            if (e.getCause() instanceof IllegalArgumentException) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getCause().getMessage());
+            }
+            throw e;
+        } finally {
+            servingCache.invalidate();
+        }
+    }
+
+    private static IndexCell settings(
+            EmbeddingModel embeddingModel,
+            KnnAlgorithm knnAlgorithm,
+            ChunkModel chunkModel,
+            int chunkSize,
+            int chunkOverlap
+    ) {
+        return IndexCell.builder()
+                .embeddingModel(embeddingModel)
+                .knnAlgorithm(knnAlgorithm)
+                .chunkModel(chunkModel)
+                .chunkSize(chunkSize)
+                .chunkOverlap(chunkOverlap)
+                .build();
+    }
+}
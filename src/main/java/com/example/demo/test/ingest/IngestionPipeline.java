@@ -0,0 +1,271 @@
+package com.example.demo.test.ingest;
+
+import com.example.demo.test.embedding.EmbeddingService;
+import com.example.demo.test.evaluation.IndexCell;
+import com.example.demo.test.pipeline.Chunker;
+import com.example.demo.test.vector.VectorStore;
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * One bulk ingestion: the calling thread reads and chunks the documents, embedding workers embed the
+ * chunks a provider-sized batch at a time and upsert workers write them in batches the vector database
+ * accepts. The stages are joined by bounded queues, so a slow stage holds back the ones before it down to
+ * the reader. The first failure of any stage stops all of them.
+ */
+class IngestionPipeline {
+
+    private static final long POLL_MILLIS = 100;
+    private static final List<Chunk> END_OF_CHUNKS = new ArrayList<>(0);
+    private static final Batch END_OF_BATCHES = new Batch(List.of(), List.of(), List.of());
+
+    private final String indexName;
+    private final IndexCell settings;
+    private final boolean create;
+    private final Chunker chunker;
+    private final EmbeddingService embeddingService;
+    private final VectorStore vectorStore;
+    private final ExecutorService executor;
+    private final int embeddingBatch;
+    private final int upsertBatch;
+    private final int embeddingWorkers;
+    private final int upsertWorkers;
+
+    private final BlockingQueue<List<Chunk>> toEmbed;
+    private final BlockingQueue<Batch> toUpsert;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private final AtomicInteger embeddersLeft;
+    private final AtomicLong documents = new AtomicLong();
+    private final AtomicLong chunks = new AtomicLong();
+    private final AtomicLong upserted = new AtomicLong();
+
+    private List<Chunk> pending;
+    private CompletableFuture<Void> indexCreated;
+
+    IngestionPipeline(
+            String indexName,
+            IndexCell settings,
+            boolean create,
+            Chunker chunker,
+            EmbeddingService embeddingService,
+            VectorStore vectorStore,
+            ExecutorService executor,
+            IngestionConfig ingestionConfig
+    ) {
+        this.indexName = indexName;
+        this.settings = settings;
+        this.create = create;
+        this.chunker = chunker;
+        this.embeddingService = embeddingService;
+        this.vectorStore = vectorStore;
+        this.executor = executor;
+        this.embeddingBatch = Math.max(1, ingestionConfig.getEmbeddingBatch(settings.getEmbeddingModel()));
+        this.upsertBatch = Math.max(1, ingestionConfig.getUpsertBatch());
+        this.embeddingWorkers = Math.max(1, ingestionConfig.getEmbeddingWorkers());
+        this.upsertWorkers = Math.max(1, ingestionConfig.getUpsertWorkers());
+        this.toEmbed = new ArrayBlockingQueue<>(Math.max(1, ingestionConfig.getQueueCapacity()));
+        this.toUpsert = new ArrayBlockingQueue<>(Math.max(1, ingestionConfig.getQueueCapacity()));
+        this.embeddersLeft = new AtomicInteger(embeddingWorkers);
+        this.pending = new ArrayList<>(embeddingBatch);
+    }
+
+    IngestionReport run(Consumer<Consumer<Document>> source) {
+        final var start = System.nanoTime();
+        final var stages = new ArrayList<Future<?>>();
+        for (var i = 0; i < embeddingWorkers; i++) {
+            stages.add(executor.submit(this::embed));
+        }
+        for (var i = 0; i < upsertWorkers; i++) {
+            stages.add(executor.submit(this::upsert));
+        }
+
+        try {
+            source.accept(this::read);
+            if (!pending.isEmpty()) {
+                put(toEmbed, pending);
+            }
+            for (var i = 0; i < embeddingWorkers; i++) {
+                put(toEmbed, END_OF_CHUNKS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, e);
+        } catch (RuntimeException e) {
+            failure.compareAndSet(null, e);
+        }
+        awaitStages(stages);
+        if (failure.get() != null) {
+            throw new RuntimeException("Ingestion into " + indexName + " failed", failure.get());
+        }
+
+        final var elapsedSeconds = Math.max(1e-9, (System.nanoTime() - start) / 1e9);
+        return IngestionReport.builder()
+                .indexName(indexName)
+                .documents(documents.get())
+                .chunks(chunks.get())
+                .vectorsUpserted(upserted.get())
+                .elapsedSeconds(elapsedSeconds)
+                .documentsPerSecond(documents.get() / elapsedSeconds)
+                .chunksPerSecond(chunks.get() / elapsedSeconds)
+                .build();
+    }
+
+    private void read(Document document) {
+        if (failure.get() != null) {
+            throw new CancellationException("Ingestion into " + indexName + " failed");
+        }
+        final var texts = chunker.chunk(
+                document.getText(),
+                settings.getChunkModel(),
+                settings.getChunkSize(),
+                settings.getChunkOverlap()
+        );
+        documents.incrementAndGet();
+        chunks.addAndGet(texts.size());
+        for (var i = 0; i < texts.size(); i++) {
+            pending.add(new Chunk(document.getId() + "-" + i, texts.get(i)));
+            if (pending.size() >= embeddingBatch) {
+                try {
+                    put(toEmbed, pending);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new CancellationException("Ingestion into " + indexName + " interrupted");
+                }
+                pending = new ArrayList<>(embeddingBatch);
+            }
+        }
+    }
+
+    private void embed() {
+        try {
+            for (var chunkBatch = take(toEmbed); chunkBatch != null && chunkBatch != END_OF_CHUNKS; chunkBatch = take(toEmbed)) {
+                final var ids = new ArrayList<String>(chunkBatch.size());
+                final var texts = new ArrayList<String>(chunkBatch.size());
+                chunkBatch.forEach(chunk -> {
+                    ids.add(chunk.getId());
+                    texts.add(chunk.getText());
+                });
+                final var vectors = embeddingService.embed(settings.getEmbeddingModel(), texts);
+                for (var start = 0; start < ids.size(); start += upsertBatch) {
+                    final var end = Math.min(start + upsertBatch, ids.size());
+                    put(toUpsert, new Batch(ids.subList(start, end), texts.subList(start, end), vectors.subList(start, end)));
+                }
+            }
+        } catch (Throwable e) {
+            failure.compareAndSet(null, e);
+        } finally {
+            if (embeddersLeft.decrementAndGet() == 0) {
+                try {
+                    for (var i = 0; i < upsertWorkers; i++) {
+                        put(toUpsert, END_OF_BATCHES);
+                    }
+                } catch (InterruptedException | CancellationException e) {
+                    failure.compareAndSet(null, e);
+                }
+            }
+        }
+    }
+
+    private void upsert() {
+        try {
+            for (var batch = take(toUpsert); batch != null && batch != END_OF_BATCHES; batch = take(toUpsert)) {
+                awaitIndex(batch.getVectors().get(0).length);
+                vectorStore.upsert(indexName, "", batch.getIds(), batch.getTexts(), batch.getVectors()).join();
+                upserted.addAndGet(batch.getIds().size());
+            }
+        } catch (Throwable e) {
+            failure.compareAndSet(null, e);
+        }
+    }
+
+    /**
+     * Creates the index with the dimension of the first vectors when asked to; the other upsert workers
+     * wait for it.
+     */
+    private void awaitIndex(int dimension) {
+        if (!create) {
+            return;
+        }
+        final CompletableFuture<Void> created;
+        synchronized (this) {
+            if (indexCreated == null) {
+                indexCreated = vectorStore.createIndex(indexName, dimension, settings.getKnnAlgorithm());
+            }
+            created = indexCreated;
+        }
+        created.join();
+    }
+
+    /**
+     * Blocks while the queue is full, unless a stage failed.
+     */
+    private <T> void put(BlockingQueue<T> queue, T item) throws InterruptedException {
+        while (!queue.offer(item, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+            if (failure.get() != null) {
+                throw new CancellationException("Ingestion into " + indexName + " failed");
+            }
+        }
+    }
+
+    /**
+     * Null once a stage failed.
+     */
+    private <T> T take(BlockingQueue<T> queue) throws InterruptedException {
+        while (true) {
+            final var item = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            if (item != null) {
+                return item;
+            }
+            if (failure.get() != null) {
+                return null;
+            }
+        }
+    }
+
+    private void awaitStages(List<Future<?>> stages) {
+        for (final var stage : stages) {
+            try {
+                stage.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure.compareAndSet(null, e);
+                stages.forEach(other -> other.cancel(true));
+                return;
+            } catch (ExecutionException e) {
+                failure.compareAndSet(null, e.getCause());
+            }
+        }
+    }
+
+    @Value
+    private static class Chunk {
+
+        String id;
+
+        String text;
+    }
+
+    @Value
+    private static class Batch {
+
+        List<String> ids;
+
+        List<String> texts;
+
+        List<float[]> vectors;
+    }
+}
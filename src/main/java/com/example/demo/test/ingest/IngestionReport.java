@@ -0,0 +1,23 @@
+package com.example.demo.test.ingest;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder
+public class IngestionReport {
+
+    String indexName;
+
+    long documents;
+
+    long chunks;
+
+    long vectorsUpserted;
+
+    double elapsedSeconds;
+
+    double documentsPerSecond;
+
+    double chunksPerSecond;
+}
@@ -0,0 +1,75 @@
+package com.example.demo.test.ingest;
+
+import com.example.demo.test.embedding.EmbeddingService;
+import com.example.demo.test.evaluation.IndexCell;
+import com.example.demo.test.pipeline.Chunker;
+import com.example.demo.test.pipeline.QaPipelineFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+
+/**
+ * Loads document corpora into a named index of the configured vector store, chunking, embedding and
+ * upserting as a pipeline. Embeddings go through the embedding cache and the provider's rate limiter
+ * like every other call.
+ */
+@Component
+@Slf4j
+public class IngestionService {
+
+    private final Chunker chunker;
+    private final EmbeddingService embeddingService;
+    private final QaPipelineFactory qaPipelineFactory;
+    private final ExecutorService ingestionExecutor;
+    private final IngestionConfig ingestionConfig;
+    private final MeterRegistry meterRegistry;
+
+    public IngestionService(
+            final Chunker chunker,
+            final EmbeddingService embeddingService,
+            final QaPipelineFactory qaPipelineFactory,
+            @Qualifier("ingestionExecutor") final ExecutorService ingestionExecutor,
+            final IngestionConfig ingestionConfig,
+            final MeterRegistry meterRegistry
+    ) {
+        this.chunker = chunker;
+        this.embeddingService = embeddingService;
+        this.qaPipelineFactory = qaPipelineFactory;
+        this.ingestionExecutor = ingestionExecutor;
+        this.ingestionConfig = ingestionConfig;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @param create whether to create the index, with the dimension of the first embeddings, before
+     *               the first upsert
+     */
+    public IngestionReport ingest(
+            String indexName,
+            IndexCell settings,
+            boolean create,
+            Consumer<Consumer<Document>> documents
+    ) {
+        final var report = new IngestionPipeline(
+                indexName,
+                settings,
+                create,
+                chunker,
+                embeddingService,
+                qaPipelineFactory.getVectorStore(),
+                ingestionExecutor,
+                ingestionConfig
+        ).run(documents);
+
+        meterRegistry.counter("rag.ingestion.documents").increment(report.getDocuments());
+        meterRegistry.counter("rag.ingestion.chunks").increment(report.getChunks());
+        log.info("Ingested " + report.getDocuments() + " documents, " + report.getChunks() + " chunks into " +
+                indexName + " at " + Math.round(report.getDocumentsPerSecond()) + " documents/s, " +
+                Math.round(report.getChunksPerSecond()) + " chunks/s");
+        return report;
+    }
+}
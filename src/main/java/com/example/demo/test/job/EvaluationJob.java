@@ -0,0 +1,162 @@
+package com.example.demo.test.job;
+
+import com.example.demo.test.ParagraphScore;
+import com.example.demo.test.evaluation.EvaluationListener;
+import com.example.demo.test.evaluation.ResultStore;
+import com.example.demo.test.evaluation.Scoreboard;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One submitted evaluation. The job counts progress as the engine reports it; the scoreboard holds the
+ * partial table at any point of the run.
+ */
+public class EvaluationJob implements EvaluationListener {
+
+    private final String id;
+    private final Path dataset;
+    private final boolean uploaded;
+    private final Scoreboard scoreboard;
+    private final int cellsPerParagraph;
+    private final Instant submittedAt = Instant.now();
+
+    private final AtomicLong paragraphsDone = new AtomicLong();
+    private final AtomicLong cellsDone = new AtomicLong();
+    private volatile long paragraphsTotal = -1;
+    private volatile long cellsRestored;
+
+    private volatile JobState state = JobState.QUEUED;
+    private volatile boolean cancelRequested;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+    private volatile Future<?> future;
+
+    EvaluationJob(String id, Path dataset, boolean uploaded, Scoreboard scoreboard, int cellsPerParagraph) {
+        this.id = id;
+        this.dataset = dataset;
+        this.uploaded = uploaded;
+        this.scoreboard = scoreboard;
+        this.cellsPerParagraph = cellsPerParagraph;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public JobState getState() {
+        return state;
+    }
+
+    public Scoreboard getScoreboard() {
+        return scoreboard;
+    }
+
+    Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    Path getDataset() {
+        return dataset;
+    }
+
+    boolean isUploaded() {
+        return uploaded;
+    }
+
+    boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    /**
+     * A queued job is dropped from the executor queue; a running one stops starting new work and ends as
+     * {@link JobState#CANCELLED} once the work in flight has settled. Returns true if the job never started.
+     */
+    synchronized boolean cancel() {
+        if (state.isFinished()) {
+            return false;
+        }
+        cancelRequested = true;
+        if (state == JobState.QUEUED && future != null && future.cancel(false)) {
+            finish(JobState.CANCELLED, null);
+            return true;
+        }
+        return false;
+    }
+
+    synchronized boolean start() {
+        if (cancelRequested) {
+            return false;
+        }
+        state = JobState.RUNNING;
+        startedAt = Instant.now();
+        return true;
+    }
+
+    void restored(ResultStore results) {
+        scoreboard.add(results);
+        cellsRestored = results.size();
+    }
+
+    void counted(long paragraphs) {
+        paragraphsTotal = paragraphs;
+    }
+
+    /**
+     * The state is written last, so a job seen finished always has its finish time.
+     */
+    synchronized void finish(JobState state, String error) {
+        this.error = error;
+        this.finishedAt = Instant.now();
+        this.state = state;
+    }
+
+    @Override
+    public void cellFinished(ParagraphScore score) {
+        cellsDone.incrementAndGet();
+    }
+
+    @Override
+    public void paragraphFinished(long paragraphId, List<ParagraphScore> scores) {
+        paragraphsDone.incrementAndGet();
+    }
+
+    public JobStatus getStatus() {
+        final var paragraphs = paragraphsTotal;
+        final var cellsTotal = paragraphs < 0 ? -1 : paragraphs * cellsPerParagraph;
+        final var cells = cellsDone.get();
+        return JobStatus.builder()
+                .id(id)
+                .state(state)
+                .submittedAt(submittedAt)
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .paragraphsTotal(paragraphs)
+                .paragraphsDone(paragraphsDone.get())
+                .cellsTotal(cellsTotal)
+                .cellsDone(cellsRestored + cells)
+                .cellsRestored(cellsRestored)
+                .etaSeconds(eta(cellsTotal, cells))
+                .error(error)
+                .build();
+    }
+
+    private Long eta(long cellsTotal, long cells) {
+        final var started = startedAt;
+        if (state != JobState.RUNNING || started == null || cellsTotal < 0 || cells == 0) {
+            return null;
+        }
+        final var elapsedMillis = Duration.between(started, Instant.now()).toMillis();
+        final var remaining = Math.max(0, cellsTotal - cellsRestored - cells);
+        return elapsedMillis * remaining / cells / 1000;
+    }
+}
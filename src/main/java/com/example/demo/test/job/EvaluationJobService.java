@@ -0,0 +1,209 @@
+package com.example.demo.test.job;
+
+import com.example.demo.test.checkpoint.CheckpointStore;
+import com.example.demo.test.evaluation.EvaluationEngine;
+import com.example.demo.test.evaluation.EvaluationGrid;
+import com.example.demo.test.evaluation.Scoreboard;
+import com.example.demo.test.evaluation.SquadStreamReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+/**
+ * Runs evaluations in the background on {@code jobExecutor}, at most {@code jobs.max-concurrent} at a
+ * time with up to {@code jobs.max-queued} waiting. The job id is the checkpoint run id, so submitting a
+ * failed or cancelled job again with the same dataset resumes it. Only the last
+ * {@code jobs.retained-finished} finished jobs are kept.
+ */
+@Component
+@Slf4j
+public class EvaluationJobService {
+
+    private final EvaluationEngine evaluationEngine;
+    private final EvaluationGrid evaluationGrid;
+    private final SquadStreamReader squadStreamReader;
+    private final CheckpointStore checkpointStore;
+    private final ExecutorService jobExecutor;
+    private final Path uploadDirectory;
+    private final int retainedFinished;
+
+    private final Map<String, EvaluationJob> jobs = new ConcurrentHashMap<>();
+
+    public EvaluationJobService(
+            final EvaluationEngine evaluationEngine,
+            final EvaluationGrid evaluationGrid,
+            final SquadStreamReader squadStreamReader,
+            final CheckpointStore checkpointStore,
+            final JobConfig jobConfig,
+            @Qualifier("jobExecutor") final ExecutorService jobExecutor
+    ) {
+        this.evaluationEngine = evaluationEngine;
+        this.evaluationGrid = evaluationGrid;
+        this.squadStreamReader = squadStreamReader;
+        this.checkpointStore = checkpointStore;
+        this.jobExecutor = jobExecutor;
+        this.uploadDirectory = Path.of(jobConfig.getUploadDirectory());
+        this.retainedFinished = Math.max(0, jobConfig.getRetainedFinished());
+    }
+
+    /**
+     * Stores the uploaded dataset until the job is over, then submits it.
+     */
+    public EvaluationJob submit(String id, InputStream upload) throws IOException {
+        checkNotActive(id);
+        Files.createDirectories(uploadDirectory);
+        final var dataset = uploadDirectory.resolve(id + ".json");
+        Files.copy(upload, dataset, StandardCopyOption.REPLACE_EXISTING);
+        try {
+            return submit(id, dataset, true);
+        } catch (RuntimeException e) {
+            Files.deleteIfExists(dataset);
+            throw e;
+        }
+    }
+
+    public EvaluationJob submit(String id, Path dataset) {
+        return submit(id, dataset, false);
+    }
+
+    public Optional<EvaluationJob> get(String id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    public Collection<EvaluationJob> getJobs() {
+        return jobs.values();
+    }
+
+    public Optional<EvaluationJob> cancel(String id) {
+        final var job = jobs.get(id);
+        if (job != null && job.cancel()) {
+            log.info("Evaluation job " + id + " cancelled before it started");
+            deleteUpload(job);
+            evictFinishedJobs();
+        }
+        return Optional.ofNullable(job);
+    }
+
+    @PreDestroy
+    public void cancelAll() {
+        jobs.values().forEach(EvaluationJob::cancel);
+    }
+
+    private EvaluationJob submit(String id, Path dataset, boolean uploaded) {
+        final var job = new EvaluationJob(
+                id,
+                dataset,
+                uploaded,
+                new Scoreboard(evaluationGrid),
+                evaluationGrid.getGridCells().size()
+        );
+        jobs.compute(id, (key, existing) -> {
+            if (existing != null && !existing.getState().isFinished()) {
+                throw new IllegalStateException("Job " + id + " is " + existing.getState());
+            }
+            return job;
+        });
+        try {
+            job.setFuture(jobExecutor.submit(() -> run(job)));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(id, job);
+            throw e;
+        }
+        return job;
+    }
+
+    private void run(EvaluationJob job) {
+        if (!job.start()) {
+            job.finish(JobState.CANCELLED, null);
+            deleteUpload(job);
+            evictFinishedJobs();
+            return;
+        }
+        log.info("Evaluation job " + job.getId() + " started");
+        try (final var checkpoint = checkpointStore.open(job.getId())) {
+            job.restored(checkpoint.getRestored());
+            job.counted(countParagraphs(job.getDataset()));
+            try (final var dataset = openDataset(job.getDataset())) {
+                evaluationEngine.evaluate(
+                        paragraphConsumer -> squadStreamReader.read(dataset, paragraphConsumer),
+                        checkpoint,
+                        job.getScoreboard().andThen(job),
+                        job::isCancelRequested
+                );
+            }
+            job.finish(JobState.SUCCEEDED, null);
+            log.info("Evaluation job " + job.getId() + " succeeded");
+        } catch (RuntimeException | IOException e) {
+            if (job.isCancelRequested()) {
+                job.finish(JobState.CANCELLED, null);
+                log.info("Evaluation job " + job.getId() + " cancelled");
+            } else {
+                job.finish(JobState.FAILED, e.toString());
+                log.error("Evaluation job " + job.getId() + " failed", e);
+            }
+        } finally {
+            deleteUpload(job);
+            evictFinishedJobs();
+        }
+    }
+
+    /**
+     * Forgets the jobs that finished first until at most {@code jobs.retained-finished} finished jobs are
+     * left. A job resubmitted under the same id in the meantime is kept.
+     */
+    private void evictFinishedJobs() {
+        final var finished = jobs.values().stream()
+                .filter(job -> job.getState().isFinished())
+                .sorted(Comparator.comparing(EvaluationJob::getFinishedAt))
+                .collect(Collectors.toList());
+        for (var i = 0; i < finished.size() - retainedFinished; i++) {
+            jobs.remove(finished.get(i).getId(), finished.get(i));
+        }
+    }
+
+    private long countParagraphs(Path dataset) throws IOException {
+        final var paragraphs = new long[1];
+        try (final var inputStream = openDataset(dataset)) {
+            squadStreamReader.read(inputStream, paragraph -> paragraphs[0]++);
+        }
+        return paragraphs[0];
+    }
+
+    private void checkNotActive(String id) {
+        final var existing = jobs.get(id);
+        if (existing != null && !existing.getState().isFinished()) {
+            throw new IllegalStateException("Job " + id + " is " + existing.getState());
+        }
+    }
+
+    private static InputStream openDataset(Path dataset) throws IOException {
+        return new BufferedInputStream(Files.newInputStream(dataset));
+    }
+
+    private static void deleteUpload(EvaluationJob job) {
+        if (!job.isUploaded()) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(job.getDataset());
+        } catch (IOException e) {
+            log.error("Did not delete the uploaded dataset of job " + job.getId(), e);
+        }
+    }
+}
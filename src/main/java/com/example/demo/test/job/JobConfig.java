@@ -0,0 +1,22 @@
+package com.example.demo.test.job;
+
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@Data
+public class JobConfig {
+    @Value("${jobs.max-concurrent}")
+    private int maxConcurrent;
+
+    @Value("${jobs.max-queued}")
+    private int maxQueued;
+
+    @Value("${jobs.upload-directory}")
+    private String uploadDirectory;
+
+    @Value("${jobs.retained-finished}")
+    private int retainedFinished;
+
+}
@@ -0,0 +1,108 @@
+package com.example.demo.test.job;
+
+import com.example.demo.test.checkpoint.CheckpointStore;
+import com.example.demo.test.evaluation.Datasets;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.net.URI;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+@RestController
+public class JobController {
+
+    private final EvaluationJobService evaluationJobService;
+    private final Datasets datasets;
+
+    public JobController(
+            final EvaluationJobService evaluationJobService,
+            final Datasets datasets
+    ) {
+        this.evaluationJobService = evaluationJobService;
+        this.datasets = datasets;
+    }
+
+    /**
+     * Takes either an uploaded SQuAD file or the path of one in the dataset directory. The optional
+     * runId names the job; reusing the id of a failed or cancelled job resumes it from its checkpoint.
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<JobStatus> submit(
+            @RequestParam(required = false) MultipartFile file,
+            @RequestParam(required = false) String path,
+            @RequestParam(required = false) String runId
+    ) throws IOException {
+        final var id = runId == null || runId.isBlank() ? CheckpointStore.newRunId() : runId;
+        if (!CheckpointStore.isValidRunId(id)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid run id " + runId);
+        }
+
+        final EvaluationJob job;
+        try {
+            if (file != null && !file.isEmpty()) {
+                try (final var upload = file.getInputStream()) {
+                    job = evaluationJobService.submit(id, upload);
+                }
+            } else if (path != null && !path.isBlank()) {
+                job = evaluationJobService.submit(id, datasets.resolve(path));
+            } else {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Either a file or a path is required");
+            }
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        } catch (IllegalStateException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, e.getMessage());
+        } catch (RejectedExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many queued jobs");
+        }
+        return ResponseEntity.accepted()
+                .location(URI.create("/jobs/" + job.getId()))
+                .body(job.getStatus());
+    }
+
+    @GetMapping("/jobs")
+    public List<JobStatus> jobs() {
+        return evaluationJobService.getJobs().stream()
+                .map(EvaluationJob::getStatus)
+                .sorted(Comparator.comparing(JobStatus::getSubmittedAt))
+                .collect(Collectors.toList());
+    }
+
+    @GetMapping("/jobs/{id}")
+    public JobStatus status(@PathVariable String id) {
+        return job(id).getStatus();
+    }
+
+    /**
+     * The table of the cells finished so far; final once the job succeeded.
+     */
+    @GetMapping(value = "/jobs/{id}/results", produces = "text/csv")
+    public String results(@PathVariable String id) {
+        return job(id).getScoreboard().toCsv();
+    }
+
+    @DeleteMapping(value = "/jobs/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    public JobStatus cancel(@PathVariable String id) {
+        return evaluationJobService.cancel(id)
+                .map(EvaluationJob::getStatus)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown job " + id));
+    }
+
+    private EvaluationJob job(String id) {
+        return evaluationJobService.get(id)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown job " + id));
+    }
+}
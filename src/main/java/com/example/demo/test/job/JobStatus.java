@@ -0,0 +1,44 @@
+package com.example.demo.test.job;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Instant;
+
+@Value
+@Builder
+public class JobStatus {
+
+    String id;
+
+    JobState state;
+
+    Instant submittedAt;
+
+    Instant startedAt;
+
+    Instant finishedAt;
+
+    /**
+     * -1 until the dataset has been counted.
+     */
+    long paragraphsTotal;
+
+    long paragraphsDone;
+
+    long cellsTotal;
+
+    long cellsDone;
+
+    /**
+     * Cells restored from the checkpoint of an earlier run with the same id, included in cellsDone.
+     */
+    long cellsRestored;
+
+    /**
+     * Null until the first cell of this run finished.
+     */
+    Long etaSeconds;
+
+    String error;
+}
@@ -0,0 +1,98 @@
+package com.example.demo.test.metrics;
+
+import com.example.demo.test.evaluation.GridCell;
+import com.thesis.qnabot.api.embedding.domain.enums.ChunkModel;
+import com.thesis.qnabot.api.embedding.domain.enums.CompletionModel;
+import com.thesis.qnabot.api.embedding.domain.enums.EmbeddingModel;
+import com.thesis.qnabot.api.embedding.domain.enums.KnnAlgorithm;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Times every pipeline stage as {@code rag.stage}, tagged with the stage, the grid cell configuration
+ * and whether the call succeeded. The timers publish p50/p99 and a percentile histogram, so latency
+ * quantiles and error rates per provider can be read from the Prometheus endpoint.
+ */
+@Component
+public class RagMetrics {
+
+    public static final String STAGE_TIMER = "rag.stage";
+    private static final String NONE = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    public RagMetrics(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public static Tags tags(GridCell cell) {
+        return tags(cell.getEmbeddingModel(), cell.getCompletionModel(), cell.getKnnAlgorithm(), cell.getChunkModel());
+    }
+
+    public static Tags tags(
+            EmbeddingModel embeddingModel,
+            CompletionModel completionModel,
+            KnnAlgorithm knnAlgorithm,
+            ChunkModel chunkModel
+    ) {
+        return Tags.of(
+                "embedding_model", embeddingModel == null ? NONE : embeddingModel.name(),
+                "completion_model", completionModel == null ? NONE : completionModel.name(),
+                "knn_algorithm", knnAlgorithm == null ? NONE : knnAlgorithm.name(),
+                "chunk_model", chunkModel == null ? NONE : chunkModel.name()
+        );
+    }
+
+    public <T> T time(Stage stage, Tags tags, Supplier<T> call) {
+        final var start = System.nanoTime();
+        var outcome = "error";
+        try {
+            final var result = call.get();
+            outcome = "success";
+            return result;
+        } finally {
+            record(stage, tags, outcome, System.nanoTime() - start);
+        }
+    }
+
+    public void time(Stage stage, Tags tags, Runnable call) {
+        time(stage, tags, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    /**
+     * Times from the call until the returned future completes. A call that throws before returning a
+     * future is recorded as an error as well.
+     */
+    public <T> CompletableFuture<T> timeAsync(Stage stage, Tags tags, Supplier<CompletableFuture<T>> call) {
+        final var start = System.nanoTime();
+        final CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            record(stage, tags, "error", System.nanoTime() - start);
+            throw e;
+        }
+        return future.whenComplete((result, e) ->
+                record(stage, tags, e == null ? "success" : "error", System.nanoTime() - start));
+    }
+
+    private void record(Stage stage, Tags tags, String outcome, long nanos) {
+        Timer.builder(STAGE_TIMER)
+                .tags(tags)
+                .tag("stage", stage.tag())
+                .tag("outcome", outcome)
+                .publishPercentiles(0.5, 0.99)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+}
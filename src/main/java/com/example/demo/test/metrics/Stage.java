@@ -0,0 +1,25 @@
+package com.example.demo.test.metrics;
+
+/**
+ * The steps a question or an index goes through, used as the {@code stage} tag of {@code rag.stage}.
+ */
+public enum Stage {
+    /** Embedding texts with the embedding provider. */
+    EMBEDDING,
+    /** Nearest neighbour search, including the query embedding when the vector database does it. */
+    VECTOR_QUERY,
+    /** Completion of an already built prompt. */
+    COMPLETION,
+    /** Retrieval and completion in one {@code ChatBotService.query} call. */
+    RAG_QUERY,
+    /** Creating an index until it reports ready. */
+    INDEX_CREATE,
+    /** Storing chunk vectors until they are queryable. */
+    INDEX_UPSERT,
+    /** Deleting an index or clearing its namespace. */
+    INDEX_DELETE;
+
+    public String tag() {
+        return name().toLowerCase();
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.demo.test.pipeline;
+
+import com.example.demo.test.ApiKeysConfig;
+import com.example.demo.test.evaluation.GridCell;
+import com.example.demo.test.evaluation.IndexCell;
+import com.thesis.qnabot.api.embedding.application.ChatBotService;
+import com.thesis.qnabot.api.embedding.domain.enums.VectorDatabaseModel;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.stereotype.Component;
+
+@Component
+public class ChatBotServiceFactory {
+
+    private final AutowireCapableBeanFactory beanFactory;
+    private final ApiKeysConfig apiKeysConfig;
+
+    public ChatBotServiceFactory(
+            final AutowireCapableBeanFactory beanFactory,
+            final ApiKeysConfig apiKeysConfig
+    ) {
+        this.beanFactory = beanFactory;
+        this.apiKeysConfig = apiKeysConfig;
+    }
+
+    public ChatBotService create(IndexCell cell) {
+        final var chatBotService = beanFactory.createBean(ChatBotService.class);
+        chatBotService.setEmbeddingModel(cell.getEmbeddingModel());
+        chatBotService.setEmbeddingApiKey(apiKeysConfig.getEmbeddingApiKey(cell.getEmbeddingModel()));
+
+        chatBotService.setVectorDatabaseModel(VectorDatabaseModel.PINECONE);
+        chatBotService.setVectorDatabaseApiKey(apiKeysConfig.getPineconeKey());
+
+        chatBotService.setChunkModel(cell.getChunkModel());
+        chatBotService.setChunkSize(cell.getChunkSize());
+        chatBotService.setChunkOverlap(cell.getChunkOverlap());
+
+        chatBotService.setKnnAlgorithm(cell.getKnnAlgorithm());
+        return chatBotService;
+    }
+
+    public ChatBotService create(GridCell cell) {
+        final var chatBotService = create(cell.getIndexCell());
+        chatBotService.setCompletionModel(cell.getCompletionModel());
+        chatBotService.setCompletionApiKey(apiKeysConfig.getCompletionApiKey(cell.getCompletionModel()));
+        chatBotService.setDefaultK(cell.getK());
+        return chatBotService;
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.demo.test.pipeline;
+
+import com.example.demo.test.completion.CompletionService;
+import com.example.demo.test.evaluation.GridCell;
+import com.example.demo.test.index.PineconeIndexManager;
+import com.example.demo.test.metrics.RagMetrics;
+import com.example.demo.test.metrics.Stage;
+import com.example.demo.test.ratelimit.ProviderLimiter;
+import com.example.demo.test.ratelimit.RateLimiters;
+import com.thesis.qnabot.api.embedding.application.ChatBotService;
+import com.thesis.qnabot.api.embedding.domain.Embedding;
+import com.thesis.qnabot.api.embedding.domain.request.QueryCompletionModelRequest;
+import io.micrometer.core.instrument.Tags;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Evaluates a cell through the qna-bot library. The library makes its own provider calls, so each library
+ * call is paced by the limiter of the provider it mostly waits on: embedding calls by the embedding
+ * provider, queries by the completion provider and database management by Pinecone. A query is charged
+ * as a completion over the whole paragraph the index holds, as the library does not say what it retrieved.
+ */
+@Slf4j
+public class ChatBotServicePipeline implements QaPipeline {
+
+    private final GridCell cell;
+    private final ChatBotService chatBotService;
+    private final PineconeIndexManager indexManager;
+    private final CompletionService completionService;
+    private final ProviderLimiter embeddingLimiter;
+    private final ProviderLimiter completionLimiter;
+    private final ProviderLimiter vectorDatabaseLimiter;
+    private final Map<String, String> indexContexts;
+    private final RagMetrics ragMetrics;
+    private final Tags tags;
+
+    public ChatBotServicePipeline(
+            final GridCell cell,
+            final ChatBotService chatBotService,
+            final PineconeIndexManager indexManager,
+            final CompletionService completionService,
+            final RateLimiters rateLimiters,
+            final Map<String, String> indexContexts,
+            final RagMetrics ragMetrics
+    ) {
+        this.cell = cell;
+        this.chatBotService = chatBotService;
+        this.indexManager = indexManager;
+        this.completionService = completionService;
+        this.embeddingLimiter = rateLimiters.forEmbedding(cell.getEmbeddingModel());
+        this.completionLimiter = rateLimiters.forCompletion(cell.getCompletionModel());
+        this.vectorDatabaseLimiter = rateLimiters.forVectorDatabaseControlPlane();
+        this.indexContexts = indexContexts;
+        this.ragMetrics = ragMetrics;
+        this.tags = RagMetrics.tags(cell);
+    }
+
+    @Override
+    public CompletableFuture<Void> createIndex(String indexName, String context) {
+        log.info("Creating Vectorized Database " + indexName);
+        indexContexts.put(indexName, context);
+        return ragMetrics.timeAsync(Stage.INDEX_CREATE, tags, () -> {
+                    vectorDatabaseLimiter.run(0, () -> chatBotService.createDatabase(indexName));
+                    return indexManager.created(indexName)
+                            .thenCompose(ignored -> indexManager.ready(indexName));
+                })
+                .thenCompose(ignored -> ragMetrics.timeAsync(Stage.INDEX_UPSERT, tags, () -> indexManager.retry(
+                        "storing embeddings in " + indexName,
+                        () -> embeddingLimiter.run(
+                                ProviderLimiter.estimateTokens(context),
+                                () -> chatBotService.createEmbeddings(indexName, context)
+                        )
+                ).thenCompose(stored -> indexManager.ingested(
+                        indexName,
+                        chatBotService.getEmbeddingModel().getEmbeddingSize()
+                ))));
+    }
+
+    @Override
+    public List<String> findKNearest(String indexName, String query, int k) {
+        return ragMetrics.time(Stage.VECTOR_QUERY, tags, () -> embeddingLimiter.call(
+                ProviderLimiter.estimateTokens(query),
+                () -> chatBotService.findKNearest(indexName, query, k)
+        )).stream()
+                .map(Embedding::getIndex)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * The library retrieves on its own, so completions are cached under what decides its retrieval: the
+     * paragraph indexed, the cell's indexing and k. That saves a retrieval just to build the key.
+     */
+    @Override
+    public String query(String indexName, String question) {
+        final var context = indexContexts.get(indexName);
+        if (!completionService.isCaching() || context == null) {
+            return queryChatBotService(indexName, question, context);
+        }
+        return completionService.memoize(
+                cell.getCompletionModel(),
+                List.of(retrieval(), context),
+                question,
+                () -> queryChatBotService(indexName, question, context)
+        );
+    }
+
+    private String queryChatBotService(String indexName, String question, String context) {
+        return ragMetrics.time(Stage.RAG_QUERY, tags, () -> completionLimiter.call(
+                CompletionService.estimateTokens(List.of(context == null ? "" : context), question),
+                () -> chatBotService.query(
+                        QueryCompletionModelRequest.builder()
+                                .indexName(indexName)
+                                .query(question)
+                                .build()
+                )
+        ));
+    }
+
+    private String retrieval() {
+        return "qna-bot " + cell.getEmbeddingModel() + " " + cell.getKnnAlgorithm() + " " + cell.getChunkModel() +
+                " " + cell.getChunkSize() + " " + cell.getChunkOverlap() + " " + cell.getK();
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteIndex(String indexName) {
+        log.info("Deleting Vectorized Database " + indexName);
+        indexContexts.remove(indexName);
+        return ragMetrics.timeAsync(Stage.INDEX_DELETE, tags, () -> {
+            vectorDatabaseLimiter.run(0, () -> chatBotService.deleteAllEmbeddings(indexName));
+            return indexManager.deleted(indexName);
+        });
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.demo.test.pipeline;
+
+import com.thesis.qnabot.api.embedding.domain.enums.ChunkModel;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+@Component
+public class Chunker {
+
+    private static final Pattern SENTENCE_BOUNDARY = Pattern.compile("(?<=[.!?])\\s+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    public List<String> chunk(String text, ChunkModel chunkModel, int chunkSize, int chunkOverlap) {
+        if (chunkModel.equals(ChunkModel.ARBITRARY)) {
+            return wordWindows(text, chunkSize, chunkOverlap);
+        }
+        return Arrays.stream(SENTENCE_BOUNDARY.split(text.strip()))
+                .filter(sentence -> !sentence.isBlank())
+                .collect(Collectors.toList());
+    }
+
+    private List<String> wordWindows(String text, int chunkSize, int chunkOverlap) {
+        if (chunkSize <= 0 || chunkOverlap < 0 || chunkOverlap >= chunkSize) {
+            throw new IllegalArgumentException("Invalid chunk size " + chunkSize + " and overlap " + chunkOverlap);
+        }
+        final var words = WHITESPACE.split(text.strip());
+        final var chunks = new ArrayList<String>();
+        final var step = chunkSize - chunkOverlap;
+        for (var start = 0; start < words.length; start += step) {
+            final var end = Math.min(start + chunkSize, words.length);
+            chunks.add(String.join(" ", Arrays.asList(words).subList(start, end)));
+            if (end == words.length) {
+                break;
+            }
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.demo.test.pipeline;
+
+import com.example.demo.test.completion.CompletionService;
+import com.example.demo.test.embedding.EmbeddingService;
+import com.example.demo.test.evaluation.GridCell;
+import com.example.demo.test.metrics.RagMetrics;
+import com.example.demo.test.metrics.Stage;
+import com.example.demo.test.vector.IndexPool;
+import com.example.demo.test.vector.VectorStore;
+import io.micrometer.core.instrument.Tags;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Runs chunking, embedding, retrieval and completion in this application instead of inside
+ * {@code ChatBotService}, so every provider call goes through the local caches. Each logical index is a
+ * namespace of the pooled index for the cell's embedding model and knn algorithm.
+ */
+public class DirectPipeline implements QaPipeline {
+
+    private final GridCell cell;
+    private final Chunker chunker;
+    private final EmbeddingService embeddingService;
+    private final VectorStore vectorStore;
+    private final IndexPool indexPool;
+    private final CompletionService completionService;
+    private final RagMetrics ragMetrics;
+    private final Tags tags;
+
+    public DirectPipeline(
+            final GridCell cell,
+            final Chunker chunker,
+            final EmbeddingService embeddingService,
+            final VectorStore vectorStore,
+            final IndexPool indexPool,
+            final CompletionService completionService,
+            final RagMetrics ragMetrics
+    ) {
+        this.cell = cell;
+        this.chunker = chunker;
+        this.embeddingService = embeddingService;
+        this.vectorStore = vectorStore;
+        this.indexPool = indexPool;
+        this.completionService = completionService;
+        this.ragMetrics = ragMetrics;
+        this.tags = RagMetrics.tags(cell);
+    }
+
+    @Override
+    public CompletableFuture<Void> createIndex(String indexName, String context) {
+        final var chunks = chunker.chunk(context, cell.getChunkModel(), cell.getChunkSize(), cell.getChunkOverlap());
+        final var vectors = ragMetrics.time(Stage.EMBEDDING, tags, () -> embeddingService.embed(cell.getEmbeddingModel(), chunks));
+        return ragMetrics.timeAsync(Stage.INDEX_CREATE, tags, () -> indexPool.acquire(cell.getEmbeddingModel(), cell.getKnnAlgorithm()))
+                .thenCompose(ignored -> ragMetrics.timeAsync(
+                        Stage.INDEX_UPSERT,
+                        tags,
+                        () -> vectorStore.upsert(pooledIndexName(), indexName, chunks, vectors)
+                ));
+    }
+
+    @Override
+    public List<String> findKNearest(String indexName, String query, int k) {
+        final var vector = ragMetrics.time(Stage.EMBEDDING, tags, () -> embeddingService.embed(cell.getEmbeddingModel(), query));
+        return ragMetrics.time(Stage.VECTOR_QUERY, tags, () -> vectorStore.query(pooledIndexName(), indexName, vector, k));
+    }
+
+    @Override
+    public String query(String indexName, String question) {
+        final var context = findKNearest(indexName, question, cell.getK());
+        return ragMetrics.time(Stage.COMPLETION, tags, () -> completionService.complete(cell.getCompletionModel(), context, question));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteIndex(String indexName) {
+        return ragMetrics.timeAsync(Stage.INDEX_DELETE, tags, () -> vectorStore.deleteNamespace(pooledIndexName(), indexName));
+    }
+
+    private String pooledIndexName() {
+        return IndexPool.indexName(cell.getEmbeddingModel(), cell.getKnnAlgorithm());
+    }
+}
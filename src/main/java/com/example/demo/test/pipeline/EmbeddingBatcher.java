@@ -0,0 +1,81 @@
+package com.example.demo.test.pipeline;
+
+import com.example.demo.test.EvaluationConfig;
+import com.example.demo.test.dto.SquadParagraph;
+import com.example.demo.test.dto.SquadQa;
+import com.example.demo.test.embedding.EmbeddingCacheConfig;
+import com.example.demo.test.embedding.EmbeddingService;
+import com.example.demo.test.evaluation.EvaluationGrid;
+import com.thesis.qnabot.api.embedding.domain.enums.EmbeddingModel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Embeds every question and every distinct chunk of a window of paragraphs up front, one batch per
+ * embedding model, so that indexing and retrieval in the DIRECT pipeline find their vectors in the
+ * embedding cache instead of calling the provider once per question.
+ */
+@Component
+@Slf4j
+public class EmbeddingBatcher {
+
+    private final EvaluationConfig evaluationConfig;
+    private final EmbeddingCacheConfig embeddingCacheConfig;
+    private final EvaluationGrid evaluationGrid;
+    private final Chunker chunker;
+    private final EmbeddingService embeddingService;
+
+    public EmbeddingBatcher(
+            final EvaluationConfig evaluationConfig,
+            final EmbeddingCacheConfig embeddingCacheConfig,
+            final EvaluationGrid evaluationGrid,
+            final Chunker chunker,
+            final EmbeddingService embeddingService
+    ) {
+        this.evaluationConfig = evaluationConfig;
+        this.embeddingCacheConfig = embeddingCacheConfig;
+        this.evaluationGrid = evaluationGrid;
+        this.chunker = chunker;
+        this.embeddingService = embeddingService;
+    }
+
+    /**
+     * The vectors are handed over through the embedding cache, so there is nothing to batch for when it is
+     * disabled or when {@code ChatBotService} does the embedding itself.
+     */
+    public boolean isEnabled() {
+        return embeddingCacheConfig.isEnabled() && evaluationConfig.getPipeline().equals(PipelineType.DIRECT);
+    }
+
+    public void prefetch(List<SquadParagraph> paragraphs) {
+        if (!isEnabled() || paragraphs.isEmpty()) {
+            return;
+        }
+        final Map<EmbeddingModel, Set<String>> texts = new EnumMap<>(EmbeddingModel.class);
+        for (final var indexCell : evaluationGrid.getIndexCells()) {
+            final var modelTexts = texts.computeIfAbsent(indexCell.getEmbeddingModel(), ignored -> new LinkedHashSet<>());
+            for (final var paragraph : paragraphs) {
+                paragraph.getQas().stream()
+                        .map(SquadQa::getQuestion)
+                        .forEach(modelTexts::add);
+                modelTexts.addAll(chunker.chunk(
+                        paragraph.getContext(),
+                        indexCell.getChunkModel(),
+                        indexCell.getChunkSize(),
+                        indexCell.getChunkOverlap()
+                ));
+            }
+        }
+        texts.forEach((embeddingModel, modelTexts) -> {
+            log.info("Embedding " + modelTexts.size() + " texts of " + paragraphs.size() + " paragraphs with " + embeddingModel);
+            embeddingService.embed(embeddingModel, new ArrayList<>(modelTexts));
+        });
+    }
+}
@@ -0,0 +1,6 @@
+package com.example.demo.test.pipeline;
+
+public enum PipelineType {
+    CHAT_BOT_SERVICE,
+    DIRECT
+}
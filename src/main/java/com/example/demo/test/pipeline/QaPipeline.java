@@ -0,0 +1,20 @@
+package com.example.demo.test.pipeline;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Retrieval-augmented question answering for a single, fixed grid cell configuration. Index creation
+ * and deletion may do blocking work before returning; the returned future completes once the index
+ * can be queried or is gone.
+ */
+public interface QaPipeline {
+
+    CompletableFuture<Void> createIndex(String indexName, String context);
+
+    List<String> findKNearest(String indexName, String query, int k);
+
+    String query(String indexName, String question);
+
+    CompletableFuture<Void> deleteIndex(String indexName);
+}
@@ -0,0 +1,87 @@
+package com.example.demo.test.pipeline;
+
+import com.example.demo.test.EvaluationConfig;
+import com.example.demo.test.completion.CompletionService;
+import com.example.demo.test.embedding.EmbeddingService;
+import com.example.demo.test.evaluation.GridCell;
+import com.example.demo.test.index.PineconeIndexManager;
+import com.example.demo.test.metrics.RagMetrics;
+import com.example.demo.test.ratelimit.RateLimiters;
+import com.example.demo.test.vector.IndexPool;
+import com.example.demo.test.vector.LocalVectorStore;
+import com.example.demo.test.vector.PineconeVectorStore;
+import com.example.demo.test.vector.VectorStore;
+import com.example.demo.test.vector.VectorStoreType;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class QaPipelineFactory {
+
+    private final EvaluationConfig evaluationConfig;
+    private final ChatBotServiceFactory chatBotServiceFactory;
+    private final PineconeIndexManager indexManager;
+    private final Chunker chunker;
+    private final EmbeddingService embeddingService;
+    private final VectorStore vectorStore;
+    private final IndexPool indexPool;
+    private final CompletionService completionService;
+    private final RateLimiters rateLimiters;
+    private final RagMetrics ragMetrics;
+    private final Map<String, String> indexContexts = new ConcurrentHashMap<>();
+
+    public QaPipelineFactory(
+            final EvaluationConfig evaluationConfig,
+            final ChatBotServiceFactory chatBotServiceFactory,
+            final PineconeIndexManager indexManager,
+            final Chunker chunker,
+            final EmbeddingService embeddingService,
+            final PineconeVectorStore pineconeVectorStore,
+            final LocalVectorStore localVectorStore,
+            final CompletionService completionService,
+            final RateLimiters rateLimiters,
+            final RagMetrics ragMetrics
+    ) {
+        this.evaluationConfig = evaluationConfig;
+        this.chatBotServiceFactory = chatBotServiceFactory;
+        this.indexManager = indexManager;
+        this.chunker = chunker;
+        this.embeddingService = embeddingService;
+        if (evaluationConfig.getVectorStore().equals(VectorStoreType.LOCAL)) {
+            if (!evaluationConfig.getPipeline().equals(PipelineType.DIRECT)) {
+                throw new IllegalStateException("The LOCAL vector store requires the DIRECT evaluation pipeline");
+            }
+            this.vectorStore = localVectorStore;
+        } else {
+            this.vectorStore = pineconeVectorStore;
+        }
+        this.indexPool = new IndexPool(vectorStore);
+        this.completionService = completionService;
+        this.rateLimiters = rateLimiters;
+        this.ragMetrics = ragMetrics;
+    }
+
+    /**
+     * The pooled indexes of the DIRECT pipeline. Runs open the pool before creating pipelines and close it
+     * when they are done.
+     */
+    public IndexPool getIndexPool() {
+        return indexPool;
+    }
+
+    /**
+     * The vector store {@code evaluation.vector-store} selects.
+     */
+    public VectorStore getVectorStore() {
+        return vectorStore;
+    }
+
+    public QaPipeline create(GridCell cell) {
+        if (evaluationConfig.getPipeline().equals(PipelineType.DIRECT)) {
+            return new DirectPipeline(cell, chunker, embeddingService, vectorStore, indexPool, completionService, ragMetrics);
+        }
+        return new ChatBotServicePipeline(cell, chatBotServiceFactory.create(cell), indexManager, completionService, rateLimiters, indexContexts, ragMetrics);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.demo.test.profile;
+
+import com.example.demo.test.evaluation.GridCell;
+import com.thesis.qnabot.api.embedding.domain.enums.ChunkModel;
+import com.thesis.qnabot.api.embedding.domain.enums.CompletionModel;
+import com.thesis.qnabot.api.embedding.domain.enums.EmbeddingModel;
+import com.thesis.qnabot.api.embedding.domain.enums.KnnAlgorithm;
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.regex.Pattern;
+
+/**
+ * A named serving configuration. API keys are not part of the definition: they are the configured keys
+ * of the profile's providers, looked up once when the profile is resolved.
+ */
+@Value
+@Builder
+public class PipelineProfile {
+
+    private static final Pattern NAME = Pattern.compile("[a-z0-9-]{1,32}");
+
+    String name;
+
+    GridCell cell;
+
+    /**
+     * Parses {@code name=EMBEDDING/COMPLETION/KNN/CHUNK_MODEL/chunkSize/chunkOverlap/k}, for example
+     * {@code default=OPEN_AI/OPEN_AI/COSINE/SENTENCES/15/2/3}.
+     */
+    public static PipelineProfile parse(String definition) {
+        final var separator = definition.indexOf('=');
+        if (separator < 0) {
+            throw new IllegalArgumentException("Profile " + definition + " has no name");
+        }
+        final var name = definition.substring(0, separator).strip();
+        if (!NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid profile name " + name);
+        }
+        final var fields = definition.substring(separator + 1).strip().split("/");
+        if (fields.length != 7) {
+            throw new IllegalArgumentException("Profile " + name + " needs 7 fields but has " + fields.length);
+        }
+        try {
+            return PipelineProfile.builder()
+                    .name(name)
+                    .cell(GridCell.builder()
+                            .embeddingModel(EmbeddingModel.valueOf(fields[0].strip()))
+                            .completionModel(CompletionModel.valueOf(fields[1].strip()))
+                            .knnAlgorithm(KnnAlgorithm.valueOf(fields[2].strip()))
+                            .chunkModel(ChunkModel.valueOf(fields[3].strip()))
+                            .chunkSize(Integer.parseInt(fields[4].strip()))
+                            .chunkOverlap(Integer.parseInt(fields[5].strip()))
+                            .k(Integer.parseInt(fields[6].strip()))
+                            .build())
+                    .build();
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid profile " + definition, e);
+        }
+    }
+}
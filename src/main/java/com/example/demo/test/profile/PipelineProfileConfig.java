@@ -0,0 +1,19 @@
+package com.example.demo.test.profile;
+
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@Data
+public class PipelineProfileConfig {
+    /**
+     * Semicolon separated {@code name=EMBEDDING/COMPLETION/KNN/CHUNK_MODEL/chunkSize/chunkOverlap/k}.
+     */
+    @Value("${pipeline-profiles.definitions}")
+    private String definitions;
+
+    @Value("${pipeline-profiles.default-profile}")
+    private String defaultProfile;
+
+}
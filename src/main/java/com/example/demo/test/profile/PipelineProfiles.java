@@ -0,0 +1,79 @@
+package com.example.demo.test.profile;
+
+import com.example.demo.test.metrics.RagMetrics;
+import com.example.demo.test.pipeline.ChatBotServiceFactory;
+import com.example.demo.test.ratelimit.RateLimiters;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The serving profiles of {@code pipeline-profiles.definitions}, each resolved into its
+ * {@link ProfileBundle} at startup. The map is never modified afterwards, so lookups need no locking.
+ */
+@Component
+public class PipelineProfiles {
+
+    private final Map<String, ProfileBundle> bundles;
+    private final List<PipelineProfile> profiles;
+    private final ProfileBundle defaultBundle;
+
+    public PipelineProfiles(
+            final PipelineProfileConfig pipelineProfileConfig,
+            final ChatBotServiceFactory chatBotServiceFactory,
+            final RateLimiters rateLimiters
+    ) {
+        final var bundles = new LinkedHashMap<String, ProfileBundle>();
+        final var profiles = new ArrayList<PipelineProfile>();
+        for (final var definition : pipelineProfileConfig.getDefinitions().split(";")) {
+            if (definition.isBlank()) {
+                continue;
+            }
+            final var profile = PipelineProfile.parse(definition);
+            final var cell = profile.getCell();
+            final var bundle = new ProfileBundle(
+                    profile,
+                    chatBotServiceFactory.create(cell),
+                    rateLimiters.forEmbedding(cell.getEmbeddingModel()),
+                    rateLimiters.forCompletion(cell.getCompletionModel()),
+                    RagMetrics.tags(cell)
+            );
+            if (bundles.putIfAbsent(profile.getName(), bundle) != null) {
+                throw new IllegalStateException("Profile " + profile.getName() + " is defined twice");
+            }
+            profiles.add(profile);
+        }
+        this.bundles = Map.copyOf(bundles);
+        this.profiles = List.copyOf(profiles);
+        this.defaultBundle = bundles.get(pipelineProfileConfig.getDefaultProfile());
+        if (defaultBundle == null) {
+            throw new IllegalStateException("The default profile " + pipelineProfileConfig.getDefaultProfile() +
+                    " is not defined");
+        }
+    }
+
+    /**
+     * The named profile, or the default profile when no name is given.
+     */
+    public ProfileBundle get(String name) {
+        if (name == null || name.isBlank()) {
+            return defaultBundle;
+        }
+        final var bundle = bundles.get(name);
+        if (bundle == null) {
+            throw new IllegalArgumentException("Unknown profile " + name);
+        }
+        return bundle;
+    }
+
+    public ProfileBundle getDefault() {
+        return defaultBundle;
+    }
+
+    public List<PipelineProfile> getProfiles() {
+        return profiles;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.demo.test.profile;
+
+import com.example.demo.test.ratelimit.ProviderLimiter;
+import com.thesis.qnabot.api.embedding.application.ChatBotService;
+import io.micrometer.core.instrument.Tags;
+import lombok.Getter;
+
+/**
+ * A profile resolved into the clients that serve it. The {@link ChatBotService} is configured once by
+ * {@link PipelineProfiles} and never touched again, so requests on any number of profiles share no
+ * mutable configuration.
+ */
+@Getter
+public class ProfileBundle {
+
+    private final PipelineProfile profile;
+    private final ChatBotService chatBotService;
+    private final ProviderLimiter embeddingLimiter;
+    private final ProviderLimiter completionLimiter;
+    private final Tags tags;
+
+    ProfileBundle(
+            final PipelineProfile profile,
+            final ChatBotService chatBotService,
+            final ProviderLimiter embeddingLimiter,
+            final ProviderLimiter completionLimiter,
+            final Tags tags
+    ) {
+        this.profile = profile;
+        this.chatBotService = chatBotService;
+        this.embeddingLimiter = embeddingLimiter;
+        this.completionLimiter = completionLimiter;
+        this.tags = tags;
+    }
+
+    public String getName() {
+        return profile.getName();
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.demo.test.profile;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+public class ProfileController {
+
+    private final PipelineProfiles pipelineProfiles;
+
+    public ProfileController(final PipelineProfiles pipelineProfiles) {
+        this.pipelineProfiles = pipelineProfiles;
+    }
+
+    @GetMapping("/profiles")
+    public List<PipelineProfile> profiles() {
+        return pipelineProfiles.getProfiles();
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.demo.test.ratelimit;
+
+import com.thesis.qnabot.api.embedding.domain.enums.CompletionModel;
+import com.thesis.qnabot.api.embedding.domain.enums.EmbeddingModel;
+
+public enum Provider {
+    OPEN_AI,
+    NLP_CLOUD,
+    PINECONE;
+
+    public static Provider of(EmbeddingModel embeddingModel) {
+        return embeddingModel.equals(EmbeddingModel.OPEN_AI) ? OPEN_AI : NLP_CLOUD;
+    }
+
+    public static Provider of(CompletionModel completionModel) {
+        return completionModel.equals(CompletionModel.OPEN_AI) ? OPEN_AI : NLP_CLOUD;
+    }
+
+    public String tag() {
+        return name().toLowerCase().replace('_', '-');
+    }
+}
@@ -0,0 +1,29 @@
+package com.example.demo.test.ratelimit;
+
+/**
+ * The request and token budgets of one provider account, shared by the limiters of all call classes
+ * that use the account.
+ */
+class ProviderBudget {
+
+    private final TokenBucket requests;
+    private final TokenBucket tokens;
+
+    ProviderBudget(Provider provider, RateLimitConfig rateLimitConfig, long now) {
+        final var requestsPerMinute = rateLimitConfig.getRequestsPerMinute(provider);
+        final var tokensPerMinute = rateLimitConfig.getTokensPerMinute(provider);
+        this.requests = requestsPerMinute > 0 ? new TokenBucket(requestsPerMinute, now) : null;
+        this.tokens = tokensPerMinute > 0 ? new TokenBucket(tokensPerMinute, now) : null;
+    }
+
+    /**
+     * Takes one request and the tokens and returns how many nanoseconds the caller has to wait.
+     */
+    long reserve(int tokenCount, long now) {
+        var delay = requests == null ? 0 : requests.reserve(1, now);
+        if (tokens != null) {
+            delay = Math.max(delay, tokens.reserve(tokenCount, now));
+        }
+        return delay;
+    }
+}
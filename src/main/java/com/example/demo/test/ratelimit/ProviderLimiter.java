@@ -0,0 +1,241 @@
+package com.example.demo.test.ratelimit;
+
+import com.example.demo.test.http.EndpointClass;
+import org.springframework.web.client.HttpStatusCodeException;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Paces one class of calls to a provider account. A call needs a concurrency slot and its share of the
+ * request and token budgets, which all call classes of the account share. Slots and the latency baseline
+ * are kept per call class, as completions legitimately take far longer than embeddings or queries. The
+ * number of slots adapts AIMD style: it grows by one per round of successful calls and shrinks
+ * multiplicatively when the provider answers 429 or latency climbs above
+ * {@code rate-limits.latency-tolerance} times the lowest latency seen. A 429 also pauses every caller
+ * until its Retry-After has passed, and the limit is cut at most once per round trip, so one burst of
+ * 429s backs off once instead of once per failed call.
+ */
+public class ProviderLimiter {
+
+    private static final double THROTTLED_DECREASE = 0.5;
+    private static final double CONGESTED_DECREASE = 0.9;
+    private static final double BASELINE_DRIFT = 0.01;
+    private static final long DEFAULT_RETRY_AFTER_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long MIN_DECREASE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final Provider provider;
+    private final EndpointClass endpointClass;
+    private final boolean enabled;
+    private final ProviderBudget budget;
+    private final int maxConcurrency;
+    private final int maxThrottledRetries;
+    private final double latencyTolerance;
+    private final LongSupplier clock;
+
+    private double limit;
+    private int inFlight;
+    private long pausedUntil;
+    private double baselineNanos;
+    private long decreasedAt;
+    private long throttledCount;
+
+    ProviderLimiter(Provider provider, RateLimitConfig rateLimitConfig, LongSupplier clock) {
+        this(
+                provider,
+                EndpointClass.QUERY,
+                new ProviderBudget(provider, rateLimitConfig, clock.getAsLong()),
+                rateLimitConfig,
+                clock
+        );
+    }
+
+    ProviderLimiter(
+            Provider provider,
+            EndpointClass endpointClass,
+            ProviderBudget budget,
+            RateLimitConfig rateLimitConfig,
+            LongSupplier clock
+    ) {
+        final var now = clock.getAsLong();
+        this.provider = provider;
+        this.endpointClass = endpointClass;
+        this.enabled = rateLimitConfig.isEnabled();
+        this.budget = budget;
+        this.maxConcurrency = Math.max(1, rateLimitConfig.getMaxConcurrency(provider));
+        this.maxThrottledRetries = rateLimitConfig.getMaxThrottledRetries();
+        this.latencyTolerance = rateLimitConfig.getLatencyTolerance();
+        this.clock = clock;
+        this.limit = Math.max(1, maxConcurrency / 2);
+        this.decreasedAt = now - MIN_DECREASE_INTERVAL_NANOS;
+    }
+
+    /**
+     * A rough token count for budgeting, about four characters per token.
+     */
+    public static int estimateTokens(CharSequence text) {
+        return (text.length() + 3) / 4;
+    }
+
+    public void run(int tokenCount, Runnable call) {
+        call(tokenCount, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    /**
+     * Runs the call once it fits the budgets, retrying it up to {@code rate-limits.max-throttled-retries}
+     * times when the provider answers 429.
+     */
+    public <T> T call(int tokenCount, Supplier<T> call) {
+        if (!enabled) {
+            return call.get();
+        }
+        for (var attempt = 0; ; attempt++) {
+            acquire(tokenCount);
+            final var start = clock.getAsLong();
+            var released = false;
+            try {
+                final var result = call.get();
+                released = true;
+                succeeded(clock.getAsLong() - start);
+                return result;
+            } catch (RuntimeException e) {
+                final var retryAfter = throttledRetryAfter(e);
+                if (retryAfter < 0) {
+                    throw e;
+                }
+                released = true;
+                throttled(retryAfter);
+                if (attempt >= maxThrottledRetries) {
+                    throw e;
+                }
+            } finally {
+                if (!released) {
+                    failed();
+                }
+            }
+        }
+    }
+
+    public Provider getProvider() {
+        return provider;
+    }
+
+    public EndpointClass getEndpointClass() {
+        return endpointClass;
+    }
+
+    public synchronized Map<String, Number> snapshot() {
+        return Map.of(
+                "limit", (int) limit,
+                "inFlight", inFlight,
+                "throttled", throttledCount,
+                "baselineMillis", TimeUnit.NANOSECONDS.toMillis((long) baselineNanos)
+        );
+    }
+
+    synchronized double getLimit() {
+        return limit;
+    }
+
+    synchronized int getInFlight() {
+        return inFlight;
+    }
+
+    synchronized long getThrottledCount() {
+        return throttledCount;
+    }
+
+    void acquire(int tokenCount) {
+        synchronized (this) {
+            try {
+                while (true) {
+                    final var now = clock.getAsLong();
+                    if (pausedUntil > now) {
+                        TimeUnit.NANOSECONDS.timedWait(this, pausedUntil - now);
+                    } else if (inFlight >= (int) limit) {
+                        wait();
+                    } else {
+                        break;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+            inFlight++;
+        }
+        final var delay = budget.reserve(tokenCount, clock.getAsLong());
+        if (delay > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(delay);
+            } catch (InterruptedException e) {
+                failed();
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    synchronized void succeeded(long latencyNanos) {
+        inFlight--;
+        if (baselineNanos == 0 || latencyNanos < baselineNanos) {
+            baselineNanos = latencyNanos;
+        } else {
+            baselineNanos += (latencyNanos - baselineNanos) * BASELINE_DRIFT;
+        }
+        if (latencyNanos > baselineNanos * latencyTolerance) {
+            decrease(CONGESTED_DECREASE);
+        } else {
+            limit = Math.min(maxConcurrency, limit + 1 / limit);
+        }
+        notifyAll();
+    }
+
+    synchronized void throttled(long retryAfterNanos) {
+        inFlight--;
+        throttledCount++;
+        pausedUntil = Math.max(pausedUntil, clock.getAsLong() + retryAfterNanos);
+        decrease(THROTTLED_DECREASE);
+        notifyAll();
+    }
+
+    synchronized void failed() {
+        inFlight--;
+        notifyAll();
+    }
+
+    private void decrease(double factor) {
+        final var now = clock.getAsLong();
+        if (now - decreasedAt < Math.max(MIN_DECREASE_INTERVAL_NANOS, (long) baselineNanos)) {
+            return;
+        }
+        limit = Math.max(1, limit * factor);
+        decreasedAt = now;
+    }
+
+    /**
+     * The wait the provider asked for if the failure is a 429 anywhere in the cause chain, else -1.
+     */
+    static long throttledRetryAfter(Throwable failure) {
+        for (var cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof HttpStatusCodeException
+                    && ((HttpStatusCodeException) cause).getRawStatusCode() == 429) {
+                final var headers = ((HttpStatusCodeException) cause).getResponseHeaders();
+                final var retryAfter = headers == null ? null : headers.getFirst("Retry-After");
+                try {
+                    return retryAfter == null
+                            ? DEFAULT_RETRY_AFTER_NANOS
+                            : TimeUnit.SECONDS.toNanos(Long.parseLong(retryAfter.strip()));
+                } catch (NumberFormatException e) {
+                    return DEFAULT_RETRY_AFTER_NANOS;
+                }
+            }
+        }
+        return -1;
+    }
+}
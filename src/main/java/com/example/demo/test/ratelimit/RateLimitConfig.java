@@ -0,0 +1,69 @@
+package com.example.demo.test.ratelimit;
+
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Quotas per provider. A requests or tokens per minute of 0 means the provider has no such budget.
+ */
+@Configuration
+@Data
+public class RateLimitConfig {
+    @Value("${rate-limits.enabled}")
+    private boolean enabled;
+
+    @Value("${rate-limits.max-throttled-retries}")
+    private int maxThrottledRetries;
+
+    @Value("${rate-limits.latency-tolerance}")
+    private double latencyTolerance;
+
+    @Value("${rate-limits.open-ai.requests-per-minute}")
+    private int openAiRequestsPerMinute;
+
+    @Value("${rate-limits.open-ai.tokens-per-minute}")
+    private int openAiTokensPerMinute;
+
+    @Value("${rate-limits.open-ai.max-concurrency}")
+    private int openAiMaxConcurrency;
+
+    @Value("${rate-limits.nlp-cloud.requests-per-minute}")
+    private int nlpCloudRequestsPerMinute;
+
+    @Value("${rate-limits.nlp-cloud.max-concurrency}")
+    private int nlpCloudMaxConcurrency;
+
+    @Value("${rate-limits.pinecone.requests-per-minute}")
+    private int pineconeRequestsPerMinute;
+
+    @Value("${rate-limits.pinecone.max-concurrency}")
+    private int pineconeMaxConcurrency;
+
+    public int getRequestsPerMinute(Provider provider) {
+        switch (provider) {
+            case OPEN_AI:
+                return openAiRequestsPerMinute;
+            case NLP_CLOUD:
+                return nlpCloudRequestsPerMinute;
+            default:
+                return pineconeRequestsPerMinute;
+        }
+    }
+
+    public int getTokensPerMinute(Provider provider) {
+        return provider.equals(Provider.OPEN_AI) ? openAiTokensPerMinute : 0;
+    }
+
+    public int getMaxConcurrency(Provider provider) {
+        switch (provider) {
+            case OPEN_AI:
+                return openAiMaxConcurrency;
+            case NLP_CLOUD:
+                return nlpCloudMaxConcurrency;
+            default:
+                return pineconeMaxConcurrency;
+        }
+    }
+
+}
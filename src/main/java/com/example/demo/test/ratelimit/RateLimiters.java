@@ -0,0 +1,114 @@
+package com.example.demo.test.ratelimit;
+
+import com.example.demo.test.ApiKeysConfig;
+import com.example.demo.test.http.EndpointClass;
+import com.thesis.qnabot.api.embedding.domain.enums.CompletionModel;
+import com.thesis.qnabot.api.embedding.domain.enums.EmbeddingModel;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One {@link ProviderLimiter} per provider, API key and call class. OpenAI embeddings and completions
+ * share the OpenAI key and therefore one {@link ProviderBudget}, as they share the account's quota, but
+ * each adapts its own concurrency to its own latency.
+ */
+@Component
+public class RateLimiters {
+
+    private final RateLimitConfig rateLimitConfig;
+    private final ApiKeysConfig apiKeysConfig;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, ProviderBudget> budgets = new ConcurrentHashMap<>();
+    private final Map<String, ProviderLimiter> limiters = new ConcurrentHashMap<>();
+
+    public RateLimiters(
+            final RateLimitConfig rateLimitConfig,
+            final ApiKeysConfig apiKeysConfig,
+            final MeterRegistry meterRegistry
+    ) {
+        this.rateLimitConfig = rateLimitConfig;
+        this.apiKeysConfig = apiKeysConfig;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public ProviderLimiter forEmbedding(EmbeddingModel embeddingModel) {
+        return limiter(
+                Provider.of(embeddingModel),
+                apiKeysConfig.getEmbeddingApiKey(embeddingModel),
+                EndpointClass.EMBEDDING
+        );
+    }
+
+    public ProviderLimiter forCompletion(CompletionModel completionModel) {
+        return limiter(
+                Provider.of(completionModel),
+                apiKeysConfig.getCompletionApiKey(completionModel),
+                EndpointClass.COMPLETION
+        );
+    }
+
+    /**
+     * For Pinecone data plane calls: query, upsert and delete.
+     */
+    public ProviderLimiter forVectorDatabase() {
+        return limiter(Provider.PINECONE, apiKeysConfig.getPineconeKey(), EndpointClass.QUERY);
+    }
+
+    /**
+     * For Pinecone index management, which takes seconds rather than milliseconds.
+     */
+    public ProviderLimiter forVectorDatabaseControlPlane() {
+        return limiter(Provider.PINECONE, apiKeysConfig.getPineconeKey(), EndpointClass.CONTROL_PLANE);
+    }
+
+    public Map<String, Map<String, Number>> snapshot() {
+        final var snapshot = new TreeMap<String, Map<String, Number>>();
+        limiters.values().forEach(limiter -> snapshot.put(
+                limiter.getProvider().tag() + "/" + tag(limiter.getEndpointClass()),
+                limiter.snapshot()
+        ));
+        return snapshot;
+    }
+
+    private ProviderLimiter limiter(Provider provider, String apiKey, EndpointClass endpointClass) {
+        final var account = provider.name() + ":" + apiKey;
+        return limiters.computeIfAbsent(account + ":" + endpointClass.name(), ignored -> {
+            final var budget = budgets.computeIfAbsent(
+                    account,
+                    unused -> new ProviderBudget(provider, rateLimitConfig, System.nanoTime())
+            );
+            final var limiter = new ProviderLimiter(
+                    provider,
+                    endpointClass,
+                    budget,
+                    rateLimitConfig,
+                    System::nanoTime
+            );
+            Gauge.builder("rag.ratelimit.concurrency", limiter, ProviderLimiter::getLimit)
+                    .tag("provider", provider.tag())
+                    .tag("endpoint", tag(endpointClass))
+                    .tag("state", "limit")
+                    .register(meterRegistry);
+            Gauge.builder("rag.ratelimit.concurrency", limiter, ProviderLimiter::getInFlight)
+                    .tag("provider", provider.tag())
+                    .tag("endpoint", tag(endpointClass))
+                    .tag("state", "in-flight")
+                    .register(meterRegistry);
+            FunctionCounter.builder("rag.ratelimit.throttled", limiter, ProviderLimiter::getThrottledCount)
+                    .tag("provider", provider.tag())
+                    .tag("endpoint", tag(endpointClass))
+                    .register(meterRegistry);
+            return limiter;
+        });
+    }
+
+    private static String tag(EndpointClass endpointClass) {
+        return endpointClass.name().toLowerCase().replace('_', '-');
+    }
+}
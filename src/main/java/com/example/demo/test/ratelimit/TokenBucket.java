@@ -0,0 +1,33 @@
+package com.example.demo.test.ratelimit;
+
+/**
+ * A bucket refilled at a per-minute rate that holds at most a tenth of a minute's budget. Reserving
+ * always succeeds and may drive the bucket negative; the caller then waits the returned time, so
+ * callers are served in the order they reserved and a request larger than the burst still gets through.
+ */
+class TokenBucket {
+
+    private static final double MINUTE_NANOS = 60e9;
+
+    private final double perNano;
+    private final double capacity;
+    private double available;
+    private long refilledAt;
+
+    TokenBucket(int perMinute, long now) {
+        this.perNano = perMinute / MINUTE_NANOS;
+        this.capacity = Math.max(1, perMinute / 10.);
+        this.available = capacity;
+        this.refilledAt = now;
+    }
+
+    /**
+     * Takes the amount and returns how many nanoseconds the caller has to wait before using it.
+     */
+    synchronized long reserve(double amount, long now) {
+        available = Math.min(capacity, available + (now - refilledAt) * perNano);
+        refilledAt = now;
+        available -= amount;
+        return available >= 0 ? 0 : (long) Math.ceil(-available / perNano);
+    }
+}
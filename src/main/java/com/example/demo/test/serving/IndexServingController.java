@@ -0,0 +1,99 @@
+package com.example.demo.test.serving;
+
+import com.example.demo.test.completion.CompletionService;
+import com.example.demo.test.embedding.EmbeddingService;
+import com.example.demo.test.metrics.RagMetrics;
+import com.example.demo.test.metrics.Stage;
+import com.example.demo.test.pipeline.QaPipelineFactory;
+import com.example.demo.test.profile.PipelineProfiles;
+import com.example.demo.test.profile.ProfileBundle;
+import com.example.demo.test.vector.VectorStore;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+/**
+ * Serves the indexes loaded through {@code /indexes/{indexName}/documents} with this application's own
+ * embedding, vector store and completion clients instead of {@code ChatBotService}, so every provider
+ * call honours {@code provider-urls} and the local caches. The profile supplies the embedding and
+ * completion models and the k of a question; it has to match the embedding model the index was loaded
+ * with.
+ */
+@RestController
+public class IndexServingController {
+
+    private final PipelineProfiles pipelineProfiles;
+    private final EmbeddingService embeddingService;
+    private final VectorStore vectorStore;
+    private final CompletionService completionService;
+    private final ServingCache servingCache;
+    private final RagMetrics ragMetrics;
+
+    public IndexServingController(
+            final PipelineProfiles pipelineProfiles,
+            final EmbeddingService embeddingService,
+            final QaPipelineFactory qaPipelineFactory,
+            final CompletionService completionService,
+            final ServingCache servingCache,
+            final RagMetrics ragMetrics
+    ) {
+        this.pipelineProfiles = pipelineProfiles;
+        this.embeddingService = embeddingService;
+        this.vectorStore = qaPipelineFactory.getVectorStore();
+        this.completionService = completionService;
+        this.servingCache = servingCache;
+        this.ragMetrics = ragMetrics;
+    }
+
+    @GetMapping("/indexes/{indexName}/nearest")
+    public List<String> findKNearest(
+            @PathVariable String indexName,
+            @RequestParam String query,
+            @RequestParam int k,
+            @RequestParam(required = false) String profile
+    ) {
+        final var bundle = profile(profile);
+        return servingCache.nearestChunks(bundle.getName(), indexName, query, k, () -> nearest(bundle, indexName, query, k));
+    }
+
+    @PostMapping("/indexes/{indexName}/query")
+    public String query(
+            @PathVariable String indexName,
+            @RequestParam String question,
+            @RequestParam(required = false) String profile
+    ) {
+        final var bundle = profile(profile);
+        final var cell = bundle.getProfile().getCell();
+        return servingCache.answer(bundle.getName(), indexName, question, () -> {
+            final var context = nearest(bundle, indexName, question, cell.getK());
+            return ragMetrics.time(
+                    Stage.COMPLETION,
+                    bundle.getTags(),
+                    () -> completionService.complete(cell.getCompletionModel(), context, question)
+            );
+        });
+    }
+
+    private List<String> nearest(ProfileBundle bundle, String indexName, String query, int k) {
+        final var vector = ragMetrics.time(
+                Stage.EMBEDDING,
+                bundle.getTags(),
+                () -> embeddingService.embed(bundle.getProfile().getCell().getEmbeddingModel(), query)
+        );
+        return ragMetrics.time(Stage.VECTOR_QUERY, bundle.getTags(), () -> vectorStore.query(indexName, "", vector, k));
+    }
+
+    private ProfileBundle profile(String name) {
+        try {
+            return pipelineProfiles.get(name);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.demo.test.serving;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.thesis.qnabot.api.embedding.domain.Embedding;
+import com.thesis.qnabot.api.embedding.domain.request.QueryCompletionModelRequest;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces identical serving requests. Nearest neighbour lookups are keyed by (profile, index, query, k)
+ * and completions by the profile and the whole request or question, so a burst of identical requests
+ * makes one set of upstream calls and the results are reused for {@code serving-cache.ttl-millis}.
+ */
+@Component
+public class ServingCache {
+
+    private final ServingCacheConfig servingCacheConfig;
+    private final ObjectMapper objectMapper;
+    private final SingleFlightCache<List<Object>, List<Embedding>> nearest;
+    private final SingleFlightCache<String, String> completions;
+    private final SingleFlightCache<List<Object>, List<String>> chunks;
+    private final SingleFlightCache<List<Object>, String> answers;
+
+    public ServingCache(
+            final ServingCacheConfig servingCacheConfig,
+            final ObjectMapper objectMapper,
+            final MeterRegistry meterRegistry
+    ) {
+        this.servingCacheConfig = servingCacheConfig;
+        this.objectMapper = objectMapper;
+        final var ttlNanos = TimeUnit.MILLISECONDS.toNanos(servingCacheConfig.getTtlMillis());
+        this.nearest = new SingleFlightCache<>(ttlNanos, servingCacheConfig.getMaxEntries(), System::nanoTime);
+        this.completions = new SingleFlightCache<>(ttlNanos, servingCacheConfig.getMaxEntries(), System::nanoTime);
+        this.chunks = new SingleFlightCache<>(ttlNanos, servingCacheConfig.getMaxEntries(), System::nanoTime);
+        this.answers = new SingleFlightCache<>(ttlNanos, servingCacheConfig.getMaxEntries(), System::nanoTime);
+        register(meterRegistry, "nearest", nearest);
+        register(meterRegistry, "completion", completions);
+        register(meterRegistry, "chunks", chunks);
+        register(meterRegistry, "answer", answers);
+    }
+
+    public List<Embedding> findKNearest(
+            String profile,
+            String indexName,
+            String query,
+            int k,
+            Supplier<List<Embedding>> loader
+    ) {
+        if (!servingCacheConfig.isEnabled()) {
+            return loader.get();
+        }
+        return nearest.get(List.of(profile, indexName, query, k), loader);
+    }
+
+    public String query(String profile, QueryCompletionModelRequest request, Supplier<String> loader) {
+        if (!servingCacheConfig.isEnabled()) {
+            return loader.get();
+        }
+        try {
+            return completions.get(profile + "\n" + objectMapper.writeValueAsString(request), loader);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    public List<String> nearestChunks(
+            String profile,
+            String indexName,
+            String query,
+            int k,
+            Supplier<List<String>> loader
+    ) {
+        if (!servingCacheConfig.isEnabled()) {
+            return loader.get();
+        }
+        return chunks.get(List.of(profile, indexName, query, k), loader);
+    }
+
+    public String answer(String profile, String indexName, String question, Supplier<String> loader) {
+        if (!servingCacheConfig.isEnabled()) {
+            return loader.get();
+        }
+        return answers.get(List.of(profile, indexName, question), loader);
+    }
+
+    /**
+     * Drops every cached result, for after the served index changed.
+     */
+    public void invalidate() {
+        nearest.clear();
+        completions.clear();
+        chunks.clear();
+        answers.clear();
+    }
+
+    public Map<String, Map<String, Long>> snapshot() {
+        return Map.of(
+                "nearest", snapshot(nearest),
+                "completions", snapshot(completions),
+                "chunks", snapshot(chunks),
+                "answers", snapshot(answers)
+        );
+    }
+
+    private static Map<String, Long> snapshot(SingleFlightCache<?, ?> cache) {
+        return Map.of(
+                "hits", cache.getHits(),
+                "coalesced", cache.getCoalesced(),
+                "misses", cache.getMisses(),
+                "size", (long) cache.getSize()
+        );
+    }
+
+    private static void register(MeterRegistry meterRegistry, String name, SingleFlightCache<?, ?> cache) {
+        FunctionCounter.builder("rag.serving.cache", cache, SingleFlightCache::getHits)
+                .tag("cache", name)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("rag.serving.cache", cache, SingleFlightCache::getCoalesced)
+                .tag("cache", name)
+                .tag("result", "coalesced")
+                .register(meterRegistry);
+        FunctionCounter.builder("rag.serving.cache", cache, SingleFlightCache::getMisses)
+                .tag("cache", name)
+                .tag("result", "miss")
+                .register(meterRegistry);
+    }
+}
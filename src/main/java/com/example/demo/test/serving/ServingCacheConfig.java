@@ -0,0 +1,19 @@
+package com.example.demo.test.serving;
+
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@Data
+public class ServingCacheConfig {
+    @Value("${serving-cache.enabled}")
+    private boolean enabled;
+
+    @Value("${serving-cache.ttl-millis}")
+    private long ttlMillis;
+
+    @Value("${serving-cache.max-entries}")
+    private int maxEntries;
+
+}
@@ -0,0 +1,131 @@
+package com.example.demo.test.serving;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Shares one computation between concurrent callers asking for the same key, then keeps the result for
+ * a short TTL. Failures are handed to the callers that waited for them but never cached. At most
+ * {@code maxEntries} results are kept; past that, expired ones are swept and new results are only shared
+ * while in flight. Loads started before {@link #clear()} are neither shared with later callers nor cached.
+ */
+class SingleFlightCache<K, V> {
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LongSupplier clock;
+    private final Map<K, Flight<V>> flights = new ConcurrentHashMap<>();
+    private final AtomicLong generation = new AtomicLong();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    SingleFlightCache(long ttlNanos, int maxEntries, LongSupplier clock) {
+        this.ttlNanos = ttlNanos;
+        this.maxEntries = maxEntries;
+        this.clock = clock;
+    }
+
+    V get(K key, Supplier<V> loader) {
+        while (true) {
+            final var current = generation.get();
+            final var flight = flights.get(key);
+            if (flight != null && flight.generation == current) {
+                if (!flight.result.isDone()) {
+                    coalesced.incrementAndGet();
+                    return join(flight.result);
+                }
+                if (flight.expiresAt > clock.getAsLong()) {
+                    hits.incrementAndGet();
+                    return join(flight.result);
+                }
+            }
+            final var created = new Flight<V>(current);
+            final var claimed = flight == null
+                    ? flights.putIfAbsent(key, created) == null
+                    : flights.replace(key, flight, created);
+            if (claimed) {
+                misses.incrementAndGet();
+                return load(key, created, loader);
+            }
+        }
+    }
+
+    void clear() {
+        generation.incrementAndGet();
+        flights.clear();
+    }
+
+    long getHits() {
+        return hits.get();
+    }
+
+    long getCoalesced() {
+        return coalesced.get();
+    }
+
+    long getMisses() {
+        return misses.get();
+    }
+
+    int getSize() {
+        return flights.size();
+    }
+
+    private V load(K key, Flight<V> flight, Supplier<V> loader) {
+        var cached = false;
+        try {
+            final var value = loader.get();
+            flight.expiresAt = clock.getAsLong() + ttlNanos;
+            flight.result.complete(value);
+            cached = flight.generation == generation.get() && fits();
+            return value;
+        } catch (Throwable e) {
+            flight.result.completeExceptionally(e);
+            throw e;
+        } finally {
+            if (!cached) {
+                flights.remove(key, flight);
+            }
+        }
+    }
+
+    private boolean fits() {
+        if (flights.size() > maxEntries) {
+            final var now = clock.getAsLong();
+            flights.values().removeIf(cached -> cached.result.isDone() && cached.expiresAt <= now);
+        }
+        return flights.size() <= maxEntries;
+    }
+
+    private static <V> V join(CompletableFuture<V> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static class Flight<V> {
+
+        private final CompletableFuture<V> result = new CompletableFuture<>();
+        private final long generation;
+        private volatile long expiresAt;
+
+        private Flight(long generation) {
+            this.generation = generation;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.demo.test.vector;
+
+import com.thesis.qnabot.api.embedding.domain.enums.EmbeddingModel;
+import com.thesis.qnabot.api.embedding.domain.enums.KnnAlgorithm;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Provisions one index per (embedding model, knn algorithm) and shares it between every paragraph and
+ * chunk configuration of the runs that are open at the same time, each of which writes to its own
+ * namespace. The pooled indexes are deleted once the last open run closes the pool.
+ */
+@Slf4j
+public class IndexPool {
+
+    private final VectorStore vectorStore;
+
+    private final Map<String, CompletableFuture<Void>> indexes = new HashMap<>();
+    private final Map<String, CompletableFuture<Void>> deletions = new HashMap<>();
+    private int openRuns;
+
+    public IndexPool(final VectorStore vectorStore) {
+        this.vectorStore = vectorStore;
+    }
+
+    public static String indexName(EmbeddingModel embeddingModel, KnnAlgorithm knnAlgorithm) {
+        return "thesis-" + embeddingModel.getStringValue() + "-" + knnAlgorithm.getStringValue();
+    }
+
+    public synchronized void open() {
+        openRuns++;
+    }
+
+    /**
+     * Completes once the pooled index for the pair can take upserts, creating it on first use. If a
+     * previous run is still deleting the index, it is created again after the deletion finished.
+     */
+    public synchronized CompletableFuture<Void> acquire(EmbeddingModel embeddingModel, KnnAlgorithm knnAlgorithm) {
+        if (openRuns == 0) {
+            throw new IllegalStateException("The index pool is not open");
+        }
+        final var indexName = indexName(embeddingModel, knnAlgorithm);
+        return indexes.computeIfAbsent(indexName, ignored -> deletions
+                .getOrDefault(indexName, CompletableFuture.completedFuture(null))
+                .thenCompose(deleted -> vectorStore.createIndex(
+                        indexName,
+                        embeddingModel.getEmbeddingSize(),
+                        knnAlgorithm
+                )));
+    }
+
+    public synchronized CompletableFuture<Void> close() {
+        if (--openRuns > 0) {
+            return CompletableFuture.completedFuture(null);
+        }
+        final var pending = new ArrayList<CompletableFuture<Void>>();
+        indexes.forEach((indexName, created) -> {
+            final var deletion = created
+                    .handle((ignored, e) -> null)
+                    .thenCompose(ignored -> vectorStore.deleteIndex(indexName))
+                    .exceptionally(e -> {
+                        log.error("Did not delete the pooled Vectorized Database " + indexName, e);
+                        return null;
+                    });
+            deletions.put(indexName, deletion);
+            deletion.thenRun(() -> forgetDeletion(indexName, deletion));
+            pending.add(deletion);
+        });
+        indexes.clear();
+        return CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new));
+    }
+
+    private synchronized void forgetDeletion(String indexName, CompletableFuture<Void> deletion) {
+        deletions.remove(indexName, deletion);
+    }
+
+    public synchronized List<String> getIndexNames() {
+        final var indexNames = new ArrayList<>(indexes.keySet());
+        indexNames.addAll(deletions.keySet());
+        return indexNames;
+    }
+}
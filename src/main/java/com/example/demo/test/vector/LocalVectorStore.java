@@ -0,0 +1,264 @@
+package com.example.demo.test.vector;
+
+import com.thesis.qnabot.api.embedding.domain.enums.KnnAlgorithm;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-process vector store with exact top-k search. Each namespace keeps its vectors in one contiguous
+ * float array, row after row, together with the vector norms, so a query is a single linear scan.
+ */
+@Component
+@Slf4j
+public class LocalVectorStore implements VectorStore {
+
+    private final Map<String, LocalNamespaces> indexes = new ConcurrentHashMap<>();
+
+    @Override
+    public CompletableFuture<Void> createIndex(String indexName, int dimension, KnnAlgorithm knnAlgorithm) {
+        if (indexes.putIfAbsent(indexName, new LocalNamespaces(dimension, knnAlgorithm)) != null) {
+            throw new IllegalStateException("Index " + indexName + " already exists");
+        }
+        log.info("Created local Vectorized Database " + indexName);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Ids are not kept: every upsert appends its chunks.
+     */
+    @Override
+    public CompletableFuture<Void> upsert(
+            String indexName,
+            String namespace,
+            List<String> ids,
+            List<String> chunks,
+            List<float[]> vectors
+    ) {
+        index(indexName).namespace(namespace).upsert(chunks, vectors);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public List<String> query(String indexName, String namespace, float[] vector, int topK) {
+        final var index = index(indexName).namespaces.get(namespace);
+        if (index == null) {
+            return List.of();
+        }
+        return index.query(vector, topK);
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteNamespace(String indexName, String namespace) {
+        index(indexName).namespaces.remove(namespace);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteIndex(String indexName) {
+        indexes.remove(indexName);
+        log.info("Deleted local Vectorized Database " + indexName);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    public List<String> getIndexNames() {
+        return new ArrayList<>(indexes.keySet());
+    }
+
+    private LocalNamespaces index(String indexName) {
+        final var index = indexes.get(indexName);
+        if (index == null) {
+            throw new IllegalArgumentException("Unknown index " + indexName);
+        }
+        return index;
+    }
+
+    static class LocalNamespaces {
+
+        private final int dimension;
+        private final KnnAlgorithm knnAlgorithm;
+        private final Map<String, LocalIndex> namespaces = new ConcurrentHashMap<>();
+
+        LocalNamespaces(int dimension, KnnAlgorithm knnAlgorithm) {
+            this.dimension = dimension;
+            this.knnAlgorithm = knnAlgorithm;
+        }
+
+        LocalIndex namespace(String namespace) {
+            return namespaces.computeIfAbsent(namespace, ignored -> new LocalIndex(dimension, knnAlgorithm));
+        }
+    }
+
+    static class LocalIndex {
+
+        /**
+         * The largest array most JVMs will allocate.
+         */
+        private static final int MAX_ARRAY_SIZE = Integer.MAX_VALUE - 8;
+
+        private final int dimension;
+        private final KnnAlgorithm knnAlgorithm;
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+        private float[] vectors = new float[0];
+        private float[] norms = new float[0];
+        private final List<String> chunks = new ArrayList<>();
+
+        LocalIndex(int dimension, KnnAlgorithm knnAlgorithm) {
+            this.dimension = dimension;
+            this.knnAlgorithm = knnAlgorithm;
+        }
+
+        void upsert(List<String> newChunks, List<float[]> newVectors) {
+            if (newChunks.size() != newVectors.size()) {
+                throw new IllegalArgumentException("Got " + newChunks.size() + " chunks but " + newVectors.size() + " vectors");
+            }
+            lock.writeLock().lock();
+            try {
+                final var size = chunks.size();
+                final var newSize = (long) size + newVectors.size();
+                if (newSize * dimension > MAX_ARRAY_SIZE) {
+                    throw new IllegalArgumentException("A namespace holds at most " + MAX_ARRAY_SIZE / dimension +
+                            " vectors of " + dimension + " dimensions, " + newSize + " asked for");
+                }
+                if (newSize * dimension > vectors.length) {
+                    final var capacity = Math.min(Math.max(newSize, 2L * size), MAX_ARRAY_SIZE / dimension);
+                    vectors = Arrays.copyOf(vectors, (int) (capacity * dimension));
+                    norms = Arrays.copyOf(norms, (int) capacity);
+                }
+                for (var i = 0; i < newVectors.size(); i++) {
+                    final var vector = newVectors.get(i);
+                    if (vector.length != dimension) {
+                        throw new IllegalArgumentException("Expected " + dimension + " dimensions but got " + vector.length);
+                    }
+                    System.arraycopy(vector, 0, vectors, (size + i) * dimension, dimension);
+                    norms[size + i] = norm(vector);
+                }
+                chunks.addAll(newChunks);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        List<String> query(float[] query, int topK) {
+            if (query.length != dimension) {
+                throw new IllegalArgumentException("Expected " + dimension + " dimensions but got " + query.length);
+            }
+            lock.readLock().lock();
+            try {
+                final var size = chunks.size();
+                final var k = Math.min(topK, size);
+                if (k <= 0) {
+                    return List.of();
+                }
+                final var queryNorm = norm(query);
+                final var heapRows = new int[k];
+                final var heapScores = new float[k];
+                var heapSize = 0;
+                for (var row = 0; row < size; row++) {
+                    final var score = score(query, queryNorm, row);
+                    if (heapSize < k) {
+                        heapRows[heapSize] = row;
+                        heapScores[heapSize] = score;
+                        siftUp(heapRows, heapScores, heapSize++);
+                    } else if (score > heapScores[0]) {
+                        heapRows[0] = row;
+                        heapScores[0] = score;
+                        siftDown(heapRows, heapScores, heapSize);
+                    }
+                }
+
+                final var result = new String[k];
+                for (var i = k - 1; i >= 0; i--) {
+                    result[i] = chunks.get(heapRows[0]);
+                    heapRows[0] = heapRows[i];
+                    heapScores[0] = heapScores[i];
+                    siftDown(heapRows, heapScores, i);
+                }
+                return Arrays.asList(result);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private float score(float[] query, float queryNorm, int row) {
+            final var offset = row * dimension;
+            if (knnAlgorithm.equals(KnnAlgorithm.EUCLIDEAN)) {
+                var distance = 0f;
+                for (var i = 0; i < dimension; i++) {
+                    final var difference = query[i] - vectors[offset + i];
+                    distance += difference * difference;
+                }
+                return -distance;
+            }
+            var dot = 0f;
+            for (var i = 0; i < dimension; i++) {
+                dot += query[i] * vectors[offset + i];
+            }
+            if (knnAlgorithm.equals(KnnAlgorithm.COSINE)) {
+                final var denominator = queryNorm * norms[row];
+                return denominator == 0 ? 0 : dot / denominator;
+            }
+            return dot;
+        }
+
+        private static float norm(float[] vector) {
+            var sum = 0f;
+            for (var i = 0; i < vector.length; i++) {
+                sum += vector[i] * vector[i];
+            }
+            return (float) Math.sqrt(sum);
+        }
+
+        private static boolean worse(int[] rows, float[] scores, int a, int b) {
+            return scores[a] < scores[b] || (scores[a] == scores[b] && rows[a] > rows[b]);
+        }
+
+        private static void siftUp(int[] rows, float[] scores, int position) {
+            while (position > 0) {
+                final var parent = (position - 1) / 2;
+                if (!worse(rows, scores, position, parent)) {
+                    return;
+                }
+                swap(rows, scores, position, parent);
+                position = parent;
+            }
+        }
+
+        private static void siftDown(int[] rows, float[] scores, int size) {
+            var position = 0;
+            while (true) {
+                final var left = 2 * position + 1;
+                final var right = left + 1;
+                var worst = position;
+                if (left < size && worse(rows, scores, left, worst)) {
+                    worst = left;
+                }
+                if (right < size && worse(rows, scores, right, worst)) {
+                    worst = right;
+                }
+                if (worst == position) {
+                    return;
+                }
+                swap(rows, scores, position, worst);
+                position = worst;
+            }
+        }
+
+        private static void swap(int[] rows, float[] scores, int a, int b) {
+            final var row = rows[a];
+            rows[a] = rows[b];
+            rows[b] = row;
+            final var score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+        }
+    }
+}
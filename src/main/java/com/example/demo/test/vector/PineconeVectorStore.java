@@ -0,0 +1,172 @@
+package com.example.demo.test.vector;
+
+import com.example.demo.test.ApiKeysConfig;
+import com.example.demo.test.http.EndpointClass;
+import com.example.demo.test.http.OutboundHttp;
+import com.example.demo.test.http.ProviderUrlsConfig;
+import com.example.demo.test.index.PineconeIndexManager;
+import com.example.demo.test.ratelimit.ProviderLimiter;
+import com.example.demo.test.ratelimit.RateLimiters;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.thesis.qnabot.api.embedding.domain.enums.KnnAlgorithm;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Talks to the Pinecone control and data plane directly. Creating an index and upserting complete once
+ * Pinecone reports the index ready and the vectors queryable; namespaces map onto Pinecone namespaces.
+ * Requests go through the Pinecone rate limiters, one for index management and one for the data plane;
+ * the index manager's status polls do not.
+ */
+@Component
+@Slf4j
+public class PineconeVectorStore implements VectorStore {
+
+    private final ApiKeysConfig apiKeysConfig;
+    private final ProviderUrlsConfig providerUrlsConfig;
+    private final PineconeIndexManager indexManager;
+    private final RestTemplate controlPlane;
+    private final RestTemplate dataPlane;
+    private final ProviderLimiter controlPlaneLimiter;
+    private final ProviderLimiter limiter;
+
+    public PineconeVectorStore(
+            final ApiKeysConfig apiKeysConfig,
+            final ProviderUrlsConfig providerUrlsConfig,
+            final PineconeIndexManager indexManager,
+            final OutboundHttp outboundHttp,
+            final RateLimiters rateLimiters
+    ) {
+        this.apiKeysConfig = apiKeysConfig;
+        this.providerUrlsConfig = providerUrlsConfig;
+        this.indexManager = indexManager;
+        this.controlPlane = outboundHttp.restTemplate(EndpointClass.CONTROL_PLANE);
+        this.dataPlane = outboundHttp.restTemplate(EndpointClass.QUERY);
+        this.controlPlaneLimiter = rateLimiters.forVectorDatabaseControlPlane();
+        this.limiter = rateLimiters.forVectorDatabase();
+    }
+
+    @Override
+    public CompletableFuture<Void> createIndex(String indexName, int dimension, KnnAlgorithm knnAlgorithm) {
+        log.info("Creating Vectorized Database " + indexName);
+        controlPlaneLimiter.run(0, () -> controlPlane.exchange(
+                providerUrlsConfig.getPineconeController() + "/databases",
+                HttpMethod.POST,
+                new HttpEntity<>(
+                        Map.of(
+                                "name", indexName,
+                                "dimension", dimension,
+                                "metric", metric(knnAlgorithm)
+                        ),
+                        headers()
+                ),
+                String.class
+        ));
+        return indexManager.created(indexName)
+                .thenCompose(ignored -> indexManager.ready(indexName));
+    }
+
+    @Override
+    public CompletableFuture<Void> upsert(
+            String indexName,
+            String namespace,
+            List<String> ids,
+            List<String> chunks,
+            List<float[]> vectors
+    ) {
+        final var records = new ArrayList<Map<String, Object>>();
+        for (var i = 0; i < chunks.size(); i++) {
+            records.add(Map.of(
+                    "id", ids.get(i),
+                    "values", vectors.get(i),
+                    "metadata", Map.of("text", chunks.get(i))
+            ));
+        }
+        if (records.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return indexManager.retry("upsert into " + indexName + "/" + namespace, () -> limiter.run(0, () -> dataPlane.exchange(
+                dataPlaneUrl(indexName) + "/vectors/upsert",
+                HttpMethod.POST,
+                new HttpEntity<>(Map.of("vectors", records, "namespace", namespace), headers()),
+                JsonNode.class
+        ))).thenCompose(ignored -> indexManager.ingested(indexName, namespace, vectors.get(0).length));
+    }
+
+    @Override
+    public List<String> query(String indexName, String namespace, float[] vector, int topK) {
+        final var response = limiter.call(0, () -> dataPlane.exchange(
+                dataPlaneUrl(indexName) + "/query",
+                HttpMethod.POST,
+                new HttpEntity<>(
+                        Map.of(
+                                "vector", vector,
+                                "topK", topK,
+                                "namespace", namespace,
+                                "includeMetadata", true
+                        ),
+                        headers()
+                ),
+                JsonNode.class
+        ).getBody());
+
+        final var chunks = new ArrayList<String>();
+        if (response != null) {
+            response.get("matches").forEach(match -> chunks.add(match.get("metadata").get("text").asText()));
+        }
+        return chunks;
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteNamespace(String indexName, String namespace) {
+        return indexManager.retry("clearing " + indexName + "/" + namespace, () -> limiter.run(0, () -> dataPlane.exchange(
+                dataPlaneUrl(indexName) + "/vectors/delete",
+                HttpMethod.POST,
+                new HttpEntity<>(Map.of("deleteAll", true, "namespace", namespace), headers()),
+                JsonNode.class
+        )));
+    }
+
+    @Override
+    public CompletableFuture<Void> deleteIndex(String indexName) {
+        log.info("Deleting Vectorized Database " + indexName);
+        controlPlaneLimiter.run(0, () -> controlPlane.exchange(
+                providerUrlsConfig.getPineconeController() + "/databases/" + indexName,
+                HttpMethod.DELETE,
+                new HttpEntity<>(headers()),
+                String.class
+        ));
+        return indexManager.deleted(indexName);
+    }
+
+    private String metric(KnnAlgorithm knnAlgorithm) {
+        if (knnAlgorithm.equals(KnnAlgorithm.COSINE)) {
+            return "cosine";
+        }
+        if (knnAlgorithm.equals(KnnAlgorithm.DOT_PRODUCT)) {
+            return "dotproduct";
+        }
+        return "euclidean";
+    }
+
+    private String dataPlaneUrl(String indexName) {
+        return providerUrlsConfig.getPineconeDataPlane(indexName);
+    }
+
+    private HttpHeaders headers() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("Api-Key", apiKeysConfig.getPineconeKey());
+        headers.add("accept", "application/json");
+        headers.add("Content-Type", "application/json");
+        return headers;
+    }
+}
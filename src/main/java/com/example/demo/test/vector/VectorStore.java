@@ -0,0 +1,40 @@
+package com.example.demo.test.vector;
+
+import com.thesis.qnabot.api.embedding.domain.enums.KnnAlgorithm;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Stores chunk vectors per index and namespace and returns the chunk texts nearest to a query vector,
+ * best first. Namespaces partition an index: queries only see their own namespace and a namespace can be
+ * cleared without touching the rest of the index. The futures complete once the change is visible to
+ * subsequent queries.
+ */
+public interface VectorStore {
+
+    CompletableFuture<Void> createIndex(String indexName, int dimension, KnnAlgorithm knnAlgorithm);
+
+    /**
+     * Upserts the chunks of one paragraph under the ids 0, 1 and so on.
+     */
+    default CompletableFuture<Void> upsert(String indexName, String namespace, List<String> chunks, List<float[]> vectors) {
+        return upsert(
+                indexName,
+                namespace,
+                IntStream.range(0, chunks.size()).mapToObj(String::valueOf).collect(Collectors.toList()),
+                chunks,
+                vectors
+        );
+    }
+
+    CompletableFuture<Void> upsert(String indexName, String namespace, List<String> ids, List<String> chunks, List<float[]> vectors);
+
+    List<String> query(String indexName, String namespace, float[] vector, int topK);
+
+    CompletableFuture<Void> deleteNamespace(String indexName, String namespace);
+
+    CompletableFuture<Void> deleteIndex(String indexName);
+}
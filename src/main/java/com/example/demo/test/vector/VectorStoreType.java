@@ -0,0 +1,6 @@
+package com.example.demo.test.vector;
+
+public enum VectorStoreType {
+    PINECONE,
+    LOCAL
+}
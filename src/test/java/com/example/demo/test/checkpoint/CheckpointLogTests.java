@@ -0,0 +1,111 @@
+package com.example.demo.test.checkpoint;
+
+import com.example.demo.test.ParagraphScore;
+import com.example.demo.test.evaluation.CellKey;
+import com.example.demo.test.evaluation.EvaluationGrid;
+import com.example.demo.test.evaluation.GridCell;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CheckpointLogTests {
+
+	private final EvaluationGrid evaluationGrid = new EvaluationGrid();
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void restoresFinishedCellsAfterReopening() throws IOException {
+		final var cell = evaluationGrid.getGridCells().get(0);
+		final var otherCell = evaluationGrid.getGridCells().get(1);
+		final var path = directory.resolve("run.checkpoint");
+
+		try (final var checkpoint = new CheckpointLog("run", path, false)) {
+			checkpoint.cellFinished(score(7, cell));
+			assertThat(checkpoint.isFinished(7, cell)).isTrue();
+		}
+
+		try (final var checkpoint = new CheckpointLog("run", path, false)) {
+			assertThat(checkpoint.isFinished(7, cell)).isTrue();
+			assertThat(checkpoint.isFinished(7, otherCell)).isFalse();
+			assertThat(checkpoint.isFinished(8, cell)).isFalse();
+			assertThat(checkpoint.getRestored().size()).isEqualTo(1);
+
+			checkpoint.getRestored().forEach((paragraphId, cellKey, wins, misses, exactMatches, f1) -> {
+				assertThat(paragraphId).isEqualTo(7);
+				assertThat(CellKey.toGridCell(cellKey)).isEqualTo(cell);
+				assertThat(wins).isEqualTo(3);
+				assertThat(misses).isEqualTo(2);
+				assertThat(exactMatches).isEqualTo(1);
+				assertThat(f1).isEqualTo(2.5);
+			});
+		}
+	}
+
+	@Test
+	void dropsTruncatedRecord() throws IOException {
+		final var cell = evaluationGrid.getGridCells().get(0);
+		final var otherCell = evaluationGrid.getGridCells().get(1);
+		final var path = directory.resolve("run.checkpoint");
+
+		try (final var checkpoint = new CheckpointLog("run", path, false)) {
+			checkpoint.cellFinished(score(1, cell));
+			checkpoint.cellFinished(score(1, otherCell));
+		}
+		try (final var channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+			channel.truncate(CheckpointLog.RECORD_SIZE * 2L - 5);
+		}
+
+		try (final var checkpoint = new CheckpointLog("run", path, false)) {
+			assertThat(checkpoint.isFinished(1, cell)).isTrue();
+			assertThat(checkpoint.isFinished(1, otherCell)).isFalse();
+			checkpoint.cellFinished(score(1, otherCell));
+		}
+		try (final var checkpoint = new CheckpointLog("run", path, false)) {
+			assertThat(checkpoint.getRestored().size()).isEqualTo(2);
+			assertThat(checkpoint.isFinished(1, otherCell)).isTrue();
+		}
+	}
+
+	@Test
+	void readsTheLogOfARunStillWriting() throws IOException {
+		final var cell = evaluationGrid.getGridCells().get(0);
+		final var path = directory.resolve("run.checkpoint");
+
+		try (final var checkpoint = new CheckpointLog("run", path, false)) {
+			checkpoint.cellFinished(score(1, cell));
+			checkpoint.cellFinished(score(2, cell));
+			try (final var channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+				channel.write(ByteBuffer.allocate(5));
+			}
+
+			assertThat(CheckpointLog.read(path).size()).isEqualTo(2);
+		}
+		assertThat(path.toFile().length()).isEqualTo(CheckpointLog.RECORD_SIZE * 2L + 5);
+	}
+
+	private static ParagraphScore score(long paragraphId, GridCell cell) {
+		return ParagraphScore.builder()
+				.wins(3)
+				.misses(2)
+				.exactMatches(1)
+				.f1(2.5)
+				.paragraphId(paragraphId)
+				.embeddingModel(cell.getEmbeddingModel())
+				.completionModel(cell.getCompletionModel())
+				.knnAlgorithm(cell.getKnnAlgorithm())
+				.chunkModel(cell.getChunkModel())
+				.chunkSize(cell.getChunkSize())
+				.chunkOverlap(cell.getChunkOverlap())
+				.k(cell.getK())
+				.build();
+	}
+}
@@ -0,0 +1,48 @@
+package com.example.demo.test.cluster;
+
+import com.example.demo.test.dto.SquadData;
+import com.example.demo.test.dto.SquadEvaluation;
+import com.example.demo.test.dto.SquadParagraph;
+import com.example.demo.test.evaluation.EvaluationGrid;
+import com.example.demo.test.evaluation.ResultStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShardCoordinatorTests {
+
+	@Test
+	void evictsTheOldestFinishedRuns() {
+		final var config = new ClusterConfig();
+		config.setShardParagraphs(1);
+		config.setLeaseSeconds(60);
+		config.setRetainedFinishedRuns(1);
+		final var coordinator = new ShardCoordinator(new EvaluationGrid(), config);
+
+		coordinator.submit("first", squad());
+		coordinator.submit("second", squad());
+		coordinator.submit("running", squad());
+
+		finish(coordinator, "first");
+		assertThat(coordinator.get("first")).isPresent();
+
+		finish(coordinator, "second");
+		assertThat(coordinator.get("first")).isEmpty();
+		assertThat(coordinator.get("second")).isPresent();
+		assertThat(coordinator.get("running")).isPresent();
+	}
+
+	private static void finish(ShardCoordinator coordinator, String runId) {
+		coordinator.complete(runId, 0, "worker", new ResultStore());
+	}
+
+	private static SquadEvaluation squad() {
+		final var article = new SquadData();
+		article.setParagraphs(List.of(new SquadParagraph()));
+		final var evaluation = new SquadEvaluation();
+		evaluation.setData(List.of(article));
+		return evaluation;
+	}
+}
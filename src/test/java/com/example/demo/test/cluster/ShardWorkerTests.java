@@ -0,0 +1,28 @@
+package com.example.demo.test.cluster;
+
+import com.example.demo.test.checkpoint.CheckpointStore;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShardWorkerTests {
+
+	@Test
+	void runsWithTheSameHashCodeGetTheirOwnCheckpoints() {
+		assertThat("Aa".hashCode()).isEqualTo("BB".hashCode());
+
+		final var checkpointId = ShardWorker.checkpointId(shard("Aa", 3));
+
+		assertThat(checkpointId).isNotEqualTo(ShardWorker.checkpointId(shard("BB", 3)));
+		assertThat(checkpointId).isEqualTo(ShardWorker.checkpointId(shard("Aa", 3)));
+		assertThat(CheckpointStore.isValidRunId(checkpointId)).isTrue();
+		assertThat(CheckpointStore.isValidRunId(ShardWorker.checkpointId(shard("run".repeat(100), Integer.MAX_VALUE)))).isTrue();
+	}
+
+	private static Shard shard(String runId, int shardId) {
+		final var shard = new Shard();
+		shard.setRunId(runId);
+		shard.setShardId(shardId);
+		return shard;
+	}
+}
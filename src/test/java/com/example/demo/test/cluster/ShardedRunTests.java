@@ -0,0 +1,79 @@
+package com.example.demo.test.cluster;
+
+import com.example.demo.test.dto.SquadData;
+import com.example.demo.test.dto.SquadEvaluation;
+import com.example.demo.test.dto.SquadParagraph;
+import com.example.demo.test.evaluation.CellKey;
+import com.example.demo.test.evaluation.EvaluationGrid;
+import com.example.demo.test.evaluation.GridCell;
+import com.example.demo.test.evaluation.ResultStore;
+import com.example.demo.test.evaluation.Scoreboard;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ShardedRunTests {
+
+	private static final long LEASE = 1_000;
+
+	private final EvaluationGrid evaluationGrid = new EvaluationGrid();
+
+	@Test
+	void splitsArticlesIntoShardsKeepingParagraphIds() {
+		final var shards = ShardCoordinator.split("run", squad(5, 2), 2);
+
+		assertThat(shards).extracting(Shard::getShardId).containsExactly(0, 1, 2, 3);
+		assertThat(shards).extracting(Shard::getFirstParagraphId).containsExactly(1L, 3L, 5L, 6L);
+		assertThat(shards).extracting(shard -> shard.getParagraphs().size()).containsExactly(2, 2, 1, 2);
+	}
+
+	@Test
+	void reassignsExpiredLeasesAndMergesEachShardOnce() {
+		final var cell = evaluationGrid.getGridCells().get(0);
+		final var scoreboard = new Scoreboard(evaluationGrid);
+		final var run = new ShardedRun("run", ShardCoordinator.split("run", squad(2), 1), scoreboard);
+
+		assertThat(run.lease("a", 0, LEASE)).get().extracting(Shard::getShardId).isEqualTo(0);
+		assertThat(run.lease("b", 0, LEASE)).get().extracting(Shard::getShardId).isEqualTo(1);
+		assertThat(run.lease("b", 10, LEASE)).isEmpty();
+		assertThat(run.renew(1, "b", 500, LEASE)).isTrue();
+
+		assertThat(run.lease("b", 1_200, LEASE)).get().extracting(Shard::getShardId).isEqualTo(0);
+		assertThat(run.renew(0, "a", 1_200, LEASE)).isFalse();
+		assertThat(run.getStatus().getShardsReassigned()).isEqualTo(1);
+
+		assertThat(run.complete(1, partial(2, cell))).isTrue();
+		assertThat(run.complete(0, partial(1, cell))).isTrue();
+		assertThat(run.complete(0, partial(1, cell))).isFalse();
+
+		assertThat(run.isFinished()).isTrue();
+		assertThat(run.getResults().size()).isEqualTo(2);
+		assertThat(scoreboard.getWins(cell)).isEqualTo(2);
+		assertThat(run.getStatus().getShardsLeased()).isZero();
+	}
+
+	private static ResultStore partial(long paragraphId, GridCell cell) {
+		final var partial = new ResultStore();
+		partial.add(paragraphId, CellKey.of(cell), 1, 1, 0, 0.5);
+		return partial;
+	}
+
+	private static SquadEvaluation squad(int... paragraphsPerArticle) {
+		final var data = new ArrayList<SquadData>();
+		for (final var paragraphs : paragraphsPerArticle) {
+			final var article = new SquadData();
+			article.setTitle("article " + data.size());
+			final var articleParagraphs = new ArrayList<SquadParagraph>();
+			for (var i = 0; i < paragraphs; i++) {
+				articleParagraphs.add(new SquadParagraph());
+			}
+			article.setParagraphs(articleParagraphs);
+			data.add(article);
+		}
+		final var evaluation = new SquadEvaluation();
+		evaluation.setData(data);
+		return evaluation;
+	}
+}
@@ -0,0 +1,83 @@
+package com.example.demo.test.completion;
+
+import com.thesis.qnabot.api.embedding.domain.enums.CompletionModel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CompletionCacheTests {
+
+	private static final List<String> CONTEXT = List.of("The Eiffel Tower is in Paris.");
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void hitsOnlyTheSameModelContextAndQuestion() throws IOException {
+		final var cache = new CompletionCache(config(true, 10, ""));
+		cache.put(CompletionModel.OPEN_AI, CONTEXT, "Where is the Eiffel Tower?", "Paris");
+
+		assertThat(cache.get(CompletionModel.OPEN_AI, CONTEXT, "Where is the Eiffel Tower?")).isEqualTo("Paris");
+		assertThat(cache.get(CompletionModel.OPEN_AI, CONTEXT, "How tall is the Eiffel Tower?")).isNull();
+		assertThat(cache.get(CompletionModel.OPEN_AI, List.of("The Eiffel", "Tower is in Paris."), "Where is the Eiffel Tower?")).isNull();
+		assertThat(cache.getHits()).isEqualTo(1);
+		assertThat(cache.getMisses()).isEqualTo(2);
+	}
+
+	@Test
+	void evictsTheLeastRecentlyUsed() throws IOException {
+		final var cache = new CompletionCache(config(true, 2, ""));
+		cache.put(CompletionModel.OPEN_AI, CONTEXT, "first", "1");
+		cache.put(CompletionModel.OPEN_AI, CONTEXT, "second", "2");
+		cache.get(CompletionModel.OPEN_AI, CONTEXT, "first");
+		cache.put(CompletionModel.OPEN_AI, CONTEXT, "third", "3");
+
+		assertThat(cache.getSize()).isEqualTo(2);
+		assertThat(cache.getEvictions()).isEqualTo(1);
+		assertThat(cache.get(CompletionModel.OPEN_AI, CONTEXT, "first")).isEqualTo("1");
+		assertThat(cache.get(CompletionModel.OPEN_AI, CONTEXT, "second")).isNull();
+	}
+
+	@Test
+	void reloadsPersistedAnswersAndDropsATornTail() throws IOException {
+		final var cache = new CompletionCache(config(true, 10, directory.toString()));
+		cache.put(CompletionModel.OPEN_AI, CONTEXT, "Where is the Eiffel Tower?", "Paris");
+		cache.close();
+		Files.write(directory.resolve("completions.log"), new byte[]{1, 2, 3}, StandardOpenOption.APPEND);
+
+		final var reopened = new CompletionCache(config(true, 10, directory.toString()));
+		assertThat(reopened.getSize()).isZero();
+		assertThat(reopened.get(CompletionModel.OPEN_AI, CONTEXT, "Where is the Eiffel Tower?")).isEqualTo("Paris");
+		reopened.put(CompletionModel.OPEN_AI, CONTEXT, "How tall is it?", "330 m");
+		reopened.close();
+
+		final var again = new CompletionCache(config(true, 10, directory.toString()));
+		assertThat(again.get(CompletionModel.OPEN_AI, CONTEXT, "How tall is it?")).isEqualTo("330 m");
+		assertThat(again.get(CompletionModel.OPEN_AI, CONTEXT, "Where is the Eiffel Tower?")).isEqualTo("Paris");
+		again.close();
+	}
+
+	@Test
+	void doesNothingWhenDisabled() throws IOException {
+		final var cache = new CompletionCache(config(false, 10, directory.toString()));
+		cache.put(CompletionModel.OPEN_AI, CONTEXT, "Where is the Eiffel Tower?", "Paris");
+
+		assertThat(cache.get(CompletionModel.OPEN_AI, CONTEXT, "Where is the Eiffel Tower?")).isNull();
+		assertThat(Files.exists(directory.resolve("completions.log"))).isFalse();
+	}
+
+	private static CompletionCacheConfig config(boolean enabled, int maxEntries, String directory) {
+		final var config = new CompletionCacheConfig();
+		config.setEnabled(enabled);
+		config.setMaxEntries(maxEntries);
+		config.setDirectory(directory);
+		return config;
+	}
+}
@@ -0,0 +1,72 @@
+package com.example.demo.test.embedding;
+
+import com.thesis.qnabot.api.embedding.domain.enums.EmbeddingModel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EmbeddingCacheTests {
+
+	private static final EmbeddingModel MODEL = EmbeddingModel.OPEN_AI;
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void servesRecentVectorsFromMemoryAndTheRestFromDisk() {
+		final var cache = new EmbeddingCache(config(true, 1));
+		cache.put(MODEL, "first", vector(1));
+		cache.put(MODEL, "second", vector(2));
+
+		assertThat(cache.get(MODEL, "second")).containsExactly(vector(2));
+		assertThat(cache.get(MODEL, "first")).containsExactly(vector(1));
+		assertThat(cache.get(MODEL, "third")).isNull();
+		assertThat(cache.getMemoryHits()).isEqualTo(1);
+		assertThat(cache.getDiskHits()).isEqualTo(1);
+		assertThat(cache.getMisses()).isEqualTo(1);
+		cache.close();
+	}
+
+	@Test
+	void survivesARestart() {
+		final var cache = new EmbeddingCache(config(true, 10));
+		cache.put(MODEL, "The Eiffel Tower is in Paris.", vector(1));
+		cache.close();
+
+		final var restarted = new EmbeddingCache(config(true, 10));
+		assertThat(restarted.get(MODEL, "The Eiffel Tower is in Paris.")).containsExactly(vector(1));
+		assertThat(restarted.get(MODEL, "The Eiffel Tower is in Rome.")).isNull();
+		assertThat(restarted.getDiskHits()).isEqualTo(1);
+		restarted.close();
+	}
+
+	@Test
+	void doesNothingWhenDisabled() throws Exception {
+		final var cache = new EmbeddingCache(config(false, 10));
+		cache.put(MODEL, "first", vector(1));
+
+		assertThat(cache.get(MODEL, "first")).isNull();
+		try (final var files = Files.list(directory)) {
+			assertThat(files).isEmpty();
+		}
+	}
+
+	private EmbeddingCacheConfig config(boolean enabled, int memoryEntries) {
+		final var config = new EmbeddingCacheConfig();
+		config.setEnabled(enabled);
+		config.setDirectory(directory.toString());
+		config.setMemoryEntries(memoryEntries);
+		return config;
+	}
+
+	private static float[] vector(int seed) {
+		final var vector = new float[MODEL.getEmbeddingSize()];
+		vector[seed % vector.length] = seed;
+		vector[vector.length - 1] = -seed;
+		return vector;
+	}
+}
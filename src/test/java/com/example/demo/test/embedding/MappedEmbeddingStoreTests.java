@@ -0,0 +1,93 @@
+package com.example.demo.test.embedding;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MappedEmbeddingStoreTests {
+
+	private static final int DIMENSION = 4;
+	private static final int RECORDS_PER_SEGMENT = 4096;
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void returnsStoredVectorsOnly() throws IOException {
+		try (final var store = new MappedEmbeddingStore(directory.resolve("model.emb"), DIMENSION)) {
+			store.put(hash(1), vector(1));
+			store.put(hash(1), vector(2));
+
+			assertThat(store.get(hash(1))).containsExactly(vector(1));
+			assertThat(store.get(hash(2))).isNull();
+			assertThat(store.size()).isEqualTo(1);
+		}
+	}
+
+	@Test
+	void keepsVectorsAcrossReopening() throws IOException {
+		final var file = directory.resolve("model.emb");
+		try (final var store = new MappedEmbeddingStore(file, DIMENSION)) {
+			store.put(hash(1), vector(1));
+			store.put(hash(2), vector(2));
+		}
+
+		try (final var store = new MappedEmbeddingStore(file, DIMENSION)) {
+			assertThat(store.size()).isEqualTo(2);
+			assertThat(store.get(hash(2))).containsExactly(vector(2));
+			store.put(hash(3), vector(3));
+		}
+
+		try (final var store = new MappedEmbeddingStore(file, DIMENSION)) {
+			assertThat(store.size()).isEqualTo(3);
+			assertThat(store.get(hash(1))).containsExactly(vector(1));
+			assertThat(store.get(hash(3))).containsExactly(vector(3));
+		}
+	}
+
+	@Test
+	void growsIntoANewSegmentPastTheBoundary() throws IOException {
+		final var file = directory.resolve("model.emb");
+		final var segmentBytes = (32L + Float.BYTES * DIMENSION) * RECORDS_PER_SEGMENT;
+		try (final var store = new MappedEmbeddingStore(file, DIMENSION)) {
+			for (var i = 0; i < RECORDS_PER_SEGMENT; i++) {
+				store.put(hash(i), vector(i));
+			}
+			assertThat(file.toFile().length()).isEqualTo(segmentBytes);
+
+			store.put(hash(RECORDS_PER_SEGMENT), vector(RECORDS_PER_SEGMENT));
+			assertThat(file.toFile().length()).isEqualTo(2 * segmentBytes);
+		}
+
+		try (final var store = new MappedEmbeddingStore(file, DIMENSION)) {
+			assertThat(store.size()).isEqualTo(RECORDS_PER_SEGMENT + 1);
+			assertThat(store.get(hash(RECORDS_PER_SEGMENT - 1))).containsExactly(vector(RECORDS_PER_SEGMENT - 1));
+			assertThat(store.get(hash(RECORDS_PER_SEGMENT))).containsExactly(vector(RECORDS_PER_SEGMENT));
+			store.put(hash(RECORDS_PER_SEGMENT + 1), vector(RECORDS_PER_SEGMENT + 1));
+			assertThat(store.size()).isEqualTo(RECORDS_PER_SEGMENT + 2);
+		}
+	}
+
+	@Test
+	void rejectsVectorsOfTheWrongDimension() throws IOException {
+		try (final var store = new MappedEmbeddingStore(directory.resolve("model.emb"), DIMENSION)) {
+			assertThatThrownBy(() -> store.put(hash(1), new float[DIMENSION + 1]))
+					.isInstanceOf(IllegalArgumentException.class);
+			assertThat(store.size()).isZero();
+		}
+	}
+
+	private static byte[] hash(int seed) {
+		return ByteBuffer.allocate(32).putInt(0, seed).put(31, (byte) 1).array();
+	}
+
+	private static float[] vector(int seed) {
+		return new float[]{seed, seed + .25f, -seed, seed * .5f};
+	}
+}
@@ -0,0 +1,180 @@
+package com.example.demo.test.evaluation;
+
+import com.example.demo.test.EvaluationConfig;
+import com.example.demo.test.ParagraphScore;
+import com.example.demo.test.checkpoint.CheckpointConfig;
+import com.example.demo.test.checkpoint.CheckpointLog;
+import com.example.demo.test.checkpoint.CheckpointStore;
+import com.example.demo.test.dto.SquadParagraph;
+import com.example.demo.test.dto.SquadQa;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class AdaptiveEvaluatorTests {
+
+	private static final double Z = 1.96;
+
+	private final EvaluationGrid evaluationGrid = new EvaluationGrid();
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void wilsonBoundsMatchReferenceValues() {
+		assertThat(AdaptiveEvaluator.lowerBound(8, 2, Z)).isCloseTo(0.4902, within(1e-4));
+		assertThat(AdaptiveEvaluator.upperBound(8, 2, Z)).isCloseTo(0.9433, within(1e-4));
+		assertThat(AdaptiveEvaluator.lowerBound(0, 0, Z)).isZero();
+		assertThat(AdaptiveEvaluator.upperBound(0, 0, Z)).isEqualTo(1);
+		assertThat(AdaptiveEvaluator.lowerBound(0, 10, Z)).isZero();
+		assertThat(AdaptiveEvaluator.upperBound(10, 0, Z)).isEqualTo(1);
+	}
+
+	@Test
+	void dropsOnlyCellsConfidentlyWorseThanTheBest() {
+		final var best = evaluationGrid.getGridCells().get(0);
+		final var close = evaluationGrid.getGridCells().get(1);
+		final var worse = evaluationGrid.getGridCells().get(2);
+		final var scoreboard = new Scoreboard(evaluationGrid);
+		record(scoreboard, best, 45, 5);
+		record(scoreboard, close, 40, 10);
+		record(scoreboard, worse, 10, 40);
+
+		final Set<Long> survivors = new HashSet<>(Set.of(CellKey.of(best), CellKey.of(close), CellKey.of(worse)));
+
+		assertThat(AdaptiveEvaluator.eliminated(scoreboard, survivors, Z)).containsExactly(CellKey.of(worse));
+	}
+
+	@Test
+	void stopsTiedCellsAtTheQuestionBudget() {
+		final var cells = evaluationGrid.getGridCells().size();
+		final var config = config(3L * cells + cells / 2);
+		final var evaluator = new AdaptiveEvaluator(new TiedEvaluationEngine(config), evaluationGrid, config);
+
+		final var result = evaluator.evaluate(paragraphs(100), null, new Scoreboard(evaluationGrid), () -> false);
+
+		assertThat(result.isBudgetReached()).isTrue();
+		assertThat(result.getRounds()).isEqualTo(2);
+		assertThat(result.getParagraphsUsed()).isEqualTo(3);
+		assertThat(result.getQuestionsEvaluated()).isEqualTo(3L * cells);
+	}
+
+	@Test
+	void resumedRunStopsWhereAnUninterruptedOneWould() {
+		final var cells = evaluationGrid.getGridCells().size();
+		final var config = config(3L * cells + cells / 2);
+		final var engine = new TiedEvaluationEngine(config);
+		final var paragraphs = paragraphs(100);
+		final var checkpointConfig = new CheckpointConfig();
+		checkpointConfig.setDirectory(directory.toString());
+		final var checkpointStore = new CheckpointStore(checkpointConfig);
+		try (final var checkpoint = checkpointStore.open("run")) {
+			engine.evaluate(paragraphs.subList(0, 3), 1, cell -> true, checkpoint, new Scoreboard(evaluationGrid), () -> false);
+		}
+
+		try (final var checkpoint = checkpointStore.open("run")) {
+			final var scoreboard = new Scoreboard(evaluationGrid);
+			scoreboard.add(checkpoint.getRestored());
+			final var result = new AdaptiveEvaluator(engine, evaluationGrid, config)
+					.evaluate(paragraphs, checkpoint, scoreboard, () -> false);
+
+			assertThat(result.isBudgetReached()).isTrue();
+			assertThat(result.getRounds()).isEqualTo(2);
+			assertThat(result.getParagraphsUsed()).isEqualTo(3);
+			assertThat(result.getQuestionsEvaluated()).isEqualTo(3L * cells);
+		}
+	}
+
+	private static EvaluationConfig config(long maxQuestions) {
+		final var config = new EvaluationConfig();
+		config.setEmbeddingWindow(1);
+		config.setMaxActiveIndexes(1);
+		config.setAdaptiveInitialParagraphs(1);
+		config.setAdaptiveGrowthFactor(2);
+		config.setAdaptiveConfidenceZ(Z);
+		config.setAdaptiveSeed(42);
+		config.setAdaptiveMaxQuestions(maxQuestions);
+		return config;
+	}
+
+	private static List<SquadParagraph> paragraphs(int count) {
+		final var paragraphs = new ArrayList<SquadParagraph>();
+		for (var i = 0; i < count; i++) {
+			final var paragraph = new SquadParagraph();
+			paragraph.setQas(List.of(new SquadQa()));
+			paragraphs.add(paragraph);
+		}
+		return paragraphs;
+	}
+
+	private static void record(Scoreboard scoreboard, GridCell cell, int wins, int misses) {
+		for (var i = 0; i < wins; i++) {
+			scoreboard.qaFinished(cell, new AnswerScore(true, false, 0));
+		}
+		for (var i = 0; i < misses; i++) {
+			scoreboard.qaFinished(cell, new AnswerScore(false, false, 0));
+		}
+	}
+
+	/**
+	 * Answers every question right in every cell, so no cell is ever confidently worse than another. Cells
+	 * in the checkpoint are skipped and finished ones added to it, like the real engine does.
+	 */
+	private class TiedEvaluationEngine extends EvaluationEngine {
+
+		TiedEvaluationEngine(EvaluationConfig config) {
+			super(null, null, null, evaluationGrid, config, null);
+		}
+
+		@Override
+		public ResultStore evaluate(
+				List<SquadParagraph> paragraphs,
+				long firstParagraphId,
+				Predicate<GridCell> cells,
+				CheckpointLog checkpoint,
+				EvaluationListener listener,
+				BooleanSupplier cancelled
+		) {
+			for (var i = 0; i < paragraphs.size(); i++) {
+				final var paragraphId = firstParagraphId + i;
+				final var qas = paragraphs.get(i).getQas().size();
+				for (final var cell : evaluationGrid.getGridCells()) {
+					if (!cells.test(cell) || checkpoint != null && checkpoint.isFinished(paragraphId, cell)) {
+						continue;
+					}
+					for (var qa = 0; qa < qas; qa++) {
+						listener.qaFinished(cell, new AnswerScore(true, false, 0));
+					}
+					if (checkpoint != null) {
+						checkpoint.cellFinished(score(paragraphId, cell, qas));
+					}
+				}
+			}
+			return new ResultStore();
+		}
+
+		private ParagraphScore score(long paragraphId, GridCell cell, int wins) {
+			return ParagraphScore.builder()
+					.wins(wins)
+					.paragraphId(paragraphId)
+					.embeddingModel(cell.getEmbeddingModel())
+					.completionModel(cell.getCompletionModel())
+					.knnAlgorithm(cell.getKnnAlgorithm())
+					.chunkModel(cell.getChunkModel())
+					.chunkSize(cell.getChunkSize())
+					.chunkOverlap(cell.getChunkOverlap())
+					.k(cell.getK())
+					.build();
+		}
+	}
+}
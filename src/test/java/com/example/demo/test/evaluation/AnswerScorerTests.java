@@ -0,0 +1,106 @@
+package com.example.demo.test.evaluation;
+
+import com.example.demo.test.dto.SquadAnswer;
+import com.example.demo.test.dto.SquadQa;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class AnswerScorerTests {
+
+	private final AnswerScorer answerScorer = new AnswerScorer();
+
+	@Test
+	void containsFormMatchesTheChainedReplacements() {
+		final var atoms = List.of(" ", "  ", "and", "And", "the", "The", "t", "he", "an", "a", ",", ".", "x");
+		final var random = new Random(7);
+		for (var i = 0; i < 100_000; i++) {
+			final var answer = new StringBuilder();
+			for (var j = random.nextInt(14); j > 0; j--) {
+				answer.append(atoms.get(random.nextInt(atoms.size())));
+			}
+			assertThat(AnswerNormalizer.containsForm(answer.toString()))
+					.as(answer.toString())
+					.isEqualTo(chainedReplacements(answer.toString()));
+		}
+	}
+
+	@Test
+	void squadNormalizationDropsPunctuationAndArticles() {
+		final var normalized = AnswerNormalizer.squad("The  Eiffel-Tower, in an  U.S. city!");
+
+		assertThat(normalized.getText()).isEqualTo("eiffeltower in us city");
+		assertThat(normalized.getTokenCount()).isEqualTo(4);
+		assertThat(AnswerNormalizer.squad(" a the ").getTokenCount()).isZero();
+	}
+
+	@Test
+	void scoresExactMatchAndTokenF1AgainstTheBestGoldAnswer() {
+		final var gold = answerScorer.gold(qa(false, "the Eiffel Tower", "Paris"));
+
+		final var exact = answerScorer.score(gold, "Eiffel tower.");
+		assertThat(exact.isWin()).isTrue();
+		assertThat(exact.isExactMatch()).isTrue();
+		assertThat(exact.getF1()).isEqualTo(1);
+
+		final var partial = answerScorer.score(gold, "It is the tower in Paris");
+		assertThat(partial.isExactMatch()).isFalse();
+		assertThat(partial.getF1()).isCloseTo(2 * 0.2 * 1 / 1.2, within(1e-9));
+
+		final var abstained = answerScorer.score(gold, "I don't know the answer.");
+		assertThat(abstained.isExactMatch()).isFalse();
+		assertThat(abstained.getF1()).isZero();
+	}
+
+	@Test
+	void impossibleQuestionsOnlyRewardAbstaining() {
+		final var gold = answerScorer.gold(qa(true));
+
+		assertThat(answerScorer.score(gold, "I don't know the answer."))
+				.isEqualTo(new AnswerScore(true, true, 1));
+		assertThat(answerScorer.score(gold, "Paris"))
+				.isEqualTo(new AnswerScore(false, false, 0));
+	}
+
+	@Test
+	void ranksTheFirstChunkHoldingEachGoldAnswer() {
+		final var gold = answerScorer.gold(qa(false, "Eiffel Tower", "Paris", "paris", "Lyon"));
+
+		final var ranks = answerScorer.retrievalRanks(gold, List.of(
+				"Rouen lies on the Seine.",
+				"The capital, Paris, hosts the Eiffel Tower.",
+				"Paris again."
+		));
+
+		assertThat(ranks).containsExactly(2, 2, 0);
+	}
+
+	private static String chainedReplacements(String answer) {
+		return answer.replace(",", "")
+				.replace(".", "")
+				.replace(" and ", "")
+				.replace(" the ", "")
+				.replace(" ", "")
+				.toLowerCase();
+	}
+
+	private static SquadQa qa(boolean impossible, String... answers) {
+		final var qa = new SquadQa();
+		qa.setQuestion("Where?");
+		qa.setIs_impossible(impossible);
+		qa.setAnswers(List.of(answers).stream()
+				.map(text -> {
+					final var answer = new SquadAnswer();
+					answer.setText(text);
+					return answer;
+				})
+				.collect(Collectors.toList()));
+		return qa;
+	}
+
+}
@@ -0,0 +1,176 @@
+package com.example.demo.test.evaluation;
+
+import com.example.demo.test.EvaluationConfig;
+import com.example.demo.test.checkpoint.CheckpointConfig;
+import com.example.demo.test.checkpoint.CheckpointStore;
+import com.example.demo.test.dto.SquadAnswer;
+import com.example.demo.test.dto.SquadParagraph;
+import com.example.demo.test.dto.SquadQa;
+import com.example.demo.test.embedding.EmbeddingCacheConfig;
+import com.example.demo.test.pipeline.EmbeddingBatcher;
+import com.example.demo.test.pipeline.PipelineType;
+import com.example.demo.test.pipeline.QaPipeline;
+import com.example.demo.test.pipeline.QaPipelineFactory;
+import com.example.demo.test.vector.VectorStoreType;
+import com.thesis.qnabot.api.embedding.domain.enums.ChunkModel;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EvaluationEngineTests {
+
+	private final EvaluationGrid evaluationGrid = new EvaluationGrid();
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void parallelRunScoresLikeTheSequentialOne() throws IOException {
+		final var paragraphs = paragraphs();
+
+		final var sequential = evaluate(paragraphs, 1, 1, 1);
+		final var parallel = evaluate(paragraphs, 8, 4, 3);
+
+		assertThat(parallel).isEqualTo(sequential);
+		assertThat(evaluationGrid.getGridCells()).anyMatch(cell -> cell.getChunkModel().equals(ChunkModel.ARBITRARY));
+		assertThat(sequential.lines().count()).isEqualTo(evaluationGrid.getGridCells().size() + 1);
+	}
+
+	@Test
+	void staleIndexesAreOnlyThisInstancesOwn() {
+		final var engine = new EvaluationEngine(null, null, null, evaluationGrid, config(), null);
+		final var indexCell = evaluationGrid.getIndexCells().get(0);
+		final var own = indexCell.indexName(engine.getInstanceId() + "-1f");
+		final var foreign = indexCell.indexName("zzzzzz-1f");
+
+		assertThat(engine.staleIndexNames(List.of(own, foreign, "squad-corpus", indexCell.indexName("1f"))))
+				.containsExactly(own);
+	}
+
+	@Test
+	void findsTheStaleIndexesOfAnotherInstanceOnlyWhenAsked() {
+		final var config = config();
+		config.setInstanceId("node1");
+		final var engine = new EvaluationEngine(null, null, null, evaluationGrid, config, null);
+		final var indexCell = evaluationGrid.getIndexCells().get(0);
+		final var own = indexCell.indexName("node1-1f");
+		final var foreign = indexCell.indexName("node2-1f");
+
+		assertThat(engine.getInstanceId()).isEqualTo("node1");
+		assertThat(engine.staleIndexNames(List.of(own, foreign), "node2")).containsExactly(foreign);
+		assertThatThrownBy(() -> engine.staleIndexNames(List.of(own), "Node-1"))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private String evaluate(
+			List<SquadParagraph> paragraphs,
+			int parallelism,
+			int maxActiveIndexes,
+			int embeddingWindow
+	) throws IOException {
+		final var config = config();
+		config.setParallelism(parallelism);
+		config.setMaxActiveIndexes(maxActiveIndexes);
+		config.setEmbeddingWindow(embeddingWindow);
+		config.setPipeline(PipelineType.CHAT_BOT_SERVICE);
+		config.setVectorStore(VectorStoreType.PINECONE);
+		final var checkpointConfig = new CheckpointConfig();
+		checkpointConfig.setDirectory(directory.toString());
+		final var executor = Executors.newFixedThreadPool(parallelism);
+		try (final var checkpoint = new CheckpointStore(checkpointConfig).open("parallelism-" + parallelism)) {
+			final var engine = new EvaluationEngine(
+					new FakeQaPipelineFactory(config),
+					new EmbeddingBatcher(config, new EmbeddingCacheConfig(), evaluationGrid, null, null),
+					new AnswerScorer(),
+					evaluationGrid,
+					config,
+					executor
+			);
+			final var scoreboard = new Scoreboard(evaluationGrid);
+			engine.evaluate(paragraphs, checkpoint, scoreboard);
+			return scoreboard.toCsv();
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static List<SquadParagraph> paragraphs() {
+		final var paragraphs = new ArrayList<SquadParagraph>();
+		for (var p = 0; p < 5; p++) {
+			final var qas = new ArrayList<SquadQa>();
+			for (var q = 0; q < 3; q++) {
+				final var answer = new SquadAnswer();
+				answer.setText("blue whale");
+				final var qa = new SquadQa();
+				qa.setQuestion("question " + p + "-" + q);
+				qa.setAnswers(List.of(answer));
+				qas.add(qa);
+			}
+			final var paragraph = new SquadParagraph();
+			paragraph.setContext("paragraph " + p);
+			paragraph.setQas(qas);
+			paragraphs.add(paragraph);
+		}
+		return paragraphs;
+	}
+
+	private static EvaluationConfig config() {
+		final var config = new EvaluationConfig();
+		config.setEmbeddingWindow(1);
+		config.setMaxActiveIndexes(1);
+		return config;
+	}
+
+	/**
+	 * Answers each question of each cell the same way whatever the order: right, half right (F1 0.5) or
+	 * wrong. F1 values are exact in binary, so the totals do not depend on the order they are summed in.
+	 */
+	private static class FakeQaPipelineFactory extends QaPipelineFactory {
+
+		FakeQaPipelineFactory(EvaluationConfig config) {
+			super(config, null, null, null, null, null, null, null, null, null);
+		}
+
+		@Override
+		public QaPipeline create(GridCell cell) {
+			return new QaPipeline() {
+				@Override
+				public CompletableFuture<Void> createIndex(String indexName, String context) {
+					return CompletableFuture.completedFuture(null);
+				}
+
+				@Override
+				public List<String> findKNearest(String indexName, String query, int k) {
+					return List.of();
+				}
+
+				@Override
+				public String query(String indexName, String question) {
+					switch (Math.floorMod(Objects.hash(CellKey.of(cell), question), 3)) {
+						case 0:
+							return "blue whale";
+						case 1:
+							return "blue shark";
+						default:
+							return "red fish";
+					}
+				}
+
+				@Override
+				public CompletableFuture<Void> deleteIndex(String indexName) {
+					return CompletableFuture.completedFuture(null);
+				}
+			};
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package com.example.demo.test.evaluation;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ResultStoreTests {
+
+	private final EvaluationGrid evaluationGrid = new EvaluationGrid();
+
+	@Test
+	void groupsByAnyDimension() {
+		final var results = new ResultStore();
+		final var cells = evaluationGrid.getGridCells();
+		for (var paragraphId = 1; paragraphId <= 3; paragraphId++) {
+			for (final var cell : cells) {
+				results.add(paragraphId, CellKey.of(cell), 1, 3, 1, 2);
+			}
+		}
+
+		final var total = results.groupBy(List.of());
+		assertThat(total).hasSize(1);
+		assertThat(total.get(0).getCells()).isEqualTo(3L * cells.size());
+		assertThat(total.get(0).getExactMatch()).isEqualTo(0.25);
+		assertThat(total.get(0).getF1()).isEqualTo(0.5);
+
+		final var byK = results.groupBy(List.of(GridDimension.K));
+		assertThat(byK).extracting(ResultGroup::getKey).containsExactly(
+				Map.of(GridDimension.K, "1"),
+				Map.of(GridDimension.K, "3"),
+				Map.of(GridDimension.K, "5")
+		);
+		assertThat(byK).allSatisfy(group -> assertThat(group.getWins()).isEqualTo(cells.size()));
+
+		final var byParagraphAndModel = results.groupBy(List.of(GridDimension.PARAGRAPH, GridDimension.EMBEDDING_MODEL));
+		assertThat(byParagraphAndModel.get(0).getKey()).containsEntry(GridDimension.PARAGRAPH, "1")
+				.containsKey(GridDimension.EMBEDDING_MODEL);
+		assertThat(byParagraphAndModel.stream().mapToLong(ResultGroup::getCells).sum())
+				.isEqualTo(3L * cells.size());
+	}
+
+	@Test
+	void exportRoundTrips() throws IOException {
+		final var results = new ResultStore();
+		final var cells = evaluationGrid.getGridCells();
+		for (var row = 0; row < 200; row++) {
+			results.add(row, CellKey.of(cells.get(row % cells.size())), row, 1, row % 2, row / 4.);
+		}
+
+		final var export = new ByteArrayOutputStream();
+		results.writeTo(export);
+		final var imported = ResultStore.readFrom(new ByteArrayInputStream(export.toByteArray()), 200);
+
+		assertThat(imported.size()).isEqualTo(200);
+		assertThat(imported.groupBy(List.of(GridDimension.PARAGRAPH, GridDimension.CHUNK_SIZE)))
+				.isEqualTo(results.groupBy(List.of(GridDimension.PARAGRAPH, GridDimension.CHUNK_SIZE)));
+	}
+
+	@Test
+	void rejectsRowCountsOutsideTheLimit() throws IOException {
+		final var results = new ResultStore();
+		results.add(1, CellKey.of(evaluationGrid.getGridCells().get(0)), 1, 0, 1, 1);
+		final var export = new ByteArrayOutputStream();
+		results.writeTo(export);
+
+		assertThatThrownBy(() -> ResultStore.readFrom(new ByteArrayInputStream(export.toByteArray()), 0))
+				.isInstanceOf(IOException.class);
+		assertThatThrownBy(() -> ResultStore.readFrom(new ByteArrayInputStream(header(Integer.MAX_VALUE)), 1_000))
+				.isInstanceOf(IOException.class);
+		assertThatThrownBy(() -> ResultStore.readFrom(new ByteArrayInputStream(header(-1)), 1_000))
+				.isInstanceOf(IOException.class);
+	}
+
+	private static byte[] header(int rows) throws IOException {
+		final var export = new ByteArrayOutputStream();
+		final var empty = new ResultStore();
+		empty.writeTo(export);
+		final var bytes = export.toByteArray();
+		final var header = new ByteArrayOutputStream();
+		final var out = new DataOutputStream(header);
+		out.write(bytes, 0, Integer.BYTES);
+		out.writeInt(rows);
+		return header.toByteArray();
+	}
+}
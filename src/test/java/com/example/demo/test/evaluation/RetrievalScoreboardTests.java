@@ -0,0 +1,39 @@
+package com.example.demo.test.evaluation;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RetrievalScoreboardTests {
+
+	private final EvaluationGrid evaluationGrid = new EvaluationGrid();
+
+	@Test
+	void scoresEveryKFromOneRanking() {
+		final var scoreboard = new RetrievalScoreboard(evaluationGrid);
+		final var cell = evaluationGrid.getIndexCells().get(0);
+
+		scoreboard.record(cell, new int[]{2, 0});
+		scoreboard.record(cell, new int[]{0});
+		scoreboard.record(cell, new int[0]);
+
+		assertThat(scoreboard.getQuestions(cell)).isEqualTo(2);
+		assertThat(scoreboard.hitRate(cell, 1)).isZero();
+		assertThat(scoreboard.hitRate(cell, 3)).isEqualTo(0.5);
+		assertThat(scoreboard.recall(cell, 5)).isEqualTo(0.25);
+		assertThat(scoreboard.meanReciprocalRank(cell)).isEqualTo(0.25);
+		assertThat(scoreboard.getQuestions(evaluationGrid.getIndexCells().get(1))).isZero();
+	}
+
+	@Test
+	void writesOneRowPerKForCellsWithQuestions() {
+		final var scoreboard = new RetrievalScoreboard(evaluationGrid);
+		final var cell = evaluationGrid.getIndexCells().get(0);
+
+		scoreboard.record(cell, new int[]{1});
+
+		final var rows = scoreboard.toCsv().split("\n");
+		assertThat(rows).hasSize(1 + evaluationGrid.getKValues().size());
+		assertThat(rows[1]).startsWith(cell.getEmbeddingModel() + "," + cell.getKnnAlgorithm() + ",");
+	}
+}
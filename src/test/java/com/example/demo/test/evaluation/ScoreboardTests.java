@@ -0,0 +1,98 @@
+package com.example.demo.test.evaluation;
+
+import com.example.demo.test.ParagraphScore;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ScoreboardTests {
+
+	private final EvaluationGrid evaluationGrid = new EvaluationGrid();
+
+	@Test
+	void cellKeysRoundTripForEveryGridCell() {
+		evaluationGrid.getGridCells().forEach(cell ->
+				assertThat(CellKey.toGridCell(CellKey.of(cell))).isEqualTo(cell)
+		);
+		assertThat(evaluationGrid.getGridCells().stream().map(CellKey::of).distinct().count())
+				.isEqualTo(evaluationGrid.getGridCells().size());
+	}
+
+	@Test
+	void countsQasPerCell() {
+		final var scoreboard = new Scoreboard(evaluationGrid);
+		final var cell = evaluationGrid.getGridCells().get(0);
+		final var otherCell = evaluationGrid.getGridCells().get(1);
+
+		scoreboard.qaFinished(cell, new AnswerScore(true, true, 1));
+		scoreboard.qaFinished(cell, new AnswerScore(true, false, 0.5));
+		scoreboard.qaFinished(cell, new AnswerScore(false, false, 0));
+		scoreboard.qaFinished(otherCell, new AnswerScore(false, false, 0));
+
+		assertThat(scoreboard.getWins(cell)).isEqualTo(2);
+		assertThat(scoreboard.getMisses(cell)).isEqualTo(1);
+		assertThat(scoreboard.getExactMatches(cell)).isEqualTo(1);
+		assertThat(scoreboard.getF1(cell)).isEqualTo(1.5);
+		assertThat(scoreboard.getWins(otherCell)).isZero();
+		assertThat(scoreboard.getMisses(otherCell)).isEqualTo(1);
+		assertThat(scoreboard.getCellTotals()).hasSize(2);
+	}
+
+	@Test
+	void keepsEveryCellInItsOwnSlot() {
+		final var scoreboard = new Scoreboard(evaluationGrid);
+		final var cells = evaluationGrid.getGridCells();
+		for (var i = 0; i < cells.size(); i++) {
+			for (var win = 0; win <= i; win++) {
+				scoreboard.qaFinished(cells.get(i), new AnswerScore(true, false, 0));
+			}
+		}
+
+		for (var i = 0; i < cells.size(); i++) {
+			assertThat(scoreboard.getWins(cells.get(i))).isEqualTo(i + 1);
+		}
+		assertThat(scoreboard.getCellTotals().get(0).getWins()).isEqualTo(1);
+	}
+
+	@Test
+	void addsFinishedScores() {
+		final var scoreboard = new Scoreboard(evaluationGrid);
+		final var cell = evaluationGrid.getGridCells().get(0);
+
+		scoreboard.add(ParagraphScore.builder()
+				.wins(3)
+				.misses(4)
+				.embeddingModel(cell.getEmbeddingModel())
+				.completionModel(cell.getCompletionModel())
+				.knnAlgorithm(cell.getKnnAlgorithm())
+				.chunkModel(cell.getChunkModel())
+				.chunkSize(cell.getChunkSize())
+				.chunkOverlap(cell.getChunkOverlap())
+				.k(cell.getK())
+				.build());
+
+		assertThat(scoreboard.getWins(cell)).isEqualTo(3);
+		assertThat(scoreboard.getMisses(cell)).isEqualTo(4);
+	}
+
+	@Test
+	void rejectsCellsOutsideTheGrid() {
+		final var scoreboard = new Scoreboard(evaluationGrid);
+		final var cell = evaluationGrid.getGridCells().get(0);
+
+		assertThatThrownBy(() -> scoreboard.qaFinished(
+				GridCell.builder()
+						.embeddingModel(cell.getEmbeddingModel())
+						.completionModel(cell.getCompletionModel())
+						.knnAlgorithm(cell.getKnnAlgorithm())
+						.chunkModel(cell.getChunkModel())
+						.chunkSize(cell.getChunkSize())
+						.chunkOverlap(cell.getChunkOverlap())
+						.k(99)
+						.build(),
+				new AnswerScore(true, true, 1)
+		)).isInstanceOf(IllegalArgumentException.class);
+	}
+
+}
@@ -0,0 +1,51 @@
+package com.example.demo.test.evaluation;
+
+import com.example.demo.test.dto.SquadParagraph;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SquadStreamReaderTests {
+
+	private final SquadStreamReader reader = new SquadStreamReader(
+			new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+	);
+
+	@Test
+	void readsEveryParagraphInOrder() {
+		final var json = "{\"version\":\"v2.0\",\"data\":[" +
+				"{\"title\":\"First\",\"paragraphs\":[" +
+				"{\"qas\":[{\"question\":\"Who?\",\"id\":\"1\",\"answers\":[{\"text\":\"Me\",\"answer_start\":0}],\"is_impossible\":false}],\"context\":\"Me.\"}," +
+				"{\"context\":\"You.\",\"qas\":[{\"question\":\"What?\",\"id\":\"2\",\"answers\":[],\"plausible_answers\":[],\"is_impossible\":true}]}" +
+				"]}," +
+				"{\"paragraphs\":[{\"qas\":[],\"context\":\"Them.\"}],\"title\":\"Second\"}" +
+				"]}";
+		final var paragraphs = new ArrayList<SquadParagraph>();
+
+		reader.read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), paragraphs::add);
+
+		assertThat(paragraphs).extracting(SquadParagraph::getContext)
+				.containsExactly("Me.", "You.", "Them.");
+		assertThat(paragraphs.get(0).getQas().get(0).getAnswers().get(0).getText()).isEqualTo("Me");
+		assertThat(paragraphs.get(1).getQas().get(0).getIs_impossible()).isTrue();
+	}
+
+	@Test
+	void rejectsMalformedDatasets() {
+		final var json = "[{\"data\":[]}]";
+
+		assertThatThrownBy(() -> reader.read(
+				new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)),
+				paragraph -> {
+				}
+		)).isInstanceOf(RuntimeException.class);
+	}
+
+}
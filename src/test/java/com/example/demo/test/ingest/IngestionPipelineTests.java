@@ -0,0 +1,105 @@
+package com.example.demo.test.ingest;
+
+import com.example.demo.test.embedding.EmbeddingService;
+import com.example.demo.test.evaluation.IndexCell;
+import com.example.demo.test.pipeline.Chunker;
+import com.example.demo.test.vector.LocalVectorStore;
+import com.thesis.qnabot.api.embedding.domain.enums.ChunkModel;
+import com.thesis.qnabot.api.embedding.domain.enums.EmbeddingModel;
+import com.thesis.qnabot.api.embedding.domain.enums.KnnAlgorithm;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IngestionPipelineTests {
+
+	private final IndexCell settings = IndexCell.builder()
+			.embeddingModel(EmbeddingModel.OPEN_AI)
+			.knnAlgorithm(KnnAlgorithm.COSINE)
+			.chunkModel(ChunkModel.SENTENCES)
+			.chunkSize(15)
+			.chunkOverlap(2)
+			.build();
+	private final LocalVectorStore vectorStore = new LocalVectorStore();
+	private final AtomicInteger embeddingCalls = new AtomicInteger();
+	private final ExecutorService executor = Executors.newCachedThreadPool();
+
+	@AfterEach
+	void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	void ingestsEveryChunkThroughSmallQueues() {
+		final var report = pipeline(new FakeEmbeddings(false)).run(documents -> {
+			for (var i = 0; i < 50; i++) {
+				documents.accept(new Document("doc" + i, "First of " + i + ". Second of " + i + ". Third of " + i + "."));
+			}
+		});
+
+		assertThat(report.getDocuments()).isEqualTo(50);
+		assertThat(report.getChunks()).isEqualTo(150);
+		assertThat(report.getVectorsUpserted()).isEqualTo(150);
+		assertThat(report.getChunksPerSecond()).isPositive();
+		assertThat(embeddingCalls.get()).isEqualTo(30);
+		assertThat(vectorStore.query("corpus", "", new float[]{1, 1}, 1_000)).hasSize(150);
+	}
+
+	@Test
+	void failingStageStopsTheReader() {
+		final var read = new AtomicInteger();
+
+		assertThatThrownBy(() -> pipeline(new FakeEmbeddings(true)).run(documents -> {
+			for (var i = 0; i < 10_000; i++) {
+				read.incrementAndGet();
+				documents.accept(new Document("doc" + i, "Only sentence."));
+			}
+		})).hasRootCauseMessage("provider down");
+		assertThat(read.get()).isLessThan(10_000);
+	}
+
+	private IngestionPipeline pipeline(EmbeddingService embeddingService) {
+		final var config = new IngestionConfig();
+		config.setQueueCapacity(1);
+		config.setEmbeddingWorkers(2);
+		config.setUpsertWorkers(2);
+		config.setOpenAiEmbeddingBatch(5);
+		config.setUpsertBatch(2);
+		return new IngestionPipeline("corpus", settings, true, new Chunker(), embeddingService, vectorStore, executor, config);
+	}
+
+	/**
+	 * Embeds "... of n." as the vector (n, position of the sentence).
+	 */
+	private class FakeEmbeddings extends EmbeddingService {
+
+		private final boolean failing;
+
+		FakeEmbeddings(boolean failing) {
+			super(null, null);
+			this.failing = failing;
+		}
+
+		@Override
+		public List<float[]> embed(EmbeddingModel embeddingModel, List<String> texts) {
+			embeddingCalls.incrementAndGet();
+			if (failing) {
+				throw new IllegalStateException("provider down");
+			}
+			return texts.stream()
+					.map(text -> new float[]{
+							Float.parseFloat(text.replaceAll("\\D", "")),
+							text.startsWith("First") ? 1 : text.startsWith("Second") ? 2 : 3
+					})
+					.collect(Collectors.toList());
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package com.example.demo.test.job;
+
+import com.example.demo.test.EvaluationConfig;
+import com.example.demo.test.checkpoint.CheckpointLog;
+import com.example.demo.test.dto.SquadParagraph;
+import com.example.demo.test.evaluation.EvaluationEngine;
+import com.example.demo.test.evaluation.EvaluationGrid;
+import com.example.demo.test.evaluation.EvaluationListener;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Reads the dataset, reports each paragraph finished and then holds the job running until it is released
+ * or cancelled.
+ */
+class BlockingEvaluationEngine extends EvaluationEngine {
+
+	private final CountDownLatch released = new CountDownLatch(1);
+
+	BlockingEvaluationEngine() {
+		super(null, null, null, new EvaluationGrid(), config(), null);
+	}
+
+	void release() {
+		released.countDown();
+	}
+
+	@Override
+	public void evaluate(
+			Consumer<Consumer<SquadParagraph>> paragraphs,
+			CheckpointLog checkpoint,
+			EvaluationListener listener,
+			BooleanSupplier cancelled
+	) {
+		final var paragraphId = new long[1];
+		paragraphs.accept(paragraph -> listener.paragraphFinished(++paragraphId[0], List.of()));
+		try {
+			while (!released.await(5, TimeUnit.MILLISECONDS)) {
+				if (cancelled.getAsBoolean()) {
+					throw new CancellationException();
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static EvaluationConfig config() {
+		final var config = new EvaluationConfig();
+		config.setEmbeddingWindow(1);
+		config.setMaxActiveIndexes(1);
+		return config;
+	}
+}
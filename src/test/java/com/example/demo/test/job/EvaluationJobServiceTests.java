@@ -0,0 +1,134 @@
+package com.example.demo.test.job;
+
+import com.example.demo.test.checkpoint.CheckpointConfig;
+import com.example.demo.test.checkpoint.CheckpointStore;
+import com.example.demo.test.evaluation.EvaluationGrid;
+import com.example.demo.test.evaluation.SquadStreamReader;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class EvaluationJobServiceTests {
+
+	static final String SQUAD = "{\"version\":\"v2.0\",\"data\":[{\"title\":\"Paris\",\"paragraphs\":[" +
+			"{\"context\":\"The Eiffel Tower is in Paris.\",\"qas\":[]}," +
+			"{\"context\":\"It is 330 metres tall.\",\"qas\":[]}" +
+			"]}]}";
+
+	@TempDir
+	Path directory;
+
+	private final BlockingEvaluationEngine engine = new BlockingEvaluationEngine();
+	private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor();
+	private EvaluationJobService service;
+
+	@BeforeEach
+	void setUp() {
+		service = service(engine, jobExecutor, directory, 2);
+	}
+
+	@AfterEach
+	void tearDown() {
+		service.cancelAll();
+		jobExecutor.shutdownNow();
+	}
+
+	@Test
+	void runsASubmittedJobAndDeletesItsUpload() throws IOException {
+		final var job = service.submit("first", upload());
+		engine.release();
+
+		awaitFinished(job);
+		assertThat(job.getState()).isEqualTo(JobState.SUCCEEDED);
+		assertThat(job.getStatus().getParagraphsTotal()).isEqualTo(2);
+		assertThat(job.getStatus().getParagraphsDone()).isEqualTo(2);
+		assertThat(service.get("first")).contains(job);
+		assertThat(Files.exists(directory.resolve("uploads").resolve("first.json"))).isFalse();
+	}
+
+	@Test
+	void refusesAJobIdThatIsStillActive() throws IOException {
+		service.submit("first", upload());
+
+		assertThatThrownBy(() -> service.submit("first", upload())).isInstanceOf(IllegalStateException.class);
+	}
+
+	@Test
+	void cancelsQueuedAndRunningJobs() throws IOException {
+		final var running = service.submit("running", upload());
+		final var queued = service.submit("queued", upload());
+
+		assertThat(service.cancel("queued")).contains(queued);
+		assertThat(queued.getState()).isEqualTo(JobState.CANCELLED);
+
+		service.cancel("running");
+		awaitFinished(running);
+		assertThat(running.getState()).isEqualTo(JobState.CANCELLED);
+		assertThat(service.cancel("unknown")).isEmpty();
+	}
+
+	@Test
+	void forgetsTheOldestFinishedJobs() throws IOException {
+		engine.release();
+		for (final var id : new String[]{"first", "second", "third"}) {
+			awaitFinished(service.submit(id, upload()));
+		}
+
+		await(() -> service.get("first").isEmpty());
+		assertThat(service.get("second")).isPresent();
+		assertThat(service.get("third")).isPresent();
+	}
+
+	static EvaluationJobService service(
+			BlockingEvaluationEngine engine,
+			ExecutorService jobExecutor,
+			Path directory,
+			int retainedFinished
+	) {
+		final var checkpointConfig = new CheckpointConfig();
+		checkpointConfig.setDirectory(directory.resolve("checkpoints").toString());
+		final var jobConfig = new JobConfig();
+		jobConfig.setUploadDirectory(directory.resolve("uploads").toString());
+		jobConfig.setRetainedFinished(retainedFinished);
+		return new EvaluationJobService(
+				engine,
+				new EvaluationGrid(),
+				new SquadStreamReader(new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)),
+				new CheckpointStore(checkpointConfig),
+				jobConfig,
+				jobExecutor
+		);
+	}
+
+	static void awaitFinished(EvaluationJob job) {
+		await(() -> job.getState().isFinished());
+	}
+
+	static void await(BooleanSupplier condition) {
+		final var deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+		while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+			Thread.onSpinWait();
+		}
+		assertThat(condition.getAsBoolean()).isTrue();
+	}
+
+	private static ByteArrayInputStream upload() {
+		return new ByteArrayInputStream(SQUAD.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,87 @@
+package com.example.demo.test.job;
+
+import com.example.demo.test.EvaluationConfig;
+import com.example.demo.test.evaluation.Datasets;
+import org.assertj.core.api.ThrowableAssert.ThrowingCallable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JobControllerTests {
+
+	@TempDir
+	Path directory;
+
+	private final BlockingEvaluationEngine engine = new BlockingEvaluationEngine();
+	private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor();
+	private EvaluationJobService service;
+	private JobController controller;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		Files.writeString(directory.resolve("squad.json"), EvaluationJobServiceTests.SQUAD);
+		final var evaluationConfig = new EvaluationConfig();
+		evaluationConfig.setDatasetDirectory(directory.toString());
+		service = EvaluationJobServiceTests.service(engine, jobExecutor, directory, 2);
+		controller = new JobController(service, new Datasets(evaluationConfig));
+	}
+
+	@AfterEach
+	void tearDown() {
+		service.cancelAll();
+		jobExecutor.shutdownNow();
+	}
+
+	@Test
+	void submitsADatasetAndReportsItsStatus() throws IOException {
+		final var response = controller.submit(null, "squad.json", "run-1");
+
+		assertThat(response.getStatusCode()).isEqualTo(HttpStatus.ACCEPTED);
+		assertThat(response.getHeaders().getLocation()).hasToString("/jobs/run-1");
+		assertThat(controller.jobs()).extracting(JobStatus::getId).containsExactly("run-1");
+
+		engine.release();
+		EvaluationJobServiceTests.awaitFinished(service.get("run-1").orElseThrow());
+		assertThat(controller.status("run-1").getState()).isEqualTo(JobState.SUCCEEDED);
+		assertThat(controller.results("run-1")).startsWith("Embedding Model,");
+	}
+
+	@Test
+	void cancelsAJob() throws IOException {
+		controller.submit(null, "squad.json", "run-1");
+
+		controller.cancel("run-1");
+
+		EvaluationJobServiceTests.awaitFinished(service.get("run-1").orElseThrow());
+		assertThat(controller.status("run-1").getState()).isEqualTo(JobState.CANCELLED);
+	}
+
+	@Test
+	void mapsBadRequestsToStatusCodes() throws IOException {
+		assertStatus(() -> controller.submit(null, "squad.json", "../run"), HttpStatus.BAD_REQUEST);
+		assertStatus(() -> controller.submit(null, null, "run-1"), HttpStatus.BAD_REQUEST);
+		assertStatus(() -> controller.submit(null, "missing.json", "run-1"), HttpStatus.BAD_REQUEST);
+		assertStatus(() -> controller.status("unknown"), HttpStatus.NOT_FOUND);
+		assertStatus(() -> controller.cancel("unknown"), HttpStatus.NOT_FOUND);
+
+		controller.submit(null, "squad.json", "run-1");
+		assertStatus(() -> controller.submit(null, "squad.json", "run-1"), HttpStatus.CONFLICT);
+	}
+
+	private static void assertStatus(ThrowingCallable call, HttpStatus status) {
+		assertThatThrownBy(call)
+				.isInstanceOfSatisfying(ResponseStatusException.class, e -> assertThat(e.getStatus()).isEqualTo(status));
+	}
+}
@@ -0,0 +1,39 @@
+package com.example.demo.test.profile;
+
+import com.thesis.qnabot.api.embedding.domain.enums.ChunkModel;
+import com.thesis.qnabot.api.embedding.domain.enums.CompletionModel;
+import com.thesis.qnabot.api.embedding.domain.enums.EmbeddingModel;
+import com.thesis.qnabot.api.embedding.domain.enums.KnnAlgorithm;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PipelineProfileTests {
+
+	@Test
+	void parsesADefinition() {
+		final var profile = PipelineProfile.parse(" default = OPEN_AI/OPEN_AI/COSINE/SENTENCES/15/2/3");
+
+		assertThat(profile.getName()).isEqualTo("default");
+		assertThat(profile.getCell().getEmbeddingModel()).isEqualTo(EmbeddingModel.OPEN_AI);
+		assertThat(profile.getCell().getCompletionModel()).isEqualTo(CompletionModel.OPEN_AI);
+		assertThat(profile.getCell().getKnnAlgorithm()).isEqualTo(KnnAlgorithm.COSINE);
+		assertThat(profile.getCell().getChunkModel()).isEqualTo(ChunkModel.SENTENCES);
+		assertThat(profile.getCell().getChunkSize()).isEqualTo(15);
+		assertThat(profile.getCell().getChunkOverlap()).isEqualTo(2);
+		assertThat(profile.getCell().getK()).isEqualTo(3);
+	}
+
+	@Test
+	void rejectsInvalidDefinitions() {
+		assertThatThrownBy(() -> PipelineProfile.parse("OPEN_AI/OPEN_AI/COSINE/SENTENCES/15/2/3"))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> PipelineProfile.parse("Default=OPEN_AI/OPEN_AI/COSINE/SENTENCES/15/2/3"))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> PipelineProfile.parse("default=OPEN_AI/OPEN_AI/COSINE/SENTENCES/15/2"))
+				.isInstanceOf(IllegalArgumentException.class);
+		assertThatThrownBy(() -> PipelineProfile.parse("default=OPEN_AI/UNKNOWN/COSINE/SENTENCES/15/2/3"))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+}
@@ -0,0 +1,153 @@
+package com.example.demo.test.ratelimit;
+
+import com.example.demo.test.http.EndpointClass;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ProviderLimiterTests {
+
+	private final AtomicLong clock = new AtomicLong(TimeUnit.SECONDS.toNanos(10));
+
+	@Test
+	void growsAdditivelyUpToTheMaximum() {
+		final var limiter = new ProviderLimiter(Provider.OPEN_AI, config(4), clock::get);
+		assertThat(limiter.getLimit()).isEqualTo(2);
+
+		for (var i = 0; i < 20; i++) {
+			limiter.acquire(0);
+			limiter.succeeded(TimeUnit.MILLISECONDS.toNanos(10));
+		}
+
+		assertThat(limiter.getLimit()).isEqualTo(4);
+		assertThat(limiter.getInFlight()).isZero();
+	}
+
+	@Test
+	void halvesOncePerRoundTripWhenThrottled() {
+		final var limiter = new ProviderLimiter(Provider.OPEN_AI, config(8), clock::get);
+		limiter.acquire(0);
+		limiter.acquire(0);
+		limiter.acquire(0);
+
+		limiter.throttled(0);
+		limiter.throttled(0);
+		assertThat(limiter.getLimit()).isEqualTo(2);
+
+		clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+		limiter.throttled(0);
+		assertThat(limiter.getLimit()).isEqualTo(1);
+		assertThat(limiter.getThrottledCount()).isEqualTo(3);
+		assertThat(limiter.getInFlight()).isZero();
+	}
+
+	@Test
+	void backsOffWhenLatencyClimbs() {
+		final var limiter = new ProviderLimiter(Provider.PINECONE, config(8), clock::get);
+		limiter.acquire(0);
+		limiter.succeeded(TimeUnit.MILLISECONDS.toNanos(10));
+		final var limit = limiter.getLimit();
+
+		clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+		limiter.acquire(0);
+		limiter.succeeded(TimeUnit.MILLISECONDS.toNanos(100));
+
+		assertThat(limiter.getLimit()).isEqualTo(limit * 0.9);
+	}
+
+	@Test
+	void slowCallClassesDoNotBackOffFastOnes() {
+		final var config = config(8);
+		final var budget = new ProviderBudget(Provider.OPEN_AI, config, clock.get());
+		final var embeddings = new ProviderLimiter(Provider.OPEN_AI, EndpointClass.EMBEDDING, budget, config, clock::get);
+		final var completions = new ProviderLimiter(Provider.OPEN_AI, EndpointClass.COMPLETION, budget, config, clock::get);
+		embeddings.acquire(0);
+		embeddings.succeeded(TimeUnit.MILLISECONDS.toNanos(10));
+		final var limit = embeddings.getLimit();
+
+		for (var i = 0; i < 5; i++) {
+			clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+			completions.acquire(0);
+			completions.succeeded(TimeUnit.SECONDS.toNanos(2));
+		}
+
+		assertThat(embeddings.getLimit()).isEqualTo(limit);
+		assertThat(completions.getLimit()).isGreaterThan(limit);
+	}
+
+	@Test
+	void sharesTheTokenBudgetBetweenCallClasses() {
+		final var config = config(8);
+		config.setOpenAiTokensPerMinute(600);
+		final var budget = new ProviderBudget(Provider.OPEN_AI, config, clock.get());
+
+		assertThat(budget.reserve(60, clock.get())).isZero();
+		assertThat(budget.reserve(60, clock.get())).isEqualTo(TimeUnit.SECONDS.toNanos(6));
+	}
+
+	@Test
+	void releasesTheSlotWhenTheCallThrowsAnError() {
+		final var limiter = new ProviderLimiter(Provider.OPEN_AI, config(2), System::nanoTime);
+
+		assertThatThrownBy(() -> limiter.call(0, () -> {
+			throw new AssertionError("boom");
+		})).isInstanceOf(AssertionError.class);
+
+		assertThat(limiter.getInFlight()).isZero();
+	}
+
+	@Test
+	void retriesThrottledCalls() {
+		final var limiter = new ProviderLimiter(Provider.NLP_CLOUD, config(2), System::nanoTime);
+		final var attempts = new AtomicInteger();
+
+		final var result = limiter.call(10, () -> {
+			if (attempts.incrementAndGet() == 1) {
+				throw throttled("0");
+			}
+			return "answer";
+		});
+
+		assertThat(result).isEqualTo("answer");
+		assertThat(attempts).hasValue(2);
+		assertThat(limiter.getThrottledCount()).isEqualTo(1);
+		assertThat(limiter.getInFlight()).isZero();
+	}
+
+	@Test
+	void readsRetryAfter() {
+		assertThat(ProviderLimiter.throttledRetryAfter(throttled("3"))).isEqualTo(TimeUnit.SECONDS.toNanos(3));
+		assertThat(ProviderLimiter.throttledRetryAfter(new RuntimeException(throttled(null))))
+				.isEqualTo(TimeUnit.SECONDS.toNanos(1));
+		assertThat(ProviderLimiter.throttledRetryAfter(
+				HttpClientErrorException.create(HttpStatus.BAD_REQUEST, "Bad Request", new HttpHeaders(), null, null)
+		)).isEqualTo(-1);
+	}
+
+	private static HttpClientErrorException throttled(String retryAfter) {
+		final var headers = new HttpHeaders();
+		if (retryAfter != null) {
+			headers.add("Retry-After", retryAfter);
+		}
+		return HttpClientErrorException.create(HttpStatus.TOO_MANY_REQUESTS, "Too Many Requests", headers, null, null);
+	}
+
+	private static RateLimitConfig config(int maxConcurrency) {
+		final var config = new RateLimitConfig();
+		config.setEnabled(true);
+		config.setMaxThrottledRetries(3);
+		config.setLatencyTolerance(4);
+		config.setOpenAiMaxConcurrency(maxConcurrency);
+		config.setNlpCloudMaxConcurrency(maxConcurrency);
+		config.setPineconeMaxConcurrency(maxConcurrency);
+		return config;
+	}
+}
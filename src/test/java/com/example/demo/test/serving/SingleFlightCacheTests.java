@@ -0,0 +1,130 @@
+package com.example.demo.test.serving;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightCacheTests {
+
+	private final AtomicLong clock = new AtomicLong();
+
+	@Test
+	void concurrentCallersShareOneLoad() throws Exception {
+		final var cache = new SingleFlightCache<String, String>(TimeUnit.SECONDS.toNanos(30), 100, System::nanoTime);
+		final var loads = new AtomicInteger();
+		final var release = new CountDownLatch(1);
+		final var executor = Executors.newFixedThreadPool(8);
+		try {
+			final var results = new ArrayList<CompletableFuture<String>>();
+			for (var i = 0; i < 8; i++) {
+				results.add(CompletableFuture.supplyAsync(() -> cache.get("query", () -> {
+					loads.incrementAndGet();
+					await(release);
+					return "answer";
+				}), executor));
+			}
+			while (cache.getMisses() + cache.getCoalesced() < 8) {
+				Thread.sleep(1);
+			}
+			release.countDown();
+
+			for (final var result : results) {
+				assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("answer");
+			}
+			assertThat(loads).hasValue(1);
+			assertThat(cache.getCoalesced()).isEqualTo(7);
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	void reusesResultsUntilTheyExpire() {
+		final var cache = new SingleFlightCache<String, Integer>(100, 100, clock::get);
+		final var loads = new AtomicInteger();
+
+		assertThat(cache.get("query", loads::incrementAndGet)).isEqualTo(1);
+		clock.addAndGet(99);
+		assertThat(cache.get("query", loads::incrementAndGet)).isEqualTo(1);
+		clock.addAndGet(1);
+		assertThat(cache.get("query", loads::incrementAndGet)).isEqualTo(2);
+		assertThat(cache.getHits()).isEqualTo(1);
+		assertThat(cache.getMisses()).isEqualTo(2);
+	}
+
+	@Test
+	void doesNotCacheFailures() {
+		final var cache = new SingleFlightCache<String, String>(100, 100, clock::get);
+
+		assertThatThrownBy(() -> cache.get("query", () -> {
+			throw new IllegalStateException("upstream down");
+		})).isInstanceOf(IllegalStateException.class);
+
+		assertThat(cache.get("query", () -> "answer")).isEqualTo("answer");
+		assertThat(cache.getSize()).isEqualTo(1);
+	}
+
+	@Test
+	void releasesTheKeyWhenTheLoaderThrowsAnError() {
+		final var cache = new SingleFlightCache<String, String>(100, 100, clock::get);
+
+		assertThatThrownBy(() -> cache.get("query", () -> {
+			throw new AssertionError("loader broke");
+		})).isInstanceOf(AssertionError.class);
+
+		assertThat(cache.get("query", () -> "answer")).isEqualTo("answer");
+	}
+
+	@Test
+	void doesNotCacheLoadsStartedBeforeClear() throws Exception {
+		final var cache = new SingleFlightCache<String, String>(100, 100, clock::get);
+		final var started = new CountDownLatch(1);
+		final var release = new CountDownLatch(1);
+		final var stale = CompletableFuture.supplyAsync(() -> cache.get("query", () -> {
+			started.countDown();
+			await(release);
+			return "stale";
+		}));
+		await(started);
+
+		cache.clear();
+		assertThat(cache.get("query", () -> "fresh")).isEqualTo("fresh");
+		release.countDown();
+
+		assertThat(stale.get(5, TimeUnit.SECONDS)).isEqualTo("stale");
+		assertThat(cache.get("query", () -> "reloaded")).isEqualTo("fresh");
+	}
+
+	@Test
+	void keepsAtMostMaxEntries() {
+		final var cache = new SingleFlightCache<Integer, Integer>(100, 2, clock::get);
+
+		for (var i = 0; i < 5; i++) {
+			final var value = i;
+			assertThat(cache.get(i, () -> value)).isEqualTo(i);
+		}
+		assertThat(cache.getSize()).isEqualTo(2);
+
+		clock.addAndGet(100);
+		cache.get(5, () -> 5);
+		assertThat(cache.getSize()).isEqualTo(1);
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		}
+	}
+}
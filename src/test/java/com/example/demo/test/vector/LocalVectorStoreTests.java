@@ -0,0 +1,100 @@
+package com.example.demo.test.vector;
+
+import com.thesis.qnabot.api.embedding.domain.enums.KnnAlgorithm;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocalVectorStoreTests {
+
+	private final LocalVectorStore store = new LocalVectorStore();
+
+	private final List<String> chunks = List.of("east", "north", "far east", "north east");
+	private final List<float[]> vectors = List.of(
+			new float[]{1, 0},
+			new float[]{0, 1},
+			new float[]{10, 0},
+			new float[]{1, 1}
+	);
+
+	@Test
+	void rejectsMoreVectorsThanOneArrayHolds() {
+		final var index = new LocalVectorStore.LocalIndex(1_000_000, KnnAlgorithm.COSINE);
+		final var vector = new float[1_000_000];
+		vector[0] = 1;
+
+		index.upsert(List.of("first"), List.of(vector));
+
+		assertThatThrownBy(() -> index.upsert(Collections.nCopies(3_000, "chunk"), Collections.nCopies(3_000, vector)))
+				.isInstanceOf(IllegalArgumentException.class)
+				.hasMessageContaining("at most 2147");
+		assertThat(index.query(vector, 5)).containsExactly("first");
+	}
+
+	@Test
+	void cosineIgnoresVectorLength() {
+		store.createIndex("cosine", 2, KnnAlgorithm.COSINE);
+		store.upsert("cosine", "paragraph", chunks, vectors);
+
+		assertThat(store.query("cosine", "paragraph", new float[]{2, 0}, 3))
+				.containsExactly("east", "far east", "north east");
+	}
+
+	@Test
+	void dotProductFavoursLongVectors() {
+		store.createIndex("dot", 2, KnnAlgorithm.DOT_PRODUCT);
+		store.upsert("dot", "paragraph", chunks, vectors);
+
+		assertThat(store.query("dot", "paragraph", new float[]{1, 0}, 2))
+				.containsExactly("far east", "east");
+	}
+
+	@Test
+	void euclideanReturnsClosestPoints() {
+		store.createIndex("euclidean", 2, KnnAlgorithm.EUCLIDEAN);
+		store.upsert("euclidean", "paragraph", chunks, vectors);
+
+		assertThat(store.query("euclidean", "paragraph", new float[]{0.9f, 0.9f}, 2))
+				.containsExactly("north east", "east");
+	}
+
+	@Test
+	void topKIsBoundedByIndexSizeAndGrowsWithUpserts() {
+		store.createIndex("growing", 2, KnnAlgorithm.COSINE);
+		store.upsert("growing", "paragraph", chunks.subList(0, 1), vectors.subList(0, 1));
+
+		assertThat(store.query("growing", "paragraph", new float[]{0, 1}, 5)).containsExactly("east");
+
+		store.upsert("growing", "paragraph", chunks.subList(1, 4), vectors.subList(1, 4));
+
+		assertThat(store.query("growing", "paragraph", new float[]{0, 1}, 5)).hasSize(4).startsWith("north");
+	}
+
+	@Test
+	void deletedIndexesCannotBeQueried() {
+		store.createIndex("deleted", 2, KnnAlgorithm.COSINE);
+		store.deleteIndex("deleted");
+
+		assertThatThrownBy(() -> store.query("deleted", "paragraph", new float[]{1, 0}, 1))
+				.isInstanceOf(IllegalArgumentException.class);
+	}
+
+	@Test
+	void namespacesAreIsolatedAndClearedIndependently() {
+		store.createIndex("pooled", 2, KnnAlgorithm.COSINE);
+		store.upsert("pooled", "first", chunks.subList(0, 2), vectors.subList(0, 2));
+		store.upsert("pooled", "second", chunks.subList(2, 4), vectors.subList(2, 4));
+
+		assertThat(store.query("pooled", "first", new float[]{1, 0}, 5)).containsExactly("east", "north");
+
+		store.deleteNamespace("pooled", "first");
+
+		assertThat(store.query("pooled", "first", new float[]{1, 0}, 5)).isEmpty();
+		assertThat(store.query("pooled", "second", new float[]{1, 0}, 5)).containsExactly("far east", "north east");
+	}
+
+}